@@ -0,0 +1,51 @@
+package com.gef.minhasFinancas.api.resource;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gef.minhasFinancas.api.dto.LancamentoDTO;
+import com.gef.minhasFinancas.benchmark.BaseDados;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+// No mesmo pacote do resource para acessar o converter, que não é público.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversaoLancamentoBenchmark {
+	
+	private LancamentoResource resource;
+	
+	@Setup
+	public void iniciar(BaseDados dados) {
+		resource = dados.bean(LancamentoResource.class);
+	}
+	
+	@Benchmark
+	public Lancamento converter(BaseDados dados) {
+		LancamentoDTO dto = LancamentoDTO.builder()
+				                         .descricao("Lançamento benchmark")
+				                         .ano(dados.anoAleatorio())
+				                         .mes(1)
+				                         .valor(Dinheiro.reais(10))
+				                         .usuario(dados.usuarioAleatorio())
+				                         .tipo("RECEITA")
+				                         .status("PENDENTE")
+				                         .build();
+		return resource.converter(dto);
+	}
+
+}
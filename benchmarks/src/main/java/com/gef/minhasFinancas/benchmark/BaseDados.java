@@ -0,0 +1,143 @@
+package com.gef.minhasFinancas.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.gef.minhasFinancas.MinhasFinancasApplication;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.service.seguranca.VerificadorSenha;
+
+// Contexto da aplicação sobre um H2 em memória, populado uma vez por rodada (trial).
+// Para massas grandes (milhões de lançamentos) aumente o heap: -jvmArgsAppend -Xmx8g
+@State(Scope.Benchmark)
+public class BaseDados {
+
+	public static final String SENHA = "senha";
+	public static final int ANO_INICIAL = 2015;
+	public static final int QUANTIDADE_ANOS = 10;
+
+	private static final int LOTE = 10_000;
+
+	@Param({"100"})
+	public int usuarios;
+
+	@Param({"1000", "100000"})
+	public int lancamentos;
+
+	private ConfigurableApplicationContext contexto;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		iniciar(WebApplicationType.NONE);
+	}
+
+	// Com WebApplicationType.SERVLET sobe também o Tomcat, numa porta livre (ver porta()).
+	public void iniciar(WebApplicationType tipo, String... propriedades) {
+		contexto = new SpringApplicationBuilder(MinhasFinancasApplication.class)
+				.web(tipo)
+				.profiles("test")
+				.properties("spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+						    "minhasfinancas.r2dbc.url=r2dbc:h2:mem:///benchmark",
+						    "spring.main.banner-mode=off",
+						    "logging.level.root=WARN",
+						    "server.port=0")
+				.properties(propriedades)
+				.run();
+		popular(contexto.getBean(JdbcTemplate.class), contexto.getBean(VerificadorSenha.class).codificar(SENHA).join());
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+
+	public int porta() {
+		return Integer.parseInt(contexto.getEnvironment().getProperty("local.server.port"));
+	}
+
+	public <T> T bean(Class<T> tipo) {
+		return contexto.getBean(tipo);
+	}
+
+	public long usuarioAleatorio() {
+		return ThreadLocalRandom.current().nextInt(usuarios) + 1;
+	}
+
+	public String emailAleatorio() {
+		return email(usuarioAleatorio());
+	}
+
+	public int anoAleatorio() {
+		return ANO_INICIAL + ThreadLocalRandom.current().nextInt(QUANTIDADE_ANOS);
+	}
+
+	private static String email(long usuario) {
+		return "usuario" + usuario + "@email.com";
+	}
+
+	// Inserção em lotes via JDBC; a massa é determinística para que as rodadas sejam comparáveis.
+	// Todos os usuários têm o mesmo hash de SENHA, gerado com o custo configurado.
+	private void popular(JdbcTemplate jdbc, String hash) {
+		List<Object[]> linhas = new ArrayList<>(LOTE);
+
+		for (long usuario = 1; usuario <= usuarios; usuario++) {
+			linhas.add(new Object[] { usuario, "Usuário " + usuario, email(usuario), hash });
+			descarregar(jdbc, linhas, "insert into financas.usuario (id, nome, email, senha) values (?, ?, ?, ?)", false);
+		}
+		descarregar(jdbc, linhas, "insert into financas.usuario (id, nome, email, senha) values (?, ?, ?, ?)", true);
+
+		Random aleatorio = new Random(42);
+		TipoLancamento[] tipos = TipoLancamento.values();
+		StatusLancamento[] status = StatusLancamento.values();
+		String insert = "insert into financas.lancamento (descricao, mes, ano, valor, tipo, status, id_usuario)"
+		                + " values (?, ?, ?, ?, ?, ?, ?)";
+
+		for (int i = 0; i < lancamentos; i++) {
+			linhas.add(new Object[] {
+					"Lançamento " + i,
+					aleatorio.nextInt(12) + 1,
+					ANO_INICIAL + aleatorio.nextInt(QUANTIDADE_ANOS),
+					BigDecimal.valueOf(aleatorio.nextInt(1_000_000) + 1, 2),
+					tipos[aleatorio.nextInt(tipos.length)].name(),
+					status[aleatorio.nextInt(status.length)].name(),
+					(long) (i % usuarios) + 1 });
+			descarregar(jdbc, linhas, insert, false);
+		}
+		descarregar(jdbc, linhas, insert, true);
+
+		// Saldos materializados coerentes com a massa gerada
+		jdbc.update("insert into financas.saldo_usuario (id_usuario, tipo, status, ano, mes, valor, quantidade)"
+				    + " select id_usuario, tipo, status, ano, mes, sum(valor), count(*)"
+				    + " from financas.lancamento group by id_usuario, tipo, status, ano, mes");
+		jdbc.update("insert into financas.saldo_diario (id_usuario, data, valor, quantidade, acumulado)"
+				    + " select id_usuario, data, valor, quantidade, sum(valor) over (partition by id_usuario order by data)"
+				    + " from (select id_usuario, data_cadastro as data, sum(case when tipo = 'RECEITA' then valor else -valor end) as valor,"
+				    + "       count(*) as quantidade from financas.lancamento group by id_usuario, data_cadastro) dias");
+		jdbc.execute("alter table financas.usuario alter column id restart with " + (usuarios + 1));
+		jdbc.execute("analyze");
+	}
+
+	private static void descarregar(JdbcTemplate jdbc, List<Object[]> linhas, String sql, boolean forcar) {
+		if (linhas.isEmpty() || (!forcar && linhas.size() < LOTE)) {
+			return;
+		}
+		jdbc.batchUpdate(sql, linhas);
+		linhas.clear();
+	}
+
+}
@@ -0,0 +1,184 @@
+package com.gef.minhasFinancas.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.boot.WebApplicationType;
+
+import com.gef.minhasFinancas.service.execucao.ThreadsVirtuais;
+
+// Teste de carga HTTP de /api/lancamentos e /api/usuarios/{id}/saldo com N clientes simultâneos, para
+// comparar o Tomcat com threads de plataforma e com threads virtuais (minhasfinancas.execucao.threads-virtuais).
+// Cada modo roda numa JVM própria, sobre a mesma massa do BaseDados:
+//   java -cp benchmarks/target/benchmarks.jar com.gef.minhasFinancas.benchmark.CargaHttp modo=plataforma clientes=1000,10000
+//   java -cp benchmarks/target/benchmarks.jar com.gef.minhasFinancas.benchmark.CargaHttp modo=virtual clientes=1000,10000
+// Os clientes rodam na mesma JVM do servidor (em threads virtuais quando a JVM oferece), então os
+// números servem para comparar os dois modos entre si, não como capacidade absoluta do servidor.
+// Cada cliente ocupa um socket em cada ponta; quando o limite de arquivos abertos por processo não
+// comporta as duas, servidor e clientes rodam em JVMs separadas, com a mesma massa (usuarios):
+//   java -cp benchmarks/target/benchmarks.jar com.gef.minhasFinancas.benchmark.CargaHttp papel=servidor porta=8080 clientes=10000
+//   java -cp benchmarks/target/benchmarks.jar com.gef.minhasFinancas.benchmark.CargaHttp alvo=http://localhost:8080 clientes=10000
+public class CargaHttp {
+
+	private static final int LATENCIA_MAXIMA_MS = 60_000;
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opcoes = opcoes(args);
+		boolean virtual = "virtual".equals(opcoes.getOrDefault("modo", "plataforma"));
+		int[] clientes = Arrays.stream(opcoes.getOrDefault("clientes", "1000,10000").split(","))
+				               .mapToInt(Integer::parseInt)
+				               .toArray();
+		int segundos = Integer.parseInt(opcoes.getOrDefault("segundos", "20"));
+		int aquecimento = Integer.parseInt(opcoes.getOrDefault("aquecimento", "5"));
+
+		if (virtual && !ThreadsVirtuais.suportadas()) {
+			System.err.println("modo=virtual exige Java 21 ou superior");
+			System.exit(1);
+		}
+
+		// Uma conexão keep-alive por cliente; o padrão do HttpURLConnection guarda só 5
+		int maximoClientes = Arrays.stream(clientes).max().getAsInt();
+		System.setProperty("http.maxConnections", String.valueOf(maximoClientes));
+
+		BaseDados dados = new BaseDados();
+		dados.usuarios = Integer.parseInt(opcoes.getOrDefault("usuarios", "100"));
+		dados.lancamentos = Integer.parseInt(opcoes.getOrDefault("lancamentos", "100000"));
+		String alvo = opcoes.get("alvo");
+		if (alvo == null) {
+			dados.iniciar(WebApplicationType.SERVLET,
+					      "minhasfinancas.execucao.threads-virtuais=" + virtual,
+					      "server.tomcat.max-connections=" + (maximoClientes * 2),
+					      "server.tomcat.accept-count=" + maximoClientes,
+					      "server.port=" + opcoes.getOrDefault("porta", "0"));
+		}
+
+		if ("servidor".equals(opcoes.get("papel"))) {
+			System.out.println("servidor " + (virtual ? "virtual" : "plataforma") + " na porta " + dados.porta());
+			Runtime.getRuntime().addShutdownHook(new Thread(dados::encerrar));
+			Thread.currentThread().join();
+		}
+
+		try {
+			String base = alvo != null ? alvo : "http://localhost:" + dados.porta();
+			Map<String, Supplier<String>> endpoints = new HashMap<>();
+			endpoints.put("/api/lancamentos",
+					      () -> "/api/lancamentos?usuario=" + dados.usuarioAleatorio() + "&ano=" + dados.anoAleatorio());
+			endpoints.put("/api/usuarios/{id}/saldo", () -> "/api/usuarios/" + dados.usuarioAleatorio() + "/saldo");
+
+			System.out.println("modo;clientes;endpoint;requisicoes/s;p50 ms;p99 ms;erros");
+			for (int quantidade : clientes) {
+				for (Map.Entry<String, Supplier<String>> endpoint : endpoints.entrySet()) {
+					rodada(base, endpoint.getValue(), quantidade, aquecimento);
+					Rodada rodada = rodada(base, endpoint.getValue(), quantidade, segundos);
+					System.out.printf("%s;%d;%s;%.1f;%d;%d;%d%n", virtual ? "virtual" : "plataforma", quantidade,
+							          endpoint.getKey(), rodada.porSegundo(), rodada.percentil(0.5),
+							          rodada.percentil(0.99), rodada.erros.sum());
+				}
+			}
+		} finally {
+			if (alvo == null) {
+				dados.encerrar();
+			}
+		}
+	}
+
+	private static Rodada rodada(String base, Supplier<String> caminho, int clientes, int segundos) throws InterruptedException {
+		Rodada rodada = new Rodada();
+		long inicioRodada = System.nanoTime();
+		long fim = inicioRodada + TimeUnit.SECONDS.toNanos(segundos);
+		ExecutorService executor = ThreadsVirtuais.executorPorTarefa("cliente-")
+				                                  .orElseGet(() -> Executors.newFixedThreadPool(clientes));
+
+		for (int i = 0; i < clientes; i++) {
+			executor.execute(() -> {
+				while (System.nanoTime() < fim) {
+					long inicio = System.nanoTime();
+					boolean sucesso = requisitar(base + caminho.get());
+					rodada.registrar(sucesso, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+				}
+			});
+		}
+
+		executor.shutdown();
+		executor.awaitTermination(segundos + 120L, TimeUnit.SECONDS);
+		rodada.duracaoNanos = System.nanoTime() - inicioRodada;
+		return rodada;
+	}
+
+	private static boolean requisitar(String url) {
+		try {
+			HttpURLConnection conexao = (HttpURLConnection) new URL(url).openConnection();
+			conexao.setConnectTimeout(30_000);
+			conexao.setReadTimeout(LATENCIA_MAXIMA_MS);
+			int status = conexao.getResponseCode();
+
+			// O corpo é lido até o fim para a conexão voltar ao keep-alive
+			try (InputStream corpo = status < 400 ? conexao.getInputStream() : conexao.getErrorStream()) {
+				byte[] buffer = new byte[8192];
+				while (corpo != null && corpo.read(buffer) != -1) {
+				}
+			}
+			return status == 200;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static Map<String, String> opcoes(String[] args) {
+		Map<String, String> opcoes = new HashMap<>();
+		for (String arg : args) {
+			String[] partes = arg.split("=", 2);
+			opcoes.put(partes[0], partes.length > 1 ? partes[1] : "");
+		}
+		return opcoes;
+	}
+
+	// Vazão e histograma de latência (1 ms por faixa) das requisições bem-sucedidas.
+	private static class Rodada {
+
+		final AtomicLongArray latencias = new AtomicLongArray(LATENCIA_MAXIMA_MS + 1);
+		final LongAdder sucessos = new LongAdder();
+		final LongAdder erros = new LongAdder();
+		long duracaoNanos;
+
+		void registrar(boolean sucesso, long milissegundos) {
+			if (!sucesso) {
+				erros.increment();
+				return;
+			}
+			sucessos.increment();
+			latencias.incrementAndGet((int) Math.min(milissegundos, LATENCIA_MAXIMA_MS));
+		}
+
+		// Pelo tempo até a última resposta: com latências acima da janela, as requisições iniciadas
+		// no fim dela terminam bem depois e dividir só pela janela inflaria a vazão.
+		double porSegundo() {
+			return sucessos.sum() / (duracaoNanos / 1e9);
+		}
+
+		long percentil(double fracao) {
+			long alvo = (long) Math.ceil(sucessos.sum() * fracao);
+			long acumulado = 0;
+			for (int ms = 0; ms < latencias.length(); ms++) {
+				acumulado += latencias.get(ms);
+				if (acumulado >= alvo && acumulado > 0) {
+					return ms;
+				}
+			}
+			return 0;
+		}
+
+	}
+
+}
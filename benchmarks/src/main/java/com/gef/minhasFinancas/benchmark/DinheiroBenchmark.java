@@ -0,0 +1,91 @@
+package com.gef.minhasFinancas.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+// Consolidação de receitas e despesas (como SaldoDTO e FluxoCaixaDTO) com BigDecimal x Dinheiro.
+// Sem banco; a alocação por operação aparece com o profiler de GC:
+//   java -jar benchmarks/target/benchmarks.jar DinheiroBenchmark -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DinheiroBenchmark {
+
+	@Param({"1000", "100000"})
+	public int valores;
+
+	private BigDecimal[] decimais;
+	private Dinheiro[] dinheiros;
+	private boolean[] receitas;
+
+	@Setup
+	public void preparar() {
+		Random aleatorio = new Random(42);
+		decimais = new BigDecimal[valores];
+		dinheiros = new Dinheiro[valores];
+		receitas = new boolean[valores];
+
+		for (int i = 0; i < valores; i++) {
+			decimais[i] = BigDecimal.valueOf(aleatorio.nextInt(1_000_000) + 1, 2);
+			dinheiros[i] = Dinheiro.de(decimais[i]);
+			receitas[i] = aleatorio.nextBoolean();
+		}
+	}
+
+	@Benchmark
+	public BigDecimal saldoBigDecimal() {
+		BigDecimal receita = BigDecimal.ZERO;
+		BigDecimal despesa = BigDecimal.ZERO;
+		for (int i = 0; i < valores; i++) {
+			if (receitas[i]) {
+				receita = receita.add(decimais[i]);
+			} else {
+				despesa = despesa.add(decimais[i]);
+			}
+		}
+		return receita.subtract(despesa);
+	}
+
+	@Benchmark
+	public Dinheiro saldoDinheiro() {
+		Dinheiro receita = Dinheiro.ZERO;
+		Dinheiro despesa = Dinheiro.ZERO;
+		for (int i = 0; i < valores; i++) {
+			if (receitas[i]) {
+				receita = receita.somar(dinheiros[i]);
+			} else {
+				despesa = despesa.somar(dinheiros[i]);
+			}
+		}
+		return receita.subtrair(despesa);
+	}
+
+	// Custo da fronteira com o banco: o DinheiroConverter faz isto a cada linha lida.
+	@Benchmark
+	public long converterDoBanco() {
+		long total = 0;
+		for (int i = 0; i < valores; i++) {
+			total += Dinheiro.de(decimais[i]).getCentavos();
+		}
+		return total;
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.gef.minhasFinancas.benchmark;
+
+import java.io.File;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Ponto de entrada do benchmarks.jar: aceita as opções do JMH e, se nenhum formato for
+// informado, grava o resultado em JSON para comparar versões (target/jmh/resultado.json).
+public class ExecutarBenchmarks {
+
+	static final String RESULTADO_PADRAO = "target/jmh/resultado.json";
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions linhaDeComando = new CommandLineOptions(args);
+		ChainedOptionsBuilder opcoes = new OptionsBuilder().parent(linhaDeComando);
+
+		if (!linhaDeComando.getResultFormat().hasValue() && !linhaDeComando.getResult().hasValue()) {
+			new File(RESULTADO_PADRAO).getParentFile().mkdirs();
+			opcoes.resultFormat(ResultFormatType.JSON).result(RESULTADO_PADRAO);
+		}
+
+		new Runner(opcoes.build()).run();
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.gef.minhasFinancas.benchmark;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gef.minhasFinancas.api.dto.FluxoCaixaDTO;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+import com.gef.minhasFinancas.service.LancamentoService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LancamentoServiceBenchmark {
+	
+	private LancamentoService service;
+	private TransactionTemplate transacao;
+	
+	@Setup
+	public void iniciar(BaseDados dados) {
+		service = dados.bean(LancamentoService.class);
+		transacao = new TransactionTemplate(dados.bean(PlatformTransactionManager.class));
+	}
+	
+	@Benchmark
+	public List<Lancamento> buscar(BaseDados dados) {
+		Lancamento filtro = Lancamento.builder()
+				                      .usuario(Usuario.builder().id(dados.usuarioAleatorio()).build())
+				                      .ano(dados.anoAleatorio())
+				                      .build();
+		return service.buscar(filtro);
+	}
+	
+	@Benchmark
+	public Dinheiro obterSaldoPorUsuario(BaseDados dados) {
+		return service.ObterSaldoPorUsuario(dados.usuarioAleatorio());
+	}
+	
+	// Fluxo do ano pelo saldo materializado (uma consulta agregada no banco)
+	@Benchmark
+	public FluxoCaixaDTO obterFluxoDeCaixa(BaseDados dados) {
+		int ano = dados.anoAleatorio();
+		return service.obterFluxoDeCaixa(dados.usuarioAleatorio(), YearMonth.of(ano, 1), YearMonth.of(ano, 12));
+	}
+	
+	// Mesmo fluxo, só das despesas, pelas colunas em memória (montadas na primeira consulta de cada usuário)
+	@Benchmark
+	public FluxoCaixaDTO analisar(BaseDados dados) {
+		int ano = dados.anoAleatorio();
+		return service.analisar(dados.usuarioAleatorio(), YearMonth.of(ano, 1), YearMonth.of(ano, 12),
+				                TipoLancamento.DESPESA, null);
+	}
+	
+	// Desfeito ao final para que a massa não cresça durante a medição
+	@Benchmark
+	public Lancamento salva(BaseDados dados) {
+		return transacao.execute(status -> {
+			status.setRollbackOnly();
+			Lancamento lancamento = Lancamento.builder()
+					                          .descricao("Lançamento benchmark")
+					                          .ano(dados.anoAleatorio())
+					                          .mes(1)
+					                          .valor(Dinheiro.reais(10))
+					                          .tipo(TipoLancamento.DESPESA)
+					                          .usuario(Usuario.builder().id(dados.usuarioAleatorio()).build())
+					                          .build();
+			return service.salva(lancamento);
+		});
+	}
+
+}
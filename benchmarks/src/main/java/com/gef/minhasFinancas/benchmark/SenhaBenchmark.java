@@ -0,0 +1,47 @@
+package com.gef.minhasFinancas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+// Dimensionamento de minhasfinancas.senha.custo: tempo de uma verificação BCrypt por custo, sem banco.
+// Com N núcleos o login sustenta cerca de N / tempo verificações por segundo; escolha o maior custo
+// cujo p99 (mais a espera na fila do VerificadorSenha no pico) ainda cabe no orçamento do login:
+//   java -jar benchmarks/target/benchmarks.jar SenhaBenchmark -t 4
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SenhaBenchmark {
+
+	private static final String SENHA = "senha-do-benchmark";
+
+	@Param({"8", "10", "12"})
+	public int custo;
+
+	private String hash;
+
+	@Setup
+	public void preparar() {
+		hash = BCrypt.hashpw(SENHA, BCrypt.gensalt(custo));
+	}
+
+	@Benchmark
+	public boolean conferir() {
+		return BCrypt.checkpw(SENHA, hash);
+	}
+
+}
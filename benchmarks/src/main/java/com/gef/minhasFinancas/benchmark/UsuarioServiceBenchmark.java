@@ -0,0 +1,39 @@
+package com.gef.minhasFinancas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.service.UsuarioService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsuarioServiceBenchmark {
+	
+	private UsuarioService service;
+	
+	@Setup
+	public void iniciar(BaseDados dados) {
+		service = dados.bean(UsuarioService.class);
+	}
+	
+	@Benchmark
+	public Usuario autenticar(BaseDados dados) {
+		return service.autenticar(dados.emailAleatorio(), BaseDados.SENHA).join();
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.gef.minhasFinancas.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Resposta do login: os dados do usuário e o token de acesso, enviado nas demais requisições
+// como Authorization: Bearer <token>.
+@Data
+@Builder
+public class AutenticacaoDTO {
+	
+	private Long id;
+	private String nome;
+	private String email;
+	private String token;
+	// Validade do token em segundos
+	private Long expiraEm;
+
+}
@@ -0,0 +1,17 @@
+package com.gef.minhasFinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Só o necessário para conferir a senha no login: id e senha gravada (hash BCrypt).
+// É instanciada direto pela consulta do UsuarioRepository (select new ...) e nunca sai da API.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CredencialDTO {
+	
+	private Long id;
+	private String senha;
+
+}
@@ -0,0 +1,43 @@
+package com.gef.minhasFinancas.api.dto;
+
+import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Posição (ano, mes, id) do último lançamento de uma página.
+// Trafega na API como texto no formato "ano.mes.id".
+@Data
+@AllArgsConstructor
+public class CursorLancamentoDTO {
+	
+	private Integer ano;
+	private Integer mes;
+	private Long id;
+	
+	public static CursorLancamentoDTO de(Lancamento lancamento) {
+		return new CursorLancamentoDTO(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+	}
+	
+	public static CursorLancamentoDTO of(String cursor) {
+		if (cursor == null || cursor.trim().isEmpty()) {
+			return null;
+		}
+		
+		String[] partes = cursor.split("\\.");
+		try {
+			if (partes.length != 3) {
+				throw new NumberFormatException();
+			}
+			return new CursorLancamentoDTO(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+		} catch (NumberFormatException e) {
+			throw new RegraNegocioException("Cursor de paginação inválido");
+		}
+	}
+	
+	public String getValor() {
+		return ano + "." + mes + "." + id;
+	}
+
+}
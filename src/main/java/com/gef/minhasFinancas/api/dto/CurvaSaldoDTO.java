@@ -0,0 +1,23 @@
+package com.gef.minhasFinancas.api.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Saldo dia a dia de um período; entre dois pontos o saldo é o do ponto anterior.
+@Data
+@Builder
+public class CurvaSaldoDTO {
+	
+	private LocalDate inicio;
+	private LocalDate fim;
+	// Saldo ao fim do dia anterior ao início
+	private Dinheiro saldoInicial;
+	private Dinheiro saldoFinal;
+	private List<PontoSaldoDTO> pontos;
+
+}
@@ -0,0 +1,21 @@
+package com.gef.minhasFinancas.api.dto;
+
+import com.gef.minhasFinancas.model.entity.Usuario;
+
+import lombok.Value;
+
+// Id, nome e email do usuário, sem a senha. É o que fica no cache por id do UsuarioRepository:
+// imutável, para ser compartilhado entre requisições, ao contrário da entidade gerenciada.
+@Value
+public class DadosUsuarioDTO {
+	
+	private Long id;
+	private String nome;
+	private String email;
+	
+	// Cópia nova a cada chamada, fora de qualquer sessão do Hibernate.
+	public Usuario paraUsuario() {
+		return Usuario.builder().id(id).nome(nome).email(email).build();
+	}
+
+}
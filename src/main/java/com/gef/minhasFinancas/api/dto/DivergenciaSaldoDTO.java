@@ -0,0 +1,26 @@
+package com.gef.minhasFinancas.api.dto;
+
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Diferença encontrada entre o saldo materializado (saldo_usuario)
+// e o saldo recalculado a partir da tabela lancamento.
+@Data
+@Builder
+public class DivergenciaSaldoDTO {
+	
+	private Long idUsuario;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private Integer ano;
+	private Integer mes;
+	private Dinheiro valorEsperado;
+	private Dinheiro valorRegistrado;
+	private Long quantidadeEsperada;
+	private Long quantidadeRegistrada;
+
+}
@@ -0,0 +1,16 @@
+package com.gef.minhasFinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Lançamento recusado em uma importação em lote; a linha começa em 1.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErroLoteDTO {
+	
+	private Integer linha;
+	private String mensagem;
+
+}
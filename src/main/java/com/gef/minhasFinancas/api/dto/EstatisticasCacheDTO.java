@@ -0,0 +1,21 @@
+package com.gef.minhasFinancas.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Contadores de um cache desde a subida da aplicação, para dimensionar tamanho e expiração.
+@Data
+@Builder
+public class EstatisticasCacheDTO {
+	
+	private String nome;
+	private Long tamanho;
+	// Bytes ocupados, só nos caches que contabilizam a própria memória
+	private Long memoria;
+	private Long acertos;
+	private Long faltas;
+	private Double taxaAcerto;
+	private Long remocoes;
+	private Long gravacoes;
+
+}
@@ -0,0 +1,22 @@
+package com.gef.minhasFinancas.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Situação do executor das operações de banco: ocupação, fila e tempo de espera na fila.
+@Data
+@Builder
+public class EstatisticasExecutorDTO {
+	
+	private String nome;
+	private Integer threads;
+	private Boolean virtuais;
+	private Integer ativas;
+	private Integer fila;
+	private Integer capacidadeFila;
+	private Long concluidas;
+	private Long recusadas;
+	private Double esperaMediaMs;
+	private Double esperaMaximaMs;
+
+}
@@ -0,0 +1,17 @@
+package com.gef.minhasFinancas.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Requisições aceitas e recusadas (429) por regra de limite desde a subida da aplicação.
+@Data
+@Builder
+public class EstatisticasLimiteDTO {
+	
+	private String regra;
+	private Double requisicoesPorSegundo;
+	private Integer rajada;
+	private Long permitidas;
+	private Long recusadas;
+
+}
@@ -0,0 +1,68 @@
+package com.gef.minhasFinancas.api.dto;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Fluxo de caixa mês a mês de um período, já somado no banco; substitui baixar todos os lançamentos.
+@Data
+@Builder
+public class FluxoCaixaDTO {
+	
+	private String inicio;
+	private String fim;
+	private SaldoDTO total;
+	// Todos os meses do período, inclusive os sem lançamentos (valores zerados)
+	private List<FluxoMensalDTO> meses;
+	
+	public static FluxoCaixaDTO of(YearMonth inicio, YearMonth fim, List<SaldoMensalStatusDTO> linhas) {
+		Map<YearMonth, List<SaldoStatusDTO>> porMes = new HashMap<>();
+		List<SaldoStatusDTO> todas = new ArrayList<>();
+		
+		for (SaldoMensalStatusDTO linha : linhas) {
+			SaldoStatusDTO saldoStatus = new SaldoStatusDTO(linha.getStatus(), linha.getReceitas(), linha.getDespesas());
+			porMes.computeIfAbsent(YearMonth.of(linha.getAno(), linha.getMes()), m -> new ArrayList<>()).add(saldoStatus);
+			todas.add(saldoStatus);
+		}
+		
+		List<FluxoMensalDTO> meses = new ArrayList<>();
+		for (YearMonth mes = inicio; !mes.isAfter(fim); mes = mes.plusMonths(1)) {
+			SaldoDTO saldo = SaldoDTO.of(porMes.getOrDefault(mes, new ArrayList<>()));
+			meses.add(FluxoMensalDTO.builder()
+					                .ano(mes.getYear())
+					                .mes(mes.getMonthValue())
+					                .receitas(saldo.getReceitas())
+					                .despesas(saldo.getDespesas())
+					                .saldo(saldo.getSaldo())
+					                .porStatus(saldo.getPorStatus())
+					                .build());
+		}
+		
+		// Total consolidado por status do período inteiro
+		Map<StatusLancamento, SaldoStatusDTO> totalPorStatus = new EnumMap<>(StatusLancamento.class);
+		for (SaldoStatusDTO saldoStatus : todas) {
+			totalPorStatus.merge(saldoStatus.getStatus(),
+					             new SaldoStatusDTO(saldoStatus.getStatus(), saldoStatus.getReceitas(), saldoStatus.getDespesas()),
+					             (acumulado, novo) -> new SaldoStatusDTO(acumulado.getStatus(),
+							                                             acumulado.getReceitas().somar(novo.getReceitas()),
+							                                             acumulado.getDespesas().somar(novo.getDespesas())));
+		}
+		
+		return FluxoCaixaDTO.builder()
+				.inicio(inicio.toString())
+				.fim(fim.toString())
+				.total(SaldoDTO.of(new ArrayList<>(totalPorStatus.values())))
+				.meses(meses)
+				.build();
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.gef.minhasFinancas.api.dto;
+
+import java.util.Map;
+
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class FluxoMensalDTO {
+	
+	private Integer ano;
+	private Integer mes;
+	private Dinheiro receitas;
+	private Dinheiro despesas;
+	private Dinheiro saldo;
+	private Map<StatusLancamento, SaldoStatusDTO> porStatus;
+
+}
@@ -0,0 +1,32 @@
+package com.gef.minhasFinancas.api.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Situação de uma importação de extrato, com o progresso e a vazão até o momento.
+@Data
+@Builder
+public class ImportacaoDTO {
+	
+	private Long id;
+	private Long usuario;
+	private String formato;
+	private String situacao;
+	private LocalDateTime inicio;
+	private LocalDateTime fim;
+	private Long bytesLidos;
+	private Long registrosLidos;
+	private Long gravados;
+	private Long duplicados;
+	private Long rejeitados;
+	private Long duracaoMs;
+	private Double registrosPorSegundo;
+	private Double bytesPorSegundo;
+	private String falha;
+	// Apenas os primeiros erros; o total está em rejeitados
+	private List<ErroLoteDTO> erros;
+
+}
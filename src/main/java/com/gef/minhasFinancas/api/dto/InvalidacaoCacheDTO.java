@@ -0,0 +1,16 @@
+package com.gef.minhasFinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InvalidacaoCacheDTO {
+	
+	private String regiao;
+	// Nulo invalida a região inteira
+	private Long id;
+
+}
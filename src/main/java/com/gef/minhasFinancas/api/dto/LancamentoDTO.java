@@ -1,6 +1,7 @@
 package com.gef.minhasFinancas.api.dto;
 
-import java.math.BigDecimal;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
 
 import lombok.Builder;
 import lombok.Data;
@@ -13,10 +14,23 @@ public class LancamentoDTO {
 	private String descricao;
 	private Integer mes;
 	private Integer ano;
-	private BigDecimal valor;
+	private Dinheiro valor;
 	private Long usuario;
 	private String tipo;
 	private String status;
-
+	
+	// Usa apenas o id do usuário, sem carregar a referência associada ao lançamento.
+	public static LancamentoDTO de(Lancamento lancamento) {
+		return LancamentoDTO.builder()
+				            .id(lancamento.getId())
+				            .descricao(lancamento.getDescricao())
+				            .mes(lancamento.getMes())
+				            .ano(lancamento.getAno())
+				            .valor(lancamento.getValor())
+				            .usuario(lancamento.getUsuario().getId())
+				            .tipo(lancamento.getTipo() == null ? null : lancamento.getTipo().name())
+				            .status(lancamento.getStatus() == null ? null : lancamento.getStatus().name())
+				            .build();
+	}
 
 }
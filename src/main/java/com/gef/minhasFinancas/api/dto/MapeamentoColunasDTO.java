@@ -0,0 +1,20 @@
+package com.gef.minhasFinancas.api.dto;
+
+import lombok.Data;
+
+// Como as colunas de um extrato CSV viram um lançamento. As colunas começam em 0;
+// os valores padrão atendem o formato comum dos bancos brasileiros (";" e vírgula decimal).
+@Data
+public class MapeamentoColunasDTO {
+	
+	private String separador = ";";
+	private boolean cabecalho = true;
+	private int colunaData = 0;
+	private int colunaDescricao = 1;
+	private int colunaValor = 2;
+	// Opcional: C/D, CREDITO/DEBITO ou RECEITA/DESPESA. Sem ela o sinal do valor define o tipo.
+	private Integer colunaTipo;
+	private String formatoData = "dd/MM/yyyy";
+	private String separadorDecimal = ",";
+
+}
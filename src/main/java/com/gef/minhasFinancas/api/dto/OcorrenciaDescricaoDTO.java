@@ -0,0 +1,14 @@
+package com.gef.minhasFinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Id de um lançamento encontrado pela busca por descrição e a relevância da ocorrência.
+@Data
+@AllArgsConstructor
+public class OcorrenciaDescricaoDTO {
+	
+	private Long id;
+	private double relevancia;
+
+}
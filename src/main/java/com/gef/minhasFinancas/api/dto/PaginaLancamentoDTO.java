@@ -0,0 +1,19 @@
+package com.gef.minhasFinancas.api.dto;
+
+import java.util.List;
+
+import com.gef.minhasFinancas.model.entity.Lancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PaginaLancamentoDTO {
+	
+	private List<Lancamento> lancamentos;
+	
+	// Cursor para a próxima página; nulo quando esta é a última.
+	private String proximo;
+
+}
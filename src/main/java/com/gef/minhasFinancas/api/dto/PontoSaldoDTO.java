@@ -0,0 +1,21 @@
+package com.gef.minhasFinancas.api.dto;
+
+import java.time.LocalDate;
+
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Um dia com movimento na curva de saldo: o movimento líquido e o saldo ao fim do dia.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PontoSaldoDTO {
+	
+	private LocalDate data;
+	private Dinheiro movimento;
+	private Dinheiro saldo;
+
+}
@@ -0,0 +1,28 @@
+package com.gef.minhasFinancas.api.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Situação de um relatório administrativo (todos os usuários), com o progresso por partição
+// e, depois de concluído, o fluxo de caixa consolidado.
+@Data
+@Builder
+public class RelatorioAdministrativoDTO {
+	
+	private Long id;
+	private String periodoInicio;
+	private String periodoFim;
+	private String situacao;
+	private LocalDateTime inicio;
+	private LocalDateTime fim;
+	private Integer particoes;
+	private Integer particoesConcluidas;
+	// De 0 a 1: partições concluídas sobre o total
+	private Double progresso;
+	private Long duracaoMs;
+	private String falha;
+	private FluxoCaixaDTO fluxo;
+
+}
@@ -0,0 +1,15 @@
+package com.gef.minhasFinancas.api.dto;
+
+import com.gef.minhasFinancas.model.entity.Lancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ResultadoBuscaDTO {
+	
+	private Lancamento lancamento;
+	private double relevancia;
+
+}
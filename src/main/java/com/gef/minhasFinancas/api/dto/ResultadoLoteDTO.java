@@ -0,0 +1,18 @@
+package com.gef.minhasFinancas.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+	
+	private Integer recebidos;
+	private Integer gravados;
+	private List<ErroLoteDTO> erros;
+
+}
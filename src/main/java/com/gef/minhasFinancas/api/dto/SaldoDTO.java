@@ -0,0 +1,45 @@
+package com.gef.minhasFinancas.api.dto;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SaldoDTO {
+	
+	private Dinheiro receitas;
+	private Dinheiro despesas;
+	private Dinheiro saldo;
+	private Map<StatusLancamento, SaldoStatusDTO> porStatus;
+	
+	// Consolida as linhas por status (uma única consulta) no saldo total do usuário. Lançamentos
+	// sem status entram nos totais, mas não na quebra por status.
+	public static SaldoDTO of(List<SaldoStatusDTO> linhas) {
+		Dinheiro receitas = Dinheiro.ZERO;
+		Dinheiro despesas = Dinheiro.ZERO;
+		Map<StatusLancamento, SaldoStatusDTO> porStatus = new EnumMap<>(StatusLancamento.class);
+		
+		for (SaldoStatusDTO linha : linhas) {
+			receitas = receitas.somar(linha.getReceitas());
+			despesas = despesas.somar(linha.getDespesas());
+			if (linha.getStatus() != null) {
+				porStatus.put(linha.getStatus(), linha);
+			}
+		}
+		
+		return SaldoDTO.builder()
+				.receitas(receitas)
+				.despesas(despesas)
+				.saldo(receitas.subtrair(despesas))
+				.porStatus(porStatus)
+				.build();
+	}
+
+}
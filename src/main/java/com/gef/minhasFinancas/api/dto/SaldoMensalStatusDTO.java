@@ -0,0 +1,23 @@
+package com.gef.minhasFinancas.api.dto;
+
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Linha da projeção do fluxo de caixa: receitas e despesas de um mês e status.
+// É instanciada direto pela consulta do SaldoUsuarioRepository (select new ...).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoMensalStatusDTO {
+	
+	private Integer ano;
+	private Integer mes;
+	private StatusLancamento status;
+	private Dinheiro receitas;
+	private Dinheiro despesas;
+
+}
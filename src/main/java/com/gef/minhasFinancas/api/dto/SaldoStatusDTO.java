@@ -0,0 +1,25 @@
+package com.gef.minhasFinancas.api.dto;
+
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Linha da projeção de saldo agrupada por status.
+// É instanciada direto pela consulta do LancamentoRepository (select new ...).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoStatusDTO {
+	
+	private StatusLancamento status;
+	private Dinheiro receitas;
+	private Dinheiro despesas;
+	
+	public Dinheiro getSaldo() {
+		return receitas.subtrair(despesas);
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.gef.minhasFinancas.api.json;
+
+import java.io.IOException;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+// Dinheiro no JSON é o mesmo número com duas casas que o BigDecimal gerava (10.00).
+// Na entrada aceita número ou texto ("10.5").
+@JsonComponent
+public class DinheiroJson {
+	
+	public static class Serializador extends JsonSerializer<Dinheiro> {
+
+		@Override
+		public void serialize(Dinheiro valor, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+			gerador.writeNumber(valor.paraBigDecimal());
+		}
+		
+	}
+	
+	public static class Desserializador extends JsonDeserializer<Dinheiro> {
+
+		@Override
+		public Dinheiro deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+			try {
+				if (parser.currentToken() == JsonToken.VALUE_STRING) {
+					return Dinheiro.de(parser.getText());
+				}
+				return Dinheiro.de(parser.getDecimalValue());
+			} catch (NumberFormatException | ArithmeticException e) {
+				return (Dinheiro) contexto.handleWeirdStringValue(Dinheiro.class, parser.getText(), "Valor monetário inválido");
+			}
+		}
+		
+	}
+
+}
@@ -0,0 +1,114 @@
+package com.gef.minhasFinancas.api.metricas;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.gef.minhasFinancas.exception.OrcamentoSqlException;
+import com.gef.minhasFinancas.service.metricas.ConsumoSql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Orçamento de SQL por requisição: conta os comandos (ConsumoSql) do início da requisição até a
+// resposta, inclusive os das tarefas no ExecutorBanco, e avisa no log quando passam do limite de
+// comandos ou de tempo de JDBC, ou quando o mesmo comando se repete demais (provável N+1). Com
+// "falhar" a requisição termina em erro, para que os testes peguem a regressão.
+// Os endpoints assíncronos passam duas vezes pelo filtro; a avaliação fica para o último despacho.
+public class FiltroConsumoSql extends OncePerRequestFilter {
+	
+	private static final Logger log = LoggerFactory.getLogger(FiltroConsumoSql.class);
+	
+	static final String ATRIBUTO_CONSUMO = FiltroConsumoSql.class.getName() + ".consumo";
+	
+	private final int comandos;
+	private final long tempoMs;
+	private final int repeticoes;
+	private final boolean falhar;
+	private final MeterRegistry registry;
+	
+	public FiltroConsumoSql(int comandos, long tempoMs, int repeticoes, boolean falhar, MeterRegistry registry) {
+		this.comandos = comandos;
+		this.tempoMs = tempoMs;
+		this.repeticoes = repeticoes;
+		this.falhar = falhar;
+		this.registry = registry;
+	}
+	
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+	
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		
+		ConsumoSql consumo = (ConsumoSql) request.getAttribute(ATRIBUTO_CONSUMO);
+		if (consumo == null) {
+			consumo = new ConsumoSql();
+			request.setAttribute(ATRIBUTO_CONSUMO, consumo);
+		}
+		
+		ConsumoSql.definir(consumo);
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			ConsumoSql.definir(null);
+		}
+		
+		if (!request.isAsyncStarted()) {
+			avaliar(request, consumo);
+		}
+	}
+	
+	private void avaliar(HttpServletRequest request, ConsumoSql consumo) {
+		Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = padrao == null ? "desconhecida" : padrao.toString();
+		if (registry != null) {
+			DistributionSummary.builder("minhasfinancas.sql.comandos")
+			                   .description("Comandos SQL por requisição")
+			                   .tag("uri", uri)
+			                   .register(registry)
+			                   .record(consumo.getComandos());
+			Timer.builder("minhasfinancas.sql.tempo")
+			     .description("Tempo de JDBC por requisição")
+			     .tag("uri", uri)
+			     .register(registry)
+			     .record(consumo.getTempoMs(), TimeUnit.MILLISECONDS);
+		}
+		
+		String requisicao = request.getMethod() + " " + request.getRequestURI();
+		List<String> excessos = new ArrayList<>();
+		if (consumo.getComandos() > comandos || consumo.getTempoMs() > tempoMs) {
+			excessos.add(String.format("%s executou %d comandos SQL em %d ms (orçamento: %d comandos, %d ms)",
+					                   requisicao, consumo.getComandos(), consumo.getTempoMs(), comandos, tempoMs));
+		}
+		for (Map.Entry<String, Long> repetido : consumo.repetidos(repeticoes).entrySet()) {
+			excessos.add(String.format("possível N+1 em %s: %d execuções de %s",
+					                   requisicao, repetido.getValue(), repetido.getKey()));
+		}
+		
+		if (excessos.isEmpty()) {
+			return;
+		}
+		if (falhar) {
+			throw new OrcamentoSqlException(String.join("; ", excessos));
+		}
+		excessos.forEach(log::warn);
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.gef.minhasFinancas.api.resource;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.gef.minhasFinancas.api.dto.EstatisticasCacheDTO;
+import com.gef.minhasFinancas.api.dto.InvalidacaoCacheDTO;
+import com.gef.minhasFinancas.model.repository.ColunasLancamentoRepository;
+import com.gef.minhasFinancas.service.CacheSegundoNivelService;
+import com.gef.minhasFinancas.service.cache.RegiaoCache;
+import com.gef.minhasFinancas.service.seguranca.TokenAcesso;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/caches")
+@RequiredArgsConstructor
+public class CacheResource {
+	
+	private final CacheManager cacheManager;
+	private final CacheSegundoNivelService segundoNivelService;
+	private final ColunasLancamentoRepository colunasRepository;
+	private final TokenAcesso tokenAcesso;
+	
+	// Com spring.cache.type=none não há caches do Caffeine e a lista vem vazia.
+	@GetMapping
+	public ResponseEntity listar() {
+		List<EstatisticasCacheDTO> estatisticas = cacheManager.getCacheNames().stream()
+				.sorted()
+				.map(cacheManager::getCache)
+				.filter(Objects::nonNull)
+				.filter(CaffeineCache.class::isInstance)
+				.map(cache -> estatisticas(cache.getName(), ((CaffeineCache) cache).getNativeCache()))
+				.collect(Collectors.toList());
+		return ResponseEntity.ok(estatisticas);
+	}
+	
+	// Regiões do cache de segundo nível do Hibernate (entidades e consultas de saldo).
+	@GetMapping("/hibernate")
+	public ResponseEntity listarSegundoNivel() {
+		return ResponseEntity.ok(segundoNivelService.obterEstatisticas());
+	}
+	
+	// Colunas dos lançamentos em memória usadas por /api/usuarios/{id}/analise.
+	@GetMapping("/analise")
+	public ResponseEntity listarAnalise() {
+		return ResponseEntity.ok(colunasRepository.obterEstatisticas());
+	}
+	
+	// Tokens de acesso já verificados (a assinatura não é recalculada enquanto estão aqui).
+	@GetMapping("/tokens")
+	public ResponseEntity listarTokens() {
+		return ResponseEntity.ok(tokenAcesso.obterEstatisticas());
+	}
+	
+	// Aplica nesta instância a invalidação feita em outro nó do cluster (InvalidacaoCacheEvento).
+	@PostMapping("/invalidacoes")
+	public ResponseEntity invalidar(@RequestBody InvalidacaoCacheDTO dto) {
+		RegiaoCache regiao;
+		try {
+			regiao = RegiaoCache.valueOf(String.valueOf(dto.getRegiao()));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Região de cache inválida");
+		}
+		
+		segundoNivelService.invalidar(regiao, dto.getId());
+		return new ResponseEntity(HttpStatus.NO_CONTENT);
+	}
+	
+	private static EstatisticasCacheDTO estatisticas(String nome, Cache<Object, Object> cache) {
+		CacheStats stats = cache.stats();
+		return EstatisticasCacheDTO.builder()
+				                   .nome(nome)
+				                   .tamanho(cache.estimatedSize())
+				                   .acertos(stats.hitCount())
+				                   .faltas(stats.missCount())
+				                   .taxaAcerto(stats.hitRate())
+				                   .remocoes(stats.evictionCount())
+				                   .build();
+	}
+
+}
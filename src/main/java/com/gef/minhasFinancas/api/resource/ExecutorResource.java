@@ -0,0 +1,29 @@
+package com.gef.minhasFinancas.api.resource;
+
+import java.util.Arrays;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.gef.minhasFinancas.service.execucao.ExecutorBanco;
+import com.gef.minhasFinancas.service.seguranca.VerificadorSenha;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/executores")
+@RequiredArgsConstructor
+public class ExecutorResource {
+	
+	private final ExecutorBanco executorBanco;
+	private final VerificadorSenha verificadorSenha;
+	
+	// Profundidade da fila e tempo de espera, para dimensionar threads e fila do executor.
+	@GetMapping
+	public ResponseEntity listar() {
+		return ResponseEntity.ok(Arrays.asList(executorBanco.obterEstatisticas(), verificadorSenha.obterEstatisticas()));
+	}
+
+}
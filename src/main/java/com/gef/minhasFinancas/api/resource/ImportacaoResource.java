@@ -0,0 +1,103 @@
+package com.gef.minhasFinancas.api.resource;
+
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.security.Principal;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.gef.minhasFinancas.api.dto.ImportacaoDTO;
+import com.gef.minhasFinancas.api.dto.MapeamentoColunasDTO;
+import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.exception.SobrecargaException;
+import com.gef.minhasFinancas.service.ImportacaoExtratoService;
+import com.gef.minhasFinancas.service.importacao.FormatoExtrato;
+import com.gef.minhasFinancas.service.importacao.ImportacaoExtrato;
+import com.gef.minhasFinancas.service.seguranca.UsuarioAutenticado;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/importacoes")
+@RequiredArgsConstructor
+public class ImportacaoResource {
+	
+	private final ImportacaoExtratoService service;
+	
+	// O corpo da requisição é o próprio arquivo do banco (text/csv, application/x-ofx ou
+	// application/octet-stream), lido como fluxo. O mapeamento das colunas do CSV vem nos
+	// parâmetros: ?usuario=1&formato=CSV&separador=;&colunaData=0&colunaDescricao=1&colunaValor=2
+	@PostMapping
+	public ResponseEntity<?> importar(
+			   @RequestParam("usuario") Long idUsuario,
+			   @RequestParam(value = "formato", defaultValue = "CSV") FormatoExtrato formato,
+			   @RequestParam(value = "charset", defaultValue = "UTF-8") String charset,
+			   MapeamentoColunasDTO mapeamento,
+			   InputStream corpo,
+			   Principal principal) {
+		
+		if (!doUsuario(principal, idUsuario)) {
+			return proibido();
+		}
+		
+		try {
+			ImportacaoDTO importacao = service.importar(idUsuario, formato, mapeamento, charset(charset),
+					                                    Channels.newChannel(corpo));
+			
+			boolean concluida = ImportacaoExtrato.Situacao.CONCLUIDA.name().equals(importacao.getSituacao());
+			return new ResponseEntity<>(importacao, concluida ? HttpStatus.CREATED : HttpStatus.INTERNAL_SERVER_ERROR);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (SobrecargaException e) {
+			return LancamentoResource.sobrecarga(e);
+		}
+	}
+	
+	// Progresso e vazão de uma importação, inclusive durante a execução. A importação de outro
+	// usuário responde 404, como uma desconhecida, para não revelar quais ids existem.
+	@GetMapping("{id}")
+	public ResponseEntity<ImportacaoDTO> obter(@PathVariable("id") Long id, Principal principal) {
+		return service.obterPorId(id)
+				      .filter(importacao -> doUsuario(principal, importacao))
+				      .map(ResponseEntity::ok)
+				      .orElseGet(() -> ResponseEntity.notFound().build());
+	}
+	
+	@GetMapping
+	public ResponseEntity<?> listar(@RequestParam("usuario") Long idUsuario, Principal principal) {
+		if (!doUsuario(principal, idUsuario)) {
+			return proibido();
+		}
+		return ResponseEntity.ok(service.listarPorUsuario(idUsuario));
+	}
+	
+	private static boolean doUsuario(Principal principal, ImportacaoDTO importacao) {
+		return doUsuario(principal, importacao.getUsuario());
+	}
+	
+	private static boolean doUsuario(Principal principal, Long idUsuario) {
+		return !(principal instanceof UsuarioAutenticado)
+			   || ((UsuarioAutenticado) principal).getId().equals(idUsuario);
+	}
+	
+	private static ResponseEntity<String> proibido() {
+		return new ResponseEntity<>("Acesso permitido apenas às importações do próprio usuário", HttpStatus.FORBIDDEN);
+	}
+	
+	private static Charset charset(String nome) {
+		try {
+			return Charset.forName(nome);
+		} catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Charset inválido: " + nome);
+		}
+	}
+
+}
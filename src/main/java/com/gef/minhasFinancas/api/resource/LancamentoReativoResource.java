@@ -0,0 +1,74 @@
+package com.gef.minhasFinancas.api.resource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.gef.minhasFinancas.api.dto.LancamentoDTO;
+import com.gef.minhasFinancas.api.dto.SaldoDTO;
+import com.gef.minhasFinancas.config.R2dbcConfig;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.repository.LancamentoReativoRepository;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Leitura reativa da busca e do saldo. Com Accept: application/stream+json cada lançamento é
+// escrito assim que o anterior sai para o cliente (o próximo só é pedido ao banco depois disso);
+// com application/json a lista completa é devolvida de uma vez. As gravações continuam no JPA.
+@RestController
+@RequestMapping("/api/reativo")
+@ConditionalOnProperty(name = R2dbcConfig.URL)
+@RequiredArgsConstructor
+public class LancamentoReativoResource {
+	
+	private final LancamentoReativoRepository repository;
+	
+	@GetMapping(value = "/lancamentos", produces = { MediaType.APPLICATION_STREAM_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+	public Flux<LancamentoDTO> buscar(
+			   @RequestParam(value="descricao", required = false) String descricao,
+			   @RequestParam(value = "mes", required = false) Integer mes,
+			   @RequestParam(value = "ano", required = false) Integer ano,
+			   @RequestParam(value= "tipo", required= false)  TipoLancamento tipo,
+			   @RequestParam(value= "status", required= false)  StatusLancamento status,
+	           @RequestParam(value = "usuario") Long idUsuario){
+		
+		Lancamento lancamentoFiltro = Lancamento
+				.builder()
+				.descricao(descricao)
+				.mes(mes)
+				.ano(ano)
+				.tipo(tipo)
+				.status(status)
+				.usuario(Usuario.builder().id(idUsuario).build())
+				.build();
+		
+		return repository.buscar(lancamentoFiltro);
+	}
+	
+	// Mesmas respostas de GET /api/usuarios/{id}/saldo: 404 só se não houver saldo nem usuário.
+	@GetMapping("/usuarios/{id}/saldo")
+	public Mono<ResponseEntity> obterSaldo(@PathVariable("id") Long id) {
+		return repository.obterSaldoPorStatusEUsuario(id)
+				.collectList()
+				.flatMap(linhas -> {
+					if (!linhas.isEmpty()) {
+						return Mono.<ResponseEntity>just(ResponseEntity.ok(SaldoDTO.of(linhas).getSaldo()));
+					}
+					return repository.existeUsuario(id).map(existe -> existe
+							? ResponseEntity.ok(SaldoDTO.of(linhas).getSaldo())
+							: new ResponseEntity(HttpStatus.NOT_FOUND));
+				});
+	}
+
+}
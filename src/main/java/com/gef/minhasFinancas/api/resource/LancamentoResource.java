@@ -1,9 +1,20 @@
 package com.gef.minhasFinancas.api.resource;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,69 +25,209 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gef.minhasFinancas.api.dto.AtualizaStatusDTO;
+import com.gef.minhasFinancas.api.dto.CursorLancamentoDTO;
+import com.gef.minhasFinancas.api.dto.ErroLoteDTO;
 import com.gef.minhasFinancas.api.dto.LancamentoDTO;
+import com.gef.minhasFinancas.api.dto.PaginaLancamentoDTO;
+import com.gef.minhasFinancas.api.dto.ResultadoBuscaDTO;
+import com.gef.minhasFinancas.api.dto.ResultadoLoteDTO;
 import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.exception.SobrecargaException;
 import com.gef.minhasFinancas.model.entity.Lancamento;
 import com.gef.minhasFinancas.model.entity.Usuario;
 import com.gef.minhasFinancas.model.enuns.StatusLancamento;
 import com.gef.minhasFinancas.model.enuns.TipoLancamento;
 import com.gef.minhasFinancas.service.LancamentoService;
 import com.gef.minhasFinancas.service.UsuarioService;
+import com.gef.minhasFinancas.service.execucao.ExecutorBanco;
+import com.gef.minhasFinancas.service.seguranca.UsuarioAutenticado;
 
 import lombok.RequiredArgsConstructor;
 
+// Os endpoints que usam o banco devolvem CompletableFuture: a thread do servlet é liberada e o
+// trabalho roda no ExecutorBanco. Com a fila do executor cheia a resposta é 503 (Retry-After).
 @RestController
 @RequestMapping("/api/lancamentos")
 @RequiredArgsConstructor
 public class LancamentoResource {
 	
+	static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+	
 	private final LancamentoService service;
 	private final UsuarioService usuarioService;
+	private final ObjectMapper objectMapper;
+	private final ExecutorBanco executor;
+	
+	@Value("${minhasfinancas.lancamentos.pagina.tamanho-padrao:50}")
+	private int tamanhoPadraoPagina;
+	
+	@Value("${minhasfinancas.lancamentos.pagina.tamanho-maximo:500}")
+	private int tamanhoMaximoPagina;
+	
+	@Value("${minhasfinancas.lancamentos.lote.tamanho-maximo:5000}")
+	private int tamanhoMaximoLote;
 
 	@PostMapping
-	public ResponseEntity salvar (@RequestBody LancamentoDTO dto) {
-		
-		try {
-			Lancamento entidade =  converter(dto);
-			entidade = service.salva(entidade);
-			return new ResponseEntity(entidade, HttpStatus.CREATED);
-		} catch (RegraNegocioException e) {
-			return ResponseEntity.badRequest().body(e.getMessage());
+	public CompletableFuture<ResponseEntity> salvar (@RequestBody LancamentoDTO dto, Principal principal) {
+		
+		if (!doUsuario(principal, dto)) {
+			return CompletableFuture.completedFuture(proibido());
+		}
+		
+		return assincrono(() -> {
+			try {
+				Lancamento entidade =  converter(dto);
+				entidade = service.salva(entidade);
+				return new ResponseEntity(LancamentoDTO.de(entidade), HttpStatus.CREATED);
+			} catch (RegraNegocioException e) {
+				return ResponseEntity.badRequest().body(e.getMessage());
+			} catch (DataIntegrityViolationException e) {
+				if (usuarioInexistente(dto)) {
+					return ResponseEntity.badRequest().body("Usuário não encontrado para o id informado");
+				}
+				throw e;
+			}
+		});
+	}
+	
+	// Importação de extratos: cada linha é validada separadamente e uma linha inválida não impede
+	// a gravação das demais. Responde 201 se algo foi gravado e 400 se todas as linhas foram recusadas.
+	@PostMapping("/lote")
+	public CompletableFuture<ResponseEntity> salvarLote(@RequestBody List<LancamentoDTO> dtos, Principal principal) {
+		
+		if (dtos.isEmpty()) {
+			return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Informe ao menos um lançamento"));
+		}
+		
+		if (dtos.size() > tamanhoMaximoLote) {
+			return CompletableFuture.completedFuture(
+					ResponseEntity.badRequest().body("O lote deve ter no máximo " + tamanhoMaximoLote + " lançamentos"));
 		}
+		
+		// count e não anyMatch: todas as linhas sem usuário recebem o do token
+		if (dtos.stream().filter(dto -> !doUsuario(principal, dto)).count() > 0) {
+			return CompletableFuture.completedFuture(proibido());
+		}
+		
+		return assincrono(() -> gravarLote(dtos));
 	}
 	
+	private ResponseEntity gravarLote(List<LancamentoDTO> dtos) {
+		
+		List<ErroLoteDTO> erros = new ArrayList<>();
+		List<Lancamento> lancamentos = new ArrayList<>(dtos.size());
+		List<Integer> linhas = new ArrayList<>(dtos.size());
+		
+		for (int i = 0; i < dtos.size(); i++) {
+			try {
+				lancamentos.add(converter(dtos.get(i)));
+				linhas.add(i + 1);
+			} catch (IllegalArgumentException e) {
+				erros.add(new ErroLoteDTO(i + 1, "Tipo ou status de lançamento inválido"));
+			}
+		}
+		
+		ResultadoLoteDTO resultado = service.salvarLote(lancamentos);
+		
+		// As linhas do serviço são posições na lista convertida; voltam para a posição no pedido
+		resultado.getErros().forEach(erro -> erros.add(new ErroLoteDTO(linhas.get(erro.getLinha() - 1), erro.getMensagem())));
+		erros.sort(Comparator.comparing(ErroLoteDTO::getLinha));
+		
+		resultado = new ResultadoLoteDTO(dtos.size(), resultado.getGravados(), erros);
+		return new ResponseEntity(resultado, resultado.getGravados() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST);
+	}
+	
+	// Existência e dono do lançamento são verificados pelo serviço, sem carregar o lançamento antes.
 	@PutMapping("{id}")
-	public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto) {
+	public CompletableFuture<ResponseEntity> atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto,
+			                                           Principal principal) {
 		
-		return service.obterPorId(id).map(entity ->{
+		if (!doUsuario(principal, dto)) {
+			return CompletableFuture.completedFuture(proibido());
+		}
+		
+		return assincrono(() -> {
 			try {
 				Lancamento lancamento = converter(dto);
-				lancamento.setId(entity.getId());
-				service.atualizar(lancamento);
+				lancamento.setId(id);
+				lancamento = service.atualizar(lancamento);
 				
-				return ResponseEntity.ok(lancamento);
+				return ResponseEntity.ok(LancamentoDTO.de(lancamento));
 			} catch (RegraNegocioException e) {
 				return ResponseEntity.badRequest().body(e.getMessage());
 			}
-			
-		}).orElseGet( () -> new ResponseEntity("Lançamento não encontrado na base de dados", HttpStatus.BAD_REQUEST ));
-		
+		});
 	}
 	
 	@DeleteMapping("{id}")
-	public ResponseEntity deletar( @PathVariable("id") Long id) {
+	public CompletableFuture<ResponseEntity> deletar( @PathVariable("id") Long id, Principal principal) {
 		
-		return service.obterPorId(id).map( entidade ->{
+		return assincrono(() -> service.obterPorId(id).map( entidade ->{
+			if (!doUsuario(principal, entidade)) {
+				return proibido();
+			}
 			service.deletar(entidade);
 			return new ResponseEntity(HttpStatus.NO_CONTENT);
 			}).orElseGet(() ->
-			    new ResponseEntity("Lançamento não encontrado na base de dados", HttpStatus.BAD_REQUEST ));
+			    new ResponseEntity("Lançamento não encontrado na base de dados", HttpStatus.BAD_REQUEST )));
 	}
 	
 	@GetMapping
-	public ResponseEntity buscar(
+	public CompletableFuture<ResponseEntity> buscar(
+			   @RequestParam(value="descricao", required = false) String descricao,
+			   @RequestParam(value = "mes", required = false) Integer mes,
+			   @RequestParam(value = "ano", required = false) Integer ano,
+			   @RequestParam(value= "tipo", required= false)  TipoLancamento tipo,
+			   @RequestParam(value= "status", required= false)  StatusLancamento status,
+	           @RequestParam(value = "usuario") Long idUsuario,
+	           Principal principal){
+		
+		Lancamento lancamentoFiltro = criarFiltro(descricao, mes, ano, tipo, status);
+		lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario).build());
+		
+		// O usuário só é consultado quando a busca volta vazia, para distinguir o inexistente
+		return assincrono(() -> {
+			List<Lancamento> lancamentos =service.buscar(lancamentoFiltro);
+			if (lancamentos.isEmpty() && !existeUsuario(idUsuario, principal)) {
+				return ResponseEntity.badRequest().body("Usuario não encontrado para o id informado");
+			}
+			return ResponseEntity.ok(lancamentos);
+		});
+	}
+	
+	@GetMapping("/pagina")
+	public CompletableFuture<ResponseEntity> buscarPagina(
+			   @RequestParam(value="descricao", required = false) String descricao,
+			   @RequestParam(value = "mes", required = false) Integer mes,
+			   @RequestParam(value = "ano", required = false) Integer ano,
+			   @RequestParam(value= "tipo", required= false)  TipoLancamento tipo,
+			   @RequestParam(value= "status", required= false)  StatusLancamento status,
+	           @RequestParam(value = "usuario") Long idUsuario,
+	           @RequestParam(value = "cursor", required = false) String cursor,
+	           @RequestParam(value = "tamanho", required = false) Integer tamanho){
+		
+		Lancamento lancamentoFiltro = criarFiltro(descricao, mes, ano, tipo, status);
+		lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario).build());
+		
+		int tamanhoPagina = tamanho == null ? tamanhoPadraoPagina : Math.max(1, Math.min(tamanho, tamanhoMaximoPagina));
+		
+		return assincrono(() -> {
+			try {
+				PaginaLancamentoDTO pagina = service.buscarPagina(lancamentoFiltro, CursorLancamentoDTO.of(cursor), tamanhoPagina);
+				return ResponseEntity.ok(pagina);
+			} catch (RegraNegocioException e) {
+				return ResponseEntity.badRequest().body(e.getMessage());
+			}
+		});
+	}
+	
+	// Um lançamento em JSON por linha (NDJSON), escrito à medida que é lido do banco.
+	@GetMapping(value = "/stream", produces = "application/x-ndjson")
+	public ResponseEntity<StreamingResponseBody> buscarEmStream(
 			   @RequestParam(value="descricao", required = false) String descricao,
 			   @RequestParam(value = "mes", required = false) Integer mes,
 			   @RequestParam(value = "ano", required = false) Integer ano,
@@ -84,29 +235,49 @@ public class LancamentoResource {
 			   @RequestParam(value= "status", required= false)  StatusLancamento status,
 	           @RequestParam(value = "usuario") Long idUsuario){
 		
-		Lancamento lancamentoFiltro =  Lancamento
-				.builder()
-				.descricao(descricao)
-				.mes(mes)
-				.ano(ano)
-				.tipo(tipo)
-				.status(status)
-				.build();
+		Lancamento lancamentoFiltro = criarFiltro(descricao, mes, ano, tipo, status);
+		lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario).build());
 		
-		Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
-		if (usuario.isPresent()) {
-			lancamentoFiltro.setUsuario(usuario.get());
-		} else {
-			return ResponseEntity.badRequest().body("Usuario não encontrado para o id informado");
-			
+		StreamingResponseBody corpo = saida -> service.buscarEmStream(lancamentoFiltro, lancamento -> {
+			try {
+				saida.write(objectMapper.writeValueAsBytes(lancamento));
+				saida.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		
+		return ResponseEntity.ok().contentType(NDJSON).body(corpo);
+	}
+	
+	// Busca textual na descrição, ordenada por relevância.
+	// prefixo=true procura palavras que começam com os termos informados.
+	@GetMapping("/busca")
+	public CompletableFuture<ResponseEntity> buscarPorDescricao(
+			   @RequestParam(value = "termo") String termo,
+			   @RequestParam(value = "prefixo", defaultValue = "false") boolean prefixo,
+	           @RequestParam(value = "usuario") Long idUsuario,
+	           @RequestParam(value = "limite", required = false) Integer limite){
+		
+		if (termo.trim().isEmpty()) {
+			return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Informe um termo para a busca"));
 		}
-		List<Lancamento> lancamentos =service.buscar(lancamentoFiltro);
-		return ResponseEntity.ok(lancamentos);
+		
+		int tamanho = limite == null ? tamanhoPadraoPagina : Math.max(1, Math.min(limite, tamanhoMaximoPagina));
+		return assincrono(() -> {
+			List<ResultadoBuscaDTO> resultados = service.buscarPorDescricao(idUsuario, termo.trim(), prefixo, tamanho);
+			return ResponseEntity.ok(resultados);
+		});
 	}
 	
 	@PutMapping("{id}/atualiza-status")
-	public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto) {
-		return service.obterPorId(id).map(entity ->{
+	public CompletableFuture<ResponseEntity> atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto,
+			                                                 Principal principal) {
+		return assincrono(() -> service.obterPorId(id).map(entity ->{
+			if (!doUsuario(principal, entity)) {
+				return proibido();
+			}
+			
 			StatusLancamento statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
 			
 			if (statusSelecionado == null) {
@@ -124,10 +295,67 @@ public class LancamentoResource {
 			}
 			      
 		}).orElseGet(() ->
-	    new ResponseEntity("Lançamento não encontrado na base de dados", HttpStatus.BAD_REQUEST ));
+	    new ResponseEntity("Lançamento não encontrado na base de dados", HttpStatus.BAD_REQUEST )));
 	}
 	
-    private Lancamento converter(LancamentoDTO dto) {
+	// Com token de acesso os lançamentos são sempre do usuário autenticado; sem usuário no corpo,
+	// vale o do token. Sem token (minhasfinancas.token.obrigatorio=false) nada é verificado aqui.
+	private static boolean doUsuario(Principal principal, LancamentoDTO dto) {
+		if (!(principal instanceof UsuarioAutenticado)) {
+			return true;
+		}
+		Long idUsuario = ((UsuarioAutenticado) principal).getId();
+		if (dto.getUsuario() == null) {
+			dto.setUsuario(idUsuario);
+		}
+		return idUsuario.equals(dto.getUsuario());
+	}
+	
+	// Só o id da referência: não carrega o usuário do lançamento
+	private static boolean doUsuario(Principal principal, Lancamento lancamento) {
+		return !(principal instanceof UsuarioAutenticado)
+			   || ((UsuarioAutenticado) principal).getId().equals(lancamento.getUsuario().getId());
+	}
+	
+	// O token de acesso do próprio usuário já garante que ele existe, sem ir ao banco.
+	private boolean existeUsuario(Long idUsuario, Principal principal) {
+		return principal instanceof UsuarioAutenticado && idUsuario.equals(((UsuarioAutenticado) principal).getId())
+			   || usuarioService.obterPorId(idUsuario).isPresent();
+	}
+	
+	private static ResponseEntity proibido() {
+		return new ResponseEntity("Acesso permitido apenas aos lançamentos do próprio usuário", HttpStatus.FORBIDDEN);
+	}
+	
+	private CompletableFuture<ResponseEntity> assincrono(Supplier<ResponseEntity> acao) {
+		return executor.executar(acao).exceptionally(LancamentoResource::sobrecarga);
+	}
+	
+	// Só a recusa do executor vira resposta aqui; os demais erros seguem para o tratamento padrão.
+	static ResponseEntity sobrecarga(Throwable erro) {
+		Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+		
+		if (causa instanceof SobrecargaException) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					             .header(HttpHeaders.RETRY_AFTER, "1")
+					             .body(causa.getMessage());
+		}
+		throw erro instanceof CompletionException ? (CompletionException) erro : new CompletionException(causa);
+	}
+	
+    private Lancamento criarFiltro(String descricao, Integer mes, Integer ano, TipoLancamento tipo, StatusLancamento status) {
+    	return Lancamento
+				.builder()
+				.descricao(descricao)
+				.mes(mes)
+				.ano(ano)
+				.tipo(tipo)
+				.status(status)
+				.build();
+    }
+    
+    // Visível no pacote para os benchmarks (módulo benchmarks)
+    Lancamento converter(LancamentoDTO dto) {
     	Lancamento lancamento = new Lancamento();
     	
     	lancamento.setId(dto.getId());
@@ -136,11 +364,11 @@ public class LancamentoResource {
     	lancamento.setMes(dto.getMes());
     	lancamento.setValor(dto.getValor());
     	
-    	Usuario usuario = usuarioService
-    	       .obterPorId(dto.getUsuario())
-    	       .orElseThrow(() -> new RegraNegocioException("Usuário não encontrado para o id informado"));
-    	
-    	lancamento.setUsuario(usuario);
+    	// Apenas a referência: um usuário inexistente é recusado pela chave estrangeira ao gravar, e só
+    	// então salvar confere se é ele que falta
+    	if (dto.getUsuario() != null) {
+    		lancamento.setUsuario(usuarioService.obterReferencia(dto.getUsuario()));
+    	}
     	
     	if(dto.getTipo() != null) {
     	   lancamento.setTipo(TipoLancamento.valueOf(dto.getTipo()));
@@ -152,4 +380,10 @@ public class LancamentoResource {
     	
      	return lancamento;
     }
+    
+    // Só depois de uma violação no insert, que não consultou o usuário antes: a mensagem e o nome da
+    // restrição mudam de banco para banco, então quem decide é a existência do usuário.
+    private boolean usuarioInexistente(LancamentoDTO dto) {
+    	return dto.getUsuario() != null && !usuarioService.obterPorId(dto.getUsuario()).isPresent();
+    }
 }
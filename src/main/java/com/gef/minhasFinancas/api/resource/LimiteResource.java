@@ -0,0 +1,25 @@
+package com.gef.minhasFinancas.api.resource;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.gef.minhasFinancas.service.seguranca.LimitadorRequisicoes;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/limites")
+@RequiredArgsConstructor
+public class LimiteResource {
+	
+	private final LimitadorRequisicoes limitador;
+	
+	// Requisições aceitas e recusadas por regra, para ajustar as taxas de minhasfinancas.limite.*
+	@GetMapping
+	public ResponseEntity listar() {
+		return ResponseEntity.ok(limitador.obterEstatisticas());
+	}
+
+}
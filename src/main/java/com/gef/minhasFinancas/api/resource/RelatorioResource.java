@@ -0,0 +1,69 @@
+package com.gef.minhasFinancas.api.resource;
+
+import java.time.DateTimeException;
+import java.time.YearMonth;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.service.RelatorioAdministrativoService;
+
+import lombok.RequiredArgsConstructor;
+
+// Só com a chave administrativa (FiltroAdministrativo): os relatórios cobrem todos os usuários.
+@RestController
+@RequestMapping("/api/relatorios")
+@RequiredArgsConstructor
+public class RelatorioResource {
+	
+	private final RelatorioAdministrativoService service;
+	
+	// Fluxo de caixa de todos os usuários: ?inicio=2022-01&fim=2022-12 (padrão: últimos 12 meses).
+	// Responde na hora com 202; o progresso e o resultado ficam em GET /api/relatorios/{id}.
+	@PostMapping
+	public ResponseEntity iniciar(@RequestParam(value = "inicio", required = false) String inicio,
+			                      @RequestParam(value = "fim", required = false) String fim) {
+		YearMonth ate;
+		YearMonth de;
+		try {
+			ate = fim == null ? YearMonth.now() : YearMonth.parse(fim);
+			de = inicio == null ? ate.minusMonths(11) : YearMonth.parse(inicio);
+		} catch (DateTimeException e) {
+			return ResponseEntity.badRequest().body("Informe um período válido");
+		}
+		
+		try {
+			return new ResponseEntity(service.iniciar(de, ate), HttpStatus.ACCEPTED);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	@GetMapping("{id}")
+	public ResponseEntity obter(@PathVariable("id") Long id) {
+		return service.obterPorId(id)
+				      .map(relatorio -> new ResponseEntity(relatorio, HttpStatus.OK))
+				      .orElseGet(() -> new ResponseEntity(HttpStatus.NOT_FOUND));
+	}
+	
+	@GetMapping
+	public ResponseEntity listar() {
+		return ResponseEntity.ok(service.listar());
+	}
+	
+	@DeleteMapping("{id}")
+	public ResponseEntity cancelar(@PathVariable("id") Long id) {
+		return service.cancelar(id)
+				      .map(relatorio -> new ResponseEntity(relatorio, HttpStatus.OK))
+				      .orElseGet(() -> new ResponseEntity(HttpStatus.NOT_FOUND));
+	}
+
+}
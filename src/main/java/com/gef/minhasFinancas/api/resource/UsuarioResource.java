@@ -1,8 +1,14 @@
 package com.gef.minhasFinancas.api.resource;
 
-import java.math.BigDecimal;
-import java.util.Optional;
+import java.security.Principal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,14 +16,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.gef.minhasFinancas.api.dto.AutenticacaoDTO;
+import com.gef.minhasFinancas.api.dto.CurvaSaldoDTO;
+import com.gef.minhasFinancas.api.dto.FluxoCaixaDTO;
+import com.gef.minhasFinancas.api.dto.SaldoDTO;
 import com.gef.minhasFinancas.api.dto.UsuarioDTO;
 import com.gef.minhasFinancas.exception.ErroAutenticacao;
 import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.exception.SobrecargaException;
 import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
 import com.gef.minhasFinancas.service.LancamentoService;
 import com.gef.minhasFinancas.service.UsuarioService;
+import com.gef.minhasFinancas.service.seguranca.TokenAcesso;
+import com.gef.minhasFinancas.service.seguranca.UsuarioAutenticado;
 
 import lombok.RequiredArgsConstructor;
 
@@ -28,17 +45,28 @@ public class UsuarioResource {
 	
 	private final UsuarioService service;
 	private final LancamentoService lancamentoService ;
+	private final TokenAcesso tokenAcesso;
 	
+	// A senha é conferida no executor de senhas; com a fila dele cheia a resposta é 503.
+	// Devolve o usuário e o token de acesso das próximas requisições.
 	@PostMapping("/autenticar")
-	public ResponseEntity autenticar(@RequestBody UsuarioDTO dto) {
+	public CompletableFuture<ResponseEntity> autenticar(@RequestBody UsuarioDTO dto) {
 		
-		try {
-			Usuario usuarioAutenticado = service.autenticar(dto.getEmail(),  dto.getSenha());
-			return ResponseEntity.ok(usuarioAutenticado);
-		} catch (ErroAutenticacao e) {
-			
-			return ResponseEntity.badRequest().body(e.getMessage());
-		}
+		return service.autenticar(dto.getEmail(),  dto.getSenha())
+				      .<ResponseEntity>thenApply(usuario -> ResponseEntity.ok(AutenticacaoDTO.builder()
+				    		  .id(usuario.getId())
+				    		  .nome(usuario.getNome())
+				    		  .email(usuario.getEmail())
+				    		  .token(tokenAcesso.emitir(usuario.getId()))
+				    		  .expiraEm(tokenAcesso.getValidade().getSeconds())
+				    		  .build()))
+				      .exceptionally(erro -> {
+				    	  Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+				    	  if (causa instanceof ErroAutenticacao) {
+				    		  return ResponseEntity.badRequest().body(causa.getMessage());
+				    	  }
+				    	  return LancamentoResource.sobrecarga(erro);
+				      });
 	}
 	
 	@PostMapping
@@ -55,20 +83,139 @@ public class UsuarioResource {
 			
 		} catch (RegraNegocioException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (SobrecargaException e) {
+			return LancamentoResource.sobrecarga(e);
 		}
 	}
 	
+	// Com ?data=2022-01-15 devolve o saldo ao fim daquele dia, pelo saldo diário acumulado.
 	@GetMapping("{id}/saldo")
-	public ResponseEntity obterSaldo(@PathVariable("id") Long id) {
+	public ResponseEntity obterSaldo(@PathVariable("id") Long id, Principal principal,
+			                         @RequestParam(value = "data", required = false)
+	                                 @DateTimeFormat(iso = ISO.DATE) LocalDate data) {
+		
+		if (data != null) {
+			Dinheiro saldoNaData = lancamentoService.obterSaldoEm(id, data);
+			if (saldoNaData.sinal() == 0 && !existeUsuario(id, principal)) {
+				return new ResponseEntity(HttpStatus.NOT_FOUND);
+			}
+			return ResponseEntity.ok(saldoNaData);
+		}
 		
-		Optional<Usuario> usuario = service.obterPorId(id);
+		SaldoDTO saldo = lancamentoService.obterSaldoDetalhadoPorUsuario(id);
 		
-		if (!usuario.isPresent()) {
+		if (!existeSaldoOuUsuario(id, saldo, principal)) {
 			return new ResponseEntity(HttpStatus.NOT_FOUND);
 		}
 		
-		BigDecimal saldo = lancamentoService.ObterSaldoPorUsuario(id);
+		return ResponseEntity.ok(saldo.getSaldo());
+	}
+	
+	@GetMapping("{id}/saldo/detalhado")
+	public ResponseEntity obterSaldoDetalhado(@PathVariable("id") Long id, Principal principal) {
+		
+		SaldoDTO saldo = lancamentoService.obterSaldoDetalhadoPorUsuario(id);
+		
+		if (!existeSaldoOuUsuario(id, saldo, principal)) {
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
 		
 		return ResponseEntity.ok(saldo);
 	}
+	
+	// Curva de saldo dia a dia entre inicio e fim (padrão: os últimos 30 dias até hoje).
+	@GetMapping("{id}/saldo/diario")
+	public ResponseEntity obterCurvaSaldo(@PathVariable("id") Long id, Principal principal,
+			                              @RequestParam(value = "inicio", required = false)
+	                                      @DateTimeFormat(iso = ISO.DATE) LocalDate inicio,
+			                              @RequestParam(value = "fim", required = false)
+	                                      @DateTimeFormat(iso = ISO.DATE) LocalDate fim) {
+		LocalDate ate = fim == null ? LocalDate.now() : fim;
+		LocalDate de = inicio == null ? ate.minusDays(29) : inicio;
+		
+		try {
+			CurvaSaldoDTO curva = lancamentoService.obterCurvaSaldo(id, de, ate);
+			
+			if (curva.getPontos().isEmpty() && curva.getSaldoInicial().sinal() == 0 && !existeUsuario(id, principal)) {
+				return new ResponseEntity(HttpStatus.NOT_FOUND);
+			}
+			return ResponseEntity.ok(curva);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	// Fluxo de caixa mensal: ?ano=2022 traz janeiro a dezembro do ano; sem ano, os últimos
+	// 12 meses até o mês atual ou até o mês informado em ?ate=2022-06.
+	@GetMapping("{id}/fluxo")
+	public ResponseEntity obterFluxo(@PathVariable("id") Long id, Principal principal,
+			                         @RequestParam(value = "ano", required = false) Integer ano,
+			                         @RequestParam(value = "ate", required = false) String ate) {
+		YearMonth inicio;
+		YearMonth fim;
+		try {
+			if (ano != null) {
+				inicio = YearMonth.of(ano, 1);
+				fim = YearMonth.of(ano, 12);
+			} else {
+				fim = ate == null ? YearMonth.now() : YearMonth.parse(ate);
+				inicio = fim.minusMonths(11);
+			}
+		} catch (DateTimeException e) {
+			return ResponseEntity.badRequest().body("Informe um período válido");
+		}
+		
+		FluxoCaixaDTO fluxo = lancamentoService.obterFluxoDeCaixa(id, inicio, fim);
+		
+		if (!existeSaldoOuUsuario(id, fluxo.getTotal(), principal)) {
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
+		
+		return ResponseEntity.ok(fluxo);
+	}
+	
+	// Fluxo mensal com filtros de tipo e status, calculado sobre os lançamentos em memória:
+	// ?inicio=2022-01&fim=2022-12&tipo=DESPESA&status=EFETIVADO (período padrão: últimos 12 meses).
+	@GetMapping("{id}/analise")
+	public ResponseEntity analisar(@PathVariable("id") Long id, Principal principal,
+			                       @RequestParam(value = "inicio", required = false) String inicio,
+			                       @RequestParam(value = "fim", required = false) String fim,
+			                       @RequestParam(value = "tipo", required = false) String tipo,
+			                       @RequestParam(value = "status", required = false) String status) {
+		YearMonth ate;
+		YearMonth de;
+		TipoLancamento tipoLancamento;
+		StatusLancamento statusLancamento;
+		try {
+			ate = fim == null ? YearMonth.now() : YearMonth.parse(fim);
+			de = inicio == null ? ate.minusMonths(11) : YearMonth.parse(inicio);
+			tipoLancamento = tipo == null ? null : TipoLancamento.valueOf(tipo);
+			statusLancamento = status == null ? null : StatusLancamento.valueOf(status);
+		} catch (DateTimeException | IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Informe um período, tipo e status válidos");
+		}
+		
+		try {
+			FluxoCaixaDTO fluxo = lancamentoService.analisar(id, de, ate, tipoLancamento, statusLancamento);
+			
+			if (!existeSaldoOuUsuario(id, fluxo.getTotal(), principal)) {
+				return new ResponseEntity(HttpStatus.NOT_FOUND);
+			}
+			return ResponseEntity.ok(fluxo);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	// Só consulta o usuário quando a agregação não retornou nenhum lançamento,
+	// assim o caso comum (usuário com lançamentos) custa uma única consulta.
+	private boolean existeSaldoOuUsuario(Long id, SaldoDTO saldo, Principal principal) {
+		return !saldo.getPorStatus().isEmpty() || existeUsuario(id, principal);
+	}
+	
+	// O token de acesso do próprio usuário já garante que ele existe, sem ir ao banco.
+	private boolean existeUsuario(Long id, Principal principal) {
+		return principal instanceof UsuarioAutenticado && id.equals(((UsuarioAutenticado) principal).getId())
+			   || service.obterPorId(id).isPresent();
+	}
 }
@@ -0,0 +1,75 @@
+package com.gef.minhasFinancas.api.seguranca;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// Endpoints administrativos e internos do cluster: exigem a chave de minhasfinancas.admin.chave no
+// cabeçalho X-Chave-Administrativa, comparada em tempo constante. Sem chave configurada eles ficam
+// fechados. O token de usuário não vale aqui e nem é exigido: a requisição aceita segue marcada
+// (ATRIBUTO) e o FiltroToken a deixa passar. Os caminhos protegidos são conferidos no caminho como
+// o Spring MVC o interpreta (FiltroToken.caminho), com o que vem depois deles: "/" (barra final,
+// subcaminhos) e "." (extensão); um url-pattern do servlet deixaria essas variações passarem.
+public class FiltroAdministrativo extends OncePerRequestFilter {
+	
+	public static final String CABECALHO = "X-Chave-Administrativa";
+	
+	static final String ATRIBUTO = FiltroAdministrativo.class.getName() + ".autorizada";
+	
+	private final byte[] chave;
+	private final List<String> caminhos;
+	
+	public FiltroAdministrativo(String chave, String... caminhos) {
+		this.chave = chave == null || chave.isEmpty() ? null : chave.getBytes(StandardCharsets.UTF_8);
+		this.caminhos = Arrays.asList(caminhos);
+	}
+	
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		
+		if (!administrativo(FiltroToken.caminho(request))) {
+			chain.doFilter(request, response);
+			return;
+		}
+		
+		String informada = request.getHeader(CABECALHO);
+		if (chave == null || informada == null
+				|| !MessageDigest.isEqual(chave, informada.getBytes(StandardCharsets.UTF_8))) {
+			response.setStatus(HttpStatus.FORBIDDEN.value());
+			response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			response.setCharacterEncoding("UTF-8");
+			response.getWriter().write("Acesso restrito à administração");
+			return;
+		}
+		
+		request.setAttribute(ATRIBUTO, Boolean.TRUE);
+		chain.doFilter(request, response);
+	}
+	
+	private boolean administrativo(String caminho) {
+		for (String protegido : caminhos) {
+			if (caminho.startsWith(protegido) && (caminho.length() == protegido.length()
+					|| caminho.charAt(protegido.length()) == '/' || caminho.charAt(protegido.length()) == '.')) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	static boolean autorizada(HttpServletRequest request) {
+		return Boolean.TRUE.equals(request.getAttribute(ATRIBUTO));
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.gef.minhasFinancas.api.seguranca;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.gef.minhasFinancas.service.seguranca.LimitadorRequisicoes;
+
+// Limite de requisições por usuário (LimitadorRequisicoes). Roda depois do FiltroToken: o usuário
+// é o do token, que já conferiu "usuario" e /api/usuarios/{id}; sem token (login, cadastro ou
+// token.obrigatorio=false) o limite é por endereço de origem, porque o que o cliente informa não
+// identifica ninguém. A regra é escolhida pelo caminho como o Spring MVC o interpreta. Acima do
+// limite a resposta é 429 com Retry-After em segundos.
+public class FiltroLimite extends OncePerRequestFilter {
+	
+	private final LimitadorRequisicoes limitador;
+	
+	public FiltroLimite(LimitadorRequisicoes limitador) {
+		this.limitador = limitador;
+	}
+	
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		
+		long espera = limitador.consumir(request.getMethod(), FiltroToken.caminho(request), chave(request));
+		
+		if (espera > 0) {
+			long segundos = Math.max(1, (espera + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+			response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+			response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+			response.setCharacterEncoding("UTF-8");
+			response.getWriter().write("Limite de requisições excedido. Tente novamente em " + segundos + " segundo(s)");
+			return;
+		}
+		
+		chain.doFilter(request, response);
+	}
+	
+	private static String chave(HttpServletRequest request) {
+		Principal principal = request.getUserPrincipal();
+		if (principal != null) {
+			return "usuario:" + principal.getName();
+		}
+		return "origem:" + request.getRemoteAddr();
+	}
+
+}
@@ -0,0 +1,182 @@
+package com.gef.minhasFinancas.api.seguranca;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.NumberUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.gef.minhasFinancas.service.seguranca.TokenAcesso;
+import com.gef.minhasFinancas.service.seguranca.UsuarioAutenticado;
+
+// Verifica o token (Authorization: Bearer ...) das requisições da API sem consultar o banco e
+// põe o usuário como principal da requisição. Com token, o parâmetro "usuario" e o id de
+// /api/usuarios/{id} precisam ser os do próprio usuário (403); sem o parâmetro, ele é preenchido
+// com o id do token. Sem token a requisição só segue com minhasfinancas.token.obrigatorio=false.
+// O caminho conferido é o mesmo que o Spring MVC usa para achar o handler (decodificado, sem ";..."
+// e sem "//"), para que variações da URL não levem a outro usuário. Requisições já aceitas pelo
+// FiltroAdministrativo não passam pelo token.
+public class FiltroToken extends OncePerRequestFilter {
+	
+	private static final String PARAMETRO_USUARIO = "usuario";
+	
+	private static final String BEARER = "Bearer ";
+	private static final UrlPathHelper CAMINHOS = new UrlPathHelper();
+	private static final Pattern CAMINHO_USUARIO = Pattern.compile("^/api/(?:reativo/)?usuarios/([^/]+)(?:/.*)?$");
+	
+	private final TokenAcesso tokenAcesso;
+	private final boolean obrigatorio;
+	
+	public FiltroToken(TokenAcesso tokenAcesso, boolean obrigatorio) {
+		this.tokenAcesso = tokenAcesso;
+		this.obrigatorio = obrigatorio;
+	}
+	
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		
+		String caminho = caminho(request);
+		if (publico(request.getMethod(), caminho) || FiltroAdministrativo.autorizada(request)) {
+			chain.doFilter(request, response);
+			return;
+		}
+		
+		String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (autorizacao == null || !autorizacao.startsWith(BEARER)) {
+			if (obrigatorio) {
+				recusar(response, HttpStatus.UNAUTHORIZED, "Informe o token de acesso");
+				return;
+			}
+			chain.doFilter(request, response);
+			return;
+		}
+		
+		Optional<UsuarioAutenticado> usuario = tokenAcesso.verificar(autorizacao.substring(BEARER.length()).trim());
+		if (!usuario.isPresent()) {
+			recusar(response, HttpStatus.UNAUTHORIZED, "Token de acesso inválido ou expirado");
+			return;
+		}
+		
+		Matcher caminhoUsuario = CAMINHO_USUARIO.matcher(caminho);
+		if (caminhoUsuario.matches() && !proprio(caminhoUsuario.group(1), usuario.get())
+				|| !proprio(request.getParameterValues(PARAMETRO_USUARIO), usuario.get())) {
+			recusar(response, HttpStatus.FORBIDDEN, "Acesso permitido apenas aos dados do próprio usuário");
+			return;
+		}
+		
+		chain.doFilter(new RequisicaoAutenticada(request, usuario.get()), response);
+	}
+	
+	// Caminho dentro da aplicação como o DispatcherServlet o interpreta
+	static String caminho(HttpServletRequest request) {
+		return CAMINHOS.getPathWithinApplication(request);
+	}
+	
+	// Login, cadastro e preflight de CORS não têm token
+	private static boolean publico(String metodo, String caminho) {
+		return HttpMethod.OPTIONS.matches(metodo)
+			   || HttpMethod.POST.matches(metodo) && (caminho.equals("/api/usuarios") || caminho.equals("/api/usuarios/autenticar"));
+	}
+	
+	private static boolean proprio(String[] informados, UsuarioAutenticado usuario) {
+		if (informados == null) {
+			return true;
+		}
+		for (String informado : informados) {
+			if (!proprio(informado, usuario)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	// Convertido como o Spring converte o @PathVariable/@RequestParam (inclusive "0x..."); o que não
+	// é número não é do usuário.
+	private static boolean proprio(String informado, UsuarioAutenticado usuario) {
+		try {
+			return usuario.getId().equals(NumberUtils.parseNumber(informado, Long.class));
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+	
+	private static void recusar(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+		response.setStatus(status.value());
+		if (status == HttpStatus.UNAUTHORIZED) {
+			response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+		}
+		response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		response.getWriter().write(mensagem);
+	}
+	
+	private static class RequisicaoAutenticada extends HttpServletRequestWrapper {
+		
+		private final UsuarioAutenticado usuario;
+		private final String[] idUsuario;
+		
+		RequisicaoAutenticada(HttpServletRequest request, UsuarioAutenticado usuario) {
+			super(request);
+			this.usuario = usuario;
+			this.idUsuario = new String[] { usuario.getName() };
+		}
+		
+		@Override
+		public UsuarioAutenticado getUserPrincipal() {
+			return usuario;
+		}
+		
+		@Override
+		public String getRemoteUser() {
+			return usuario.getName();
+		}
+		
+		@Override
+		public String getParameter(String nome) {
+			String[] valores = getParameterValues(nome);
+			return valores == null ? null : valores[0];
+		}
+		
+		@Override
+		public String[] getParameterValues(String nome) {
+			String[] valores = super.getParameterValues(nome);
+			return valores == null && PARAMETRO_USUARIO.equals(nome) ? idUsuario.clone() : valores;
+		}
+		
+		@Override
+		public Map<String, String[]> getParameterMap() {
+			Map<String, String[]> parametros = super.getParameterMap();
+			if (parametros.containsKey(PARAMETRO_USUARIO)) {
+				return parametros;
+			}
+			Map<String, String[]> comUsuario = new LinkedHashMap<>(parametros);
+			comUsuario.put(PARAMETRO_USUARIO, idUsuario.clone());
+			return Collections.unmodifiableMap(comUsuario);
+		}
+		
+		@Override
+		public Enumeration<String> getParameterNames() {
+			return Collections.enumeration(getParameterMap().keySet());
+		}
+		
+	}
+
+}
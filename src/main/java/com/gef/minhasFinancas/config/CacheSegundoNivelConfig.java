@@ -0,0 +1,33 @@
+package com.gef.minhasFinancas.config;
+
+import java.io.IOException;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+
+// O hibernate-jcache 5.3 não entende "classpath:" em hibernate.javax.cache.uri, então o
+// CacheManager do Ehcache é criado aqui a partir de ehcache.xml e entregue pronto ao Hibernate.
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class CacheSegundoNivelConfig {
+	
+	@Bean(destroyMethod = "close")
+	public CacheManager cacheManagerSegundoNivel() throws IOException {
+		return Caching.getCachingProvider(EhcacheCachingProvider.class.getName())
+				      .getCacheManager(new ClassPathResource("ehcache.xml").getURI(), getClass().getClassLoader());
+	}
+	
+	@Bean
+	public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheManagerSegundoNivel) {
+		return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+	}
+
+}
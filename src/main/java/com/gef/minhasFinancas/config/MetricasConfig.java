@@ -0,0 +1,94 @@
+package com.gef.minhasFinancas.config;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.gef.minhasFinancas.api.dto.EstatisticasExecutorDTO;
+import com.gef.minhasFinancas.api.dto.EstatisticasLimiteDTO;
+import com.gef.minhasFinancas.service.execucao.ExecutorBanco;
+import com.gef.minhasFinancas.service.seguranca.LimitadorRequisicoes;
+import com.gef.minhasFinancas.service.seguranca.VerificadorSenha;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+// Complementa as métricas do actuator (HTTP, JVM, Hikari e estatísticas do Hibernate) com o
+// histograma dos endpoints de saldo e busca e com os contadores já mantidos pelos executores
+// e pelo limite de requisições.
+@Configuration
+public class MetricasConfig {
+	
+	private static final String REQUISICOES_HTTP = "http.server.requests";
+	
+	// Só estes endpoints têm histograma (buckets no Prometheus, para p95/p99 agregáveis entre
+	// instâncias); nos demais o custo das séries extras não compensa.
+	@Bean
+	public MeterFilter histogramaSaldoEBusca(@Value("${minhasfinancas.metricas.histograma.uris:}") List<String> uris) {
+		return new MeterFilter() {
+			@Override
+			public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+				if (!REQUISICOES_HTTP.equals(id.getName()) || !uris.contains(id.getTag("uri"))) {
+					return config;
+				}
+				return DistributionStatisticConfig.builder()
+						                          .percentilesHistogram(true)
+						                          .maximumExpectedValue(10_000_000_000l)
+						                          .build()
+						                          .merge(config);
+			}
+		};
+	}
+	
+	@Bean
+	public MeterBinder metricasExecutores(ExecutorBanco executorBanco, VerificadorSenha verificadorSenha) {
+		return registry -> {
+			registrar(registry, executorBanco.obterEstatisticas().getNome(), executorBanco::obterEstatisticas);
+			registrar(registry, verificadorSenha.obterEstatisticas().getNome(), verificadorSenha::obterEstatisticas);
+		};
+	}
+	
+	@Bean
+	public MeterBinder metricasLimite(LimitadorRequisicoes limitador) {
+		return registry -> limitador.obterEstatisticas().forEach(regra -> {
+			FunctionCounter.builder("minhasfinancas.limite.requisicoes", limitador, l -> contador(l, regra.getRegra(), true))
+			               .description("Requisições aceitas pelo limite por usuário")
+			               .tags("regra", regra.getRegra(), "resultado", "permitida")
+			               .register(registry);
+			FunctionCounter.builder("minhasfinancas.limite.requisicoes", limitador, l -> contador(l, regra.getRegra(), false))
+			               .description("Requisições recusadas (429) pelo limite por usuário")
+			               .tags("regra", regra.getRegra(), "resultado", "recusada")
+			               .register(registry);
+		});
+	}
+	
+	private static void registrar(MeterRegistry registry, String nome, Supplier<EstatisticasExecutorDTO> estatisticas) {
+		Gauge.builder("minhasfinancas.executor.fila", estatisticas, e -> e.get().getFila())
+		     .tag("executor", nome)
+		     .register(registry);
+		Gauge.builder("minhasfinancas.executor.ativas", estatisticas, e -> e.get().getAtivas())
+		     .tag("executor", nome)
+		     .register(registry);
+		FunctionCounter.builder("minhasfinancas.executor.recusadas", estatisticas, e -> e.get().getRecusadas())
+		               .tag("executor", nome)
+		               .register(registry);
+	}
+	
+	private static double contador(LimitadorRequisicoes limitador, String regra, boolean permitidas) {
+		for (EstatisticasLimiteDTO estatisticas : limitador.obterEstatisticas()) {
+			if (estatisticas.getRegra().equals(regra)) {
+				return permitidas ? estatisticas.getPermitidas() : estatisticas.getRecusadas();
+			}
+		}
+		return 0;
+	}
+
+}
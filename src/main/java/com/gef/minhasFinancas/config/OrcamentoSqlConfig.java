@@ -0,0 +1,59 @@
+package com.gef.minhasFinancas.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.gef.minhasFinancas.api.metricas.FiltroConsumoSql;
+import com.gef.minhasFinancas.service.metricas.MonitorSql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+// Orçamento de SQL por requisição: o DataSource passa pelo datasource-proxy, que entrega cada
+// execução ao MonitorSql, e o FiltroConsumoSql confere o total ao fim da requisição.
+@Configuration
+@ConditionalOnProperty(name = "minhasfinancas.sql.orcamento.ativo", havingValue = "true", matchIfMissing = true)
+public class OrcamentoSqlConfig {
+	
+	// Estático para não antecipar a criação desta configuração; o pool do Hikari continua
+	// acessível por unwrap (métricas do actuator).
+	@Bean
+	public static BeanPostProcessor monitorarDataSource() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String nome) {
+				if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+					return bean;
+				}
+				return ProxyDataSourceBuilder.create((DataSource) bean)
+						                     .name(nome)
+						                     .listener(new MonitorSql())
+						                     .build();
+			}
+		};
+	}
+	
+	// Antes dos demais filtros da API, para contar também o que eles consultam.
+	@Bean
+	public FilterRegistrationBean<FiltroConsumoSql> filtroConsumoSql(
+			@Value("${minhasfinancas.sql.orcamento.comandos:30}") int comandos,
+			@Value("${minhasfinancas.sql.orcamento.tempo-ms:1000}") long tempoMs,
+			@Value("${minhasfinancas.sql.orcamento.repeticoes:10}") int repeticoes,
+			@Value("${minhasfinancas.sql.orcamento.falhar:false}") boolean falhar,
+			ObjectProvider<MeterRegistry> registry) {
+		FiltroConsumoSql filtro = new FiltroConsumoSql(comandos, tempoMs, repeticoes, falhar, registry.getIfAvailable());
+		FilterRegistrationBean<FiltroConsumoSql> registro = new FilterRegistrationBean<>(filtro);
+		registro.addUrlPatterns("/api/*");
+		registro.setOrder(0);
+		return registro;
+	}
+
+}
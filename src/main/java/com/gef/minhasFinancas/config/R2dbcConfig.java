@@ -0,0 +1,46 @@
+package com.gef.minhasFinancas.config;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import reactor.core.Disposable;
+
+// Conexões R2DBC do caminho de leitura reativo, no mesmo banco (e schema financas) do JPA.
+// Usuário e senha são os do spring.datasource; com r2dbc:pool: as conexões vêm do r2dbc-pool.
+@Configuration
+@ConditionalOnProperty(name = R2dbcConfig.URL)
+public class R2dbcConfig {
+	
+	public static final String URL = "minhasfinancas.r2dbc.url";
+	
+	private ConnectionFactory connectionFactory;
+	
+	@Bean
+	public ConnectionFactory connectionFactory(@Value("${" + URL + "}") String url,
+			                                   @Value("${spring.datasource.username:}") String usuario,
+			                                   @Value("${spring.datasource.password:}") String senha) {
+		ConnectionFactoryOptions opcoes = ConnectionFactoryOptions.parse(url)
+				                                                  .mutate()
+				                                                  .option(ConnectionFactoryOptions.USER, usuario)
+				                                                  .option(ConnectionFactoryOptions.PASSWORD, senha)
+				                                                  .build();
+		connectionFactory = ConnectionFactories.get(opcoes);
+		return connectionFactory;
+	}
+	
+	// O close() do pool devolve um Publisher que ninguém assinaria no encerramento do contexto.
+	@PreDestroy
+	public void encerrar() {
+		if (connectionFactory instanceof Disposable) {
+			((Disposable) connectionFactory).dispose();
+		}
+	}
+
+}
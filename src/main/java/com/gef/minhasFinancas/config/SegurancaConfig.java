@@ -0,0 +1,52 @@
+package com.gef.minhasFinancas.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.gef.minhasFinancas.api.seguranca.FiltroAdministrativo;
+import com.gef.minhasFinancas.api.seguranca.FiltroLimite;
+import com.gef.minhasFinancas.api.seguranca.FiltroToken;
+import com.gef.minhasFinancas.service.seguranca.LimitadorRequisicoes;
+import com.gef.minhasFinancas.service.seguranca.TokenAcesso;
+
+// Os filtros só valem para a API; ficam aqui, e não como @Component, para não ser
+// registrado também em /* nem entrar nos testes @WebMvcTest dos resources.
+@Configuration
+public class SegurancaConfig {
+	
+	// Antes do token: os endpoints administrativos valem pela chave, sem token de usuário. O filtro
+	// pega toda a API e escolhe os caminhos protegidos ele mesmo, no caminho normalizado. Caches,
+	// executores e limites expõem estatísticas internas e a ocupação do servidor.
+	@Bean
+	public FilterRegistrationBean<FiltroAdministrativo> filtroAdministrativo(
+			@Value("${minhasfinancas.admin.chave:}") String chave) {
+		FilterRegistrationBean<FiltroAdministrativo> registro = new FilterRegistrationBean<>(
+				new FiltroAdministrativo(chave, "/api/caches", "/api/executores", "/api/limites", "/api/relatorios"));
+		registro.addUrlPatterns("/api/*");
+		registro.setOrder(1);
+		return registro;
+	}
+	
+	@Bean
+	public FilterRegistrationBean<FiltroToken> filtroToken(TokenAcesso tokenAcesso,
+			                                               @Value("${minhasfinancas.token.obrigatorio:true}") boolean obrigatorio) {
+		FilterRegistrationBean<FiltroToken> registro = new FilterRegistrationBean<>(new FiltroToken(tokenAcesso, obrigatorio));
+		registro.addUrlPatterns("/api/*");
+		registro.setOrder(2);
+		return registro;
+	}
+	
+	// Depois do token, para limitar pelo usuário autenticado; só nos endpoints de lançamentos e usuários.
+	@Bean
+	@ConditionalOnProperty(name = "minhasfinancas.limite.ativo", havingValue = "true", matchIfMissing = true)
+	public FilterRegistrationBean<FiltroLimite> filtroLimite(LimitadorRequisicoes limitador) {
+		FilterRegistrationBean<FiltroLimite> registro = new FilterRegistrationBean<>(new FiltroLimite(limitador));
+		registro.addUrlPatterns("/api/lancamentos", "/api/lancamentos/*", "/api/usuarios", "/api/usuarios/*");
+		registro.setOrder(3);
+		return registro;
+	}
+
+}
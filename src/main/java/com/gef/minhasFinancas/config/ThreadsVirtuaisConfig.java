@@ -0,0 +1,37 @@
+package com.gef.minhasFinancas.config;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.gef.minhasFinancas.service.execucao.ThreadsVirtuais;
+
+// Com minhasfinancas.execucao.threads-virtuais=true e Java 21+, o Tomcat atende cada requisição
+// numa thread virtual nova em vez do pool de server.tomcat.max-threads. O executor não é
+// encerrado no shutdown: sem pool, não há threads ociosas para liberar.
+@Configuration
+@ConditionalOnProperty(name = "minhasfinancas.execucao.threads-virtuais", havingValue = "true")
+public class ThreadsVirtuaisConfig {
+	
+	private static final Logger log = LoggerFactory.getLogger(ThreadsVirtuaisConfig.class);
+	
+	@Bean
+	public WebServerFactoryCustomizer<TomcatServletWebServerFactory> tomcatThreadsVirtuais() {
+		return fabrica -> {
+			Optional<ExecutorService> executor = ThreadsVirtuais.executorPorTarefa("http-virtual-");
+			if (!executor.isPresent()) {
+				log.warn("Threads virtuais exigem Java 21 ou superior; o Tomcat usará o pool de threads de plataforma");
+				return;
+			}
+			fabrica.addConnectorCustomizers(conector -> conector.getProtocolHandler().setExecutor(executor.get()));
+		};
+	}
+
+}
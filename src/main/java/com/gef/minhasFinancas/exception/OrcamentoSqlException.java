@@ -0,0 +1,11 @@
+package com.gef.minhasFinancas.exception;
+
+// A requisição passou do orçamento de comandos SQL (minhasfinancas.sql.orcamento.falhar=true).
+@SuppressWarnings("serial")
+public class OrcamentoSqlException extends RuntimeException {
+	
+	public OrcamentoSqlException(String mensagem) {
+		super(mensagem);
+	}
+
+}
@@ -0,0 +1,10 @@
+package com.gef.minhasFinancas.exception;
+
+// A fila de trabalho está cheia; a requisição é recusada em vez de esperar sem limite.
+@SuppressWarnings("serial")
+public class SobrecargaException extends RuntimeException{
+	
+	public SobrecargaException (String msg) {
+		super(msg);
+	}
+}
@@ -1,24 +1,31 @@
 package com.gef.minhasFinancas.model.entity;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
+import javax.persistence.EntityListeners;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
 
 import com.gef.minhasFinancas.model.enuns.StatusLancamento;
 import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+import com.gef.minhasFinancas.service.cache.OuvinteInvalidacaoCache;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -30,11 +37,21 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "lancamento", schema = "financas")
+// Região do cache de segundo nível em ehcache.xml; o usuário do @ManyToOne é guardado
+// pelo id e lido do banco (Usuario fica fora do segundo nível, ver UsuarioRepository).
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// Invalidação do cache nos demais nós do cluster
+@EntityListeners(OuvinteInvalidacaoCache.class)
+// Índices criados pelas migrações em db/migration (V7 inclui tipo, status e valor no de período)
+@Table(name = "lancamento", schema = "financas", indexes = {
+		@Index(name = "idx_lancamento_usuario_ano_mes", columnList = "id_usuario, ano, mes, id")})
 public class Lancamento {
 	
+	// Ids reservados em blocos (V5__sequencia_lancamento) para permitir inserts em lote
 	@Id
-	@GeneratedValue( strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+	@SequenceGenerator(name = "lancamento_seq", schema = "financas", sequenceName = "lancamento_seq", allocationSize = 50)
 	@Column(name = "id")
 	private Long id;
 	
@@ -52,7 +69,7 @@ public class Lancamento {
 	private Usuario usuario;
 	
 	@Column(name = "valor")
-	private BigDecimal valor;
+	private Dinheiro valor;
 	
 	@Column(name = "data_cadastro")
 	@Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)
@@ -0,0 +1,79 @@
+package com.gef.minhasFinancas.model.entity;
+
+import java.time.LocalDate;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Soma de prefixos do saldo por usuário e dia: valor é o movimento líquido do dia e acumulado
+// o saldo ao fim dele. O saldo em uma data é o acumulado do último dia até ela (uma busca no
+// índice), e uma curva de saldo é a faixa de dias do período, sem varrer o histórico.
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "saldo_diario", schema = "financas",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"id_usuario", "data"}))
+public class SaldoDiario {
+	
+	@Id
+	@GeneratedValue( strategy = GenerationType.IDENTITY)
+	@Column(name = "id")
+	private Long id;
+	
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "data")
+	@Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)
+	private LocalDate data;
+	
+	@Column(name = "valor")
+	private Dinheiro valor;
+	
+	@Column(name = "quantidade")
+	private Long quantidade;
+	
+	@Column(name = "acumulado")
+	private Dinheiro acumulado;
+	
+	public SaldoDiario(Long idUsuario, LocalDate data, Dinheiro valor, Long quantidade) {
+		this(null, idUsuario, data, valor, quantidade, null);
+	}
+	
+	public static SaldoDiario de(Lancamento lancamento) {
+		return de(SaldoUsuario.de(lancamento));
+	}
+	
+	// Movimento com sinal (despesa negativa) no dia do lançamento; sem data de cadastro,
+	// o primeiro dia do mês de competência (mesma regra da carga inicial em V6__saldo_diario).
+	public static SaldoDiario de(SaldoUsuario movimento) {
+		LocalDate data = movimento.getData() != null ? movimento.getData()
+				                                     : LocalDate.of(movimento.getAno(), movimento.getMes(), 1);
+		Dinheiro valor = movimento.getTipo() == TipoLancamento.DESPESA ? movimento.getValor().negar()
+				                                                          : movimento.getValor();
+		return new SaldoDiario(movimento.getIdUsuario(), data, valor, movimento.getQuantidade());
+	}
+	
+	public SaldoDiario negado() {
+		return new SaldoDiario(idUsuario, data, valor.negar(), -quantidade);
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.gef.minhasFinancas.model.entity;
+
+import java.time.LocalDate;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.EntityListeners;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.UniqueConstraint;
+
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+import com.gef.minhasFinancas.service.cache.OuvinteInvalidacaoCache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+// Saldo materializado por usuário, tipo, status e mês.
+// É mantido pelo LancamentoServiceImpl a cada escrita (soma/estorno do valor do lançamento),
+// assim o saldo não precisa varrer todo o histórico de lançamentos.
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+// Invalidação das consultas de saldo em cache
+@EntityListeners(OuvinteInvalidacaoCache.class)
+@Table(name = "saldo_usuario", schema = "financas",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"id_usuario", "tipo", "status", "ano", "mes"}))
+public class SaldoUsuario {
+	
+	@Id
+	@GeneratedValue( strategy = GenerationType.IDENTITY)
+	@Column(name = "id")
+	private Long id;
+	
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "tipo")
+	@Enumerated(value = EnumType.STRING)
+	private TipoLancamento tipo;
+	
+	@Column(name = "status")
+	@Enumerated(value = EnumType.STRING)
+	private StatusLancamento status;
+	
+	@Column(name = "ano")
+	private Integer ano;
+	
+	@Column(name = "mes")
+	private Integer mes;
+	
+	@Column(name = "valor")
+	private Dinheiro valor;
+	
+	@Column(name = "quantidade")
+	private Long quantidade;
+	
+	// Data de cadastro do lançamento que originou o movimento; usada só pelo saldo diário.
+	@Transient
+	@EqualsAndHashCode.Exclude
+	private LocalDate data;
+	
+	// Usado nas consultas "select new" do LancamentoRepository (movimento de um lançamento
+	// ou soma de um mês já agrupada a partir da tabela lancamento).
+	public SaldoUsuario(Long idUsuario, TipoLancamento tipo, StatusLancamento status,
+			            Integer ano, Integer mes, Dinheiro valor, Long quantidade) {
+		this(null, idUsuario, tipo, status, ano, mes, valor, quantidade, null);
+	}
+	
+	public SaldoUsuario(Long idUsuario, TipoLancamento tipo, StatusLancamento status,
+			            Integer ano, Integer mes, Dinheiro valor, Long quantidade, LocalDate data) {
+		this(null, idUsuario, tipo, status, ano, mes, valor, quantidade, data);
+	}
+	
+	// Movimento que um único lançamento representa no saldo.
+	public static SaldoUsuario de(Lancamento lancamento) {
+		return new SaldoUsuario(
+				lancamento.getUsuario().getId(),
+				lancamento.getTipo(),
+				lancamento.getStatus(),
+				lancamento.getAno(),
+				lancamento.getMes(),
+				lancamento.getValor(),
+				1l,
+				lancamento.getDataCadastro());
+	}
+
+}
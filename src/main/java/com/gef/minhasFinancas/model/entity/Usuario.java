@@ -5,6 +5,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -31,7 +32,7 @@ import lombok.ToString;
 @AllArgsConstructor
 @Builder
 
-@Table(name = "usuario", schema="financas")
+@Table(name = "usuario", schema="financas", indexes = @Index(name = "idx_usuario_email", columnList = "email", unique = true))
 public class Usuario {
 	
 	@Id
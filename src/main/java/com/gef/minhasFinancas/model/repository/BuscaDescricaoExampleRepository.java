@@ -0,0 +1,49 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.stereotype.Repository;
+
+import com.gef.minhasFinancas.api.dto.OcorrenciaDescricaoDTO;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.Usuario;
+
+// Alternativa sem índice textual: o mesmo LIKE do LancamentoServiceImpl.buscar.
+@Repository
+@ConditionalOnProperty(name = BuscaDescricaoRepository.MODO, havingValue = "example")
+public class BuscaDescricaoExampleRepository implements BuscaDescricaoRepository {
+	
+	private final LancamentoRepository lancamentoRepository;
+	
+	public BuscaDescricaoExampleRepository(LancamentoRepository lancamentoRepository) {
+		this.lancamentoRepository = lancamentoRepository;
+	}
+
+	@Override
+	public List<OcorrenciaDescricaoDTO> buscar(Long idUsuario, String termo, boolean prefixo, int limite) {
+		Lancamento filtro = Lancamento.builder()
+				.descricao(termo)
+				.usuario(Usuario.builder().id(idUsuario).build())
+				.build();
+		
+		Example<Lancamento> example = Example.of(filtro, ExampleMatcher.matching()
+				.withIgnoreCase()
+				.withStringMatcher(prefixo ? StringMatcher.STARTING : StringMatcher.CONTAINING));
+		
+		return lancamentoRepository.findAll(example).stream()
+				.map(l -> new OcorrenciaDescricaoDTO(l.getId(), (double) termo.length() / l.getDescricao().length()))
+				.sorted((a, b) -> Double.compare(b.getRelevancia(), a.getRelevancia()))
+				.limit(limite)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public void invalidar(Long idUsuario) {
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.gef.minhasFinancas.api.dto.OcorrenciaDescricaoDTO;
+
+// Índice de n-gramas em memória, montado por usuário na primeira busca.
+// Equivale à busca do PostgreSQL para bancos sem pg_trgm (H2 do perfil de teste).
+@Repository
+@ConditionalOnProperty(name = BuscaDescricaoRepository.MODO, havingValue = "memoria")
+public class BuscaDescricaoMemoriaRepository implements BuscaDescricaoRepository {
+	
+	private final LancamentoRepository lancamentoRepository;
+	private final Map<Long, IndiceDescricao> indices = new ConcurrentHashMap<>();
+	
+	public BuscaDescricaoMemoriaRepository(LancamentoRepository lancamentoRepository) {
+		this.lancamentoRepository = lancamentoRepository;
+	}
+
+	@Override
+	public List<OcorrenciaDescricaoDTO> buscar(Long idUsuario, String termo, boolean prefixo, int limite) {
+		IndiceDescricao indice = indices.computeIfAbsent(idUsuario,
+				id -> new IndiceDescricao(lancamentoRepository.obterDescricoesPorUsuario(id)));
+		
+		return prefixo ? indice.buscarPrefixo(termo, limite) : indice.buscarTrecho(termo, limite);
+	}
+
+	@Override
+	public void invalidar(Long idUsuario) {
+		indices.remove(idUsuario);
+		
+		// Descarta de novo após o commit: uma busca concorrente pode ter remontado o índice
+		// com os dados anteriores à alteração.
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					indices.remove(idUsuario);
+				}
+			});
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import com.gef.minhasFinancas.api.dto.OcorrenciaDescricaoDTO;
+
+// Usa os índices GIN de db/migration/postgresql/V4__busca_descricao.sql (gin_trgm_ops para trechos e to_tsvector para prefixos).
+@Repository
+@ConditionalOnProperty(name = BuscaDescricaoRepository.MODO, havingValue = "postgresql", matchIfMissing = true)
+public class BuscaDescricaoPostgresRepository implements BuscaDescricaoRepository {
+	
+	private static final String TRECHO = "select l.id, similarity(l.descricao, :termo) as relevancia"
+			+ " from financas.lancamento l"
+			+ " where l.id_usuario = :idUsuario and l.descricao ilike :padrao"
+			+ " order by relevancia desc, l.id"
+			+ " limit :limite";
+	
+	private static final String PREFIXO = "select l.id, ts_rank(to_tsvector('simple', l.descricao), q) as relevancia"
+			+ " from financas.lancamento l, to_tsquery('simple', :consulta) q"
+			+ " where l.id_usuario = :idUsuario and to_tsvector('simple', l.descricao) @@ q"
+			+ " order by relevancia desc, l.id"
+			+ " limit :limite";
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<OcorrenciaDescricaoDTO> buscar(Long idUsuario, String termo, boolean prefixo, int limite) {
+		List<Object[]> linhas;
+		
+		if (prefixo) {
+			String consulta = consultaPorPrefixo(termo);
+			if (consulta.isEmpty()) {
+				return new ArrayList<>();
+			}
+			linhas = entityManager.createNativeQuery(PREFIXO)
+					.setParameter("consulta", consulta)
+					.setParameter("idUsuario", idUsuario)
+					.setParameter("limite", limite)
+					.getResultList();
+		} else {
+			linhas = entityManager.createNativeQuery(TRECHO)
+					.setParameter("termo", termo)
+					.setParameter("padrao", "%" + escaparLike(termo) + "%")
+					.setParameter("idUsuario", idUsuario)
+					.setParameter("limite", limite)
+					.getResultList();
+		}
+		
+		List<OcorrenciaDescricaoDTO> ocorrencias = new ArrayList<>();
+		for (Object[] linha : linhas) {
+			ocorrencias.add(new OcorrenciaDescricaoDTO(((Number) linha[0]).longValue(), ((Number) linha[1]).doubleValue()));
+		}
+		return ocorrencias;
+	}
+
+	@Override
+	public void invalidar(Long idUsuario) {
+		// Os índices do banco são mantidos pelo próprio PostgreSQL.
+	}
+	
+	// "sal jan" -> "sal:* & jan:*"; somente letras e dígitos chegam ao to_tsquery.
+	static String consultaPorPrefixo(String termo) {
+		StringBuilder consulta = new StringBuilder();
+		for (String palavra : termo.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+			if (palavra.isEmpty()) {
+				continue;
+			}
+			if (consulta.length() > 0) {
+				consulta.append(" & ");
+			}
+			consulta.append(palavra).append(":*");
+		}
+		return consulta.toString();
+	}
+	
+	static String escaparLike(String termo) {
+		return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.List;
+
+import com.gef.minhasFinancas.api.dto.OcorrenciaDescricaoDTO;
+
+// Busca textual na descrição dos lançamentos de um usuário, ordenada por relevância.
+// A implementação é escolhida pela propriedade minhasfinancas.busca.descricao.modo:
+// postgresql (índices pg_trgm/tsvector), memoria (índice de n-gramas, usado com o H2) ou example.
+public interface BuscaDescricaoRepository {
+	
+	String MODO = "minhasfinancas.busca.descricao.modo";
+	
+	// prefixo = false: a descrição contém o termo (como o LIKE '%termo%' do Example).
+	// prefixo = true: cada palavra do termo é início de alguma palavra da descrição.
+	List<OcorrenciaDescricaoDTO> buscar(Long idUsuario, String termo, boolean prefixo, int limite);
+	
+	// Avisa que os lançamentos do usuário foram alterados.
+	void invalidar(Long idUsuario);
+
+}
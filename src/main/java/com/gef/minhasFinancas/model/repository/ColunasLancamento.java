@@ -0,0 +1,158 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO;
+import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+// Cópia somente leitura dos lançamentos de um usuário em colunas de tipos primitivos,
+// ordenadas por ano e mês: filtros e agrupamentos são laços sobre os arrays, sem entidades
+// nem boxing, e o período é localizado por busca binária.
+class ColunasLancamento {
+
+	// Ano e mês cabem em um short contados a partir de janeiro de ANO_BASE
+	static final int ANO_BASE = 1900;
+	static final int ANO_MINIMO = ANO_BASE + Short.MIN_VALUE / 12 + 1;
+	static final int ANO_MAXIMO = ANO_BASE + Short.MAX_VALUE / 12 - 1;
+
+	private static final TipoLancamento[] TIPOS = TipoLancamento.values();
+	private static final StatusLancamento[] STATUS = StatusLancamento.values();
+	private static final byte RECEITA = (byte) TipoLancamento.RECEITA.ordinal();
+
+	private final long[] valorCentavos;
+	private final short[] anoMes;
+	private final byte[] tipo;
+	private final byte[] status;
+
+	// Linhas (valor, ano, mes, tipo, status); as sem tipo ou status não entram em nenhum agrupamento.
+	ColunasLancamento(List<Object[]> lancamentos) {
+		long[] chaves = new long[lancamentos.size()];
+		int quantidade = 0;
+		boolean ordenado = true;
+
+		for (int i = 0; i < lancamentos.size(); i++) {
+			Object[] lancamento = lancamentos.get(i);
+			if (lancamento[0] == null || lancamento[3] == null || lancamento[4] == null) {
+				continue;
+			}
+			chaves[quantidade] = ((long) codificar((Integer) lancamento[1], (Integer) lancamento[2]) << 32) | i;
+			ordenado &= quantidade == 0 || chaves[quantidade - 1] <= chaves[quantidade];
+			quantidade++;
+		}
+
+		chaves = Arrays.copyOf(chaves, quantidade);
+		if (!ordenado) {
+			Arrays.sort(chaves);
+		}
+
+		valorCentavos = new long[quantidade];
+		anoMes = new short[quantidade];
+		tipo = new byte[quantidade];
+		status = new byte[quantidade];
+		for (int i = 0; i < quantidade; i++) {
+			Object[] lancamento = lancamentos.get((int) chaves[i]);
+			valorCentavos[i] = ((Dinheiro) lancamento[0]).getCentavos();
+			anoMes[i] = (short) (chaves[i] >> 32);
+			tipo[i] = (byte) ((TipoLancamento) lancamento[3]).ordinal();
+			status[i] = (byte) ((StatusLancamento) lancamento[4]).ordinal();
+		}
+	}
+
+	int tamanho() {
+		return valorCentavos.length;
+	}
+
+	// Aproximação da memória ocupada: cabeçalhos dos arrays e 12 bytes por lançamento.
+	long bytes() {
+		return 80 + 12l * valorCentavos.length;
+	}
+
+	// Mesmo resultado de SaldoUsuarioRepository.obterSaldoMensalPorStatus, com filtros opcionais
+	// de tipo e status: só os grupos (mês, status) que têm lançamentos.
+	List<SaldoMensalStatusDTO> agruparPorMesEStatus(YearMonth inicio, YearMonth fim,
+			                                         TipoLancamento filtroTipo, StatusLancamento filtroStatus) {
+		int inicioPeriodo = inicioDe(codificarLimite(inicio));
+		int fimPeriodo = inicioDe(codificarLimite(fim) + 1);
+		if (inicioPeriodo >= fimPeriodo) {
+			return new ArrayList<>();
+		}
+		// Os grupos vão só do primeiro ao último mês com lançamentos no período
+		int primeiro = anoMes[inicioPeriodo];
+		int meses = anoMes[fimPeriodo - 1] - primeiro + 1;
+		int tipoFiltrado = filtroTipo == null ? -1 : filtroTipo.ordinal();
+		int statusFiltrado = filtroStatus == null ? -1 : filtroStatus.ordinal();
+
+		// Grupo = (mês, status, tipo): soma em centavos e quantidade
+		int grupos = meses * STATUS.length * TIPOS.length;
+		long[] somas = new long[grupos];
+		int[] quantidades = new int[grupos];
+
+		for (int i = inicioPeriodo; i < fimPeriodo; i++) {
+			if (tipoFiltrado >= 0 && tipo[i] != tipoFiltrado || statusFiltrado >= 0 && status[i] != statusFiltrado) {
+				continue;
+			}
+			int grupo = ((anoMes[i] - primeiro) * STATUS.length + status[i]) * TIPOS.length + tipo[i];
+			somas[grupo] = Math.addExact(somas[grupo], valorCentavos[i]);
+			quantidades[grupo]++;
+		}
+
+		List<SaldoMensalStatusDTO> linhas = new ArrayList<>();
+		for (int mes = 0; mes < meses; mes++) {
+			for (int s = 0; s < STATUS.length; s++) {
+				long receitas = 0;
+				long despesas = 0;
+				int quantidade = 0;
+				for (int t = 0; t < TIPOS.length; t++) {
+					int grupo = (mes * STATUS.length + s) * TIPOS.length + t;
+					quantidade += quantidades[grupo];
+					if (t == RECEITA) {
+						receitas += somas[grupo];
+					} else {
+						despesas += somas[grupo];
+					}
+				}
+				if (quantidade > 0) {
+					int codigo = primeiro + mes;
+					linhas.add(new SaldoMensalStatusDTO(ANO_BASE + Math.floorDiv(codigo, 12), Math.floorMod(codigo, 12) + 1,
+							                            STATUS[s], Dinheiro.centavos(receitas), Dinheiro.centavos(despesas)));
+				}
+			}
+		}
+		return linhas;
+	}
+
+	// Primeira posição com anoMes >= codigo (os arrays estão ordenados por anoMes).
+	private int inicioDe(int codigo) {
+		int baixo = 0;
+		int alto = anoMes.length;
+		while (baixo < alto) {
+			int meio = (baixo + alto) >>> 1;
+			if (anoMes[meio] < codigo) {
+				baixo = meio + 1;
+			} else {
+				alto = meio;
+			}
+		}
+		return baixo;
+	}
+
+	private static short codificar(Integer ano, Integer mes) {
+		if (ano == null || mes == null || ano < ANO_MINIMO || ano > ANO_MAXIMO || mes < 1 || mes > 12) {
+			throw new RegraNegocioException("Lançamento com ano ou mês fora do intervalo da análise: " + ano + "/" + mes);
+		}
+		return (short) ((ano - ANO_BASE) * 12 + mes - 1);
+	}
+
+	// Períodos além do intervalo representável são limitados a ele.
+	private static int codificarLimite(YearMonth mes) {
+		int ano = Math.max(ANO_MINIMO, Math.min(ANO_MAXIMO, mes.getYear()));
+		return codificar(ano, ano == mes.getYear() ? mes.getMonthValue() : (ano == ANO_MINIMO ? 1 : 12));
+	}
+
+}
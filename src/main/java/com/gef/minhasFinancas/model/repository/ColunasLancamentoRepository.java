@@ -0,0 +1,153 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.time.YearMonth;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.gef.minhasFinancas.api.dto.EstatisticasCacheDTO;
+import com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+
+// Colunas dos lançamentos (ColunasLancamento) por usuário, montadas na primeira consulta
+// e descartadas a cada escrita. Cabem em minhasfinancas.analise.memoria-maxima-mb: passando
+// do limite, saem inteiras as dos usuários consultados há mais tempo (LRU).
+@Repository
+public class ColunasLancamentoRepository {
+
+	public static final String NOME = "analise-lancamentos";
+
+	private final LancamentoRepository lancamentoRepository;
+	private final long memoriaMaxima;
+
+	// Em ordem de acesso; uma entrada sem colunas ainda está sendo montada
+	private final LinkedHashMap<Long, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+	private long memoria;
+
+	private final LongAdder acertos = new LongAdder();
+	private final LongAdder faltas = new LongAdder();
+	private final LongAdder remocoes = new LongAdder();
+
+	public ColunasLancamentoRepository(LancamentoRepository lancamentoRepository,
+			                           @Value("${minhasfinancas.analise.memoria-maxima-mb:64}") long memoriaMaximaMb) {
+		this.lancamentoRepository = lancamentoRepository;
+		this.memoriaMaxima = memoriaMaximaMb * 1024 * 1024;
+	}
+
+	public List<SaldoMensalStatusDTO> agruparPorMesEStatus(Long idUsuario, YearMonth inicio, YearMonth fim,
+			                                               TipoLancamento tipo, StatusLancamento status) {
+		return obter(idUsuario).agruparPorMesEStatus(inicio, fim, tipo, status);
+	}
+
+	public void invalidar(Long idUsuario) {
+		descartar(idUsuario);
+
+		// Descarta de novo após o commit: uma consulta concorrente pode ter montado as colunas
+		// com os dados anteriores à alteração.
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					descartar(idUsuario);
+				}
+			});
+		}
+	}
+
+	public synchronized EstatisticasCacheDTO obterEstatisticas() {
+		long consultas = acertos.sum() + faltas.sum();
+		return EstatisticasCacheDTO.builder()
+				                   .nome(NOME)
+				                   .tamanho((long) entradas.size())
+				                   .memoria(memoria)
+				                   .acertos(acertos.sum())
+				                   .faltas(faltas.sum())
+				                   .taxaAcerto(consultas == 0 ? 1d : (double) acertos.sum() / consultas)
+				                   .remocoes(remocoes.sum())
+				                   .build();
+	}
+
+	// Só uma thread monta as colunas de cada usuário; as demais esperam pela mesma montagem.
+	ColunasLancamento obter(Long idUsuario) {
+		Entrada entrada;
+		boolean montar = false;
+		synchronized (this) {
+			entrada = entradas.get(idUsuario);
+			if (entrada == null) {
+				entrada = new Entrada();
+				entradas.put(idUsuario, entrada);
+				montar = true;
+			}
+		}
+
+		if (!montar) {
+			acertos.increment();
+			try {
+				return entrada.colunas.join();
+			} catch (CompletionException e) {
+				throw (RuntimeException) e.getCause();
+			}
+		}
+
+		faltas.increment();
+		ColunasLancamento colunas;
+		try {
+			colunas = new ColunasLancamento(lancamentoRepository.obterColunasPorUsuario(idUsuario));
+		} catch (RuntimeException e) {
+			synchronized (this) {
+				entradas.remove(idUsuario, entrada);
+			}
+			entrada.colunas.completeExceptionally(e);
+			throw e;
+		}
+
+		guardar(idUsuario, entrada, colunas);
+		entrada.colunas.complete(colunas);
+		return colunas;
+	}
+
+	private synchronized void guardar(Long idUsuario, Entrada entrada, ColunasLancamento colunas) {
+		// Invalidada durante a montagem: quem já esperava recebe as colunas, mas elas não ficam guardadas
+		if (entradas.get(idUsuario) != entrada) {
+			return;
+		}
+
+		entrada.bytes = colunas.bytes();
+		memoria += entrada.bytes;
+
+		Iterator<Entrada> antigas = entradas.values().iterator();
+		while (memoria > memoriaMaxima && antigas.hasNext()) {
+			Entrada antiga = antigas.next();
+			if (antiga.bytes > 0 || antiga == entrada) {
+				antigas.remove();
+				memoria -= antiga.bytes;
+				remocoes.increment();
+			}
+		}
+	}
+
+	private synchronized void descartar(Long idUsuario) {
+		Entrada entrada = entradas.remove(idUsuario);
+		if (entrada != null) {
+			memoria -= entrada.bytes;
+		}
+	}
+
+	private static class Entrada {
+
+		final CompletableFuture<ColunasLancamento> colunas = new CompletableFuture<>();
+		long bytes;
+
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.gef.minhasFinancas.api.dto.OcorrenciaDescricaoDTO;
+
+// Índice invertido das descrições dos lançamentos de um usuário:
+// trigramas para busca por trecho e palavras ordenadas para busca por prefixo.
+class IndiceDescricao {
+	
+	private final Map<Long, String> descricoes = new HashMap<>();
+	private final Map<String, Set<Long>> trigramas = new HashMap<>();
+	private final NavigableMap<String, Set<Long>> palavras = new TreeMap<>();
+	
+	IndiceDescricao(List<Object[]> lancamentos) {
+		for (Object[] lancamento : lancamentos) {
+			Long id = (Long) lancamento[0];
+			String descricao = (String) lancamento[1];
+			if (descricao == null) {
+				continue;
+			}
+			
+			String normalizada = normalizar(descricao);
+			descricoes.put(id, normalizada);
+			for (String trigrama : trigramas(normalizada)) {
+				trigramas.computeIfAbsent(trigrama, t -> new HashSet<>()).add(id);
+			}
+			for (String palavra : palavras(normalizada)) {
+				palavras.computeIfAbsent(palavra, p -> new HashSet<>()).add(id);
+			}
+		}
+	}
+	
+	List<OcorrenciaDescricaoDTO> buscarTrecho(String termo, int limite) {
+		String trecho = normalizar(termo);
+		Set<String> trigramasTermo = trigramas(trecho);
+		
+		// Termos com menos de três letras não têm trigramas: confere todas as descrições.
+		Collection<Long> candidatos = descricoes.keySet();
+		if (!trigramasTermo.isEmpty()) {
+			List<Set<Long>> listas = new ArrayList<>();
+			for (String trigrama : trigramasTermo) {
+				listas.add(trigramas.getOrDefault(trigrama, new HashSet<>()));
+			}
+			candidatos = intersecao(listas);
+		}
+		
+		List<OcorrenciaDescricaoDTO> ocorrencias = new ArrayList<>();
+		for (Long id : candidatos) {
+			String descricao = descricoes.get(id);
+			if (descricao.contains(trecho)) {
+				ocorrencias.add(new OcorrenciaDescricaoDTO(id, similaridade(trigramasTermo, trigramas(descricao))));
+			}
+		}
+		return ordenar(ocorrencias, limite);
+	}
+	
+	List<OcorrenciaDescricaoDTO> buscarPrefixo(String termo, int limite) {
+		Set<String> prefixos = palavras(normalizar(termo));
+		if (prefixos.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
+		List<Set<Long>> listas = new ArrayList<>();
+		for (String prefixo : prefixos) {
+			Set<Long> ids = new HashSet<>();
+			palavras.subMap(prefixo, true, prefixo + Character.MAX_VALUE, true).values().forEach(ids::addAll);
+			listas.add(ids);
+		}
+		
+		List<OcorrenciaDescricaoDTO> ocorrencias = new ArrayList<>();
+		for (Long id : intersecao(listas)) {
+			// Descrições mais curtas concentram mais o termo buscado.
+			double relevancia = (double) prefixos.size() / palavras(descricoes.get(id)).size();
+			ocorrencias.add(new OcorrenciaDescricaoDTO(id, relevancia));
+		}
+		return ordenar(ocorrencias, limite);
+	}
+	
+	private static Set<Long> intersecao(List<Set<Long>> listas) {
+		listas.sort(Comparator.comparingInt(Set::size));
+		Set<Long> resultado = new HashSet<>(listas.get(0));
+		for (int i = 1; i < listas.size() && !resultado.isEmpty(); i++) {
+			resultado.retainAll(listas.get(i));
+		}
+		return resultado;
+	}
+	
+	private static List<OcorrenciaDescricaoDTO> ordenar(List<OcorrenciaDescricaoDTO> ocorrencias, int limite) {
+		return ocorrencias.stream()
+				.sorted(Comparator.comparingDouble(OcorrenciaDescricaoDTO::getRelevancia).reversed()
+						          .thenComparing(OcorrenciaDescricaoDTO::getId))
+				.limit(limite)
+				.collect(Collectors.toList());
+	}
+	
+	// Mesma medida do similarity() do pg_trgm: trigramas em comum / trigramas distintos.
+	private static double similaridade(Set<String> a, Set<String> b) {
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0;
+		}
+		int comuns = 0;
+		for (String trigrama : a) {
+			if (b.contains(trigrama)) {
+				comuns++;
+			}
+		}
+		return (double) comuns / (a.size() + b.size() - comuns);
+	}
+	
+	static String normalizar(String texto) {
+		return texto.toLowerCase(Locale.ROOT);
+	}
+	
+	static Set<String> trigramas(String texto) {
+		Set<String> resultado = new LinkedHashSet<>();
+		for (int i = 0; i + 3 <= texto.length(); i++) {
+			resultado.add(texto.substring(i, i + 3));
+		}
+		return resultado;
+	}
+	
+	static Set<String> palavras(String texto) {
+		Set<String> resultado = new LinkedHashSet<>();
+		for (String palavra : texto.split("[^\\p{L}\\p{N}]+")) {
+			if (!palavra.isEmpty()) {
+				resultado.add(palavra);
+			}
+		}
+		return resultado;
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import com.gef.minhasFinancas.api.dto.LancamentoDTO;
+import com.gef.minhasFinancas.api.dto.SaldoStatusDTO;
+import com.gef.minhasFinancas.config.R2dbcConfig;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Leitura reativa (R2DBC) das mesmas tabelas que o JPA grava. As linhas são entregues conforme a
+// demanda do assinante, em blocos de TAMANHO_LOTE lidos do banco, sem segurar uma thread por consulta.
+@Repository
+@ConditionalOnProperty(name = R2dbcConfig.URL)
+@RequiredArgsConstructor
+public class LancamentoReativoRepository {
+	
+	private static final int TAMANHO_LOTE = 500;
+	
+	private static final String LANCAMENTOS = "select l.id, l.descricao, l.mes, l.ano, l.valor, l.id_usuario, l.tipo, l.status"
+			+ " from financas.lancamento l";
+	
+	private static final String SALDO_POR_STATUS = "select s.status,"
+			+ " sum(case when s.tipo = 'RECEITA' then s.valor else 0 end) as receitas,"
+			+ " sum(case when s.tipo = 'DESPESA' then s.valor else 0 end) as despesas"
+			+ " from financas.saldo_usuario s"
+			+ " where s.id_usuario = $1"
+			+ " group by s.status";
+	
+	private static final String USUARIO_EXISTE = "select count(*) from financas.usuario u where u.id = $1";
+	
+	private final ConnectionFactory connectionFactory;
+	
+	// Mesmos critérios do Example usado em LancamentoServiceImpl.buscar, na ordem de buscarEmStream.
+	public Flux<LancamentoDTO> buscar(Lancamento filtro) {
+		StringBuilder sql = new StringBuilder(LANCAMENTOS);
+		List<Object> parametros = new ArrayList<>();
+		
+		if (filtro.getDescricao() != null) {
+			condicao(sql, parametros, "lower(l.descricao) like", "%" + filtro.getDescricao().toLowerCase() + "%");
+		}
+		if (filtro.getMes() != null) {
+			condicao(sql, parametros, "l.mes =", filtro.getMes());
+		}
+		if (filtro.getAno() != null) {
+			condicao(sql, parametros, "l.ano =", filtro.getAno());
+		}
+		if (filtro.getTipo() != null) {
+			condicao(sql, parametros, "l.tipo =", filtro.getTipo().name());
+		}
+		if (filtro.getStatus() != null) {
+			condicao(sql, parametros, "l.status =", filtro.getStatus().name());
+		}
+		if (filtro.getUsuario() != null) {
+			condicao(sql, parametros, "l.id_usuario =", filtro.getUsuario().getId());
+		}
+		sql.append(" order by l.ano, l.mes, l.id");
+		
+		return consultar(sql.toString(), parametros, linha -> LancamentoDTO.builder()
+				.id(linha.get("id", Long.class))
+				.descricao(linha.get("descricao", String.class))
+				.mes(linha.get("mes", Integer.class))
+				.ano(linha.get("ano", Integer.class))
+				.valor(Dinheiro.de(linha.get("valor", BigDecimal.class)))
+				.usuario(linha.get("id_usuario", Long.class))
+				.tipo(linha.get("tipo", String.class))
+				.status(linha.get("status", String.class))
+				.build());
+	}
+	
+	// Saldo materializado por status, como SaldoUsuarioRepository.obterSaldoPorStatusEUsuario.
+	public Flux<SaldoStatusDTO> obterSaldoPorStatusEUsuario(Long idUsuario) {
+		List<Object> parametros = new ArrayList<>();
+		parametros.add(idUsuario);
+		
+		return consultar(SALDO_POR_STATUS, parametros, linha -> new SaldoStatusDTO(
+				status(linha.get("status", String.class)),
+				Dinheiro.de(linha.get("receitas", BigDecimal.class)),
+				Dinheiro.de(linha.get("despesas", BigDecimal.class))));
+	}
+	
+	public Mono<Boolean> existeUsuario(Long idUsuario) {
+		List<Object> parametros = new ArrayList<>();
+		parametros.add(idUsuario);
+		
+		return consultar(USUARIO_EXISTE, parametros, linha -> linha.get(0, Long.class))
+				.next()
+				.map(quantidade -> quantidade > 0);
+	}
+	
+	// saldo_usuario.status aceita nulo, como lancamento.status; o JPA mapeia a coluna nula para null.
+	private static StatusLancamento status(String status) {
+		return status == null ? null : StatusLancamento.valueOf(status);
+	}
+	
+	private static void condicao(StringBuilder sql, List<Object> parametros, String expressao, Object valor) {
+		parametros.add(valor);
+		sql.append(parametros.size() == 1 ? " where " : " and ")
+		   .append(expressao)
+		   .append(" $")
+		   .append(parametros.size());
+	}
+	
+	// A conexão é fechada ao fim da leitura, em erro e também se o cliente cancelar a assinatura.
+	private <T> Flux<T> consultar(String sql, List<Object> parametros, Function<Row, T> mapeamento) {
+		return Flux.usingWhen(connectionFactory.create(), conexao -> {
+			Statement comando = conexao.createStatement(sql);
+			for (int i = 0; i < parametros.size(); i++) {
+				comando.bind(i, parametros.get(i));
+			}
+			return Flux.from(comando.fetchSize(TAMANHO_LOTE).execute())
+					   .flatMap(resultado -> resultado.map((linha, metadados) -> mapeamento.apply(linha)));
+		}, Connection::close);
+	}
+
+}
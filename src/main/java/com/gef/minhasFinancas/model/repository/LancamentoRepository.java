@@ -1,21 +1,83 @@
 package com.gef.minhasFinancas.model.repository;
 
-import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.QueryHint;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.gef.minhasFinancas.model.entity.Lancamento;
-import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
-	
-	@Query(value = "select sum(l.valor)"
-			           + " from Lancamento l join l.usuario u"
-			           + " where u.id = :idUsuario and"
-			            + "    l.tipo = :tipo "
-			      + "group by u")
-	BigDecimal obterSaldoPorTipoDeLancamentoEUsuario(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo);
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
+	
+	// Receitas e despesas por mês e status de uma faixa de usuários: é uma partição do relatório
+	// administrativo, que roda cada faixa no seu próprio EntityManager para poder cancelá-la no banco
+	// (RelatorioAdministrativoServiceImpl).
+	String SALDO_MENSAL_POR_STATUS_E_FAIXA_DE_USUARIOS =
+			  "select new com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO(l.ano, l.mes, l.status,"
+			+ "    sum(case when l.tipo = com.gef.minhasFinancas.model.enuns.TipoLancamento.RECEITA"
+			+ "             then l.valor else 0 end),"
+			+ "    sum(case when l.tipo = com.gef.minhasFinancas.model.enuns.TipoLancamento.DESPESA"
+			+ "             then l.valor else 0 end))"
+			+ " from Lancamento l"
+			+ " where l.usuario.id between :primeiro and :ultimo"
+			+ "   and l.ano * 100 + l.mes between :inicio and :fim"
+			+ " group by l.ano, l.mes, l.status";
+	
+	// Faixa de usuários com lançamentos, base das partições do relatório administrativo.
+	@Query(value = "select min(l.usuario.id) from Lancamento l")
+	Long obterMenorIdUsuario();
+	
+	@Query(value = "select max(l.usuario.id) from Lancamento l")
+	Long obterMaiorIdUsuario();
+	
+	// Base do índice em memória de BuscaDescricaoMemoriaRepository.
+	@Query(value = "select l.id, l.descricao from Lancamento l where l.usuario.id = :idUsuario")
+	List<Object[]> obterDescricoesPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+	// Base das colunas de ColunasLancamentoRepository; a ordenação por mês é feita em memória.
+	@Query(value = "select l.valor, l.ano, l.mes, l.tipo, l.status from Lancamento l where l.usuario.id = :idUsuario")
+	List<Object[]> obterColunasPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+	// Estado do lançamento como está gravado no banco, antes da alteração em curso.
+	// O flush em COMMIT evita que alterações pendentes da própria transação sejam enviadas
+	// antes da consulta (o que faria o estorno usar os valores novos).
+	@QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+	@Query(value = "select new com.gef.minhasFinancas.model.entity.SaldoUsuario("
+			           + "    l.usuario.id, l.tipo, l.status, l.ano, l.mes, l.valor, 1L, l.dataCadastro)"
+			           + " from Lancamento l"
+			           + " where l.id = :id")
+	Optional<SaldoUsuario> obterMovimentoGravado(@Param("id") Long id);
+	
+	// Saldo de cada mês recalculado a partir dos lançamentos de uma faixa de usuários; usado para
+	// verificar saldo_usuario.
+	@Query(value = "select new com.gef.minhasFinancas.model.entity.SaldoUsuario("
+			           + "    l.usuario.id, l.tipo, l.status, l.ano, l.mes, sum(l.valor), count(l))"
+			           + " from Lancamento l"
+			           + " where l.usuario.id between :primeiro and :ultimo"
+			      + " group by l.usuario.id, l.tipo, l.status, l.ano, l.mes")
+	List<SaldoUsuario> recalcularSaldosPorMes(@Param("primeiro") Long primeiro, @Param("ultimo") Long ultimo);
+	
+	@Query(value = "select new com.gef.minhasFinancas.model.entity.SaldoUsuario("
+			           + "    l.usuario.id, l.tipo, l.status, l.ano, l.mes, sum(l.valor), count(l))"
+			           + " from Lancamento l"
+			           + " where l.usuario.id = :idUsuario"
+			      + " group by l.usuario.id, l.tipo, l.status, l.ano, l.mes")
+	List<SaldoUsuario> recalcularSaldosPorMes(@Param("idUsuario") Long idUsuario);
+	
+	// Valor e descrição dos lançamentos de um mês do usuário com id até o limite; usados para não importar
+	// o mesmo lançamento duas vezes.
+	@Query(value = "select l.valor, l.descricao from Lancamento l"
+			      + " where l.usuario.id = :idUsuario and l.ano = :ano and l.mes = :mes and l.id <= :limite")
+	List<Object[]> obterValorEDescricaoPorPeriodo(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano,
+			                                      @Param("mes") Integer mes, @Param("limite") Long limite);
+	
+	@Query(value = "select coalesce(max(l.id), 0) from Lancamento l where l.usuario.id = :idUsuario")
+	Long obterUltimoId(@Param("idUsuario") Long idUsuario);
 
 }
@@ -0,0 +1,20 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.gef.minhasFinancas.api.dto.CursorLancamentoDTO;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+
+public interface LancamentoRepositoryCustom {
+	
+	// Próximos lançamentos depois do cursor, ordenados por (ano, mes, id).
+	List<Lancamento> buscarPagina(Lancamento filtro, CursorLancamentoDTO cursor, int tamanho);
+	
+	// Lançamentos lidos do banco sob demanda; deve ser consumido dentro de uma transação e fechado.
+	Stream<Lancamento> buscarEmStream(Lancamento filtro);
+	
+	// Grava as alterações de um lançamento que já existe no banco sem o select que o merge faria.
+	Lancamento atualizar(Lancamento lancamento);
+
+}
@@ -0,0 +1,112 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.engine.spi.EntityKey;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import com.gef.minhasFinancas.api.dto.CursorLancamentoDTO;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+	
+	private static final int TAMANHO_LOTE_STREAM = 500;
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<Lancamento> buscarPagina(Lancamento filtro, CursorLancamentoDTO cursor, int tamanho) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Lancamento> query = cb.createQuery(Lancamento.class);
+		Root<Lancamento> root = query.from(Lancamento.class);
+		
+		List<Predicate> predicados = filtrar(cb, root, filtro);
+		if (cursor != null) {
+			// (ano, mes, id) > (cursor.ano, cursor.mes, cursor.id)
+			predicados.add(cb.or(
+					cb.greaterThan(root.get("ano"), cursor.getAno()),
+					cb.and(cb.equal(root.get("ano"), cursor.getAno()), cb.greaterThan(root.get("mes"), cursor.getMes())),
+					cb.and(cb.equal(root.get("ano"), cursor.getAno()), cb.equal(root.get("mes"), cursor.getMes()),
+						   cb.greaterThan(root.get("id"), cursor.getId()))));
+		}
+		
+		query.select(root)
+		     .where(predicados.toArray(new Predicate[0]))
+		     .orderBy(cb.asc(root.get("ano")), cb.asc(root.get("mes")), cb.asc(root.get("id")));
+		
+		return entityManager.createQuery(query)
+				.setMaxResults(tamanho)
+				.getResultList();
+	}
+
+	@Override
+	public Stream<Lancamento> buscarEmStream(Lancamento filtro) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Lancamento> query = cb.createQuery(Lancamento.class);
+		Root<Lancamento> root = query.from(Lancamento.class);
+		
+		query.select(root)
+		     .where(filtrar(cb, root, filtro).toArray(new Predicate[0]))
+		     .orderBy(cb.asc(root.get("ano")), cb.asc(root.get("mes")), cb.asc(root.get("id")));
+		
+		// Cada lançamento é desanexado logo após ser lido para o contexto de persistência não crescer.
+		return entityManager.createQuery(query)
+				.setHint(QueryHints.FETCH_SIZE, TAMANHO_LOTE_STREAM)
+				.setHint(QueryHints.READ_ONLY, true)
+				.getResultStream()
+				.peek(entityManager::detach);
+	}
+
+	@Override
+	public Lancamento atualizar(Lancamento lancamento) {
+		SessionImplementor sessao = entityManager.unwrap(SessionImplementor.class);
+		EntityKey chave = sessao.generateEntityKey(lancamento.getId(), sessao.getEntityPersister(null, lancamento));
+		
+		// Já carregado neste contexto: o merge copia sobre a instância gerenciada sem consultar o banco
+		if (sessao.getPersistenceContext().getEntity(chave) != null) {
+			return entityManager.merge(lancamento);
+		}
+		
+		// Reanexa a instância desanexada; o update é feito no flush
+		sessao.update(lancamento);
+		return lancamento;
+	}
+	
+	// Mesmos critérios do Example usado em LancamentoServiceImpl.buscar.
+	private List<Predicate> filtrar(CriteriaBuilder cb, Root<Lancamento> root, Lancamento filtro) {
+		List<Predicate> predicados = new ArrayList<>();
+		
+		if (filtro.getDescricao() != null) {
+			predicados.add(cb.like(cb.lower(root.get("descricao")), "%" + filtro.getDescricao().toLowerCase() + "%"));
+		}
+		if (filtro.getMes() != null) {
+			predicados.add(cb.equal(root.get("mes"), filtro.getMes()));
+		}
+		if (filtro.getAno() != null) {
+			predicados.add(cb.equal(root.get("ano"), filtro.getAno()));
+		}
+		if (filtro.getTipo() != null) {
+			predicados.add(cb.equal(root.get("tipo"), filtro.getTipo()));
+		}
+		if (filtro.getStatus() != null) {
+			predicados.add(cb.equal(root.get("status"), filtro.getStatus()));
+		}
+		if (filtro.getUsuario() != null) {
+			predicados.add(cb.equal(root.get("usuario").get("id"), filtro.getUsuario().getId()));
+		}
+		
+		return predicados;
+	}
+
+}
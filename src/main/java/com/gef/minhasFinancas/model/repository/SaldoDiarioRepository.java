@@ -0,0 +1,39 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.gef.minhasFinancas.model.entity.SaldoDiario;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+// Todas as consultas seguem o índice único (id_usuario, data).
+public interface SaldoDiarioRepository extends JpaRepository<SaldoDiario, Long> {
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	Optional<SaldoDiario> findByIdUsuarioAndData(Long idUsuario, LocalDate data);
+	
+	// Último dia com movimento antes da data: base do acumulado de um dia novo.
+	Optional<SaldoDiario> findFirstByIdUsuarioAndDataLessThanOrderByDataDesc(Long idUsuario, LocalDate data);
+	
+	// Último dia com movimento até a data: o acumulado dele é o saldo na data.
+	Optional<SaldoDiario> findFirstByIdUsuarioAndDataLessThanEqualOrderByDataDesc(Long idUsuario, LocalDate data);
+	
+	List<SaldoDiario> findByIdUsuarioAndDataBetweenOrderByData(Long idUsuario, LocalDate inicio, LocalDate fim);
+	
+	// Propaga um movimento retroativo para o acumulado dos dias seguintes, em um único comando.
+	@Modifying(flushAutomatically = true)
+	@Query("update SaldoDiario s set s.acumulado = s.acumulado + :valor"
+	     + " where s.idUsuario = :idUsuario and s.data > :data")
+	int deslocarAcumulado(@Param("idUsuario") Long idUsuario, @Param("data") LocalDate data,
+			              @Param("valor") Dinheiro valor);
+
+}
@@ -0,0 +1,79 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO;
+import com.gef.minhasFinancas.api.dto.SaldoStatusDTO;
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long>, SaldoUsuarioRepositoryCustom {
+	
+	Optional<SaldoUsuario> findByIdUsuarioAndTipoAndStatusAndAnoAndMes(
+			Long idUsuario, TipoLancamento tipo, StatusLancamento status, Integer ano, Integer mes);
+	
+	List<SaldoUsuario> findByIdUsuario(Long idUsuario);
+	
+	List<SaldoUsuario> findByIdUsuarioBetween(Long primeiro, Long ultimo);
+	
+	// Com LancamentoRepository.obterMenorIdUsuario e obterMaiorIdUsuario, a faixa de usuários da verificação.
+	@Query(value = "select min(s.idUsuario) from SaldoUsuario s")
+	Long obterMenorIdUsuario();
+	
+	@Query(value = "select max(s.idUsuario) from SaldoUsuario s")
+	Long obterMaiorIdUsuario();
+	
+	String REGIAO_SALDO = "saldo";
+	
+	// As consultas de saldo vão para o cache de consultas; o Hibernate as invalida sozinho
+	// quando saldo_usuario é alterada (registrar, estornar e reconstruir).
+	@QueryHints({
+		@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+		@QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = REGIAO_SALDO)})
+	@Query(value = "select sum(case when s.tipo = com.gef.minhasFinancas.model.enuns.TipoLancamento.RECEITA"
+			           + "             then s.valor else -s.valor end)"
+			           + " from SaldoUsuario s"
+			           + " where s.idUsuario = :idUsuario")
+	Dinheiro obterSaldoPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+	@QueryHints({
+		@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+		@QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = REGIAO_SALDO)})
+	@Query(value = "select new com.gef.minhasFinancas.api.dto.SaldoStatusDTO(s.status,"
+			           + "    sum(case when s.tipo = com.gef.minhasFinancas.model.enuns.TipoLancamento.RECEITA"
+			           + "             then s.valor else 0 end),"
+			           + "    sum(case when s.tipo = com.gef.minhasFinancas.model.enuns.TipoLancamento.DESPESA"
+			           + "             then s.valor else 0 end))"
+			           + " from SaldoUsuario s"
+			           + " where s.idUsuario = :idUsuario"
+			      + " group by s.status")
+	List<SaldoStatusDTO> obterSaldoPorStatusEUsuario(@Param("idUsuario") Long idUsuario);
+	
+	// Receitas e despesas de cada mês e status do período (ano * 100 + mes, inclusive) em uma única consulta.
+	// saldo_usuario já está agrupada por usuário, tipo, status e mês, então basta juntar os tipos.
+	@QueryHints({
+		@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+		@QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = REGIAO_SALDO)})
+	@Query(value = "select new com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO(s.ano, s.mes, s.status,"
+			           + "    sum(case when s.tipo = com.gef.minhasFinancas.model.enuns.TipoLancamento.RECEITA"
+			           + "             then s.valor else 0 end),"
+			           + "    sum(case when s.tipo = com.gef.minhasFinancas.model.enuns.TipoLancamento.DESPESA"
+			           + "             then s.valor else 0 end))"
+			           + " from SaldoUsuario s"
+			           + " where s.idUsuario = :idUsuario"
+			           + "   and s.ano * 100 + s.mes between :inicio and :fim"
+			      + " group by s.ano, s.mes, s.status")
+	List<SaldoMensalStatusDTO> obterSaldoMensalPorStatus(@Param("idUsuario") Long idUsuario,
+			                                             @Param("inicio") Integer inicio, @Param("fim") Integer fim);
+
+}
@@ -0,0 +1,12 @@
+package com.gef.minhasFinancas.model.repository;
+
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
+
+public interface SaldoUsuarioRepositoryCustom {
+	
+	// Soma o valor e a quantidade do movimento ao mês em um único comando (upsert): a linha do mês
+	// é criada se ainda não existe, sem perder a soma nem violar uk_saldo_usuario_mes quando duas
+	// escritas criam o mesmo mês ao mesmo tempo. O mês que fica sem lançamentos é removido.
+	void somar(SaldoUsuario movimento);
+
+}
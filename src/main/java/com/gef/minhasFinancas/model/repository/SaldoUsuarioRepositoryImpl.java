@@ -0,0 +1,82 @@
+package com.gef.minhasFinancas.model.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.hibernate.jpa.TypedParameterValue;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StringType;
+
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
+
+public class SaldoUsuarioRepositoryImpl implements SaldoUsuarioRepositoryCustom {
+	
+	private static final String COLUNAS = "(id_usuario, tipo, status, ano, mes, valor, quantidade)";
+	
+	// PostgreSQL: on conflict no índice único do mês (V2__criar_saldo_usuario.sql)
+	private static final String SOMAR_POSTGRESQL =
+			  "insert into financas.saldo_usuario " + COLUNAS
+			+ " values (:idUsuario, :tipo, :status, :ano, :mes, :valor, :quantidade)"
+			+ " on conflict (id_usuario, tipo, coalesce(status, ''), ano, mes)"
+			+ " do update set valor = saldo_usuario.valor + excluded.valor,"
+			+ "               quantidade = saldo_usuario.quantidade + excluded.quantidade";
+	
+	// Demais bancos (H2 do perfil de teste): merge do SQL padrão
+	private static final String SOMAR_MERGE =
+			  "merge into financas.saldo_usuario s"
+			+ " using (select cast(:idUsuario as bigint) as id_usuario, cast(:tipo as varchar(20)) as tipo,"
+			+ "               cast(:status as varchar(20)) as status, cast(:ano as integer) as ano,"
+			+ "               cast(:mes as integer) as mes, cast(:valor as numeric(16, 2)) as valor,"
+			+ "               cast(:quantidade as bigint) as quantidade) m"
+			+ "    on s.id_usuario = m.id_usuario and s.tipo = m.tipo and coalesce(s.status, '') = coalesce(m.status, '')"
+			+ "   and s.ano = m.ano and s.mes = m.mes"
+			+ " when matched then update set valor = s.valor + m.valor, quantidade = s.quantidade + m.quantidade"
+			+ " when not matched then insert " + COLUNAS
+			+ "      values (m.id_usuario, m.tipo, m.status, m.ano, m.mes, m.valor, m.quantidade)";
+	
+	// Mês sem nenhum lançamento não precisa ocupar uma linha.
+	private static final String REMOVER_VAZIO =
+			  "delete from financas.saldo_usuario"
+			+ " where id_usuario = :idUsuario and tipo = :tipo and coalesce(status, '') = coalesce(:status, '')"
+			+ "   and ano = :ano and mes = :mes and quantidade <= 0";
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	private volatile Boolean postgresql;
+	
+	@Override
+	public void somar(SaldoUsuario movimento) {
+		executar(postgresql() ? SOMAR_POSTGRESQL : SOMAR_MERGE, movimento, true);
+		if (movimento.getQuantidade() < 0) {
+			executar(REMOVER_VAZIO, movimento, false);
+		}
+	}
+	
+	private void executar(String sql, SaldoUsuario movimento, boolean comValores) {
+		NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+		// Só as consultas de saldo_usuario saem do cache de consultas
+		query.addSynchronizedEntityClass(SaldoUsuario.class);
+		query.setParameter("idUsuario", movimento.getIdUsuario());
+		query.setParameter("tipo", movimento.getTipo().name());
+		query.setParameter("status", new TypedParameterValue(StringType.INSTANCE,
+				                                             movimento.getStatus() == null ? null : movimento.getStatus().name()));
+		query.setParameter("ano", movimento.getAno());
+		query.setParameter("mes", movimento.getMes());
+		if (comValores) {
+			query.setParameter("valor", movimento.getValor().paraBigDecimal());
+			query.setParameter("quantidade", movimento.getQuantidade());
+		}
+		query.executeUpdate();
+	}
+	
+	private boolean postgresql() {
+		if (postgresql == null) {
+			postgresql = entityManager.unwrap(Session.class).doReturningWork(
+					conexao -> conexao.getMetaData().getDatabaseProductName().toLowerCase().contains("postgresql"));
+		}
+		return postgresql;
+	}
+
+}
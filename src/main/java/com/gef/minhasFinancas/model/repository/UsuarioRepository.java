@@ -1,16 +1,105 @@
 package com.gef.minhasFinancas.model.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.LockModeType;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.gef.minhasFinancas.api.dto.CredencialDTO;
+import com.gef.minhasFinancas.api.dto.DadosUsuarioDTO;
 import com.gef.minhasFinancas.model.entity.Usuario;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 	
+	String CACHE_POR_ID = "usuarios";
+	String CACHE_EMAIL_CADASTRADO = "usuarios-email-cadastrado";
+	
+	// Os caches ficam no repositório para valer também nas chamadas internas do UsuarioServiceImpl
+	// (autenticar e salvarUsuario usam o repositório diretamente). Guardam só valores imutáveis:
+	// os dados do usuário, sem a senha, e o "sim" de email cadastrado. Usuário inexistente e email
+	// livre não são guardados, para um cadastro novo valer na hora.
+	
+	@Cacheable(cacheNames = CACHE_EMAIL_CADASTRADO, key = "#p0", unless = "!#result")
 	boolean existsByEmail(String email);
 	
 	Optional <Usuario> findByEmail(String email);
 	
+	@Cacheable(cacheNames = CACHE_POR_ID, key = "#p0", unless = "#result == null")
+	@Query("select new com.gef.minhasFinancas.api.dto.DadosUsuarioDTO(u.id, u.nome, u.email) from Usuario u where u.id = :id")
+	Optional<DadosUsuarioDTO> obterDados(@Param("id") Long id);
+	
+	// Toda gravação de usuário passa por aqui (salvarUsuario inclusive) e invalida as entradas dele.
+	// Numa alteração o email anterior não é mais conhecido aqui; como alterações são raras, o cache
+	// de emails é limpo inteiro antes da gravação.
+	@Override
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CACHE_EMAIL_CADASTRADO, allEntries = true, beforeInvocation = true,
+			            condition = "#p0.id != null"),
+			@CacheEvict(cacheNames = CACHE_POR_ID, key = "#result.id"),
+			@CacheEvict(cacheNames = CACHE_EMAIL_CADASTRADO, key = "#result.email")
+	})
+	<S extends Usuario> S save(S usuario);
+	
+	@Override
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CACHE_POR_ID, key = "#p0.id"),
+			@CacheEvict(cacheNames = CACHE_EMAIL_CADASTRADO, key = "#p0.email")
+	})
+	void delete(Usuario usuario);
+	
+	// Só o id é conhecido: o email sai do cache junto com os demais.
+	@Override
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CACHE_POR_ID, key = "#p0"),
+			@CacheEvict(cacheNames = CACHE_EMAIL_CADASTRADO, allEntries = true)
+	})
+	void deleteById(Long id);
+	
+	@Override
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CACHE_POR_ID, allEntries = true),
+			@CacheEvict(cacheNames = CACHE_EMAIL_CADASTRADO, allEntries = true)
+	})
+	void deleteAll();
+	
+	// Trava a linha do usuário até o fim da transação; serializa as escritas do saldo diário
+	// do mesmo usuário (um dia novo depende do acumulado dos anteriores).
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select u.id from Usuario u where u.id = :id")
+	Optional<Long> bloquear(@Param("id") Long id);
+	
+	// Login: só id e senha, sem carregar a entidade; fora dos caches para o hash não ficar em memória.
+	@Query("select new com.gef.minhasFinancas.api.dto.CredencialDTO(u.id, u.senha) from Usuario u where u.email = :email")
+	Optional<CredencialDTO> obterCredencial(@Param("email") String email);
+	
+	// Troca a senha só se ela ainda for a anterior (outra troca concorrente prevalece).
+	@Transactional
+	@Modifying
+	@Query("update Usuario u set u.senha = :nova where u.id = :id and u.email = :email and u.senha = :anterior")
+	int trocarSenha(@Param("id") Long id, @Param("email") String email,
+			        @Param("anterior") String anterior, @Param("nova") String nova);
+	
+	// Id, email e senha dos usuários depois de "depois" cuja senha ainda não é um hash BCrypt
+	// ($2a$10$ + 53 caracteres), em ordem de id.
+	@Query("select u.id, u.email, u.senha from Usuario u"
+		 + " where u.id > :depois and u.senha is not null and (length(u.senha) <> 60 or u.senha not like '$2%')"
+		 + " order by u.id")
+	List<Object[]> obterSenhasSemHash(@Param("depois") Long depois, Pageable pagina);
+	
+	@Query("select u.id from Usuario u where u.id in :ids")
+	List<Long> obterIdsExistentes(@Param("ids") Collection<Long> ids);
+	
 
 }
@@ -0,0 +1,110 @@
+package com.gef.minhasFinancas.model.tipo;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Valor monetário imutável em centavos (long). As contas não alocam nada além do próprio
+// resultado, ao contrário de BigDecimal, e estouros do long lançam ArithmeticException em vez
+// de dar a volta. No banco continua numeric(16,2) (DinheiroConverter) e no JSON um número.
+public final class Dinheiro implements Comparable<Dinheiro>, Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public static final Dinheiro ZERO = new Dinheiro(0);
+	
+	private static final int MAXIMO_DIGITOS_INTEIROS = 17;
+	private static final int MAXIMO_DIGITOS = 64;
+	
+	private final long centavos;
+	
+	private Dinheiro(long centavos) {
+		this.centavos = centavos;
+	}
+	
+	public static Dinheiro centavos(long centavos) {
+		return centavos == 0 ? ZERO : new Dinheiro(centavos);
+	}
+	
+	public static Dinheiro reais(long reais) {
+		return centavos(Math.multiplyExact(reais, 100));
+	}
+	
+	// Mais de duas casas decimais são arredondadas como o numeric(16,2) do banco (metade para cima).
+	// A faixa é conferida antes do setScale, que com um expoente como o de 1e10000000 montaria um
+	// número de milhões de dígitos só para descobrir que não cabe no long.
+	public static Dinheiro de(BigDecimal valor) {
+		if (valor.signum() == 0) {
+			return ZERO;
+		}
+		// |valor| < 10^inteiros; o long tem até 17 dígitos de reais
+		int inteiros = valor.precision() - valor.scale();
+		if (inteiros > MAXIMO_DIGITOS_INTEIROS || valor.precision() > MAXIMO_DIGITOS) {
+			throw new ArithmeticException("Valor monetário fora da faixa: " + inteiros + " dígitos inteiros, "
+					                      + valor.precision() + " significativos");
+		}
+		if (inteiros < -2) {
+			// Abaixo de 0,001 o arredondamento para centavos dá zero
+			return ZERO;
+		}
+		return centavos(valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+	}
+	
+	public static Dinheiro de(String valor) {
+		return de(new BigDecimal(valor.trim()));
+	}
+	
+	public long getCentavos() {
+		return centavos;
+	}
+	
+	public Dinheiro somar(Dinheiro outro) {
+		return outro.centavos == 0 ? this : centavos(Math.addExact(centavos, outro.centavos));
+	}
+	
+	public Dinheiro subtrair(Dinheiro outro) {
+		return outro.centavos == 0 ? this : centavos(Math.subtractExact(centavos, outro.centavos));
+	}
+	
+	public Dinheiro multiplicar(long fator) {
+		return centavos(Math.multiplyExact(centavos, fator));
+	}
+	
+	public Dinheiro negar() {
+		return centavos(Math.negateExact(centavos));
+	}
+	
+	public Dinheiro absoluto() {
+		return centavos < 0 ? negar() : this;
+	}
+	
+	public int sinal() {
+		return Long.signum(centavos);
+	}
+	
+	public BigDecimal paraBigDecimal() {
+		return BigDecimal.valueOf(centavos, 2);
+	}
+	
+	@Override
+	public int compareTo(Dinheiro outro) {
+		return Long.compare(centavos, outro.centavos);
+	}
+	
+	@Override
+	public boolean equals(Object outro) {
+		return outro instanceof Dinheiro && ((Dinheiro) outro).centavos == centavos;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Long.hashCode(centavos);
+	}
+	
+	// Mesmo texto do BigDecimal com duas casas: 10.00, -0.50
+	@Override
+	public String toString() {
+		return paraBigDecimal().toPlainString();
+	}
+
+}
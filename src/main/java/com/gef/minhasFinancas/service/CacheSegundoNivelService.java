@@ -0,0 +1,16 @@
+package com.gef.minhasFinancas.service;
+
+import java.util.List;
+
+import com.gef.minhasFinancas.api.dto.EstatisticasCacheDTO;
+import com.gef.minhasFinancas.service.cache.RegiaoCache;
+
+public interface CacheSegundoNivelService {
+	
+	// Remove a entrada do id informado, ou a região inteira quando o id é nulo. Só atua nesta instância.
+	void invalidar(RegiaoCache regiao, Long id);
+	
+	// Acertos, faltas e gravações de cada região desde a subida da aplicação.
+	List<EstatisticasCacheDTO> obterEstatisticas();
+
+}
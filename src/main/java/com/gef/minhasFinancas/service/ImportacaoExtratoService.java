@@ -0,0 +1,22 @@
+package com.gef.minhasFinancas.service;
+
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Optional;
+
+import com.gef.minhasFinancas.api.dto.ImportacaoDTO;
+import com.gef.minhasFinancas.api.dto.MapeamentoColunasDTO;
+import com.gef.minhasFinancas.service.importacao.FormatoExtrato;
+
+public interface ImportacaoExtratoService {
+	
+	// Lê o extrato do canal até o fim e devolve o resumo da importação.
+	ImportacaoDTO importar(Long idUsuario, FormatoExtrato formato, MapeamentoColunasDTO mapeamento,
+			               Charset charset, ReadableByteChannel canal);
+	
+	Optional<ImportacaoDTO> obterPorId(Long id);
+	
+	List<ImportacaoDTO> listarPorUsuario(Long idUsuario);
+
+}
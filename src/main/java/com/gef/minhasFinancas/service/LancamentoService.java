@@ -1,29 +1,62 @@
 package com.gef.minhasFinancas.service;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import com.gef.minhasFinancas.api.dto.CurvaSaldoDTO;
+import com.gef.minhasFinancas.api.dto.CursorLancamentoDTO;
+import com.gef.minhasFinancas.api.dto.FluxoCaixaDTO;
+import com.gef.minhasFinancas.api.dto.PaginaLancamentoDTO;
+import com.gef.minhasFinancas.api.dto.ResultadoBuscaDTO;
+import com.gef.minhasFinancas.api.dto.ResultadoLoteDTO;
+import com.gef.minhasFinancas.api.dto.SaldoDTO;
 import com.gef.minhasFinancas.model.entity.Lancamento;
 import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
 
 public interface LancamentoService {
 	
 	
 	Lancamento salva(Lancamento lancamento);
 	
+	// Grava os lançamentos válidos e devolve os erros dos demais; a linha do erro é a posição na lista.
+	ResultadoLoteDTO salvarLote(List<Lancamento> lancamentos);
+	
 	Lancamento atualizar(Lancamento lancamento);
 	
 	void deletar(Lancamento lancamento);
 	
 	List<Lancamento> buscar(Lancamento lancamentoFiltro);
 	
+	PaginaLancamentoDTO buscarPagina(Lancamento lancamentoFiltro, CursorLancamentoDTO cursor, int tamanho);
+	
+	void buscarEmStream(Lancamento lancamentoFiltro, Consumer<Lancamento> consumidor);
+	
+	List<ResultadoBuscaDTO> buscarPorDescricao(Long idUsuario, String termo, boolean prefixo, int limite);
+	
 	void atualizarStatus(Lancamento lancamento, StatusLancamento status);
 	
 	void validar(Lancamento lancamento);
 	
 	Optional<Lancamento> obterPorId(Long id);
 	
-	BigDecimal ObterSaldoPorUsuario(Long id);
+	Dinheiro ObterSaldoPorUsuario(Long id);
+	
+	SaldoDTO obterSaldoDetalhadoPorUsuario(Long id);
+	
+	// Receitas, despesas e saldo de cada mês entre inicio e fim (inclusive), por status.
+	FluxoCaixaDTO obterFluxoDeCaixa(Long idUsuario, YearMonth inicio, YearMonth fim);
+	
+	// Como obterFluxoDeCaixa, filtrando tipo e status (nulos: todos), sobre as colunas em memória.
+	FluxoCaixaDTO analisar(Long idUsuario, YearMonth inicio, YearMonth fim, TipoLancamento tipo, StatusLancamento status);
+	
+	// Saldo ao fim do dia informado, pela data de cadastro dos lançamentos.
+	Dinheiro obterSaldoEm(Long idUsuario, LocalDate data);
+	
+	CurvaSaldoDTO obterCurvaSaldo(Long idUsuario, LocalDate inicio, LocalDate fim);
 	
 }
@@ -0,0 +1,21 @@
+package com.gef.minhasFinancas.service;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import com.gef.minhasFinancas.api.dto.RelatorioAdministrativoDTO;
+
+public interface RelatorioAdministrativoService {
+	
+	// Agenda o fluxo de caixa de todos os usuários no período e devolve o relatório ainda em andamento.
+	RelatorioAdministrativoDTO iniciar(YearMonth inicio, YearMonth fim);
+	
+	Optional<RelatorioAdministrativoDTO> obterPorId(Long id);
+	
+	List<RelatorioAdministrativoDTO> listar();
+	
+	// Interrompe as partições que ainda não começaram; as consultas em curso terminam normalmente.
+	Optional<RelatorioAdministrativoDTO> cancelar(Long id);
+
+}
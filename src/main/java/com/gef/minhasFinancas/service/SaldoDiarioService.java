@@ -0,0 +1,27 @@
+package com.gef.minhasFinancas.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import com.gef.minhasFinancas.api.dto.CurvaSaldoDTO;
+import com.gef.minhasFinancas.model.entity.SaldoDiario;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+// As escritas esperam o usuário já travado na transação (UsuarioService.bloquear).
+public interface SaldoDiarioService {
+	
+	void registrar(SaldoDiario movimento);
+	
+	void estornar(SaldoDiario movimento);
+	
+	// Troca o movimento gravado pelo novo; não faz nada se o dia e o valor não mudaram.
+	void substituir(SaldoDiario anterior, SaldoDiario novo);
+	
+	// Movimentos de vários lançamentos, juntados por usuário e dia antes de gravar.
+	void registrarTodos(Collection<SaldoDiario> movimentos);
+	
+	Dinheiro obterSaldoEm(Long idUsuario, LocalDate data);
+	
+	CurvaSaldoDTO obterCurva(Long idUsuario, LocalDate inicio, LocalDate fim);
+
+}
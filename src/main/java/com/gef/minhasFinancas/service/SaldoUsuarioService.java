@@ -0,0 +1,29 @@
+package com.gef.minhasFinancas.service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import com.gef.minhasFinancas.api.dto.DivergenciaSaldoDTO;
+import com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO;
+import com.gef.minhasFinancas.api.dto.SaldoStatusDTO;
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+public interface SaldoUsuarioService {
+	
+	void registrar(SaldoUsuario movimento);
+	
+	void estornar(SaldoUsuario movimento);
+	
+	Dinheiro obterSaldoPorUsuario(Long idUsuario);
+	
+	List<SaldoStatusDTO> obterSaldoPorStatusEUsuario(Long idUsuario);
+	
+	List<SaldoMensalStatusDTO> obterSaldoMensalPorStatus(Long idUsuario, YearMonth inicio, YearMonth fim);
+	
+	List<DivergenciaSaldoDTO> verificar();
+	
+	// Corrige os meses divergentes, um usuário por vez e com a linha dele travada; devolve o que corrigiu.
+	List<DivergenciaSaldoDTO> reconstruir();
+
+}
@@ -1,17 +1,35 @@
 package com.gef.minhasFinancas.service;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import com.gef.minhasFinancas.model.entity.Usuario;
 
 public interface UsuarioService {
 	
-	Usuario autenticar(String email, String senha);
+	// O usuário devolvido é como o de obterPorId. Completa com ErroAutenticacao para email ou senha inválidos e com SobrecargaException
+	// quando a fila de verificação de senhas está cheia.
+	CompletableFuture<Usuario> autenticar(String email, String senha);
 	
+	// Lança SobrecargaException quando a fila de senhas está cheia.
 	Usuario salvarUsuario(Usuario usuario);
 	
 	void validarEmail(String email);
 	
+	// Cópia com id, nome e email, sem a senha; alterá-la não muda o usuário gravado.
 	Optional<Usuario> obterPorId(Long id);
+	
+	// Referência ao usuário sem consultar o banco; serve apenas para associar a outras entidades.
+	Usuario obterReferencia(Long id);
+	
+	// Quais dos ids informados pertencem a usuários cadastrados, numa única consulta.
+	Set<Long> obterIdsExistentes(Collection<Long> ids);
+	
+	// Trava as linhas dos usuários, em ordem de id, até o fim da transação atual. As escritas de
+	// lançamentos chamam antes de qualquer insert: os inserts com chave estrangeira para o usuário
+	// já seguram um FOR KEY SHARE na linha, e travar depois deles leva a deadlock no PostgreSQL.
+	void bloquear(Collection<Long> ids);
 
 }
@@ -0,0 +1,17 @@
+package com.gef.minhasFinancas.service.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Publicado depois do commit de cada alteração que invalida uma região do cache de segundo nível.
+// Sem ouvintes não faz nada; em cluster, um ouvinte repassa o evento aos demais nós,
+// que o aplicam com CacheSegundoNivelService.invalidar (POST /api/caches/invalidacoes, com a
+// chave administrativa).
+@Data
+@AllArgsConstructor
+public class InvalidacaoCacheEvento {
+	
+	private RegiaoCache regiao;
+	private Long id;
+
+}
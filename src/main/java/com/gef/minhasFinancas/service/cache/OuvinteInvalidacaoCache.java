@@ -0,0 +1,36 @@
+package com.gef.minhasFinancas.service.cache;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
+
+// Callbacks JPA das entidades que invalidam o cache (@EntityListeners em Lancamento e SaldoUsuario).
+// O Hibernate cria a instância pelo contêiner de beans do Spring; o publicador só é buscado na
+// primeira gravação, quando o EntityManagerFactory já está pronto, e pode não existir (testes
+// @DataJpaTest). Inclusões de Lancamento não invalidam nada (não havia entrada em cache).
+public class OuvinteInvalidacaoCache {
+	
+	private final ObjectProvider<PublicadorInvalidacaoCache> publicador;
+	
+	public OuvinteInvalidacaoCache(ObjectProvider<PublicadorInvalidacaoCache> publicador) {
+		this.publicador = publicador;
+	}
+	
+	@PostPersist
+	public void incluido(Object entidade) {
+		if (entidade instanceof SaldoUsuario) {
+			alterado(entidade);
+		}
+	}
+	
+	@PostUpdate
+	@PostRemove
+	public void alterado(Object entidade) {
+		publicador.ifAvailable(p -> p.publicarAposCommit(entidade));
+	}
+
+}
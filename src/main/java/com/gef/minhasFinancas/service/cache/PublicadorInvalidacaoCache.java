@@ -0,0 +1,49 @@
+package com.gef.minhasFinancas.service.cache;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
+
+// Publica um InvalidacaoCacheEvento depois do commit de cada gravação de entidade em cache
+// (OuvinteInvalidacaoCache) e de cada alteração de saldo_usuario. Se a transação for desfeita
+// nada é publicado.
+@Component
+public class PublicadorInvalidacaoCache {
+	
+	private final ApplicationEventPublisher publicador;
+	
+	public PublicadorInvalidacaoCache(ApplicationEventPublisher publicador) {
+		this.publicador = publicador;
+	}
+	
+	// Gravações por SQL nativo (o upsert de saldo_usuario) não passam pelos callbacks do JPA.
+	public void publicarSaldoAposCommit(Long idUsuario) {
+		publicarAposCommit(new InvalidacaoCacheEvento(RegiaoCache.SALDO, idUsuario));
+	}
+	
+	void publicarAposCommit(Object entidade) {
+		if (entidade instanceof Lancamento) {
+			publicarAposCommit(new InvalidacaoCacheEvento(RegiaoCache.LANCAMENTO, ((Lancamento) entidade).getId()));
+		} else if (entidade instanceof SaldoUsuario) {
+			publicarSaldoAposCommit(((SaldoUsuario) entidade).getIdUsuario());
+		}
+	}
+	
+	private void publicarAposCommit(InvalidacaoCacheEvento evento) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			publicador.publishEvent(evento);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCommit() {
+				publicador.publishEvent(evento);
+			}
+		});
+	}
+
+}
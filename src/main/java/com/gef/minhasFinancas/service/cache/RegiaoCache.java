@@ -0,0 +1,29 @@
+package com.gef.minhasFinancas.service.cache;
+
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.repository.SaldoUsuarioRepository;
+
+// Regiões do cache de segundo nível (ehcache.xml) que podem ser invalidadas.
+public enum RegiaoCache {
+	
+	LANCAMENTO(Lancamento.class, Lancamento.class.getName()),
+	// Região de consultas: é invalidada inteira, o id é apenas informativo
+	SALDO(null, SaldoUsuarioRepository.REGIAO_SALDO);
+	
+	private final Class<?> entidade;
+	private final String nome;
+	
+	RegiaoCache(Class<?> entidade, String nome) {
+		this.entidade = entidade;
+		this.nome = nome;
+	}
+	
+	public Class<?> getEntidade() {
+		return entidade;
+	}
+	
+	public String getNome() {
+		return nome;
+	}
+
+}
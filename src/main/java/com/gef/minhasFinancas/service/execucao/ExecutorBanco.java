@@ -0,0 +1,150 @@
+package com.gef.minhasFinancas.service.execucao;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.gef.minhasFinancas.api.dto.EstatisticasExecutorDTO;
+import com.gef.minhasFinancas.exception.SobrecargaException;
+import com.gef.minhasFinancas.service.metricas.ConsumoSql;
+
+// Executor das operações de banco dos endpoints assíncronos. Tem uma thread por conexão do pool
+// do Hikari, para que nenhuma tarefa fique parada esperando conexão, e uma fila limitada: com a
+// fila cheia a tarefa é recusada na hora (SobrecargaException) em vez de acumular requisições.
+// Como o open-in-view só vale na thread do servlet, cada tarefa abre o seu próprio EntityManager.
+// Com minhasfinancas.execucao.threads-virtuais as threads do pool são virtuais; o limite continua
+// o mesmo, porque quem limita a concorrência no banco é o pool de conexões.
+@Component
+public class ExecutorBanco {
+	
+	private static final Logger log = LoggerFactory.getLogger(ExecutorBanco.class);
+	
+	static final String NOME = "banco";
+	
+	private final EntityManagerFactory entityManagerFactory;
+	private final ThreadPoolExecutor executor;
+	private final int capacidadeFila;
+	private final boolean virtuais;
+	
+	private final LongAdder iniciadas = new LongAdder();
+	private final LongAdder esperaTotal = new LongAdder();
+	private final AtomicLong esperaMaxima = new AtomicLong();
+	private final LongAdder recusadas = new LongAdder();
+	
+	@Autowired
+	public ExecutorBanco(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+			             @Value("${spring.jpa.open-in-view:true}") boolean openInView,
+			             @Value("${minhasfinancas.banco.executor.threads:${spring.datasource.hikari.maximum-pool-size:10}}") int threads,
+			             @Value("${minhasfinancas.banco.executor.fila:200}") int capacidadeFila,
+			             @Value("${minhasfinancas.execucao.threads-virtuais:false}") boolean threadsVirtuais) {
+		this(openInView ? entityManagerFactory.getIfAvailable() : null, threads, capacidadeFila, threadsVirtuais);
+	}
+	
+	ExecutorBanco(EntityManagerFactory entityManagerFactory, int threads, int capacidadeFila, boolean threadsVirtuais) {
+		this.entityManagerFactory = entityManagerFactory;
+		this.capacidadeFila = capacidadeFila;
+		
+		Optional<ThreadFactory> fabricaVirtual = threadsVirtuais ? ThreadsVirtuais.fabrica(NOME + "-") : Optional.empty();
+		if (threadsVirtuais && !fabricaVirtual.isPresent()) {
+			log.warn("Threads virtuais exigem Java 21 ou superior; o executor {} usará threads de plataforma", NOME);
+		}
+		this.virtuais = fabricaVirtual.isPresent();
+		
+		ThreadFactory threadFactory = fabricaVirtual.orElseGet(ExecutorBanco::criarThreadFactory);
+		this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				                               new ArrayBlockingQueue<>(capacidadeFila), threadFactory,
+				                               new ThreadPoolExecutor.AbortPolicy());
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+	
+	private static CustomizableThreadFactory criarThreadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(NOME + "-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+	
+	@PreDestroy
+	public void encerrar() {
+		executor.shutdown();
+	}
+	
+	public <T> CompletableFuture<T> executar(Supplier<T> tarefa) {
+		long enfileirada = System.nanoTime();
+		Supplier<T> daRequisicao = ConsumoSql.propagar(tarefa);
+		
+		try {
+			return CompletableFuture.supplyAsync(() -> {
+				registrarEspera(System.nanoTime() - enfileirada);
+				return comEntityManager(daRequisicao);
+			}, executor);
+		} catch (RejectedExecutionException e) {
+			recusadas.increment();
+			CompletableFuture<T> recusada = new CompletableFuture<>();
+			recusada.completeExceptionally(new SobrecargaException("Servidor sobrecarregado. Tente novamente em instantes"));
+			return recusada;
+		}
+	}
+	
+	public EstatisticasExecutorDTO obterEstatisticas() {
+		long quantidade = iniciadas.sum();
+		return EstatisticasExecutorDTO.builder()
+				                      .nome(NOME)
+				                      .threads(executor.getMaximumPoolSize())
+				                      .virtuais(virtuais)
+				                      .ativas(executor.getActiveCount())
+				                      .fila(executor.getQueue().size())
+				                      .capacidadeFila(capacidadeFila)
+				                      .concluidas(executor.getCompletedTaskCount())
+				                      .recusadas(recusadas.sum())
+				                      .esperaMediaMs(quantidade == 0 ? 0d : emMilissegundos(esperaTotal.sum()) / quantidade)
+				                      .esperaMaximaMs(emMilissegundos(esperaMaxima.get()))
+				                      .build();
+	}
+	
+	private <T> T comEntityManager(Supplier<T> tarefa) {
+		if (entityManagerFactory == null || TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+			return tarefa.get();
+		}
+		
+		EntityManagerHolder holder = new EntityManagerHolder(entityManagerFactory.createEntityManager());
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, holder);
+		try {
+			return tarefa.get();
+		} finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			EntityManagerFactoryUtils.closeEntityManager(holder.getEntityManager());
+		}
+	}
+	
+	private void registrarEspera(long nanos) {
+		iniciadas.increment();
+		esperaTotal.add(nanos);
+		esperaMaxima.accumulateAndGet(nanos, Math::max);
+	}
+	
+	private static double emMilissegundos(long nanos) {
+		return nanos / 1_000_000d;
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.gef.minhasFinancas.service.execucao;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// Threads virtuais (Java 21+) sem exigir o Java 21 para compilar: o projeto continua com
+// java.version 1.8 e a API é chamada por reflexão quando a JVM em execução a oferece. Em JVMs
+// anteriores as fábricas voltam vazias e quem chama fica com as threads de plataforma.
+public final class ThreadsVirtuais {
+	
+	private static final Method OF_VIRTUAL = metodo(Thread.class, "ofVirtual");
+	
+	private ThreadsVirtuais() {
+	}
+	
+	public static boolean suportadas() {
+		return OF_VIRTUAL != null;
+	}
+	
+	// Fábrica de threads virtuais nomeadas prefixo0, prefixo1, ...
+	public static Optional<ThreadFactory> fabrica(String prefixo) {
+		if (!suportadas()) {
+			return Optional.empty();
+		}
+		
+		try {
+			Object construtor = OF_VIRTUAL.invoke(null);
+			Class<?> tipo = Class.forName("java.lang.Thread$Builder");
+			construtor = tipo.getMethod("name", String.class, long.class).invoke(construtor, prefixo, 0L);
+			return Optional.of((ThreadFactory) tipo.getMethod("factory").invoke(construtor));
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Não foi possível criar a fábrica de threads virtuais", e);
+		}
+	}
+	
+	// Uma thread virtual nova por tarefa, sem fila nem limite de threads.
+	public static Optional<ExecutorService> executorPorTarefa(String prefixo) {
+		return fabrica(prefixo).map(ThreadsVirtuais::executorPorTarefa);
+	}
+	
+	private static ExecutorService executorPorTarefa(ThreadFactory fabrica) {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+					                                .invoke(null, fabrica);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Não foi possível criar o executor de threads virtuais", e);
+		}
+	}
+	
+	private static Method metodo(Class<?> tipo, String nome) {
+		try {
+			return tipo.getMethod(nome);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.gef.minhasFinancas.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import com.gef.minhasFinancas.api.dto.EstatisticasCacheDTO;
+import com.gef.minhasFinancas.service.CacheSegundoNivelService;
+import com.gef.minhasFinancas.service.cache.RegiaoCache;
+
+@Service
+public class CacheSegundoNivelServiceImpl implements CacheSegundoNivelService {
+	
+	private SessionFactory sessionFactory;
+	
+	public CacheSegundoNivelServiceImpl(EntityManagerFactory entityManagerFactory) {
+		this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+	}
+
+	@Override
+	public void invalidar(RegiaoCache regiao, Long id) {
+		Cache cache = sessionFactory.getCache();
+		
+		if (regiao.getEntidade() == null) {
+			cache.evictQueryRegion(regiao.getNome());
+		} else if (id == null) {
+			cache.evictEntityData(regiao.getEntidade());
+		} else {
+			cache.evictEntityData(regiao.getEntidade(), id);
+		}
+	}
+
+	@Override
+	public List<EstatisticasCacheDTO> obterEstatisticas() {
+		Statistics statistics = sessionFactory.getStatistics();
+		List<EstatisticasCacheDTO> estatisticas = new ArrayList<>();
+		
+		// Sem o cache de segundo nível (ou sem hibernate.generate_statistics) não há regiões
+		if (!statistics.isStatisticsEnabled() || !sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()) {
+			return estatisticas;
+		}
+		
+		for (RegiaoCache regiao : RegiaoCache.values()) {
+			CacheRegionStatistics regiaoStatistics = statistics.getCacheRegionStatistics(regiao.getNome());
+			if (regiaoStatistics == null) {
+				continue;
+			}
+			long acertos = regiaoStatistics.getHitCount();
+			long faltas = regiaoStatistics.getMissCount();
+			// O provedor JCache não informa a quantidade de elementos (valor negativo)
+			long tamanho = regiaoStatistics.getElementCountInMemory();
+			
+			estatisticas.add(EstatisticasCacheDTO.builder()
+					                             .nome(regiao.getNome())
+					                             .tamanho(tamanho < 0 ? null : tamanho)
+					                             .acertos(acertos)
+					                             .faltas(faltas)
+					                             .taxaAcerto(acertos + faltas == 0 ? 0d : (double) acertos / (acertos + faltas))
+					                             .gravacoes(regiaoStatistics.getPutCount())
+					                             .build());
+		}
+		return estatisticas;
+	}
+
+}
@@ -0,0 +1,292 @@
+package com.gef.minhasFinancas.service.impl;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.gef.minhasFinancas.api.dto.ImportacaoDTO;
+import com.gef.minhasFinancas.api.dto.MapeamentoColunasDTO;
+import com.gef.minhasFinancas.api.dto.ResultadoLoteDTO;
+import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.exception.SobrecargaException;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.repository.LancamentoRepository;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+import com.gef.minhasFinancas.service.ImportacaoExtratoService;
+import com.gef.minhasFinancas.service.LancamentoService;
+import com.gef.minhasFinancas.service.UsuarioService;
+import com.gef.minhasFinancas.service.importacao.FormatoExtrato;
+import com.gef.minhasFinancas.service.importacao.ImportacaoExtrato;
+import com.gef.minhasFinancas.service.importacao.LeitorCaracteres;
+import com.gef.minhasFinancas.service.importacao.LeitorExtrato;
+import com.gef.minhasFinancas.service.importacao.LinhaExtrato;
+import com.gef.minhasFinancas.service.importacao.RegistroImportacoes;
+
+// A leitura do arquivo roda na thread da requisição e entrega lotes a uma thread de gravação
+// por uma fila limitada: se o banco ficar para trás a leitura espera (backpressure), e a
+// memória usada fica em capacidade da fila x tamanho do lote, qualquer que seja o arquivo.
+// Cada importação ocupa uma thread de gravação; além de minhasfinancas.importacao.simultaneas
+// a importação é recusada na hora (SobrecargaException) em vez de abrir mais threads.
+@Service
+public class ImportacaoExtratoServiceImpl implements ImportacaoExtratoService {
+	
+	private static final Logger log = LoggerFactory.getLogger(ImportacaoExtratoServiceImpl.class);
+	
+	private static final int TAMANHO_DESCRICAO = 100;
+	
+	private LancamentoService lancamentoService;
+	private LancamentoRepository repository;
+	private UsuarioService usuarioService;
+	private RegistroImportacoes registro;
+	private int tamanhoLote;
+	private int capacidadeFila;
+	private int periodosEmMemoria;
+	
+	private final ThreadPoolExecutor gravacao;
+	
+	public ImportacaoExtratoServiceImpl(LancamentoService lancamentoService, LancamentoRepository repository,
+			                            UsuarioService usuarioService, RegistroImportacoes registro,
+			                            @Value("${minhasfinancas.importacao.lote.tamanho:500}") int tamanhoLote,
+			                            @Value("${minhasfinancas.importacao.fila.capacidade:4}") int capacidadeFila,
+			                            @Value("${minhasfinancas.importacao.periodos-em-memoria:36}") int periodosEmMemoria,
+			                            @Value("${minhasfinancas.importacao.simultaneas:4}") int simultaneas) {
+		this.lancamentoService = lancamentoService;
+		this.repository = repository;
+		this.usuarioService = usuarioService;
+		this.registro = registro;
+		this.tamanhoLote = tamanhoLote;
+		this.capacidadeFila = capacidadeFila;
+		this.periodosEmMemoria = periodosEmMemoria;
+		this.gravacao = new ThreadPoolExecutor(0, simultaneas, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+				                               criarThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+	}
+	
+	private static CustomizableThreadFactory criarThreadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("importacao-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+	
+	@PreDestroy
+	public void encerrar() {
+		gravacao.shutdownNow();
+	}
+
+	@Override
+	public ImportacaoDTO importar(Long idUsuario, FormatoExtrato formato, MapeamentoColunasDTO mapeamento,
+			                      Charset charset, ReadableByteChannel canal) {
+		if (!usuarioService.obterPorId(idUsuario).isPresent()) {
+			throw new RegraNegocioException("Usuário não encontrado para o id informado");
+		}
+		
+		LeitorExtrato leitor = LeitorExtrato.para(formato, new LeitorCaracteres(canal, charset), mapeamento);
+		BlockingQueue<List<LinhaExtrato>> fila = new ArrayBlockingQueue<>(capacidadeFila);
+		// Lido antes de começar a gravar: só os lançamentos até ele contam como já importados
+		Long ultimoGravado = repository.obterUltimoId(idUsuario);
+		ImportacaoExtrato importacao = registro.iniciar(idUsuario, formato);
+		Future<?> gravador;
+		try {
+			gravador = gravacao.submit(() -> {
+				gravar(importacao, ultimoGravado, fila);
+				return null;
+			});
+		} catch (RejectedExecutionException e) {
+			importacao.falhar("Importações simultâneas demais");
+			throw new SobrecargaException("Servidor sobrecarregado. Tente novamente em instantes");
+		}
+		
+		try {
+			ler(leitor, importacao, fila, gravador);
+			gravador.get();
+			importacao.concluir(leitor.getBytesLidos());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			falhar(importacao, gravador, e);
+		} catch (IOException | ExecutionException | RuntimeException e) {
+			falhar(importacao, gravador, e instanceof ExecutionException ? e.getCause() : e);
+		}
+		
+		return importacao.resumo();
+	}
+
+	@Override
+	public Optional<ImportacaoDTO> obterPorId(Long id) {
+		return registro.obter(id).map(ImportacaoExtrato::resumo);
+	}
+
+	@Override
+	public List<ImportacaoDTO> listarPorUsuario(Long idUsuario) {
+		return registro.listarPorUsuario(idUsuario).stream()
+				       .map(ImportacaoExtrato::resumo)
+				       .collect(Collectors.toList());
+	}
+	
+	private void falhar(ImportacaoExtrato importacao, Future<?> gravador, Throwable erro) {
+		gravador.cancel(true);
+		importacao.falhar(erro.getMessage() == null ? erro.getClass().getSimpleName() : erro.getMessage());
+		log.warn("Importação {} interrompida", importacao.getId(), erro);
+	}
+	
+	private void ler(LeitorExtrato leitor, ImportacaoExtrato importacao, BlockingQueue<List<LinhaExtrato>> fila,
+			         Future<?> gravador) throws IOException, InterruptedException, ExecutionException {
+		List<LinhaExtrato> lote = new ArrayList<>(tamanhoLote);
+		LinhaExtrato linha;
+		
+		while ((linha = leitor.proxima()) != null) {
+			importacao.lido(leitor.getBytesLidos());
+			
+			if (!linha.isValida()) {
+				importacao.rejeitar(linha.getNumero(), linha.getErro());
+				continue;
+			}
+			
+			lote.add(linha);
+			if (lote.size() == tamanhoLote) {
+				entregar(fila, lote, gravador);
+				lote = new ArrayList<>(tamanhoLote);
+			}
+		}
+		
+		if (!lote.isEmpty()) {
+			entregar(fila, lote, gravador);
+		}
+		// Lote vazio avisa a gravação que o arquivo acabou
+		entregar(fila, new ArrayList<>(), gravador);
+	}
+	
+	// Espera espaço na fila; se a gravação terminou com erro, para a leitura com a causa.
+	private static void entregar(BlockingQueue<List<LinhaExtrato>> fila, List<LinhaExtrato> lote,
+			                     Future<?> gravador) throws InterruptedException, ExecutionException {
+		while (!fila.offer(lote, 1, TimeUnit.SECONDS)) {
+			if (gravador.isDone()) {
+				gravador.get();
+				throw new IllegalStateException("Gravação encerrada antes do fim do arquivo");
+			}
+		}
+	}
+	
+	private void gravar(ImportacaoExtrato importacao, Long ultimoGravado, BlockingQueue<List<LinhaExtrato>> fila)
+			throws InterruptedException {
+		Long idUsuario = importacao.getIdUsuario();
+		
+		// Quantos lançamentos gravados antes da importação há para cada chave, por mês. Cada um
+		// cobre uma linha do arquivo; linhas iguais além dessas são lançamentos novos, e o que
+		// esta importação grava nunca entra aqui. Os meses menos usados saem da memória e, se
+		// voltarem a aparecer, são lidos de novo do banco com a contagem inteira.
+		Map<Integer, Map<UUID, Integer>> gravadosPorPeriodo = new LinkedHashMap<Integer, Map<UUID, Integer>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Map<UUID, Integer>> maisAntigo) {
+				return size() > periodosEmMemoria;
+			}
+		};
+		
+		for (List<LinhaExtrato> linhas = fila.take(); !linhas.isEmpty(); linhas = fila.take()) {
+			List<Lancamento> lancamentos = new ArrayList<>(linhas.size());
+			List<Long> numeros = new ArrayList<>(linhas.size());
+			
+			for (LinhaExtrato linha : linhas) {
+				Lancamento lancamento = converter(idUsuario, linha);
+				Map<UUID, Integer> gravados = gravadosPorPeriodo.computeIfAbsent(lancamento.getAno() * 100 + lancamento.getMes(),
+						periodo -> carregarGravados(idUsuario, lancamento.getAno(), lancamento.getMes(), ultimoGravado));
+				
+				if (consumir(gravados, chave(idUsuario, lancamento.getAno(), lancamento.getMes(),
+						                     lancamento.getValor(), lancamento.getDescricao()))) {
+					importacao.duplicado();
+					continue;
+				}
+				lancamentos.add(lancamento);
+				numeros.add(linha.getNumero());
+			}
+			
+			if (lancamentos.isEmpty()) {
+				continue;
+			}
+			
+			ResultadoLoteDTO resultado = lancamentoService.salvarLote(lancamentos);
+			importacao.gravados(resultado.getGravados());
+			resultado.getErros().forEach(erro -> importacao.rejeitar(numeros.get(erro.getLinha() - 1), erro.getMensagem()));
+		}
+	}
+	
+	private Map<UUID, Integer> carregarGravados(Long idUsuario, Integer ano, Integer mes, Long ultimoGravado) {
+		Map<UUID, Integer> gravados = new HashMap<>();
+		for (Object[] gravado : repository.obterValorEDescricaoPorPeriodo(idUsuario, ano, mes, ultimoGravado)) {
+			gravados.merge(chave(idUsuario, ano, mes, (Dinheiro) gravado[0], (String) gravado[1]), 1, Integer::sum);
+		}
+		return gravados;
+	}
+	
+	// Usa um dos lançamentos gravados com a chave, se ainda houver algum.
+	static boolean consumir(Map<UUID, Integer> gravados, UUID chave) {
+		Integer restantes = gravados.get(chave);
+		if (restantes == null) {
+			return false;
+		}
+		if (restantes == 1) {
+			gravados.remove(chave);
+		} else {
+			gravados.put(chave, restantes - 1);
+		}
+		return true;
+	}
+	
+	// Identifica o lançamento por (usuario, ano, mes, valor, descricao)
+	static UUID chave(Long idUsuario, Integer ano, Integer mes, Dinheiro valor, String descricao) {
+		String texto = idUsuario + "|" + ano + "|" + mes + "|" + valor
+		               + "|" + descricao.trim().toLowerCase();
+		return UUID.nameUUIDFromBytes(texto.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	// Sem tipo no arquivo, valor negativo é despesa
+	private static Lancamento converter(Long idUsuario, LinhaExtrato linha) {
+		TipoLancamento tipo = linha.getTipo();
+		if (tipo == null) {
+			tipo = linha.getValor().sinal() < 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA;
+		}
+		
+		String descricao = linha.getDescricao();
+		if (descricao.length() > TAMANHO_DESCRICAO) {
+			descricao = descricao.substring(0, TAMANHO_DESCRICAO);
+		}
+		
+		return Lancamento.builder()
+				         .descricao(descricao)
+				         .ano(linha.getData().getYear())
+				         .mes(linha.getData().getMonthValue())
+				         .dataCadastro(linha.getData())
+				         .valor(linha.getValor().absoluto())
+				         .tipo(tipo)
+				         .usuario(Usuario.builder().id(idUsuario).build())
+				         .build();
+	}
+
+}
@@ -1,9 +1,21 @@
 package com.gef.minhasFinancas.service.impl;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
@@ -11,28 +23,122 @@ import org.springframework.data.domain.ExampleMatcher.StringMatcher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.gef.minhasFinancas.api.dto.CurvaSaldoDTO;
+import com.gef.minhasFinancas.api.dto.CursorLancamentoDTO;
+import com.gef.minhasFinancas.api.dto.ErroLoteDTO;
+import com.gef.minhasFinancas.api.dto.FluxoCaixaDTO;
+import com.gef.minhasFinancas.api.dto.OcorrenciaDescricaoDTO;
+import com.gef.minhasFinancas.api.dto.PaginaLancamentoDTO;
+import com.gef.minhasFinancas.api.dto.ResultadoBuscaDTO;
+import com.gef.minhasFinancas.api.dto.ResultadoLoteDTO;
+import com.gef.minhasFinancas.api.dto.SaldoDTO;
 import com.gef.minhasFinancas.exception.RegraNegocioException;
 import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.SaldoDiario;
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
 import com.gef.minhasFinancas.model.enuns.StatusLancamento;
 import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.repository.BuscaDescricaoRepository;
+import com.gef.minhasFinancas.model.repository.ColunasLancamentoRepository;
 import com.gef.minhasFinancas.model.repository.LancamentoRepository;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
 import com.gef.minhasFinancas.service.LancamentoService;
+import com.gef.minhasFinancas.service.SaldoDiarioService;
+import com.gef.minhasFinancas.service.SaldoUsuarioService;
+import com.gef.minhasFinancas.service.UsuarioService;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService {
 	
 	private LancamentoRepository repository;
+	private SaldoUsuarioService saldoService;
+	private BuscaDescricaoRepository buscaDescricao;
+	private UsuarioService usuarioService;
+	private SaldoDiarioService saldoDiarioService;
+	private ColunasLancamentoRepository colunas;
 	
-	public LancamentoServiceImpl(LancamentoRepository repository) {
+	public LancamentoServiceImpl(LancamentoRepository repository, SaldoUsuarioService saldoService,
+			                     BuscaDescricaoRepository buscaDescricao, UsuarioService usuarioService,
+			                     SaldoDiarioService saldoDiarioService, ColunasLancamentoRepository colunas) {
 		this.repository = repository;
+		this.saldoService = saldoService;
+		this.buscaDescricao = buscaDescricao;
+		this.usuarioService = usuarioService;
+		this.saldoDiarioService = saldoDiarioService;
+		this.colunas = colunas;
 	}
 
 	@Override
 	@Transactional
 	public Lancamento salva(Lancamento lancamento) {
 		validar(lancamento);
+		usuarioService.bloquear(Collections.singleton(lancamento.getUsuario().getId()));
 		lancamento.setStatus(StatusLancamento.PENDENTE);
-		return repository.save(lancamento);
+		definirDataCadastro(lancamento);
+		Lancamento salvo = repository.save(lancamento);
+		saldoService.registrar(SaldoUsuario.de(salvo));
+		saldoDiarioService.registrar(SaldoDiario.de(salvo));
+		buscaDescricao.invalidar(salvo.getUsuario().getId());
+		colunas.invalidar(salvo.getUsuario().getId());
+		return salvo;
+	}
+
+	@Override
+	@Transactional
+	public ResultadoLoteDTO salvarLote(List<Lancamento> lancamentos) {
+		Set<Long> usuarios = usuarioService.obterIdsExistentes(lancamentos.stream()
+				.filter(l -> l.getUsuario() != null && l.getUsuario().getId() != null)
+				.map(l -> l.getUsuario().getId())
+				.collect(Collectors.toSet()));
+		
+		List<ErroLoteDTO> erros = new ArrayList<>();
+		List<Lancamento> validos = new ArrayList<>(lancamentos.size());
+		
+		for (int i = 0; i < lancamentos.size(); i++) {
+			Lancamento lancamento = lancamentos.get(i);
+			try {
+				validar(lancamento);
+				if (!usuarios.contains(lancamento.getUsuario().getId())) {
+					throw new RegraNegocioException("Usuário não encontrado para o id informado");
+				}
+				lancamento.setStatus(StatusLancamento.PENDENTE);
+				definirDataCadastro(lancamento);
+				validos.add(lancamento);
+			} catch (RegraNegocioException e) {
+				erros.add(new ErroLoteDTO(i + 1, e.getMessage()));
+			}
+		}
+		
+		// Travas antes dos inserts, em ordem de id (UsuarioService.bloquear)
+		usuarioService.bloquear(validos.stream().map(l -> l.getUsuario().getId()).collect(Collectors.toSet()));
+		
+		// Com ids da sequência os inserts vão para o banco em lotes de hibernate.jdbc.batch_size
+		repository.saveAll(validos);
+		
+		// Uma atualização de saldo por usuário e mês, em vez de uma por lançamento
+		Map<List<Object>, SaldoUsuario> movimentos = new LinkedHashMap<>();
+		for (Lancamento lancamento : validos) {
+			SaldoUsuario movimento = SaldoUsuario.de(lancamento);
+			movimentos.merge(Arrays.asList(movimento.getIdUsuario(), movimento.getTipo(), movimento.getStatus(),
+					                       movimento.getAno(), movimento.getMes()),
+					         movimento, (acumulado, novo) -> {
+						         acumulado.setValor(acumulado.getValor().somar(novo.getValor()));
+						         acumulado.setQuantidade(acumulado.getQuantidade() + novo.getQuantidade());
+						         return acumulado;
+					         });
+		}
+		// Em ordem de usuário, a mesma das travas
+		movimentos.values().stream()
+		          .sorted(Comparator.comparing(SaldoUsuario::getIdUsuario))
+		          .forEach(saldoService::registrar);
+		saldoDiarioService.registrarTodos(validos.stream().map(SaldoDiario::de).collect(Collectors.toList()));
+		
+		movimentos.values().stream().map(SaldoUsuario::getIdUsuario).distinct().forEach(idUsuario -> {
+			buscaDescricao.invalidar(idUsuario);
+			colunas.invalidar(idUsuario);
+		});
+		
+		return new ResultadoLoteDTO(lancamentos.size(), validos.size(), erros);
 	}
 
 	@Override
@@ -40,14 +146,34 @@ public class LancamentoServiceImpl implements LancamentoService {
 	public Lancamento atualizar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
 		validar(lancamento);
-		return repository.save(lancamento);
+		usuarioService.bloquear(Collections.singleton(lancamento.getUsuario().getId()));
+		// Existência e dono do lançamento vêm da mesma consulta usada para o estorno do saldo
+		Optional<SaldoUsuario> anterior = repository.obterMovimentoGravado(lancamento.getId());
+		verificarDono(anterior, lancamento);
+		// O DTO não traz a data de cadastro; sem ela o update apagaria a gravada
+		if (lancamento.getDataCadastro() == null) {
+			lancamento.setDataCadastro(anterior.get().getData());
+		}
+		Lancamento atualizado = repository.atualizar(lancamento);
+		saldoService.estornar(anterior.get());
+		saldoService.registrar(SaldoUsuario.de(atualizado));
+		saldoDiarioService.substituir(SaldoDiario.de(anterior.get()), SaldoDiario.de(atualizado));
+		buscaDescricao.invalidar(atualizado.getUsuario().getId());
+		colunas.invalidar(atualizado.getUsuario().getId());
+		return atualizado;
 	}
 
 	@Override
 	@Transactional
 	public void deletar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
+		Optional<SaldoUsuario> anterior = repository.obterMovimentoGravado(lancamento.getId());
+		anterior.ifPresent(a -> usuarioService.bloquear(Collections.singleton(a.getIdUsuario())));
 		repository.delete(lancamento);
+		anterior.ifPresent(saldoService::estornar);
+		anterior.ifPresent(a -> saldoDiarioService.estornar(SaldoDiario.de(a)));
+		anterior.ifPresent(a -> buscaDescricao.invalidar(a.getIdUsuario()));
+		anterior.ifPresent(a -> colunas.invalidar(a.getIdUsuario()));
 	}
 
 	@Override
@@ -61,6 +187,51 @@ public class LancamentoServiceImpl implements LancamentoService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
+	public PaginaLancamentoDTO buscarPagina(Lancamento lancamentoFiltro, CursorLancamentoDTO cursor, int tamanho) {
+		// Busca um lançamento a mais apenas para saber se existe uma próxima página.
+		List<Lancamento> lancamentos = repository.buscarPagina(lancamentoFiltro, cursor, tamanho + 1);
+		
+		if (lancamentos.size() <= tamanho) {
+			return new PaginaLancamentoDTO(lancamentos, null);
+		}
+		
+		lancamentos = new ArrayList<>(lancamentos.subList(0, tamanho));
+		return new PaginaLancamentoDTO(lancamentos, CursorLancamentoDTO.de(lancamentos.get(tamanho - 1)).getValor());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void buscarEmStream(Lancamento lancamentoFiltro, Consumer<Lancamento> consumidor) {
+		try (Stream<Lancamento> lancamentos = repository.buscarEmStream(lancamentoFiltro)) {
+			lancamentos.forEach(consumidor);
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<ResultadoBuscaDTO> buscarPorDescricao(Long idUsuario, String termo, boolean prefixo, int limite) {
+		List<OcorrenciaDescricaoDTO> ocorrencias = buscaDescricao.buscar(idUsuario, termo, prefixo, limite);
+		
+		Map<Long, Lancamento> lancamentos = new HashMap<>();
+		for (Lancamento lancamento : repository.findAllById(
+				ocorrencias.stream().map(OcorrenciaDescricaoDTO::getId).collect(Collectors.toList()))) {
+			lancamentos.put(lancamento.getId(), lancamento);
+		}
+		
+		// Mantém a ordem de relevância devolvida pela busca.
+		List<ResultadoBuscaDTO> resultados = new ArrayList<>();
+		for (OcorrenciaDescricaoDTO ocorrencia : ocorrencias) {
+			Lancamento lancamento = lancamentos.get(ocorrencia.getId());
+			if (lancamento != null) {
+				resultados.add(new ResultadoBuscaDTO(lancamento, ocorrencia.getRelevancia()));
+			}
+		}
+		return resultados;
+	}
+
+	@Override
+	@Transactional
 	public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
 		lancamento.setStatus(status);
 		atualizar(lancamento);
@@ -84,7 +255,7 @@ public class LancamentoServiceImpl implements LancamentoService {
 			throw new RegraNegocioException("Informe um Usuário.");
 		}
 		
-		if (lancamento.getValor() == null || lancamento.getValor().compareTo(BigDecimal.ZERO) < 1) {
+		if (lancamento.getValor() == null || lancamento.getValor().compareTo(Dinheiro.ZERO) < 1) {
 			throw new RegraNegocioException("Informe um Valor válido.");
 		}
 		
@@ -94,6 +265,22 @@ public class LancamentoServiceImpl implements LancamentoService {
 
 	}
 
+	private static void definirDataCadastro(Lancamento lancamento) {
+		if (lancamento.getDataCadastro() == null) {
+			lancamento.setDataCadastro(LocalDate.now());
+		}
+	}
+
+	private void verificarDono(Optional<SaldoUsuario> gravado, Lancamento lancamento) {
+		if (!gravado.isPresent()) {
+			throw new RegraNegocioException("Lançamento não encontrado na base de dados");
+		}
+		
+		if (!Objects.equals(gravado.get().getIdUsuario(), lancamento.getUsuario().getId())) {
+			throw new RegraNegocioException("O lançamento não pertence ao usuário informado");
+		}
+	}
+
 	@Override
 	public Optional<Lancamento> obterPorId(Long id) {
 		return repository.findById(id);
@@ -101,19 +288,51 @@ public class LancamentoServiceImpl implements LancamentoService {
 
 	@Override
 	@Transactional(readOnly = true)
-	public BigDecimal ObterSaldoPorUsuario(Long id) {
-		BigDecimal receitas = repository.obterSaldoPorTipoDeLancamentoEUsuario( id, TipoLancamento.RECEITA);
-		BigDecimal despesas = repository.obterSaldoPorTipoDeLancamentoEUsuario( id, TipoLancamento.DESPESA);
+	public Dinheiro ObterSaldoPorUsuario(Long id) {
+		Dinheiro saldo = saldoService.obterSaldoPorUsuario(id);
 		
-		if (receitas == null) {
-			receitas = BigDecimal.ZERO;
+		if (saldo == null) {
+			saldo = Dinheiro.ZERO;
 		}
 		
-		if (despesas == null) {
-			despesas = BigDecimal.ZERO;
+		return saldo;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public SaldoDTO obterSaldoDetalhadoPorUsuario(Long id) {
+		return SaldoDTO.of(saldoService.obterSaldoPorStatusEUsuario(id));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public FluxoCaixaDTO obterFluxoDeCaixa(Long idUsuario, YearMonth inicio, YearMonth fim) {
+		if (inicio.isAfter(fim)) {
+			throw new RegraNegocioException("O início do período deve ser anterior ao fim");
 		}
-		
-		return receitas.subtract(despesas);
+		return FluxoCaixaDTO.of(inicio, fim, saldoService.obterSaldoMensalPorStatus(idUsuario, inicio, fim));
+	}
+
+	// Sem transação: com as colunas já em memória a consulta não usa o banco.
+	@Override
+	public FluxoCaixaDTO analisar(Long idUsuario, YearMonth inicio, YearMonth fim, TipoLancamento tipo, StatusLancamento status) {
+		if (inicio.isAfter(fim)) {
+			throw new RegraNegocioException("O início do período deve ser anterior ao fim");
+		}
+		return FluxoCaixaDTO.of(inicio, fim, colunas.agruparPorMesEStatus(idUsuario, inicio, fim, tipo, status));
+	}
+
+	@Override
+	public Dinheiro obterSaldoEm(Long idUsuario, LocalDate data) {
+		return saldoDiarioService.obterSaldoEm(idUsuario, data);
+	}
+
+	@Override
+	public CurvaSaldoDTO obterCurvaSaldo(Long idUsuario, LocalDate inicio, LocalDate fim) {
+		if (inicio.isAfter(fim)) {
+			throw new RegraNegocioException("O início do período deve ser anterior ao fim");
+		}
+		return saldoDiarioService.obterCurva(idUsuario, inicio, fim);
 	}
 
 }
@@ -0,0 +1,208 @@
+package com.gef.minhasFinancas.service.impl;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.gef.minhasFinancas.api.dto.FluxoCaixaDTO;
+import com.gef.minhasFinancas.api.dto.RelatorioAdministrativoDTO;
+import com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO;
+import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.model.repository.LancamentoRepository;
+import com.gef.minhasFinancas.service.RelatorioAdministrativoService;
+import com.gef.minhasFinancas.service.relatorio.AgregacaoParticoes;
+import com.gef.minhasFinancas.service.relatorio.AgregacaoParticoes.FaixaUsuarios;
+import com.gef.minhasFinancas.service.relatorio.RelatorioAdministrativo;
+
+// Relatórios sobre todos os usuários sem uma única consulta na tabela inteira: os lançamentos são
+// divididos em faixas de id_usuario (minhasfinancas.relatorio.usuarios-por-particao), somadas em
+// paralelo por um executor próprio de tamanho fixo e juntadas no fim. O paralelismo limita quantas
+// conexões do pool o relatório ocupa ao mesmo tempo, então deve ficar abaixo do tamanho do pool do
+// Hikari. Cada consulta tem o tempo limite de minhasfinancas.relatorio.tempo-limite-consulta e é
+// cancelada no banco (Statement.cancel) quando o relatório é cancelado.
+@Service
+public class RelatorioAdministrativoServiceImpl implements RelatorioAdministrativoService {
+	
+	private static final Logger log = LoggerFactory.getLogger(RelatorioAdministrativoServiceImpl.class);
+	
+	private final LancamentoRepository repository;
+	private final EntityManagerFactory entityManagerFactory;
+	private final long usuariosPorParticao;
+	private final int historico;
+	private final int tempoLimiteMs;
+	private final ThreadPoolExecutor executor;
+	
+	private final AtomicLong sequencia = new AtomicLong();
+	private final Map<Long, RelatorioAdministrativo> relatorios = new LinkedHashMap<>();
+	
+	public RelatorioAdministrativoServiceImpl(LancamentoRepository repository, EntityManagerFactory entityManagerFactory,
+			                                  @Value("${minhasfinancas.relatorio.paralelismo:4}") int paralelismo,
+			                                  @Value("${minhasfinancas.relatorio.usuarios-por-particao:1000}") long usuariosPorParticao,
+			                                  @Value("${minhasfinancas.relatorio.historico:20}") int historico,
+			                                  @Value("${minhasfinancas.relatorio.tempo-limite-consulta:300}") int tempoLimiteSegundos) {
+		if (paralelismo < 1 || usuariosPorParticao < 1 || tempoLimiteSegundos < 1) {
+			throw new IllegalArgumentException("Paralelismo, usuários por partição e tempo limite do relatório devem ser positivos");
+		}
+		this.repository = repository;
+		this.entityManagerFactory = entityManagerFactory;
+		this.usuariosPorParticao = usuariosPorParticao;
+		this.historico = historico;
+		this.tempoLimiteMs = (int) TimeUnit.SECONDS.toMillis(tempoLimiteSegundos);
+		
+		// As partições de todos os relatórios esperam na fila; nenhuma tarefa espera outra, então
+		// as threads nunca passam do paralelismo
+		this.executor = new ThreadPoolExecutor(paralelismo, paralelismo, 60, TimeUnit.SECONDS,
+				                               new LinkedBlockingQueue<>(), criarThreadFactory(),
+				                               new ThreadPoolExecutor.AbortPolicy());
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+	
+	private static CustomizableThreadFactory criarThreadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("relatorio-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+	
+	@PreDestroy
+	public void encerrar() {
+		executor.shutdownNow();
+	}
+	
+	@Override
+	public RelatorioAdministrativoDTO iniciar(YearMonth inicio, YearMonth fim) {
+		if (inicio.isAfter(fim)) {
+			throw new RegraNegocioException("O início do período deve ser anterior ao fim");
+		}
+		
+		RelatorioAdministrativo relatorio = registrar(inicio, fim);
+		try {
+			executar(relatorio);
+		} catch (RejectedExecutionException e) {
+			relatorio.falhar("Relatórios indisponíveis: a aplicação está sendo encerrada");
+		}
+		return relatorio.resumo();
+	}
+	
+	@Override
+	public Optional<RelatorioAdministrativoDTO> obterPorId(Long id) {
+		return obter(id).map(RelatorioAdministrativo::resumo);
+	}
+	
+	@Override
+	public synchronized List<RelatorioAdministrativoDTO> listar() {
+		return relatorios.values().stream()
+				                  .map(RelatorioAdministrativo::resumo)
+				                  .collect(Collectors.toList());
+	}
+	
+	@Override
+	public Optional<RelatorioAdministrativoDTO> cancelar(Long id) {
+		return obter(id).map(relatorio -> {
+			if (relatorio.cancelar()) {
+				log.info("Relatório administrativo {} cancelado", id);
+			}
+			return relatorio.resumo();
+		});
+	}
+	
+	// Particiona e agrega no executor sem bloquear a thread da requisição; a conclusão ou a falha
+	// fica registrada no relatório pela tarefa da última partição.
+	private void executar(RelatorioAdministrativo relatorio) {
+		int inicio = periodo(relatorio.getPeriodoInicio());
+		int fim = periodo(relatorio.getPeriodoFim());
+		
+		CompletableFuture.supplyAsync(this::particionar, executor)
+				         .thenCompose(particoes -> {
+				        	 relatorio.particionar(particoes.size());
+				        	 return AgregacaoParticoes.agregar(relatorio, particoes,
+				        			                           faixa -> consultar(relatorio, faixa, inicio, fim), executor);
+				         })
+				         .whenComplete((linhas, erro) -> {
+				        	 if (erro == null) {
+				        		 relatorio.concluir(FluxoCaixaDTO.of(relatorio.getPeriodoInicio(), relatorio.getPeriodoFim(), linhas));
+				        		 return;
+				        	 }
+				        	 Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+				        	 if (relatorio.falhar(causa.getMessage() == null ? causa.getClass().getSimpleName() : causa.getMessage())) {
+				        		 log.warn("Relatório administrativo {} interrompido", relatorio.getId(), causa);
+				        	 }
+				         });
+	}
+	
+	// Um EntityManager por partição: a sessão é de uma thread só, e é por ela que o cancelamento do
+	// relatório chega ao Statement em execução.
+	private List<SaldoMensalStatusDTO> consultar(RelatorioAdministrativo relatorio, FaixaUsuarios faixa, int inicio, int fim) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			Session sessao = entityManager.unwrap(Session.class);
+			return relatorio.consultar(sessao::cancelQuery,
+					() -> entityManager.createQuery(LancamentoRepository.SALDO_MENSAL_POR_STATUS_E_FAIXA_DE_USUARIOS,
+							                        SaldoMensalStatusDTO.class)
+					                   .setParameter("primeiro", faixa.getPrimeiro())
+					                   .setParameter("ultimo", faixa.getUltimo())
+					                   .setParameter("inicio", inicio)
+					                   .setParameter("fim", fim)
+					                   .setHint(QueryHints.TIMEOUT_JPA, tempoLimiteMs)
+					                   .getResultList())
+					        .orElseGet(ArrayList::new);
+		} finally {
+			entityManager.close();
+		}
+	}
+	
+	private List<FaixaUsuarios> particionar() {
+		Long menor = repository.obterMenorIdUsuario();
+		Long maior = repository.obterMaiorIdUsuario();
+		if (menor == null || maior == null) {
+			return new ArrayList<>();
+		}
+		return FaixaUsuarios.dividir(menor, maior, usuariosPorParticao);
+	}
+	
+	private synchronized RelatorioAdministrativo registrar(YearMonth inicio, YearMonth fim) {
+		RelatorioAdministrativo relatorio = new RelatorioAdministrativo(sequencia.incrementAndGet(), inicio, fim);
+		relatorios.put(relatorio.getId(), relatorio);
+		
+		// Os encerrados mais antigos saem quando o histórico passa de minhasfinancas.relatorio.historico
+		Iterator<RelatorioAdministrativo> antigos = relatorios.values().iterator();
+		while (relatorios.size() > historico && antigos.hasNext()) {
+			if (!antigos.next().isEmAndamento()) {
+				antigos.remove();
+			}
+		}
+		return relatorio;
+	}
+	
+	private synchronized Optional<RelatorioAdministrativo> obter(Long id) {
+		return Optional.ofNullable(relatorios.get(id));
+	}
+	
+	private static int periodo(YearMonth mes) {
+		return mes.getYear() * 100 + mes.getMonthValue();
+	}
+
+}
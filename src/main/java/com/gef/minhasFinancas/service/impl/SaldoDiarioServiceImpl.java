@@ -0,0 +1,136 @@
+package com.gef.minhasFinancas.service.impl;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.gef.minhasFinancas.api.dto.CurvaSaldoDTO;
+import com.gef.minhasFinancas.api.dto.PontoSaldoDTO;
+import com.gef.minhasFinancas.model.entity.SaldoDiario;
+import com.gef.minhasFinancas.model.repository.SaldoDiarioRepository;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+import com.gef.minhasFinancas.service.SaldoDiarioService;
+
+@Service
+public class SaldoDiarioServiceImpl implements SaldoDiarioService {
+	
+	private static final Comparator<SaldoDiario> POR_USUARIO_E_DATA =
+			Comparator.comparing(SaldoDiario::getIdUsuario).thenComparing(SaldoDiario::getData);
+	
+	private SaldoDiarioRepository repository;
+	
+	public SaldoDiarioServiceImpl(SaldoDiarioRepository repository) {
+		this.repository = repository;
+	}
+
+	@Override
+	@Transactional
+	public void registrar(SaldoDiario movimento) {
+		aplicar(Collections.singletonList(movimento));
+	}
+
+	@Override
+	@Transactional
+	public void estornar(SaldoDiario movimento) {
+		aplicar(Collections.singletonList(movimento.negado()));
+	}
+
+	@Override
+	@Transactional
+	public void substituir(SaldoDiario anterior, SaldoDiario novo) {
+		aplicar(Arrays.asList(anterior.negado(), novo));
+	}
+
+	@Override
+	@Transactional
+	public void registrarTodos(Collection<SaldoDiario> movimentos) {
+		aplicar(movimentos);
+	}
+	
+	// Os movimentos são juntados por usuário e dia e aplicados em ordem crescente de data: o
+	// deslocamento de um dia nunca altera um dia seguinte já carregado nesta sessão. Quem grava
+	// lançamentos já travou os usuários (UsuarioService.bloquear) antes de qualquer insert, o que
+	// serializa as escritas do mesmo usuário (um dia novo depende do acumulado dos anteriores).
+	private void aplicar(Collection<SaldoDiario> movimentos) {
+		Map<SaldoDiario, SaldoDiario> porDia = new TreeMap<>(POR_USUARIO_E_DATA);
+		for (SaldoDiario movimento : movimentos) {
+			porDia.merge(movimento, new SaldoDiario(movimento.getIdUsuario(), movimento.getData(),
+					                                movimento.getValor(), movimento.getQuantidade()),
+					     (acumulado, novo) -> {
+						     acumulado.setValor(acumulado.getValor().somar(novo.getValor()));
+						     acumulado.setQuantidade(acumulado.getQuantidade() + novo.getQuantidade());
+						     return acumulado;
+					     });
+		}
+		
+		for (SaldoDiario movimento : porDia.values()) {
+			if (movimento.getValor().sinal() == 0 && movimento.getQuantidade() == 0) {
+				continue;
+			}
+			aplicarNoDia(movimento);
+		}
+	}
+	
+	private void aplicarNoDia(SaldoDiario movimento) {
+		Optional<SaldoDiario> gravado = repository.findByIdUsuarioAndData(movimento.getIdUsuario(), movimento.getData());
+		
+		SaldoDiario dia = gravado.orElseGet(() -> new SaldoDiario(
+				null, movimento.getIdUsuario(), movimento.getData(), Dinheiro.ZERO, 0l,
+				repository.findFirstByIdUsuarioAndDataLessThanOrderByDataDesc(movimento.getIdUsuario(), movimento.getData())
+				          .map(SaldoDiario::getAcumulado)
+				          .orElse(Dinheiro.ZERO)));
+		
+		dia.setValor(dia.getValor().somar(movimento.getValor()));
+		dia.setQuantidade(dia.getQuantidade() + movimento.getQuantidade());
+		dia.setAcumulado(dia.getAcumulado().somar(movimento.getValor()));
+		
+		// Dia sem nenhum lançamento não precisa ocupar uma linha (o movimento líquido dele é zero).
+		if (dia.getQuantidade() <= 0) {
+			if (dia.getId() != null) {
+				repository.delete(dia);
+			}
+		} else {
+			repository.save(dia);
+		}
+		
+		if (movimento.getValor().sinal() != 0) {
+			repository.deslocarAcumulado(movimento.getIdUsuario(), movimento.getData(), movimento.getValor());
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Dinheiro obterSaldoEm(Long idUsuario, LocalDate data) {
+		return repository.findFirstByIdUsuarioAndDataLessThanEqualOrderByDataDesc(idUsuario, data)
+				         .map(SaldoDiario::getAcumulado)
+				         .orElse(Dinheiro.ZERO);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CurvaSaldoDTO obterCurva(Long idUsuario, LocalDate inicio, LocalDate fim) {
+		Dinheiro saldoInicial = obterSaldoEm(idUsuario, inicio.minusDays(1));
+		List<PontoSaldoDTO> pontos = repository.findByIdUsuarioAndDataBetweenOrderByData(idUsuario, inicio, fim).stream()
+				.map(dia -> new PontoSaldoDTO(dia.getData(), dia.getValor(), dia.getAcumulado()))
+				.collect(Collectors.toList());
+		
+		return CurvaSaldoDTO.builder()
+				.inicio(inicio)
+				.fim(fim)
+				.saldoInicial(saldoInicial)
+				.saldoFinal(pontos.isEmpty() ? saldoInicial : pontos.get(pontos.size() - 1).getSaldo())
+				.pontos(pontos)
+				.build();
+	}
+
+}
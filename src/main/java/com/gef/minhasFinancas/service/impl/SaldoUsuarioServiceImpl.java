@@ -0,0 +1,214 @@
+package com.gef.minhasFinancas.service.impl;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gef.minhasFinancas.api.dto.DivergenciaSaldoDTO;
+import com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO;
+import com.gef.minhasFinancas.api.dto.SaldoStatusDTO;
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
+import com.gef.minhasFinancas.model.repository.LancamentoRepository;
+import com.gef.minhasFinancas.model.repository.SaldoUsuarioRepository;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+import com.gef.minhasFinancas.service.SaldoUsuarioService;
+import com.gef.minhasFinancas.service.UsuarioService;
+import com.gef.minhasFinancas.service.cache.PublicadorInvalidacaoCache;
+import com.gef.minhasFinancas.service.relatorio.AgregacaoParticoes.FaixaUsuarios;
+
+@Service
+public class SaldoUsuarioServiceImpl implements SaldoUsuarioService {
+	
+	private SaldoUsuarioRepository repository;
+	private LancamentoRepository lancamentoRepository;
+	private UsuarioService usuarioService;
+	private PublicadorInvalidacaoCache publicadorInvalidacao;
+	private TransactionTemplate transacao;
+	private long usuariosPorFaixa;
+	
+	public SaldoUsuarioServiceImpl(SaldoUsuarioRepository repository, LancamentoRepository lancamentoRepository,
+			                       UsuarioService usuarioService,
+			                       PublicadorInvalidacaoCache publicadorInvalidacao,
+			                       PlatformTransactionManager transactionManager,
+			                       @Value("${minhasfinancas.saldo.verificacao.usuarios-por-faixa:1000}") long usuariosPorFaixa) {
+		if (usuariosPorFaixa < 1) {
+			throw new IllegalArgumentException("minhasfinancas.saldo.verificacao.usuarios-por-faixa deve ser positivo");
+		}
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.usuarioService = usuarioService;
+		this.publicadorInvalidacao = publicadorInvalidacao;
+		this.transacao = new TransactionTemplate(transactionManager);
+		this.usuariosPorFaixa = usuariosPorFaixa;
+	}
+
+	@Override
+	@Transactional
+	public void registrar(SaldoUsuario movimento) {
+		aplicar(movimento, movimento.getValor(), movimento.getQuantidade());
+	}
+
+	@Override
+	@Transactional
+	public void estornar(SaldoUsuario movimento) {
+		aplicar(movimento, movimento.getValor().negar(), -movimento.getQuantidade());
+	}
+	
+	// Quem grava lançamentos já travou o usuário (UsuarioService.bloquear) antes de qualquer insert.
+	private void aplicar(SaldoUsuario movimento, Dinheiro valor, long quantidade) {
+		repository.somar(new SaldoUsuario(movimento.getIdUsuario(), movimento.getTipo(), movimento.getStatus(),
+				                          movimento.getAno(), movimento.getMes(), valor, quantidade));
+		publicadorInvalidacao.publicarSaldoAposCommit(movimento.getIdUsuario());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Dinheiro obterSaldoPorUsuario(Long idUsuario) {
+		return repository.obterSaldoPorUsuario(idUsuario);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<SaldoStatusDTO> obterSaldoPorStatusEUsuario(Long idUsuario) {
+		return repository.obterSaldoPorStatusEUsuario(idUsuario);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<SaldoMensalStatusDTO> obterSaldoMensalPorStatus(Long idUsuario, YearMonth inicio, YearMonth fim) {
+		return repository.obterSaldoMensalPorStatus(idUsuario, periodo(inicio), periodo(fim));
+	}
+
+	// Uma faixa de id_usuario por vez, como as partições do relatório administrativo: em memória
+	// ficam só os saldos da faixa, e cada consulta vai pelo índice que começa em id_usuario.
+	@Override
+	public List<DivergenciaSaldoDTO> verificar() {
+		List<DivergenciaSaldoDTO> divergencias = new ArrayList<>();
+		for (FaixaUsuarios faixa : faixas()) {
+			divergencias.addAll(comparar(
+					agrupar(lancamentoRepository.recalcularSaldosPorMes(faixa.getPrimeiro(), faixa.getUltimo())),
+					agrupar(repository.findByIdUsuarioBetween(faixa.getPrimeiro(), faixa.getUltimo()))));
+		}
+		return divergencias;
+	}
+	
+	// Do menor ao maior usuário com lançamentos ou com saldo: um saldo sem lançamentos também diverge.
+	private List<FaixaUsuarios> faixas() {
+		Long menor = Stream.of(lancamentoRepository.obterMenorIdUsuario(), repository.obterMenorIdUsuario())
+				           .filter(Objects::nonNull).min(Long::compare).orElse(null);
+		Long maior = Stream.of(lancamentoRepository.obterMaiorIdUsuario(), repository.obterMaiorIdUsuario())
+				           .filter(Objects::nonNull).max(Long::compare).orElse(null);
+		if (menor == null || maior == null) {
+			return new ArrayList<>();
+		}
+		return FaixaUsuarios.dividir(menor, maior, usuariosPorFaixa);
+	}
+
+	// Um usuário por transação, com a linha dele travada como nas escritas de lançamentos: a
+	// comparação é refeita depois da trava, então um lançamento gravado entre a verificação e a
+	// correção não é sobrescrito.
+	@Override
+	public List<DivergenciaSaldoDTO> reconstruir() {
+		Set<Long> usuarios = verificar().stream()
+				                        .map(DivergenciaSaldoDTO::getIdUsuario)
+				                        .collect(Collectors.toCollection(TreeSet::new));
+		
+		List<DivergenciaSaldoDTO> corrigidas = new ArrayList<>();
+		for (Long idUsuario : usuarios) {
+			corrigidas.addAll(transacao.execute(status -> reconstruir(idUsuario)));
+		}
+		return corrigidas;
+	}
+	
+	private List<DivergenciaSaldoDTO> reconstruir(Long idUsuario) {
+		usuarioService.bloquear(Collections.singleton(idUsuario));
+		Map<List<Object>, SaldoUsuario> registrados = agrupar(repository.findByIdUsuario(idUsuario));
+		List<DivergenciaSaldoDTO> divergencias =
+				comparar(agrupar(lancamentoRepository.recalcularSaldosPorMes(idUsuario)), registrados);
+		
+		for (DivergenciaSaldoDTO divergencia : divergencias) {
+			SaldoUsuario saldo = registrados.get(chave(divergencia));
+			
+			if (divergencia.getQuantidadeEsperada() == 0) {
+				repository.delete(saldo);
+				continue;
+			}
+			
+			if (saldo == null) {
+				saldo = new SaldoUsuario(divergencia.getIdUsuario(), divergencia.getTipo(), divergencia.getStatus(),
+						                 divergencia.getAno(), divergencia.getMes(), Dinheiro.ZERO, 0l);
+			}
+			saldo.setValor(divergencia.getValorEsperado());
+			saldo.setQuantidade(divergencia.getQuantidadeEsperada());
+			repository.save(saldo);
+		}
+		
+		return divergencias;
+	}
+	
+	private List<DivergenciaSaldoDTO> comparar(Map<List<Object>, SaldoUsuario> esperados, Map<List<Object>, SaldoUsuario> registrados) {
+		Set<List<Object>> chaves = new LinkedHashSet<>(esperados.keySet());
+		chaves.addAll(registrados.keySet());
+		
+		List<DivergenciaSaldoDTO> divergencias = new ArrayList<>();
+		for (List<Object> chave : chaves) {
+			SaldoUsuario esperado = esperados.get(chave);
+			SaldoUsuario registrado = registrados.get(chave);
+			
+			Dinheiro valorEsperado = esperado == null ? Dinheiro.ZERO : esperado.getValor();
+			Dinheiro valorRegistrado = registrado == null ? Dinheiro.ZERO : registrado.getValor();
+			long quantidadeEsperada = esperado == null ? 0 : esperado.getQuantidade();
+			long quantidadeRegistrada = registrado == null ? 0 : registrado.getQuantidade();
+			
+			if (valorEsperado.compareTo(valorRegistrado) != 0 || quantidadeEsperada != quantidadeRegistrada) {
+				SaldoUsuario referencia = esperado == null ? registrado : esperado;
+				divergencias.add(DivergenciaSaldoDTO.builder()
+						.idUsuario(referencia.getIdUsuario())
+						.tipo(referencia.getTipo())
+						.status(referencia.getStatus())
+						.ano(referencia.getAno())
+						.mes(referencia.getMes())
+						.valorEsperado(valorEsperado)
+						.valorRegistrado(valorRegistrado)
+						.quantidadeEsperada(quantidadeEsperada)
+						.quantidadeRegistrada(quantidadeRegistrada)
+						.build());
+			}
+		}
+		return divergencias;
+	}
+	
+	private Map<List<Object>, SaldoUsuario> agrupar(List<SaldoUsuario> saldos) {
+		Map<List<Object>, SaldoUsuario> mapa = new HashMap<>();
+		for (SaldoUsuario saldo : saldos) {
+			mapa.put(Arrays.asList(saldo.getIdUsuario(), saldo.getTipo(), saldo.getStatus(), saldo.getAno(), saldo.getMes()), saldo);
+		}
+		return mapa;
+	}
+	
+	private static int periodo(YearMonth mes) {
+		return mes.getYear() * 100 + mes.getMonthValue();
+	}
+	
+	private List<Object> chave(DivergenciaSaldoDTO divergencia) {
+		return Arrays.asList(divergencia.getIdUsuario(), divergencia.getTipo(), divergencia.getStatus(),
+				             divergencia.getAno(), divergencia.getMes());
+	}
+
+}
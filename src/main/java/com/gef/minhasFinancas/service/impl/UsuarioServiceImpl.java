@@ -1,47 +1,110 @@
 package com.gef.minhasFinancas.service.impl;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.gef.minhasFinancas.api.dto.CredencialDTO;
+import com.gef.minhasFinancas.api.dto.DadosUsuarioDTO;
 import com.gef.minhasFinancas.exception.ErroAutenticacao;
 import com.gef.minhasFinancas.exception.RegraNegocioException;
 import com.gef.minhasFinancas.model.entity.Usuario;
 import com.gef.minhasFinancas.model.repository.UsuarioRepository;
 import com.gef.minhasFinancas.service.UsuarioService;
+import com.gef.minhasFinancas.service.execucao.ExecutorBanco;
+import com.gef.minhasFinancas.service.seguranca.VerificadorSenha;
 
+// A senha é conferida no VerificadorSenha, fora da thread da requisição; o que vai ao banco, antes
+// e depois dela, roda no ExecutorBanco, para não ocupar as threads do BCrypt. O email inexistente
+// também passa por uma verificação e recebe o mesmo erro de uma senha errada, para não ser
+// identificado nem pela mensagem nem pelo tempo de resposta.
 @Service
 public class UsuarioServiceImpl implements UsuarioService {
 	
+	private static final Logger log = LoggerFactory.getLogger(UsuarioServiceImpl.class);
+	
+	static final String CREDENCIAIS_INVALIDAS = "Email ou senha inválidos";
+	
 	private UsuarioRepository repository;
+	private VerificadorSenha verificadorSenha;
+	private ExecutorBanco executorBanco;
 	
 	@Autowired
-	public UsuarioServiceImpl(UsuarioRepository repository) {
+	public UsuarioServiceImpl(UsuarioRepository repository, VerificadorSenha verificadorSenha,
+			                  ExecutorBanco executorBanco) {
 		super();
 		this.repository = repository;
+		this.verificadorSenha = verificadorSenha;
+		this.executorBanco = executorBanco;
 	}
 
 	@Override
-	public Usuario autenticar(String email, String senha) {
-		Optional <Usuario> usuario = repository.findByEmail(email);
-		if (!usuario.isPresent()) {
-			throw new ErroAutenticacao("Usuário não encontrado para o email informado");
-		}
+	public CompletableFuture<Usuario> autenticar(String email, String senha) {
+		return executorBanco.executar(() -> repository.obterCredencial(email))
+				            .thenCompose(credencial -> conferir(email, senha, credencial));
+	}
+	
+	private CompletableFuture<Usuario> conferir(String email, String senha, Optional<CredencialDTO> credencial) {
+		String gravada = credencial.map(CredencialDTO::getSenha).orElse(null);
 		
-		if (!usuario.get().getSenha().contentEquals(senha)) {
-			throw new ErroAutenticacao("Senha inválida");
-		}
-		return usuario.get();
+		return verificadorSenha.conferir(senha, gravada).thenCompose(confere -> {
+			if (!credencial.isPresent() || !confere) {
+				throw new ErroAutenticacao(CREDENCIAIS_INVALIDAS);
+			}
+			
+			Long id = credencial.get().getId();
+			if (verificadorSenha.precisaRecodificar(gravada)) {
+				recodificar(id, email, senha, gravada);
+			}
+			return executorBanco.executar(() -> obterPorId(id)
+					                                      .orElseThrow(() -> new ErroAutenticacao(CREDENCIAIS_INVALIDAS)));
+		});
+	}
+	
+	// Senha em texto puro ou com custo antigo: troca pelo hash atual sem atrasar o login.
+	private void recodificar(Long id, String email, String senha, String anterior) {
+		verificadorSenha.codificar(senha)
+		                .thenCompose(nova -> executorBanco.executar(() -> repository.trocarSenha(id, email, anterior, nova)))
+		                .exceptionally(erro -> {
+		                	log.warn("Não foi possível recodificar a senha do usuário {}", id, erro);
+		                	return null;
+		                });
 	}
 
+	// Sem @Transactional: o hash leva dezenas de milissegundos e uma transação aberta seguraria a
+	// conexão do pool enquanto ele é calculado. O save tem a sua própria transação, e o índice único
+	// de email barra o cadastro simultâneo que passar pelo validarEmail.
 	@Override
-	@Transactional
 	public Usuario salvarUsuario(Usuario usuario) {
 		validarEmail(usuario.getEmail());
+		if (usuario.getSenha() != null) {
+			usuario.setSenha(aguardar(verificadorSenha.codificar(usuario.getSenha())));
+		}
 		return repository.save(usuario);
 	}
+	
+	// Devolve a exceção original (SobrecargaException inclusive) em vez da CompletionException do join.
+	private static <T> T aguardar(CompletableFuture<T> futuro) {
+		try {
+			return futuro.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
 
 	@Override
 	public void validarEmail(String email) {
@@ -55,7 +118,26 @@ public class UsuarioServiceImpl implements UsuarioService {
 
 	@Override
 	public Optional<Usuario> obterPorId(Long id) {
-		return repository.findById(id);
+		return repository.obterDados(id).map(DadosUsuarioDTO::paraUsuario);
+	}
+
+	@Override
+	public Usuario obterReferencia(Long id) {
+		return repository.getOne(id);
+	}
+
+	@Override
+	public Set<Long> obterIdsExistentes(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return Collections.emptySet();
+		}
+		return new HashSet<>(repository.obterIdsExistentes(ids));
+	}
+
+	@Override
+	@Transactional
+	public void bloquear(Collection<Long> ids) {
+		ids.stream().filter(Objects::nonNull).distinct().sorted().forEach(repository::bloquear);
 	}
 
 }
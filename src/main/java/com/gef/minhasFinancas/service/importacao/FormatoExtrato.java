@@ -0,0 +1,8 @@
+package com.gef.minhasFinancas.service.importacao;
+
+public enum FormatoExtrato {
+	
+	CSV,
+	OFX
+
+}
@@ -0,0 +1,123 @@
+package com.gef.minhasFinancas.service.importacao;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.gef.minhasFinancas.api.dto.ErroLoteDTO;
+import com.gef.minhasFinancas.api.dto.ImportacaoDTO;
+
+// Estado de uma importação em andamento. Os contadores são atualizados pela leitura e pela
+// gravação, que rodam em threads diferentes, e lidos a qualquer momento pela API.
+public class ImportacaoExtrato {
+	
+	public enum Situacao { EM_ANDAMENTO, CONCLUIDA, FALHOU }
+	
+	static final int MAXIMO_ERROS = 100;
+	
+	private final Long id;
+	private final Long idUsuario;
+	private final FormatoExtrato formato;
+	private final LocalDateTime inicio = LocalDateTime.now();
+	private final long inicioNanos = System.nanoTime();
+	
+	private final AtomicLong bytesLidos = new AtomicLong();
+	private final AtomicLong registrosLidos = new AtomicLong();
+	private final AtomicLong gravados = new AtomicLong();
+	private final AtomicLong duplicados = new AtomicLong();
+	private final AtomicLong rejeitados = new AtomicLong();
+	private final List<ErroLoteDTO> erros = new ArrayList<>();
+	
+	private volatile Situacao situacao = Situacao.EM_ANDAMENTO;
+	private volatile LocalDateTime fim;
+	private volatile long fimNanos;
+	private volatile String falha;
+	
+	public ImportacaoExtrato(Long id, Long idUsuario, FormatoExtrato formato) {
+		this.id = id;
+		this.idUsuario = idUsuario;
+		this.formato = formato;
+	}
+	
+	public Long getId() {
+		return id;
+	}
+	
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+	
+	public boolean isEmAndamento() {
+		return situacao == Situacao.EM_ANDAMENTO;
+	}
+	
+	public void lido(long bytes) {
+		registrosLidos.incrementAndGet();
+		bytesLidos.set(bytes);
+	}
+	
+	public void gravados(long quantidade) {
+		gravados.addAndGet(quantidade);
+	}
+	
+	public void duplicado() {
+		duplicados.incrementAndGet();
+	}
+	
+	public void rejeitar(long linha, String mensagem) {
+		rejeitados.incrementAndGet();
+		synchronized (erros) {
+			if (erros.size() < MAXIMO_ERROS) {
+				erros.add(new ErroLoteDTO((int) linha, mensagem));
+			}
+		}
+	}
+	
+	public void concluir(long bytes) {
+		bytesLidos.set(bytes);
+		encerrar(Situacao.CONCLUIDA);
+	}
+	
+	public void falhar(String mensagem) {
+		falha = mensagem;
+		encerrar(Situacao.FALHOU);
+	}
+	
+	private void encerrar(Situacao situacaoFinal) {
+		fimNanos = System.nanoTime();
+		fim = LocalDateTime.now();
+		situacao = situacaoFinal;
+	}
+	
+	public ImportacaoDTO resumo() {
+		long duracao = TimeUnit.NANOSECONDS.toMillis((isEmAndamento() ? System.nanoTime() : fimNanos) - inicioNanos);
+		double segundos = Math.max(duracao, 1) / 1000d;
+		
+		List<ErroLoteDTO> primeirosErros;
+		synchronized (erros) {
+			primeirosErros = new ArrayList<>(erros);
+		}
+		
+		return ImportacaoDTO.builder()
+				            .id(id)
+				            .usuario(idUsuario)
+				            .formato(formato.name())
+				            .situacao(situacao.name())
+				            .inicio(inicio)
+				            .fim(fim)
+				            .bytesLidos(bytesLidos.get())
+				            .registrosLidos(registrosLidos.get())
+				            .gravados(gravados.get())
+				            .duplicados(duplicados.get())
+				            .rejeitados(rejeitados.get())
+				            .duracaoMs(duracao)
+				            .registrosPorSegundo(registrosLidos.get() / segundos)
+				            .bytesPorSegundo(bytesLidos.get() / segundos)
+				            .falha(falha)
+				            .erros(primeirosErros)
+				            .build();
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.gef.minhasFinancas.service.importacao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+// Decodifica o canal aos poucos, com buffers de tamanho fixo: o arquivo nunca fica inteiro na memória.
+// Os dois buffers têm a mesma capacidade, o que basta para os charsets de um byte e para o UTF-8.
+public class LeitorCaracteres {
+	
+	static final int CAPACIDADE_PADRAO = 64 * 1024;
+	
+	private final ReadableByteChannel canal;
+	private final CharsetDecoder decoder;
+	private final ByteBuffer bytes;
+	private final CharBuffer caracteres;
+	
+	private boolean fimDosBytes;
+	private boolean esgotado;
+	private long bytesLidos;
+	
+	public LeitorCaracteres(ReadableByteChannel canal, Charset charset) {
+		this(canal, charset, CAPACIDADE_PADRAO);
+	}
+	
+	LeitorCaracteres(ReadableByteChannel canal, Charset charset, int capacidade) {
+		this.canal = canal;
+		this.decoder = charset.newDecoder()
+				              .onMalformedInput(CodingErrorAction.REPLACE)
+				              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.bytes = ByteBuffer.allocate(capacidade);
+		this.caracteres = CharBuffer.allocate(capacidade);
+		this.caracteres.flip();
+	}
+	
+	// Próximo caractere, ou -1 no fim do canal.
+	public int ler() throws IOException {
+		if (!caracteres.hasRemaining() && !encher()) {
+			return -1;
+		}
+		return caracteres.get();
+	}
+	
+	public long getBytesLidos() {
+		return bytesLidos;
+	}
+	
+	private boolean encher() throws IOException {
+		caracteres.clear();
+		
+		while (caracteres.position() == 0 && !esgotado) {
+			if (!fimDosBytes) {
+				int lidos = canal.read(bytes);
+				if (lidos < 0) {
+					fimDosBytes = true;
+				} else {
+					bytesLidos += lidos;
+				}
+			}
+			
+			bytes.flip();
+			decoder.decode(bytes, caracteres, fimDosBytes);
+			bytes.compact();
+			
+			if (fimDosBytes) {
+				decoder.flush(caracteres);
+				esgotado = true;
+			}
+		}
+		
+		caracteres.flip();
+		return caracteres.hasRemaining();
+	}
+
+}
@@ -0,0 +1,173 @@
+package com.gef.minhasFinancas.service.importacao;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.gef.minhasFinancas.api.dto.MapeamentoColunasDTO;
+import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+// CSV com campos entre aspas opcionais ("" escapa aspas e quebras de linha são aceitas dentro delas).
+public class LeitorCsv implements LeitorExtrato {
+	
+	private final LeitorCaracteres leitor;
+	private final MapeamentoColunasDTO mapeamento;
+	private final DateTimeFormatter formatoData;
+	private final char separador;
+	
+	private final List<String> campos = new ArrayList<>();
+	private final StringBuilder campo = new StringBuilder();
+	private long registro;
+	private boolean iniciado;
+	
+	public LeitorCsv(LeitorCaracteres leitor, MapeamentoColunasDTO mapeamento) {
+		if (mapeamento.getSeparador() == null || mapeamento.getSeparador().length() != 1) {
+			throw new RegraNegocioException("Informe um separador de um caractere");
+		}
+		
+		try {
+			this.formatoData = DateTimeFormatter.ofPattern(mapeamento.getFormatoData());
+		} catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Formato de data inválido");
+		}
+		
+		this.leitor = leitor;
+		this.mapeamento = mapeamento;
+		this.separador = mapeamento.getSeparador().charAt(0);
+	}
+
+	@Override
+	public LinhaExtrato proxima() throws IOException {
+		if (!iniciado) {
+			iniciado = true;
+			if (mapeamento.isCabecalho() && !lerRegistro()) {
+				return null;
+			}
+		}
+		
+		while (lerRegistro()) {
+			// Linhas em branco são ignoradas
+			if (campos.size() == 1 && campos.get(0).trim().isEmpty()) {
+				continue;
+			}
+			return interpretar();
+		}
+		return null;
+	}
+
+	@Override
+	public long getBytesLidos() {
+		return leitor.getBytesLidos();
+	}
+	
+	private boolean lerRegistro() throws IOException {
+		campos.clear();
+		campo.setLength(0);
+		
+		boolean entreAspas = false;
+		int c = leitor.ler();
+		if (c < 0) {
+			return false;
+		}
+		
+		registro++;
+		for (; c >= 0; c = leitor.ler()) {
+			if (entreAspas) {
+				if (c == '"') {
+					int seguinte = leitor.ler();
+					if (seguinte == '"') {
+						campo.append('"');
+						continue;
+					}
+					entreAspas = false;
+					c = seguinte;
+					if (c < 0) {
+						break;
+					}
+				} else {
+					campo.append((char) c);
+					continue;
+				}
+			}
+			
+			if (c == '"' && campo.length() == 0) {
+				entreAspas = true;
+			} else if (c == separador) {
+				campos.add(campo.toString());
+				campo.setLength(0);
+			} else if (c == '\n') {
+				break;
+			} else if (c != '\r') {
+				campo.append((char) c);
+			}
+		}
+		
+		campos.add(campo.toString());
+		return true;
+	}
+	
+	private LinhaExtrato interpretar() {
+		try {
+			LocalDate data = data(coluna(mapeamento.getColunaData()));
+			String descricao = coluna(mapeamento.getColunaDescricao()).trim();
+			Dinheiro valor = valor(coluna(mapeamento.getColunaValor()));
+			TipoLancamento tipo = mapeamento.getColunaTipo() == null ? null : tipo(coluna(mapeamento.getColunaTipo()));
+			return new LinhaExtrato(registro, data, descricao, valor, tipo, null);
+		} catch (RegraNegocioException e) {
+			return LinhaExtrato.invalida(registro, e.getMessage());
+		}
+	}
+	
+	private String coluna(int indice) {
+		if (indice < 0 || indice >= campos.size()) {
+			throw new RegraNegocioException("Coluna " + indice + " inexistente");
+		}
+		return campos.get(indice);
+	}
+	
+	private LocalDate data(String texto) {
+		try {
+			return LocalDate.parse(texto.trim(), formatoData);
+		} catch (DateTimeParseException e) {
+			throw new RegraNegocioException("Data inválida: " + texto);
+		}
+	}
+	
+	// Aceita símbolo de moeda e separador de milhar: "R$ -1.234,56" com vírgula decimal
+	private Dinheiro valor(String texto) {
+		boolean virgulaDecimal = ",".equals(mapeamento.getSeparadorDecimal());
+		StringBuilder numero = new StringBuilder(texto.length());
+		
+		for (int i = 0; i < texto.length(); i++) {
+			char c = texto.charAt(i);
+			if (Character.isDigit(c) || c == '-') {
+				numero.append(c);
+			} else if (c == (virgulaDecimal ? ',' : '.')) {
+				numero.append('.');
+			}
+		}
+		
+		try {
+			return Dinheiro.de(numero.toString());
+		} catch (NumberFormatException | ArithmeticException e) {
+			throw new RegraNegocioException("Valor inválido: " + texto);
+		}
+	}
+	
+	private static TipoLancamento tipo(String texto) {
+		String tipo = texto.trim().toUpperCase();
+		if (tipo.startsWith("C") || tipo.startsWith("R")) {
+			return TipoLancamento.RECEITA;
+		}
+		if (tipo.startsWith("D")) {
+			return TipoLancamento.DESPESA;
+		}
+		throw new RegraNegocioException("Tipo inválido: " + texto);
+	}
+
+}
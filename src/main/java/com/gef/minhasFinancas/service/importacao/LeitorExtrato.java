@@ -0,0 +1,24 @@
+package com.gef.minhasFinancas.service.importacao;
+
+import java.io.IOException;
+
+import com.gef.minhasFinancas.api.dto.MapeamentoColunasDTO;
+
+// Lê um extrato registro a registro, sem carregar o arquivo inteiro.
+public interface LeitorExtrato {
+	
+	// Próximo registro, ou null no fim do arquivo.
+	LinhaExtrato proxima() throws IOException;
+	
+	long getBytesLidos();
+	
+	static LeitorExtrato para(FormatoExtrato formato, LeitorCaracteres leitor, MapeamentoColunasDTO mapeamento) {
+		switch (formato) {
+		case OFX:
+			return new LeitorOfx(leitor);
+		default:
+			return new LeitorCsv(leitor, mapeamento);
+		}
+	}
+
+}
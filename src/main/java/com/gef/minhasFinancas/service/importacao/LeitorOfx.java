@@ -0,0 +1,119 @@
+package com.gef.minhasFinancas.service.importacao;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+// Extrai as transações (STMTTRN) de um OFX 1.x (SGML, sem fechamento dos elementos) ou 2.x (XML).
+// O cabeçalho e os demais blocos são percorridos sem serem guardados.
+public class LeitorOfx implements LeitorExtrato {
+	
+	private static final DateTimeFormatter DATA_OFX = DateTimeFormatter.BASIC_ISO_DATE;
+	
+	private final LeitorCaracteres leitor;
+	private final StringBuilder texto = new StringBuilder();
+	private int pendente = -1;
+	private long registro;
+	
+	public LeitorOfx(LeitorCaracteres leitor) {
+		this.leitor = leitor;
+	}
+
+	@Override
+	public LinhaExtrato proxima() throws IOException {
+		String tag;
+		while ((tag = proximaTag()) != null) {
+			if (tag.equals("STMTTRN")) {
+				return lerTransacao();
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public long getBytesLidos() {
+		return leitor.getBytesLidos();
+	}
+	
+	private LinhaExtrato lerTransacao() throws IOException {
+		registro++;
+		String data = null;
+		String valor = null;
+		String memo = null;
+		String nome = null;
+		
+		String tag;
+		while ((tag = proximaTag()) != null && !tag.equals("/STMTTRN")) {
+			switch (tag) {
+			case "DTPOSTED":
+				data = valor();
+				break;
+			case "TRNAMT":
+				valor = valor();
+				break;
+			case "MEMO":
+				memo = valor();
+				break;
+			case "NAME":
+				nome = valor();
+				break;
+			default:
+				break;
+			}
+		}
+		
+		String descricao = memo != null && !memo.isEmpty() ? memo : nome;
+		if (data == null || data.length() < 8 || valor == null || descricao == null) {
+			return LinhaExtrato.invalida(registro, "Transação sem data, valor ou descrição");
+		}
+		
+		try {
+			return new LinhaExtrato(registro, LocalDate.parse(data.substring(0, 8), DATA_OFX), descricao,
+					                Dinheiro.de(valor.replace(',', '.')), null, null);
+		} catch (DateTimeParseException | NumberFormatException | ArithmeticException e) {
+			return LinhaExtrato.invalida(registro, "Data ou valor inválido: " + data + " " + valor);
+		}
+	}
+	
+	// Nome da próxima tag em maiúsculas ("/" no início para fechamento), ou null no fim do arquivo.
+	private String proximaTag() throws IOException {
+		int c = pendente >= 0 ? pendente : leitor.ler();
+		pendente = -1;
+		
+		while (c >= 0 && c != '<') {
+			c = leitor.ler();
+		}
+		if (c < 0) {
+			return null;
+		}
+		
+		texto.setLength(0);
+		while ((c = leitor.ler()) >= 0 && c != '>') {
+			texto.append((char) c);
+		}
+		return texto.toString().trim().toUpperCase();
+	}
+	
+	// Conteúdo do elemento atual, até a próxima tag.
+	private String valor() throws IOException {
+		texto.setLength(0);
+		int c;
+		while ((c = leitor.ler()) >= 0 && c != '<') {
+			texto.append((char) c);
+		}
+		pendente = c;
+		return desfazerEntidades(texto.toString().trim());
+	}
+	
+	private static String desfazerEntidades(String valor) {
+		if (valor.indexOf('&') < 0) {
+			return valor;
+		}
+		return valor.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+				    .replace("&apos;", "'").replace("&amp;", "&");
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.gef.minhasFinancas.service.importacao;
+
+import java.time.LocalDate;
+
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Um registro do extrato. O valor vem com sinal (negativo é débito) e o tipo só é
+// preenchido quando o arquivo o informa explicitamente. Registros que não puderam ser
+// interpretados trazem apenas o número e o erro.
+@Data
+@AllArgsConstructor
+public class LinhaExtrato {
+	
+	private long numero;
+	private LocalDate data;
+	private String descricao;
+	private Dinheiro valor;
+	private TipoLancamento tipo;
+	private String erro;
+	
+	public static LinhaExtrato invalida(long numero, String erro) {
+		return new LinhaExtrato(numero, null, null, null, null, erro);
+	}
+	
+	public boolean isValida() {
+		return erro == null;
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.gef.minhasFinancas.service.importacao;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Importações em andamento e as últimas concluídas, em memória.
+// As concluídas mais antigas saem quando o histórico passa de minhasfinancas.importacao.historico.
+@Component
+public class RegistroImportacoes {
+	
+	private final AtomicLong sequencia = new AtomicLong();
+	private final Map<Long, ImportacaoExtrato> importacoes = new LinkedHashMap<>();
+	private final int historico;
+	
+	public RegistroImportacoes(@Value("${minhasfinancas.importacao.historico:50}") int historico) {
+		this.historico = historico;
+	}
+	
+	public synchronized ImportacaoExtrato iniciar(Long idUsuario, FormatoExtrato formato) {
+		ImportacaoExtrato importacao = new ImportacaoExtrato(sequencia.incrementAndGet(), idUsuario, formato);
+		importacoes.put(importacao.getId(), importacao);
+		
+		Iterator<ImportacaoExtrato> antigas = importacoes.values().iterator();
+		while (importacoes.size() > historico && antigas.hasNext()) {
+			if (!antigas.next().isEmAndamento()) {
+				antigas.remove();
+			}
+		}
+		return importacao;
+	}
+	
+	public synchronized Optional<ImportacaoExtrato> obter(Long id) {
+		return Optional.ofNullable(importacoes.get(id));
+	}
+	
+	public synchronized List<ImportacaoExtrato> listarPorUsuario(Long idUsuario) {
+		return importacoes.values().stream()
+				                   .filter(i -> i.getIdUsuario().equals(idUsuario))
+				                   .collect(Collectors.toList());
+	}
+
+}
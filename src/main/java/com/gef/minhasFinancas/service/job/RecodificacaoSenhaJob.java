@@ -0,0 +1,62 @@
+package com.gef.minhasFinancas.service.job;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.gef.minhasFinancas.model.repository.UsuarioRepository;
+import com.gef.minhasFinancas.service.seguranca.VerificadorSenha;
+
+// Troca pelo hash BCrypt as senhas gravadas em texto puro antes do VerificadorSenha, sem esperar o
+// próximo login de cada usuário. Percorre os usuários em lotes por id; a troca só vale se a senha
+// ainda for a lida (um login concorrente pode ter recodificado antes). Com a fila de senhas cheia
+// a execução para e o restante fica para a próxima.
+@Component
+public class RecodificacaoSenhaJob {
+
+	private static final Logger log = LoggerFactory.getLogger(RecodificacaoSenhaJob.class);
+
+	private UsuarioRepository repository;
+	private VerificadorSenha verificadorSenha;
+	private int tamanhoLote;
+
+	public RecodificacaoSenhaJob(UsuarioRepository repository, VerificadorSenha verificadorSenha,
+			                     @Value("${minhasfinancas.senha.recodificacao.lote:100}") int tamanhoLote) {
+		this.repository = repository;
+		this.verificadorSenha = verificadorSenha;
+		this.tamanhoLote = tamanhoLote;
+	}
+
+	@Scheduled(cron = "${minhasfinancas.senha.recodificacao.cron:0 0 4 * * *}")
+	public int executar() {
+		int recodificadas = 0;
+		Long ultimo = 0l;
+
+		try {
+			List<Object[]> lote;
+			do {
+				lote = repository.obterSenhasSemHash(ultimo, PageRequest.of(0, tamanhoLote));
+				for (Object[] usuario : lote) {
+					ultimo = (Long) usuario[0];
+					String anterior = (String) usuario[2];
+					String nova = verificadorSenha.codificar(anterior).join();
+					recodificadas += repository.trocarSenha(ultimo, (String) usuario[1], anterior, nova);
+				}
+			} while (lote.size() == tamanhoLote);
+		} catch (CompletionException e) {
+			log.warn("Recodificação de senhas interrompida no usuário {}", ultimo, e.getCause());
+		}
+
+		if (recodificadas > 0) {
+			log.info("{} senha(s) em texto puro recodificada(s)", recodificadas);
+		}
+		return recodificadas;
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.gef.minhasFinancas.service.job;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.gef.minhasFinancas.api.dto.DivergenciaSaldoDTO;
+import com.gef.minhasFinancas.service.SaldoUsuarioService;
+
+// Confere periodicamente o saldo materializado contra a tabela lancamento.
+// Por padrão só aponta as divergências; com minhasfinancas.saldo.verificacao.corrigir=true elas
+// são corrigidas (SaldoUsuarioService.reconstruir).
+@Component
+public class VerificacaoSaldoJob {
+	
+	private static final Logger log = LoggerFactory.getLogger(VerificacaoSaldoJob.class);
+	
+	private SaldoUsuarioService service;
+	private boolean corrigir;
+	
+	public VerificacaoSaldoJob(SaldoUsuarioService service,
+			                   @Value("${minhasfinancas.saldo.verificacao.corrigir:false}") boolean corrigir) {
+		this.service = service;
+		this.corrigir = corrigir;
+	}
+	
+	@Scheduled(cron = "${minhasfinancas.saldo.verificacao.cron:0 0 3 * * *}")
+	public List<DivergenciaSaldoDTO> executar() {
+		List<DivergenciaSaldoDTO> divergencias = corrigir ? service.reconstruir() : service.verificar();
+		
+		if (divergencias.isEmpty()) {
+			log.info("Saldo materializado confere com os lançamentos");
+		}
+		
+		for (DivergenciaSaldoDTO divergencia : divergencias) {
+			log.warn("Divergência no saldo {}: esperado {} ({} lançamentos), registrado {} ({} lançamentos){}",
+					 divergencia.getIdUsuario() + "/" + divergencia.getTipo() + "/" + divergencia.getStatus()
+					 + "/" + divergencia.getAno() + "-" + divergencia.getMes(),
+					 divergencia.getValorEsperado(), divergencia.getQuantidadeEsperada(),
+					 divergencia.getValorRegistrado(), divergencia.getQuantidadeRegistrada(),
+					 corrigir ? " - corrigido" : "");
+		}
+		
+		return divergencias;
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.gef.minhasFinancas.service.metricas;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Comandos SQL e tempo de JDBC de uma requisição HTTP. O FiltroConsumoSql cria um por requisição
+// e o deixa na thread do servlet; ExecutorBanco e VerificadorSenha o levam (propagar) para as
+// threads onde o trabalho da requisição continua. O MonitorSql registra cada execução no
+// consumo da thread atual; fora de uma requisição (jobs, importações) não há consumo.
+public class ConsumoSql {
+	
+	private static final ThreadLocal<ConsumoSql> ATUAL = new ThreadLocal<>();
+	
+	private final LongAdder comandos = new LongAdder();
+	private final LongAdder tempoMs = new LongAdder();
+	// Por texto do comando (com "?" no lugar dos parâmetros): o mesmo comando muitas vezes é N+1
+	private final Map<String, LongAdder> execucoes = new ConcurrentHashMap<>();
+	
+	public static ConsumoSql atual() {
+		return ATUAL.get();
+	}
+	
+	public static void definir(ConsumoSql consumo) {
+		if (consumo == null) {
+			ATUAL.remove();
+		} else {
+			ATUAL.set(consumo);
+		}
+	}
+	
+	// A tarefa roda com o consumo da thread que a criou.
+	public static <T> Supplier<T> propagar(Supplier<T> tarefa) {
+		ConsumoSql consumo = ATUAL.get();
+		if (consumo == null) {
+			return tarefa;
+		}
+		return () -> {
+			ConsumoSql anterior = ATUAL.get();
+			ATUAL.set(consumo);
+			try {
+				return tarefa.get();
+			} finally {
+				definir(anterior);
+			}
+		};
+	}
+	
+	// Um lote JDBC (addBatch/executeBatch) conta como um comando.
+	void registrar(String sql, long tempoMs) {
+		comandos.increment();
+		this.tempoMs.add(tempoMs);
+		execucoes.computeIfAbsent(sql, chave -> new LongAdder()).increment();
+	}
+	
+	public long getComandos() {
+		return comandos.sum();
+	}
+	
+	public long getTempoMs() {
+		return tempoMs.sum();
+	}
+	
+	// Comandos idênticos executados mais de "limite" vezes, com a quantidade de execuções.
+	public Map<String, Long> repetidos(int limite) {
+		Map<String, Long> repetidos = new LinkedHashMap<>();
+		execucoes.forEach((sql, vezes) -> {
+			if (vezes.sum() > limite) {
+				repetidos.put(sql, vezes.sum());
+			}
+		});
+		return repetidos;
+	}
+
+}
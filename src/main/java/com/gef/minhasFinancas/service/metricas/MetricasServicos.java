@@ -0,0 +1,62 @@
+package com.gef.minhasFinancas.service.metricas;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Tempo e quantidade de chamadas de cada método de LancamentoService e UsuarioService, no timer
+// minhasfinancas.servico com as tags servico, metodo e excecao (a contagem por excecao serve de
+// contador de falhas). Nos métodos que devolvem CompletableFuture o tempo vai até ele completar.
+@Aspect
+@Component
+public class MetricasServicos {
+	
+	public static final String TIMER = "minhasfinancas.servico";
+	
+	private final MeterRegistry registry;
+	
+	public MetricasServicos(MeterRegistry registry) {
+		this.registry = registry;
+	}
+	
+	@Around("execution(* com.gef.minhasFinancas.service.LancamentoService.*(..))"
+			+ " || execution(* com.gef.minhasFinancas.service.UsuarioService.*(..))")
+	public Object medir(ProceedingJoinPoint chamada) throws Throwable {
+		Timer.Sample amostra = Timer.start(registry);
+		String servico = chamada.getSignature().getDeclaringType().getSimpleName();
+		String metodo = chamada.getSignature().getName();
+		
+		Object resultado;
+		try {
+			resultado = chamada.proceed();
+		} catch (Throwable erro) {
+			registrar(amostra, servico, metodo, erro);
+			throw erro;
+		}
+		
+		if (resultado instanceof CompletableFuture) {
+			((CompletableFuture<?>) resultado).whenComplete((valor, erro) -> registrar(amostra, servico, metodo, erro));
+		} else {
+			registrar(amostra, servico, metodo, null);
+		}
+		return resultado;
+	}
+	
+	private void registrar(Timer.Sample amostra, String servico, String metodo, Throwable erro) {
+		Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+		amostra.stop(Timer.builder(TIMER)
+				           .description("Chamadas aos serviços de lançamentos e usuários")
+				           .tag("servico", servico)
+				           .tag("metodo", metodo)
+				           .tag("excecao", causa == null ? "None" : causa.getClass().getSimpleName())
+				           .register(registry));
+	}
+
+}
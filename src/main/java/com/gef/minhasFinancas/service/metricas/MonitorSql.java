@@ -0,0 +1,29 @@
+package com.gef.minhasFinancas.service.metricas;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+// Ouvinte do datasource-proxy: cada execução JDBC entra no ConsumoSql da requisição atual.
+public class MonitorSql implements QueryExecutionListener {
+	
+	@Override
+	public void beforeQuery(ExecutionInfo execucao, List<QueryInfo> comandos) {
+	}
+	
+	@Override
+	public void afterQuery(ExecutionInfo execucao, List<QueryInfo> comandos) {
+		ConsumoSql consumo = ConsumoSql.atual();
+		if (consumo == null) {
+			return;
+		}
+		String sql = comandos.size() == 1
+				? comandos.get(0).getQuery()
+				: comandos.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+		consumo.registrar(sql, execucao.getElapsedTime());
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.gef.minhasFinancas.service.relatorio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO;
+
+// Cada partição é uma tarefa independente no executor informado, que consulta o banco e devolve
+// as linhas da faixa; quando a última termina os resultados parciais são somados por mês e status.
+// Nenhuma thread do executor fica esperando outra, então o número de threads (e de conexões em
+// uso) é o do executor. Cada consulta roda fora de transação e usa a sua própria conexão do pool
+// pelo tempo da consulta.
+public final class AgregacaoParticoes {
+	
+	private AgregacaoParticoes() {
+	}
+	
+	public static CompletableFuture<List<SaldoMensalStatusDTO>> agregar(RelatorioAdministrativo relatorio,
+			List<FaixaUsuarios> particoes, Function<FaixaUsuarios, List<SaldoMensalStatusDTO>> consulta, Executor executor) {
+		List<CompletableFuture<List<SaldoMensalStatusDTO>>> parciais = particoes.stream()
+				.map(faixa -> CompletableFuture.supplyAsync(() -> consultar(relatorio, faixa, consulta), executor))
+				.collect(Collectors.toList());
+		
+		return CompletableFuture.allOf(parciais.toArray(new CompletableFuture<?>[0]))
+				                .thenApply(concluidas -> parciais.stream()
+				                		                         .map(CompletableFuture::join)
+				                		                         .reduce(new ArrayList<>(), AgregacaoParticoes::juntar));
+	}
+	
+	// Cancelado ou com falha em outra partição: as restantes não consultam o banco
+	private static List<SaldoMensalStatusDTO> consultar(RelatorioAdministrativo relatorio, FaixaUsuarios faixa,
+			                                            Function<FaixaUsuarios, List<SaldoMensalStatusDTO>> consulta) {
+		if (!relatorio.isEmAndamento()) {
+			return new ArrayList<>();
+		}
+		List<SaldoMensalStatusDTO> linhas = consulta.apply(faixa);
+		relatorio.particaoConcluida();
+		return linhas;
+	}
+	
+	// Soma as linhas do mesmo mês e status das duas listas.
+	static List<SaldoMensalStatusDTO> juntar(List<SaldoMensalStatusDTO> primeiras, List<SaldoMensalStatusDTO> segundas) {
+		Map<List<Object>, SaldoMensalStatusDTO> linhas = new LinkedHashMap<>();
+		for (List<SaldoMensalStatusDTO> parcial : Arrays.asList(primeiras, segundas)) {
+			for (SaldoMensalStatusDTO linha : parcial) {
+				linhas.merge(Arrays.asList(linha.getAno(), linha.getMes(), linha.getStatus()), linha,
+						     (acumulada, nova) -> new SaldoMensalStatusDTO(acumulada.getAno(), acumulada.getMes(), acumulada.getStatus(),
+								                                           acumulada.getReceitas().somar(nova.getReceitas()),
+								                                           acumulada.getDespesas().somar(nova.getDespesas())));
+			}
+		}
+		return new ArrayList<>(linhas.values());
+	}
+	
+	// Ids de usuário de primeiro a ultimo, inclusive.
+	public static class FaixaUsuarios {
+		
+		private final long primeiro;
+		private final long ultimo;
+		
+		public FaixaUsuarios(long primeiro, long ultimo) {
+			this.primeiro = primeiro;
+			this.ultimo = ultimo;
+		}
+		
+		public long getPrimeiro() {
+			return primeiro;
+		}
+		
+		public long getUltimo() {
+			return ultimo;
+		}
+		
+		// Faixas de até tamanho ids cobrindo de menor a maior.
+		public static List<FaixaUsuarios> dividir(long menor, long maior, long tamanho) {
+			List<FaixaUsuarios> faixas = new ArrayList<>();
+			for (long primeiro = menor; primeiro <= maior; primeiro += tamanho) {
+				long ultimo = Math.min(maior, primeiro + tamanho - 1);
+				faixas.add(new FaixaUsuarios(primeiro, ultimo));
+				if (ultimo == maior) {
+					break;
+				}
+			}
+			return faixas;
+		}
+		
+	}
+
+}
@@ -0,0 +1,156 @@
+package com.gef.minhasFinancas.service.relatorio;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.gef.minhasFinancas.api.dto.FluxoCaixaDTO;
+import com.gef.minhasFinancas.api.dto.RelatorioAdministrativoDTO;
+
+// Estado de um relatório administrativo. As partições são concluídas pelas threads do executor
+// e a situação é lida a qualquer momento pela API; cancelado ou com falha, as partições que ainda
+// não começaram não chegam a consultar o banco e as consultas em curso são canceladas no banco.
+public class RelatorioAdministrativo {
+	
+	private static final Logger log = LoggerFactory.getLogger(RelatorioAdministrativo.class);
+	
+	public enum Situacao { EM_ANDAMENTO, CONCLUIDO, CANCELADO, FALHOU }
+	
+	private final Long id;
+	private final YearMonth periodoInicio;
+	private final YearMonth periodoFim;
+	private final LocalDateTime inicio = LocalDateTime.now();
+	private final long inicioNanos = System.nanoTime();
+	
+	private final AtomicInteger particoesConcluidas = new AtomicInteger();
+	private volatile int particoes;
+	
+	private volatile Situacao situacao = Situacao.EM_ANDAMENTO;
+	private volatile LocalDateTime fim;
+	private volatile long fimNanos;
+	private volatile String falha;
+	private volatile FluxoCaixaDTO fluxo;
+	
+	private final Set<Runnable> cancelamentos = ConcurrentHashMap.newKeySet();
+	
+	public RelatorioAdministrativo(Long id, YearMonth periodoInicio, YearMonth periodoFim) {
+		this.id = id;
+		this.periodoInicio = periodoInicio;
+		this.periodoFim = periodoFim;
+	}
+	
+	public Long getId() {
+		return id;
+	}
+	
+	public YearMonth getPeriodoInicio() {
+		return periodoInicio;
+	}
+	
+	public YearMonth getPeriodoFim() {
+		return periodoFim;
+	}
+	
+	public boolean isEmAndamento() {
+		return situacao == Situacao.EM_ANDAMENTO;
+	}
+	
+	public void particionar(int quantidade) {
+		particoes = quantidade;
+	}
+	
+	public void particaoConcluida() {
+		particoesConcluidas.incrementAndGet();
+	}
+	
+	// Roda a consulta de uma partição; enquanto ela roda, encerrar o relatório chama o cancelamento
+	// (Statement.cancel) para liberar a conexão. Vazio se o relatório terminou antes de a consulta começar.
+	public <T> Optional<T> consultar(Runnable cancelamento, Supplier<T> consulta) {
+		cancelamentos.add(cancelamento);
+		try {
+			// Conferido depois de registrar: um encerramento entre os dois passos já veria o cancelamento
+			if (!isEmAndamento()) {
+				return Optional.empty();
+			}
+			return Optional.of(consulta.get());
+		} finally {
+			cancelamentos.remove(cancelamento);
+		}
+	}
+	
+	public void concluir(FluxoCaixaDTO resultado) {
+		fluxo = resultado;
+		encerrar(Situacao.CONCLUIDO);
+	}
+	
+	// Devolve false se o relatório já tinha terminado (a falha de uma consulta cancelada não conta).
+	public boolean falhar(String mensagem) {
+		if (!encerrar(Situacao.FALHOU)) {
+			return false;
+		}
+		falha = mensagem;
+		cancelarConsultas();
+		return true;
+	}
+	
+	// Devolve false se o relatório já tinha terminado.
+	public boolean cancelar() {
+		if (!encerrar(Situacao.CANCELADO)) {
+			return false;
+		}
+		cancelarConsultas();
+		return true;
+	}
+	
+	private void cancelarConsultas() {
+		for (Runnable cancelamento : cancelamentos) {
+			try {
+				cancelamento.run();
+			} catch (RuntimeException e) {
+				log.warn("Consulta do relatório administrativo {} não cancelada", id, e);
+			}
+		}
+	}
+	
+	// Só a primeira transição vale: um relatório cancelado não passa a concluído depois.
+	private synchronized boolean encerrar(Situacao situacaoFinal) {
+		if (situacao != Situacao.EM_ANDAMENTO) {
+			return false;
+		}
+		fimNanos = System.nanoTime();
+		fim = LocalDateTime.now();
+		situacao = situacaoFinal;
+		return true;
+	}
+	
+	public RelatorioAdministrativoDTO resumo() {
+		Situacao atual = situacao;
+		long duracao = TimeUnit.NANOSECONDS.toMillis((atual == Situacao.EM_ANDAMENTO ? System.nanoTime() : fimNanos) - inicioNanos);
+		int total = particoes;
+		int concluidas = particoesConcluidas.get();
+		
+		return RelatorioAdministrativoDTO.builder()
+				                         .id(id)
+				                         .periodoInicio(periodoInicio.toString())
+				                         .periodoFim(periodoFim.toString())
+				                         .situacao(atual.name())
+				                         .inicio(inicio)
+				                         .fim(fim)
+				                         .particoes(total)
+				                         .particoesConcluidas(concluidas)
+				                         .progresso(atual == Situacao.CONCLUIDO ? 1d : total == 0 ? 0d : (double) concluidas / total)
+				                         .duracaoMs(duracao)
+				                         .falha(falha)
+				                         .fluxo(atual == Situacao.CONCLUIDO ? fluxo : null)
+				                         .build();
+	}
+
+}
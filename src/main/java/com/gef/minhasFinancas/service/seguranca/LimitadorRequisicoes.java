@@ -0,0 +1,156 @@
+package com.gef.minhasFinancas.service.seguranca;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import com.gef.minhasFinancas.api.dto.EstatisticasLimiteDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Token bucket por usuário e regra. Cada balde é um único AtomicLong com o instante em que ele
+// volta a estar cheio (GCRA): consumir uma ficha é um compareAndSet, sem lock, e os baldes ficam
+// num cache do Caffeine (segmentado, como um ConcurrentHashMap) que descarta os ociosos.
+//
+// Regras em minhasfinancas.limite.endpoints, separadas por ";": "METODO /caminho=taxa,rajada",
+// com taxa em requisições por segundo e caminhos no formato do AntPathMatcher. Vale a primeira
+// regra que casar; as demais requisições usam minhasfinancas.limite.padrao ("taxa,rajada").
+@Component
+public class LimitadorRequisicoes {
+	
+	static final String PADRAO = "padrao";
+	
+	private final List<Regra> regras = new ArrayList<>();
+	private final Regra padrao;
+	private final Cache<String, AtomicLong> baldes;
+	private final LongSupplier relogio;
+	private final AntPathMatcher caminhos = new AntPathMatcher();
+	
+	@Autowired
+	public LimitadorRequisicoes(@Value("${minhasfinancas.limite.padrao:20,40}") String padrao,
+			                    @Value("${minhasfinancas.limite.endpoints:}") String endpoints,
+			                    @Value("${minhasfinancas.limite.baldes:100000}") long quantidadeBaldes) {
+		this(padrao, endpoints, quantidadeBaldes, System::nanoTime);
+	}
+	
+	LimitadorRequisicoes(String padrao, String endpoints, long quantidadeBaldes, LongSupplier relogio) {
+		this.padrao = Regra.de(PADRAO, null, null, padrao);
+		for (String endpoint : endpoints.split(";")) {
+			if (!endpoint.trim().isEmpty()) {
+				regras.add(Regra.de(endpoint.trim()));
+			}
+		}
+		this.relogio = relogio;
+		// Um balde ocioso há 10 minutos já encheu de novo (com as taxas usuais) e pode ser recriado
+		this.baldes = Caffeine.newBuilder()
+				              .maximumSize(quantidadeBaldes)
+				              .expireAfterAccess(Duration.ofMinutes(10))
+				              .build();
+	}
+	
+	// Zero se a requisição pode seguir; senão, os nanossegundos até a próxima ficha do balde.
+	public long consumir(String metodo, String caminho, String chave) {
+		Regra regra = regra(metodo, caminho);
+		long agora = relogio.getAsLong();
+		AtomicLong balde = baldes.get(regra.nome + "|" + chave, nome -> new AtomicLong(agora));
+		
+		while (true) {
+			long cheio = balde.get();
+			long inicio = Math.max(cheio, agora);
+			long espera = inicio - regra.tolerancia - agora;
+			if (espera > 0) {
+				regra.recusadas.increment();
+				return espera;
+			}
+			if (balde.compareAndSet(cheio, inicio + regra.intervalo)) {
+				regra.permitidas.increment();
+				return 0;
+			}
+		}
+	}
+	
+	public List<EstatisticasLimiteDTO> obterEstatisticas() {
+		List<Regra> todas = new ArrayList<>(regras);
+		todas.add(padrao);
+		return todas.stream().map(Regra::estatisticas).collect(Collectors.toList());
+	}
+	
+	private Regra regra(String metodo, String caminho) {
+		for (Regra regra : regras) {
+			if (regra.metodo.equalsIgnoreCase(metodo) && caminhos.match(regra.caminho, caminho)) {
+				return regra;
+			}
+		}
+		return padrao;
+	}
+	
+	private static class Regra {
+		
+		final String nome;
+		final String metodo;
+		final String caminho;
+		final double taxa;
+		final int rajada;
+		// Nanossegundos por ficha e quantas fichas além da atual podem ser usadas de uma vez
+		final long intervalo;
+		final long tolerancia;
+		
+		final LongAdder permitidas = new LongAdder();
+		final LongAdder recusadas = new LongAdder();
+		
+		Regra(String nome, String metodo, String caminho, double taxa, int rajada) {
+			if (taxa <= 0 || rajada < 1) {
+				throw new IllegalArgumentException("Limite inválido para " + nome + ": a taxa deve ser positiva e a rajada ao menos 1");
+			}
+			this.nome = nome;
+			this.metodo = metodo;
+			this.caminho = caminho;
+			this.taxa = taxa;
+			this.rajada = rajada;
+			this.intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / taxa);
+			this.tolerancia = (rajada - 1) * intervalo;
+		}
+		
+		// "GET /api/lancamentos/**=10,20"
+		static Regra de(String endpoint) {
+			int igual = endpoint.lastIndexOf('=');
+			String[] metodoCaminho = igual < 0 ? new String[0] : endpoint.substring(0, igual).trim().split("\\s+");
+			if (metodoCaminho.length != 2) {
+				throw new IllegalArgumentException("Regra de limite inválida: " + endpoint);
+			}
+			return de(endpoint.substring(0, igual).trim(), metodoCaminho[0], metodoCaminho[1], endpoint.substring(igual + 1));
+		}
+		
+		static Regra de(String nome, String metodo, String caminho, String limite) {
+			String[] partes = limite.split(",");
+			try {
+				return new Regra(nome, metodo, caminho, Double.parseDouble(partes[0].trim()),
+						         partes.length > 1 ? Integer.parseInt(partes[1].trim()) : 1);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Limite inválido para " + nome + ": " + limite, e);
+			}
+		}
+		
+		EstatisticasLimiteDTO estatisticas() {
+			return EstatisticasLimiteDTO.builder()
+					                    .regra(nome)
+					                    .requisicoesPorSegundo(taxa)
+					                    .rajada(rajada)
+					                    .permitidas(permitidas.sum())
+					                    .recusadas(recusadas.sum())
+					                    .build();
+		}
+		
+	}
+
+}
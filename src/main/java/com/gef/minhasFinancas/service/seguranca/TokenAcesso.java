@@ -0,0 +1,172 @@
+package com.gef.minhasFinancas.service.seguranca;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gef.minhasFinancas.api.dto.EstatisticasCacheDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+// Tokens de acesso JWT assinados com HMAC-SHA256: o id do usuário (sub) e a expiração (exp)
+// estão no próprio token, então verificá-lo não consulta o banco. Os tokens já verificados
+// ficam num cache até expirarem, e a assinatura só é recalculada na primeira requisição.
+// Sem minhasfinancas.token.segredo a chave é gerada na subida e os tokens não sobrevivem a um restart.
+@Component
+public class TokenAcesso {
+	
+	public static final String NOME = "tokens";
+	
+	private static final Logger log = LoggerFactory.getLogger(TokenAcesso.class);
+	
+	private static final String ALGORITMO = "HmacSHA256";
+	// Só este cabeçalho é aceito: nada de "alg": "none" ou de outro algoritmo escolhido pelo cliente
+	private static final String CABECALHO = codificar("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+	
+	private final SecretKeySpec chave;
+	private final Duration validade;
+	private final ObjectMapper objectMapper;
+	private final Clock relogio;
+	private final Cache<String, UsuarioAutenticado> verificados;
+	
+	@Autowired
+	public TokenAcesso(@Value("${minhasfinancas.token.segredo:}") String segredo,
+			           @Value("${minhasfinancas.token.validade-minutos:60}") long validadeMinutos,
+			           @Value("${minhasfinancas.token.cache:10000}") long tamanhoCache,
+			           ObjectMapper objectMapper) {
+		this(segredo, Duration.ofMinutes(validadeMinutos), tamanhoCache, objectMapper, Clock.systemUTC());
+	}
+	
+	TokenAcesso(String segredo, Duration validade, long tamanhoCache, ObjectMapper objectMapper, Clock relogio) {
+		this.chave = new SecretKeySpec(segredo.isEmpty() ? segredoAleatorio() : segredo.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+		this.validade = validade;
+		this.objectMapper = objectMapper;
+		this.relogio = relogio;
+		this.verificados = Caffeine.newBuilder()
+				                   .maximumSize(tamanhoCache)
+				                   .expireAfter(new ExpiraComOToken())
+				                   .recordStats()
+				                   .build();
+	}
+	
+	private static byte[] segredoAleatorio() {
+		log.warn("minhasfinancas.token.segredo não configurado: os tokens de acesso deixam de valer ao reiniciar");
+		byte[] segredo = new byte[32];
+		new SecureRandom().nextBytes(segredo);
+		return segredo;
+	}
+	
+	public Duration getValidade() {
+		return validade;
+	}
+	
+	public String emitir(Long idUsuario) {
+		long agora = relogio.instant().getEpochSecond();
+		String corpo = objectMapper.createObjectNode()
+				                   .put("sub", String.valueOf(idUsuario))
+				                   .put("iat", agora)
+				                   .put("exp", agora + validade.getSeconds())
+				                   .toString();
+		String conteudo = CABECALHO + "." + codificar(corpo.getBytes(StandardCharsets.UTF_8));
+		return conteudo + "." + codificar(assinar(conteudo));
+	}
+	
+	// Vazio para token malformado, com assinatura inválida ou expirado.
+	public Optional<UsuarioAutenticado> verificar(String token) {
+		UsuarioAutenticado usuario = verificados.getIfPresent(token);
+		if (usuario == null) {
+			usuario = conferir(token);
+			if (usuario == null) {
+				return Optional.empty();
+			}
+			verificados.put(token, usuario);
+		}
+		return relogio.instant().isBefore(usuario.getExpiracao()) ? Optional.of(usuario) : Optional.empty();
+	}
+	
+	public EstatisticasCacheDTO obterEstatisticas() {
+		CacheStats stats = verificados.stats();
+		return EstatisticasCacheDTO.builder()
+				                   .nome(NOME)
+				                   .tamanho(verificados.estimatedSize())
+				                   .acertos(stats.hitCount())
+				                   .faltas(stats.missCount())
+				                   .taxaAcerto(stats.hitRate())
+				                   .remocoes(stats.evictionCount())
+				                   .build();
+	}
+	
+	private UsuarioAutenticado conferir(String token) {
+		String[] partes = token.split("\\.", -1);
+		if (partes.length != 3 || !partes[0].equals(CABECALHO)) {
+			return null;
+		}
+		
+		try {
+			byte[] assinatura = Base64.getUrlDecoder().decode(partes[2]);
+			if (!MessageDigest.isEqual(assinatura, assinar(partes[0] + "." + partes[1]))) {
+				return null;
+			}
+			JsonNode corpo = objectMapper.readTree(Base64.getUrlDecoder().decode(partes[1]));
+			return new UsuarioAutenticado(Long.valueOf(corpo.path("sub").asText()),
+					                      Instant.ofEpochSecond(corpo.path("exp").asLong()));
+		} catch (Exception e) {
+			// Base64, JSON ou sub inválidos: o token é recusado
+			return null;
+		}
+	}
+	
+	private byte[] assinar(String conteudo) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITMO);
+			mac.init(chave);
+			return mac.doFinal(conteudo.getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static String codificar(byte[] bytes) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+	
+	// Cada token sai do cache quando expira; um token já expirado não chega a ser guardado.
+	private class ExpiraComOToken implements Expiry<String, UsuarioAutenticado> {
+		
+		@Override
+		public long expireAfterCreate(String token, UsuarioAutenticado usuario, long agora) {
+			return Math.max(0, Duration.between(relogio.instant(), usuario.getExpiracao()).toNanos());
+		}
+		
+		@Override
+		public long expireAfterUpdate(String token, UsuarioAutenticado usuario, long agora, long restante) {
+			return restante;
+		}
+		
+		@Override
+		public long expireAfterRead(String token, UsuarioAutenticado usuario, long agora, long restante) {
+			return restante;
+		}
+		
+	}
+
+}
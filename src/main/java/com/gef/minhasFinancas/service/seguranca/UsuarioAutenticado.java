@@ -0,0 +1,20 @@
+package com.gef.minhasFinancas.service.seguranca;
+
+import java.security.Principal;
+import java.time.Instant;
+
+import lombok.Value;
+
+// Usuário de um token de acesso verificado; é o principal das requisições autenticadas.
+@Value
+public class UsuarioAutenticado implements Principal {
+	
+	private Long id;
+	private Instant expiracao;
+	
+	@Override
+	public String getName() {
+		return String.valueOf(id);
+	}
+
+}
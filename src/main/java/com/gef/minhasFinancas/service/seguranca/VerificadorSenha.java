@@ -0,0 +1,143 @@
+package com.gef.minhasFinancas.service.seguranca;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Component;
+
+import com.gef.minhasFinancas.api.dto.EstatisticasExecutorDTO;
+import com.gef.minhasFinancas.exception.SobrecargaException;
+import com.gef.minhasFinancas.service.metricas.ConsumoSql;
+
+// Hash e verificação de senhas com BCrypt, que custa de propósito dezenas de milissegundos de CPU.
+// Rodam em um executor próprio, com uma thread por núcleo e fila limitada, para que uma rajada
+// de logins não ocupe as threads do Tomcat nem dispute CPU além dos núcleos; com a fila cheia
+// a tarefa é recusada (SobrecargaException). O custo (minhasfinancas.senha.custo) é dimensionado
+// pelo SenhaBenchmark do módulo benchmarks.
+@Component
+public class VerificadorSenha {
+	
+	static final String NOME = "senha";
+	
+	private final int custo;
+	private final ThreadPoolExecutor executor;
+	private final int capacidadeFila;
+	// Conferido quando o email não existe, para a resposta levar o mesmo tempo de uma senha errada
+	private final String hashFicticio;
+	
+	private final LongAdder iniciadas = new LongAdder();
+	private final LongAdder esperaTotal = new LongAdder();
+	private final AtomicLong esperaMaxima = new AtomicLong();
+	private final LongAdder recusadas = new LongAdder();
+	
+	public VerificadorSenha(@Value("${minhasfinancas.senha.custo:10}") int custo,
+			                @Value("${minhasfinancas.senha.threads:0}") int threads,
+			                @Value("${minhasfinancas.senha.fila:100}") int capacidadeFila) {
+		this.custo = custo;
+		this.capacidadeFila = capacidadeFila;
+		int quantidade = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.executor = new ThreadPoolExecutor(quantidade, quantidade, 60, TimeUnit.SECONDS,
+				                               new ArrayBlockingQueue<>(capacidadeFila), criarThreadFactory(),
+				                               new ThreadPoolExecutor.AbortPolicy());
+		this.executor.allowCoreThreadTimeOut(true);
+		this.hashFicticio = BCrypt.hashpw("senha-ficticia", BCrypt.gensalt(custo));
+	}
+	
+	private static CustomizableThreadFactory criarThreadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(NOME + "-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+	
+	@PreDestroy
+	public void encerrar() {
+		executor.shutdown();
+	}
+	
+	public CompletableFuture<String> codificar(String senha) {
+		return executar(() -> BCrypt.hashpw(senha, BCrypt.gensalt(custo)));
+	}
+	
+	// Senhas gravadas antes do BCrypt (texto puro) também conferem, comparadas em tempo constante;
+	// precisaRecodificar indica que devem ser trocadas pelo hash.
+	public CompletableFuture<Boolean> conferir(String senha, String gravada) {
+		return executar(() -> {
+			if (gravada == null || senha == null) {
+				BCrypt.checkpw("", hashFicticio);
+				return false;
+			}
+			if (!isHash(gravada)) {
+				return MessageDigest.isEqual(senha.getBytes(StandardCharsets.UTF_8), gravada.getBytes(StandardCharsets.UTF_8));
+			}
+			return BCrypt.checkpw(senha, gravada);
+		});
+	}
+	
+	// Texto puro ou hash com custo abaixo do configurado: depois de um login válido a senha é recodificada.
+	public boolean precisaRecodificar(String gravada) {
+		return !isHash(gravada) || custoDe(gravada) < custo;
+	}
+	
+	public EstatisticasExecutorDTO obterEstatisticas() {
+		long quantidade = iniciadas.sum();
+		return EstatisticasExecutorDTO.builder()
+				                      .nome(NOME)
+				                      .threads(executor.getMaximumPoolSize())
+				                      .virtuais(false)
+				                      .ativas(executor.getActiveCount())
+				                      .fila(executor.getQueue().size())
+				                      .capacidadeFila(capacidadeFila)
+				                      .concluidas(executor.getCompletedTaskCount())
+				                      .recusadas(recusadas.sum())
+				                      .esperaMediaMs(quantidade == 0 ? 0d : emMilissegundos(esperaTotal.sum()) / quantidade)
+				                      .esperaMaximaMs(emMilissegundos(esperaMaxima.get()))
+				                      .build();
+	}
+	
+	private <T> CompletableFuture<T> executar(Supplier<T> tarefa) {
+		long enfileirada = System.nanoTime();
+		Supplier<T> daRequisicao = ConsumoSql.propagar(tarefa);
+		
+		try {
+			return CompletableFuture.supplyAsync(() -> {
+				long espera = System.nanoTime() - enfileirada;
+				iniciadas.increment();
+				esperaTotal.add(espera);
+				esperaMaxima.accumulateAndGet(espera, Math::max);
+				return daRequisicao.get();
+			}, executor);
+		} catch (RejectedExecutionException e) {
+			recusadas.increment();
+			CompletableFuture<T> recusada = new CompletableFuture<>();
+			recusada.completeExceptionally(new SobrecargaException("Servidor sobrecarregado. Tente novamente em instantes"));
+			return recusada;
+		}
+	}
+	
+	// $2a$10$... : versão, custo com dois dígitos e salt + hash
+	private static boolean isHash(String gravada) {
+		return gravada != null && gravada.length() == 60 && gravada.startsWith("$2") && gravada.charAt(6) == '$';
+	}
+	
+	private static int custoDe(String hash) {
+		return Integer.parseInt(hash.substring(4, 6));
+	}
+	
+	private static double emMilissegundos(long nanos) {
+		return nanos / 1_000_000d;
+	}
+
+}
@@ -0,0 +1,21 @@
+-- Mesma estrutura de db/migration/postgresql, na sintaxe do H2 (perfil de teste).
+create schema if not exists financas;
+
+create table financas.usuario (
+    id bigint auto_increment not null primary key,
+    nome varchar(150),
+    email varchar(100),
+    senha varchar(100)
+);
+
+create table financas.lancamento (
+    id bigint auto_increment not null primary key,
+    descricao varchar(100) not null,
+    mes integer not null,
+    ano integer not null,
+    valor numeric(16, 2) not null,
+    tipo varchar(20) not null check (tipo in ('RECEITA', 'DESPESA')),
+    status varchar(20) check (status in ('PENDENTE', 'CANCELADO', 'EFETIVADO')),
+    id_usuario bigint references financas.usuario (id),
+    data_cadastro date default current_date
+);
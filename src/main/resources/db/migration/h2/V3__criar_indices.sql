@@ -0,0 +1,8 @@
+-- O H2 não tem índices com include: valor entra como última coluna.
+create unique index idx_usuario_email on financas.usuario (email);
+
+create index idx_lancamento_usuario_tipo_status
+    on financas.lancamento (id_usuario, tipo, status, valor);
+
+create index idx_lancamento_usuario_ano_mes
+    on financas.lancamento (id_usuario, ano, mes, id);
@@ -0,0 +1,4 @@
+-- Mesma sequência de db/migration/postgresql/V5, para o perfil de teste.
+create sequence financas.lancamento_seq start with 1 increment by 50;
+
+alter table financas.lancamento alter column id set default next value for financas.lancamento_seq;
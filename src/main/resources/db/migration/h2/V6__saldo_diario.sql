@@ -0,0 +1,20 @@
+create table financas.saldo_diario (
+    id bigint auto_increment not null primary key,
+    id_usuario bigint not null references financas.usuario (id),
+    data date not null,
+    valor numeric(16, 2) not null,
+    quantidade bigint not null,
+    acumulado numeric(16, 2) not null,
+    constraint uk_saldo_diario_data unique (id_usuario, data)
+);
+
+insert into financas.saldo_diario (id_usuario, data, valor, quantidade, acumulado)
+select id_usuario, data, valor, quantidade,
+       sum(valor) over (partition by id_usuario order by data)
+  from (select id_usuario,
+               coalesce(data_cadastro, cast(parsedatetime(ano || '-' || mes || '-1', 'yyyy-M-d') as date)) as data,
+               sum(case when tipo = 'RECEITA' then valor else -valor end) as valor,
+               count(*) as quantidade
+          from financas.lancamento
+         where id_usuario is not null
+         group by id_usuario, coalesce(data_cadastro, cast(parsedatetime(ano || '-' || mes || '-1', 'yyyy-M-d') as date))) dias;
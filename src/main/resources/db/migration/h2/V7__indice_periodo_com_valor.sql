@@ -0,0 +1,5 @@
+-- O H2 não tem índices com include: tipo, status e valor entram como últimas colunas.
+drop index if exists financas.idx_lancamento_usuario_tipo_status;
+drop index if exists financas.idx_lancamento_usuario_ano_mes;
+create index idx_lancamento_usuario_ano_mes
+    on financas.lancamento (id_usuario, ano, mes, id, tipo, status, valor);
@@ -0,0 +1,22 @@
+-- Estrutura inicial do schema financas.
+-- Bancos criados antes das migrações entram com baseline na versão 1 (spring.flyway.baseline-on-migrate).
+create schema if not exists financas;
+
+create table if not exists financas.usuario (
+    id bigserial not null primary key,
+    nome varchar(150),
+    email varchar(100),
+    senha varchar(100)
+);
+
+create table if not exists financas.lancamento (
+    id bigserial not null primary key,
+    descricao varchar(100) not null,
+    mes integer not null,
+    ano integer not null,
+    valor numeric(16, 2) not null,
+    tipo varchar(20) not null check (tipo in ('RECEITA', 'DESPESA')),
+    status varchar(20) check (status in ('PENDENTE', 'CANCELADO', 'EFETIVADO')),
+    id_usuario bigint references financas.usuario (id),
+    data_cadastro date default now()
+);
@@ -0,0 +1,21 @@
+-- Saldo materializado por usuário, tipo, status e mês (SaldoUsuario).
+create table financas.saldo_usuario (
+    id bigserial not null primary key,
+    id_usuario bigint not null references financas.usuario (id),
+    tipo varchar(20) not null,
+    status varchar(20),
+    ano integer not null,
+    mes integer not null,
+    valor numeric(16, 2) not null,
+    quantidade bigint not null
+);
+
+-- Chave do mês; o status nulo entra como '' para que o upsert (on conflict) também o encontre.
+create unique index uk_saldo_usuario_mes on financas.saldo_usuario (id_usuario, tipo, coalesce(status, ''), ano, mes);
+
+-- Carga inicial a partir dos lançamentos já gravados (mesma soma de LancamentoRepository.recalcularSaldosPorMes).
+insert into financas.saldo_usuario (id_usuario, tipo, status, ano, mes, valor, quantidade)
+select id_usuario, tipo, status, ano, mes, sum(valor), count(*)
+  from financas.lancamento
+ where id_usuario is not null
+ group by id_usuario, tipo, status, ano, mes;
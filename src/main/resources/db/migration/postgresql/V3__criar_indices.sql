@@ -0,0 +1,10 @@
+-- Login (findByEmail) e cadastro (existsByEmail).
+create unique index if not exists idx_usuario_email on financas.usuario (email);
+
+-- Saldo por usuário: as somas por tipo e status são respondidas só com o índice (index-only scan).
+create index if not exists idx_lancamento_usuario_tipo_status
+    on financas.lancamento (id_usuario, tipo, status) include (valor);
+
+-- Filtros por período e paginação por cursor (ano, mes, id).
+create index if not exists idx_lancamento_usuario_ano_mes
+    on financas.lancamento (id_usuario, ano, mes, id);
@@ -0,0 +1,12 @@
+-- Índices usados por BuscaDescricaoPostgresRepository.
+-- btree_gin permite combinar id_usuario com a descrição no mesmo índice GIN.
+create extension if not exists pg_trgm;
+create extension if not exists btree_gin;
+
+-- descricao ilike '%termo%', ordenado por similarity()
+create index if not exists idx_lancamento_usuario_descricao_trgm
+    on financas.lancamento using gin (id_usuario, descricao gin_trgm_ops);
+
+-- to_tsvector('simple', descricao) @@ to_tsquery('simple', 'termo:*')
+create index if not exists idx_lancamento_usuario_descricao_tsv
+    on financas.lancamento using gin (id_usuario, to_tsvector('simple'::regconfig, descricao));
@@ -0,0 +1,9 @@
+-- Sequência com alocação em blocos de 50 para o Hibernate gerar ids sem ida ao banco a cada
+-- insert e poder agrupar os inserts em lotes JDBC (a coluna identity impedia o batch).
+create sequence financas.lancamento_seq increment by 50 owned by financas.lancamento.id;
+
+-- Começa depois dos ids já existentes
+select setval('financas.lancamento_seq', (select coalesce(max(id), 0) + 50 from financas.lancamento));
+
+-- Inserts feitos fora da aplicação usam a mesma sequência: cada nextval reserva o bloco que termina nele
+alter table financas.lancamento alter column id set default nextval('financas.lancamento_seq');
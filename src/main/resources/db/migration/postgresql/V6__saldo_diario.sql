@@ -0,0 +1,23 @@
+-- Saldo acumulado por usuário e dia (SaldoDiario): valor é o movimento líquido do dia
+-- (receitas - despesas) e acumulado é o saldo ao fim do dia. Mantido a cada escrita de lançamento.
+create table financas.saldo_diario (
+    id bigserial not null primary key,
+    id_usuario bigint not null references financas.usuario (id),
+    data date not null,
+    valor numeric(16, 2) not null,
+    quantidade bigint not null,
+    acumulado numeric(16, 2) not null,
+    constraint uk_saldo_diario_data unique (id_usuario, data)
+);
+
+-- Carga inicial; lançamentos sem data de cadastro entram no primeiro dia do mês de competência.
+insert into financas.saldo_diario (id_usuario, data, valor, quantidade, acumulado)
+select id_usuario, data, valor, quantidade,
+       sum(valor) over (partition by id_usuario order by data)
+  from (select id_usuario,
+               coalesce(data_cadastro, make_date(ano, mes, 1)) as data,
+               sum(case when tipo = 'RECEITA' then valor else -valor end) as valor,
+               count(*) as quantidade
+          from financas.lancamento
+         where id_usuario is not null
+         group by id_usuario, coalesce(data_cadastro, make_date(ano, mes, 1))) dias;
@@ -0,0 +1,8 @@
+-- As somas do histórico inteiro por tipo e status saem de saldo_usuario, e o índice que as servia
+-- deixa de ser usado. As consultas que restam sobre lancamento filtram por usuário e período
+-- (relatório administrativo, reconstrução de saldo_usuario, busca paginada): o índice por período
+-- cobre tipo, status e valor para que elas continuem em index-only scan.
+drop index if exists financas.idx_lancamento_usuario_tipo_status;
+drop index if exists financas.idx_lancamento_usuario_ano_mes;
+create index idx_lancamento_usuario_ano_mes
+    on financas.lancamento (id_usuario, ano, mes, id) include (tipo, status, valor);
@@ -0,0 +1,11 @@
+-- Callback do Flyway, antes de cada migração: os índices com include (V3, V7) exigem PostgreSQL 11
+-- ou superior, e em um servidor mais antigo a migração para aqui com a versão mínima em vez de um
+-- erro de sintaxe no meio da V3.
+do $$
+begin
+    if current_setting('server_version_num')::integer < 110000 then
+        raise exception 'O minhasFinancas exige PostgreSQL 11 ou superior (servidor: %)',
+            current_setting('server_version');
+    end if;
+end
+$$;
@@ -2,13 +2,18 @@ package com.gef.minhasFinancas;
 
 //import org.junit.jupiter.api.Test;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
 
 @SpringBootTest
-class MinhasFinancasApplicationTests {
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class MinhasFinancasApplicationTests {
 
 	@Test
-	void contextLoads() {
+	public void contextLoads() {
 	}
 
 }
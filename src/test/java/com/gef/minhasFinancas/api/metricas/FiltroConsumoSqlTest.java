@@ -0,0 +1,109 @@
+package com.gef.minhasFinancas.api.metricas;
+
+import java.io.IOException;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServlet;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.gef.minhasFinancas.api.seguranca.FiltroAdministrativo;
+import com.gef.minhasFinancas.exception.OrcamentoSqlException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Orçamento zerado: qualquer comando SQL de uma requisição em /api/* passa do limite. A busca de
+// um usuário inexistente volta vazia e consulta também o usuário: dois comandos.
+@SpringBootTest(properties = "minhasfinancas.sql.orcamento.comandos=0")
+@RunWith(SpringRunner.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class FiltroConsumoSqlTest {
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Test
+	public void deveContarOsComandosDoExecutorBancoNaRequisicao() throws Exception {
+		
+		//CENÁRIO
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", "999"))
+		                         .andExpect(MockMvcResultMatchers.request().asyncStarted())
+		                         .andReturn();
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		Assertions.assertThatThrownBy(() -> mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado)))
+		          .isInstanceOf(OrcamentoSqlException.class)
+		          .hasMessageContaining("GET /api/lancamentos executou 2 comandos SQL");
+		mvc.perform(MockMvcRequestBuilders.get("/api/limites").header(FiltroAdministrativo.CABECALHO, "chave-dos-testes"))
+		   .andExpect(MockMvcResultMatchers.status().isOk());
+	}
+	
+	@Test
+	public void deveApontarOComandoRepetidoComoPossivelNMaisUm() throws Exception {
+		
+		// Cenário
+		FiltroConsumoSql filtro = new FiltroConsumoSql(10, 1000, 2, true, null);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/usuarios/1/saldo");
+		
+		// Ação
+		Throwable erro = Assertions.catchThrowable(() -> filtro.doFilter(request, new MockHttpServletResponse(),
+				new MockFilterChain(consultarUsuarios(3))));
+		
+		// Verificação
+		Assertions.assertThat(erro).isInstanceOf(OrcamentoSqlException.class)
+		          .hasMessageContaining("possível N+1 em GET /api/usuarios/1/saldo: 3 execuções de "
+		                                + "select count(*) from financas.usuario where id = ?");
+		Assertions.assertThat(erro.getMessage()).doesNotContain("orçamento");
+	}
+	
+	@Test
+	public void deveSoRegistrarQuandoNaoForParaFalhar() throws Exception {
+		
+		// Cenário
+		MeterRegistry registry = new SimpleMeterRegistry();
+		FiltroConsumoSql filtro = new FiltroConsumoSql(1, 1000, 1, false, registry);
+		
+		// Ação
+		filtro.doFilter(new MockHttpServletRequest("GET", "/api/usuarios/1/saldo"), new MockHttpServletResponse(),
+				        new MockFilterChain(consultarUsuarios(3)));
+		
+		// Verificação
+		Assertions.assertThat(registry.get("minhasfinancas.sql.comandos").summary().totalAmount()).isEqualTo(3);
+		Assertions.assertThat(registry.get("minhasfinancas.sql.tempo").timer().count()).isEqualTo(1);
+	}
+	
+	// Servlet que consulta um usuário por vez, como um laço de N+1
+	@SuppressWarnings("serial")
+	private HttpServlet consultarUsuarios(int vezes) {
+		return new HttpServlet() {
+			@Override
+			public void service(ServletRequest request, ServletResponse response) throws IOException {
+				for (long id = 1; id <= vezes; id++) {
+					jdbcTemplate.queryForObject("select count(*) from financas.usuario where id = ?", Long.class, id);
+				}
+			}
+		};
+	}
+
+}
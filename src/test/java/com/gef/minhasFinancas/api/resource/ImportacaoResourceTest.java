@@ -0,0 +1,145 @@
+package com.gef.minhasFinancas.api.resource;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.gef.minhasFinancas.api.dto.ImportacaoDTO;
+import com.gef.minhasFinancas.api.dto.MapeamentoColunasDTO;
+import com.gef.minhasFinancas.exception.SobrecargaException;
+import com.gef.minhasFinancas.service.ImportacaoExtratoService;
+import com.gef.minhasFinancas.service.importacao.FormatoExtrato;
+import com.gef.minhasFinancas.service.seguranca.UsuarioAutenticado;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = ImportacaoResource.class)
+@AutoConfigureMockMvc
+public class ImportacaoResourceTest {
+	
+	static final String API = "/api/importacoes";
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@MockBean
+	ImportacaoExtratoService service;
+	
+	@Test
+	public void deveImportarOCorpoDaRequisicaoComOMapeamentoDosParametros() throws Exception {
+		
+		//CENÁRIO
+		Mockito.when(service.importar(Mockito.eq(1l), Mockito.eq(FormatoExtrato.CSV), Mockito.any(), Mockito.any(), Mockito.any()))
+		       .thenReturn(ImportacaoDTO.builder().id(7l).situacao("CONCLUIDA").gravados(1l).build());
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc
+		.perform(MockMvcRequestBuilders.post(API.concat("?usuario=1&formato=CSV&separador=,&colunaValor=3&cabecalho=false"))
+				                       .contentType("text/csv")
+				                       .content("2022-01-01,Mercado,D,10.00"))
+		.andExpect(MockMvcResultMatchers.status().isCreated())
+		.andExpect(MockMvcResultMatchers.jsonPath("id").value(7));
+		
+		ArgumentCaptor<MapeamentoColunasDTO> mapeamento = ArgumentCaptor.forClass(MapeamentoColunasDTO.class);
+		Mockito.verify(service).importar(Mockito.eq(1l), Mockito.eq(FormatoExtrato.CSV), mapeamento.capture(),
+				                         Mockito.any(), Mockito.any());
+		Assertions.assertThat(mapeamento.getValue().getSeparador()).isEqualTo(",");
+		Assertions.assertThat(mapeamento.getValue().getColunaValor()).isEqualTo(3);
+		Assertions.assertThat(mapeamento.getValue().isCabecalho()).isFalse();
+	}
+	
+	@Test
+	public void deveRetornarBadRequestParaUmCharsetInvalido() throws Exception {
+		
+		mvc
+		.perform(MockMvcRequestBuilders.post(API.concat("?usuario=1&charset=nao-existe"))
+				                       .contentType(MediaType.APPLICATION_OCTET_STREAM)
+				                       .content(new byte[0]))
+		.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	public void deveRetornarNotFoundParaUmaImportacaoDesconhecida() throws Exception {
+		
+		//CENÁRIO
+		Mockito.when(service.obterPorId(99l)).thenReturn(Optional.empty());
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc
+		.perform(MockMvcRequestBuilders.get(API.concat("/99")))
+		.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+	
+	@Test
+	public void deveRetornarNotFoundParaAImportacaoDeOutroUsuario() throws Exception {
+		
+		//CENÁRIO
+		Mockito.when(service.obterPorId(7l))
+		       .thenReturn(Optional.of(ImportacaoDTO.builder().id(7l).usuario(1l).situacao("CONCLUIDA").build()));
+		Instant expiracao = Instant.now().plusSeconds(60);
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc
+		.perform(MockMvcRequestBuilders.get(API.concat("/7")).principal(new UsuarioAutenticado(2l, expiracao)))
+		.andExpect(MockMvcResultMatchers.status().isNotFound());
+		
+		mvc
+		.perform(MockMvcRequestBuilders.get(API.concat("/7")).principal(new UsuarioAutenticado(1l, expiracao)))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("id").value(7));
+	}
+	
+	@Test
+	public void deveRecusarImportarOuListarParaOutroUsuario() throws Exception {
+		
+		//CENÁRIO
+		UsuarioAutenticado autenticado = new UsuarioAutenticado(2l, Instant.now().plusSeconds(60));
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc
+		.perform(MockMvcRequestBuilders.post(API.concat("?usuario=1"))
+				                       .principal(autenticado)
+				                       .contentType("text/csv")
+				                       .content("2022-01-01,Mercado,D,10.00"))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+		
+		mvc
+		.perform(MockMvcRequestBuilders.get(API.concat("?usuario=1")).principal(autenticado))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+		
+		Mockito.verifyZeroInteractions(service);
+	}
+	
+	@Test
+	public void deveRetornarServiceUnavailableComImportacoesSimultaneasDemais() throws Exception {
+		
+		//CENÁRIO
+		Mockito.when(service.importar(Mockito.eq(1l), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+		       .thenThrow(new SobrecargaException("Servidor sobrecarregado. Tente novamente em instantes"));
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc
+		.perform(MockMvcRequestBuilders.post(API.concat("?usuario=1"))
+				                       .contentType("text/csv")
+				                       .content("Data;Histórico;Valor"))
+		.andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+		.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1"));
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.gef.minhasFinancas.api.resource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.repository.LancamentoRepositoryTest;
+import com.gef.minhasFinancas.model.repository.UsuarioRepository;
+import com.gef.minhasFinancas.service.LancamentoService;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LancamentoReativoResourceTest {
+	
+	static final String API = "/api/reativo";
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Usuario usuario;
+	
+	@Before
+	public void criarLancamentos() {
+		usuario = usuarioRepository.save(LancamentoRepositoryTest.criarUsuario());
+		for (int i = 0; i < 3; i++) {
+			Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+			lancamento.setUsuario(usuario);
+			lancamentoService.salva(lancamento);
+		}
+	}
+	
+	@After
+	public void limparBase() {
+		jdbcTemplate.update("delete from financas.saldo_diario");
+		jdbcTemplate.update("delete from financas.saldo_usuario");
+		jdbcTemplate.update("delete from financas.lancamento");
+		jdbcTemplate.update("delete from financas.usuario");
+	}
+	
+	@Test
+	public void deveEscreverUmLancamentoPorVezNoStream() throws Exception {
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		String corpo = executar(MockMvcRequestBuilders.get(API + "/lancamentos?usuario=" + usuario.getId())
+				                                      .accept(MediaType.APPLICATION_STREAM_JSON))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_STREAM_JSON))
+				.andReturn().getResponse().getContentAsString();
+		
+		String[] linhas = corpo.trim().split("\n");
+		Assertions.assertThat(linhas).hasSize(3);
+		Assertions.assertThat(linhas[0]).contains("\"usuario\":" + usuario.getId());
+	}
+	
+	@Test
+	public void deveDevolverAListaEmJson() throws Exception {
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		executar(MockMvcRequestBuilders.get(API + "/lancamentos?usuario=" + usuario.getId() + "&descricao=LANÇAMENTO")
+				                       .accept(MediaType.APPLICATION_JSON))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3));
+	}
+	
+	@Test
+	public void deveObterOSaldoDoUsuario() throws Exception {
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		executar(MockMvcRequestBuilders.get(API + "/usuarios/" + usuario.getId() + "/saldo"))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.content().string("30.00"));
+	}
+	
+	@Test
+	public void deveRetornarNotFoundParaUmUsuarioInexistente() throws Exception {
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		executar(MockMvcRequestBuilders.get(API + "/usuarios/" + (usuario.getId() + 1000) + "/saldo"))
+		.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+	
+	// Flux e Mono são respondidos pelo despacho assíncrono.
+	private ResultActions executar(RequestBuilder requisicao) throws Exception {
+		MvcResult resultado = mvc.perform(requisicao)
+				                 .andExpect(MockMvcResultMatchers.request().asyncStarted())
+				                 .andReturn();
+		return mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado));
+	}
+
+}
@@ -0,0 +1,231 @@
+package com.gef.minhasFinancas.api.resource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gef.minhasFinancas.api.dto.LancamentoDTO;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.repository.ColetorSql;
+import com.gef.minhasFinancas.model.repository.LancamentoRepositoryTest;
+import com.gef.minhasFinancas.model.repository.UsuarioRepository;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+import com.gef.minhasFinancas.service.LancamentoService;
+
+// Quantidade de comandos SQL que cada endpoint de lançamentos executa, com o banco de teste real.
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		                     + "com.gef.minhasFinancas.model.repository.ColetorSql")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LancamentoResourceComandosTest {
+
+	static final String API = "/api/lancamentos";
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	Usuario usuario;
+	Lancamento lancamento;
+
+	@Before
+	public void criarLancamento() {
+		usuario = usuarioRepository.save(LancamentoRepositoryTest.criarUsuario());
+		lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento = lancamentoService.salva(lancamento);
+		ColetorSql.limpar();
+	}
+
+	@After
+	public void limparBase() {
+		jdbcTemplate.update("delete from financas.saldo_diario");
+		jdbcTemplate.update("delete from financas.saldo_usuario");
+		jdbcTemplate.update("delete from financas.lancamento");
+		jdbcTemplate.update("delete from financas.usuario");
+	}
+
+	@Test
+	public void deveSalvarSemConsultarOUsuario() throws Exception {
+
+		// Cenário
+		LancamentoDTO dto = criarDTO(usuario.getId());
+
+		// Ação
+		executar(MockMvcRequestBuilders.post(API).contentType(JSON).content(objectMapper.writeValueAsString(dto)))
+		   .andExpect(MockMvcResultMatchers.status().isCreated())
+		   .andExpect(MockMvcResultMatchers.jsonPath("usuario").value(usuario.getId()));
+
+		// Verificação: trava do usuário antes de qualquer insert, insert do lançamento, um único
+		// upsert do saldo do mês, e no saldo diário leitura e gravação do dia e o deslocamento dos
+		// dias seguintes (a sequência só é consultada a cada bloco de ids)
+		Assertions.assertThat(leituras("financas.usuario")).isEmpty();
+		Assertions.assertThat(ColetorSql.comandos()).filteredOn(sql -> sql.contains("financas.usuario")).hasSize(1);
+		Assertions.assertThat(ColetorSql.comandos().get(0)).contains("financas.usuario").endsWith("for update");
+		Assertions.assertThat(ColetorSql.comandos()).filteredOn(sql -> !sql.contains("lancamento_seq")).hasSize(6);
+	}
+
+	@Test
+	public void deveGravarUmLoteComInsertsAgrupados() throws Exception {
+
+		// Cenário
+		List<LancamentoDTO> lote = IntStream.range(0, 120)
+				                            .mapToObj(i -> criarDTO(usuario.getId()))
+				                            .collect(Collectors.toList());
+
+		// Ação
+		executar(MockMvcRequestBuilders.post(API + "/lote").contentType(JSON).content(objectMapper.writeValueAsString(lote)))
+		   .andExpect(MockMvcResultMatchers.status().isCreated())
+		   .andExpect(MockMvcResultMatchers.jsonPath("gravados").value(120));
+
+		// Verificação: 120 lançamentos em lotes JDBC de 50, e um único movimento de saldo para o mês
+		Assertions.assertThat(comandos("insert into financas.lancamento").size()).isLessThanOrEqualTo(3);
+		Assertions.assertThat(comandos("financas.saldo_usuario")).hasSize(1);
+		Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from financas.lancamento", Long.class))
+		          .isEqualTo(121l);
+	}
+
+	@Test
+	public void deveRecusarSalvarParaUmUsuarioInexistente() throws Exception {
+
+		// Cenário
+		LancamentoDTO dto = criarDTO(usuario.getId() + 1000);
+
+		// Ação e Verificação
+		executar(MockMvcRequestBuilders.post(API).contentType(JSON).content(objectMapper.writeValueAsString(dto)))
+		   .andExpect(MockMvcResultMatchers.status().isBadRequest())
+		   .andExpect(MockMvcResultMatchers.content().string("Usuário não encontrado para o id informado"));
+	}
+
+	@Test
+	public void deveAtualizarComUmaUnicaLeituraDoLancamento() throws Exception {
+
+		// Cenário
+		LancamentoDTO dto = criarDTO(usuario.getId());
+		dto.setValor(Dinheiro.reais(99));
+
+		// Ação
+		executar(MockMvcRequestBuilders.put(API + "/" + lancamento.getId())
+				                          .contentType(JSON).content(objectMapper.writeValueAsString(dto)))
+		   .andExpect(MockMvcResultMatchers.status().isOk());
+
+		// Verificação: só a consulta do movimento gravado lê o lançamento; sem select do merge nem do usuário
+		Assertions.assertThat(leituras("financas.usuario")).isEmpty();
+		Assertions.assertThat(consultas("financas.lancamento")).hasSize(1);
+		Assertions.assertThat(comandos("update financas.lancamento")).hasSize(1);
+	}
+
+	@Test
+	public void deveRecusarAtualizarOLancamentoDeOutroUsuario() throws Exception {
+
+		// Cenário
+		Usuario outro = LancamentoRepositoryTest.criarUsuario();
+		outro.setEmail("outro@email.com");
+		outro = usuarioRepository.save(outro);
+		LancamentoDTO dto = criarDTO(outro.getId());
+
+		// Ação e Verificação
+		executar(MockMvcRequestBuilders.put(API + "/" + lancamento.getId())
+				                          .contentType(JSON).content(objectMapper.writeValueAsString(dto)))
+		   .andExpect(MockMvcResultMatchers.status().isBadRequest())
+		   .andExpect(MockMvcResultMatchers.content().string("O lançamento não pertence ao usuário informado"));
+	}
+
+	@Test
+	public void deveBuscarSemCarregarOUsuarioDoFiltro() throws Exception {
+
+		// Ação
+		executar(MockMvcRequestBuilders.get(API + "?usuario=" + usuario.getId()).accept(JSON))
+		   .andExpect(MockMvcResultMatchers.status().isOk())
+		   .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1));
+
+		// Verificação: a consulta dos lançamentos e o usuário associado a eles
+		Assertions.assertThat(ColetorSql.comandos()).hasSize(2);
+	}
+
+	@Test
+	public void deveDeletarComDuasLeiturasDoLancamento() throws Exception {
+
+		// Ação
+		executar(MockMvcRequestBuilders.delete(API + "/" + lancamento.getId()))
+		   .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+		// Verificação: o lançamento (com o usuário) e o movimento gravado
+		Assertions.assertThat(consultas("financas.lancamento")).hasSize(2);
+		Assertions.assertThat(comandos("delete from financas.lancamento")).hasSize(1);
+	}
+
+	// Os endpoints de lançamentos respondem depois do despacho assíncrono.
+	private ResultActions executar(RequestBuilder requisicao) throws Exception {
+		MvcResult resultado = mvc.perform(requisicao)
+				                 .andExpect(MockMvcResultMatchers.request().asyncStarted())
+				                 .andReturn();
+		return mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado));
+	}
+
+	private List<String> comandos(String trecho) {
+		return ColetorSql.comandos().stream()
+				         .filter(sql -> sql.toLowerCase().contains(trecho))
+				         .collect(Collectors.toList());
+	}
+
+	private List<String> consultas(String tabela) {
+		return comandos("from " + tabela).stream()
+				                         .filter(sql -> sql.toLowerCase().startsWith("select"))
+				                         .collect(Collectors.toList());
+	}
+
+	// Consultas que leem a tabela, sem contar as que só travam a linha (select ... for update).
+	private List<String> leituras(String tabela) {
+		return consultas(tabela).stream()
+				                .filter(sql -> !sql.toLowerCase().endsWith("for update"))
+				                .collect(Collectors.toList());
+	}
+
+	private static LancamentoDTO criarDTO(Long idUsuario) {
+		return LancamentoDTO.builder()
+				            .descricao("Lançamento")
+				            .ano(2022)
+				            .mes(1)
+				            .valor(Dinheiro.reais(10))
+				            .usuario(idUsuario)
+				            .tipo("RECEITA")
+				            .status("PENDENTE")
+				            .build();
+	}
+
+}
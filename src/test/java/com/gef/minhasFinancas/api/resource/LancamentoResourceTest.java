@@ -0,0 +1,276 @@
+package com.gef.minhasFinancas.api.resource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.gef.minhasFinancas.api.dto.ErroLoteDTO;
+import com.gef.minhasFinancas.api.dto.PaginaLancamentoDTO;
+import com.gef.minhasFinancas.api.dto.ResultadoBuscaDTO;
+import com.gef.minhasFinancas.api.dto.ResultadoLoteDTO;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.repository.LancamentoRepositoryTest;
+import com.gef.minhasFinancas.service.LancamentoService;
+import com.gef.minhasFinancas.service.UsuarioService;
+import com.gef.minhasFinancas.service.execucao.ExecutorBanco;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoResource.class,
+            properties = {"minhasfinancas.banco.executor.threads=1", "minhasfinancas.banco.executor.fila=1"})
+@AutoConfigureMockMvc
+@Import(ExecutorBanco.class)
+public class LancamentoResourceTest {
+	
+	static final String API = "/api/lancamentos";
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@MockBean
+	LancamentoService service;
+	
+	@MockBean
+	UsuarioService usuarioService;
+	
+	@Test
+	public void deveRetornarBadRequestAoBuscarOsLancamentosDeUmUsuarioInexistente() throws Exception {
+		
+		//CENÁRIO
+		Mockito.when(service.buscar(Mockito.any(Lancamento.class))).thenReturn(Collections.emptyList());
+		Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.empty());
+		Mockito.when(usuarioService.obterPorId(2l)).thenReturn(Optional.of(Usuario.builder().id(2l).build()));
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		executar(MockMvcRequestBuilders.get(API.concat("?usuario=1")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isBadRequest())
+		.andExpect(MockMvcResultMatchers.content().string("Usuario não encontrado para o id informado"));
+		
+		executar(MockMvcRequestBuilders.get(API.concat("?usuario=2")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("$").isEmpty());
+	}
+	
+	@Test
+	public void deveBuscarUmaPaginaDeLancamentos() throws Exception {
+		
+		//CENÁRIO
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		Mockito.when(service.buscarPagina(Mockito.any(Lancamento.class), Mockito.any(), Mockito.eq(10)))
+		       .thenReturn(new PaginaLancamentoDTO(Arrays.asList(lancamento), "2022.1.1"));
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		executar(MockMvcRequestBuilders.get(API.concat("/pagina?usuario=1&tamanho=10")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("lancamentos[0].id").value(1))
+		.andExpect(MockMvcResultMatchers.jsonPath("proximo").value("2022.1.1"));
+	}
+	
+	@Test
+	public void deveLimitarOTamanhoDaPagina() throws Exception {
+		
+		//CENÁRIO
+		Mockito.when(service.buscarPagina(Mockito.any(Lancamento.class), Mockito.any(), Mockito.anyInt()))
+		       .thenReturn(new PaginaLancamentoDTO(Arrays.asList(), null));
+		
+		// EXECUÇÃO
+		executar(MockMvcRequestBuilders.get(API.concat("/pagina?usuario=1&tamanho=100000")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isOk());
+		
+		// VERIFICAÇÃO
+		Mockito.verify(service).buscarPagina(Mockito.any(Lancamento.class), Mockito.any(), Mockito.eq(500));
+	}
+	
+	@Test
+	public void deveDevolverOsErrosDoLoteNaLinhaDoPedido() throws Exception {
+		
+		//CENÁRIO
+		String lote = "[{\"descricao\":\"a\",\"ano\":2022,\"mes\":1,\"valor\":10,\"usuario\":1,\"tipo\":\"XPTO\"},"
+				    + " {\"descricao\":\"b\",\"ano\":2022,\"mes\":1,\"valor\":10,\"usuario\":1,\"tipo\":\"RECEITA\"},"
+				    + " {\"ano\":2022,\"mes\":1,\"valor\":10,\"usuario\":1,\"tipo\":\"RECEITA\"}]";
+		// O serviço recebe só as duas linhas convertidas e recusa a segunda delas
+		Mockito.when(service.salvarLote(Mockito.anyList()))
+		       .thenReturn(new ResultadoLoteDTO(2, 1, Arrays.asList(new ErroLoteDTO(2, "Informe uma Descrição válida"))));
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		executar(MockMvcRequestBuilders.post(API.concat("/lote")).contentType(JSON).content(lote))
+		.andExpect(MockMvcResultMatchers.status().isCreated())
+		.andExpect(MockMvcResultMatchers.jsonPath("recebidos").value(3))
+		.andExpect(MockMvcResultMatchers.jsonPath("gravados").value(1))
+		.andExpect(MockMvcResultMatchers.jsonPath("erros[0].linha").value(1))
+		.andExpect(MockMvcResultMatchers.jsonPath("erros[0].mensagem").value("Tipo ou status de lançamento inválido"))
+		.andExpect(MockMvcResultMatchers.jsonPath("erros[1].linha").value(3))
+		.andExpect(MockMvcResultMatchers.jsonPath("erros[1].mensagem").value("Informe uma Descrição válida"));
+	}
+	
+	@Test
+	public void deveRecusarSalvarParaUmUsuarioInexistenteQualquerQueSejaARestricao() throws Exception {
+		
+		//CENÁRIO: a mensagem do banco não cita a coluna
+		String lancamento = "{\"descricao\":\"a\",\"ano\":2022,\"mes\":1,\"valor\":10,\"usuario\":7,\"tipo\":\"RECEITA\"}";
+		Mockito.when(service.salva(Mockito.any(Lancamento.class)))
+		       .thenThrow(new DataIntegrityViolationException("FK_LANCAMENTO_2: FINANCAS.LANCAMENTO"));
+		Mockito.when(usuarioService.obterPorId(7l)).thenReturn(Optional.empty());
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		executar(MockMvcRequestBuilders.post(API).contentType(JSON).content(lancamento))
+		.andExpect(MockMvcResultMatchers.status().isBadRequest())
+		.andExpect(MockMvcResultMatchers.content().string("Usuário não encontrado para o id informado"));
+	}
+	
+	@Test
+	public void naoDeveAtribuirAoUsuarioUmaViolacaoDeOutraRestricao() throws Exception {
+		
+		//CENÁRIO: a mensagem cita id_usuario, mas o usuário existe
+		String lancamento = "{\"descricao\":\"a\",\"ano\":2022,\"mes\":1,\"valor\":10,\"usuario\":7,\"tipo\":\"RECEITA\"}";
+		Mockito.when(service.salva(Mockito.any(Lancamento.class)))
+		       .thenThrow(new DataIntegrityViolationException("unique (id_usuario, tipo, status, ano, mes)"));
+		Mockito.when(usuarioService.obterPorId(7l)).thenReturn(Optional.of(new Usuario()));
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		Assertions.assertThatThrownBy(() -> executar(MockMvcRequestBuilders.post(API).contentType(JSON).content(lancamento)))
+		          .hasRootCauseInstanceOf(DataIntegrityViolationException.class);
+	}
+	
+	@Test
+	public void deveRetornarBadRequestParaUmLoteVazio() throws Exception {
+		
+		executar(MockMvcRequestBuilders.post(API.concat("/lote")).contentType(JSON).content("[]"))
+		.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verify(service, Mockito.never()).salvarLote(Mockito.anyList());
+	}
+	
+	@Test
+	public void deveRetornarBadRequestParaUmCursorInvalido() throws Exception {
+		
+		executar(MockMvcRequestBuilders.get(API.concat("/pagina?usuario=1&cursor=abc")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	public void deveBuscarLancamentosPelaDescricao() throws Exception {
+		
+		//CENÁRIO
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		Mockito.when(service.buscarPorDescricao(1l, "sal", true, 50))
+		       .thenReturn(Arrays.asList(new ResultadoBuscaDTO(lancamento, 0.8)));
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		executar(MockMvcRequestBuilders.get(API.concat("/busca?usuario=1&termo= sal &prefixo=true")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].lancamento.id").value(1))
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].relevancia").value(0.8));
+	}
+	
+	@Test
+	public void deveRetornarBadRequestParaUmTermoVazio() throws Exception {
+		
+		executar(MockMvcRequestBuilders.get(API.concat("/busca?usuario=1&termo= ")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deveEscreverUmLancamentoPorLinhaNoStream() throws Exception {
+		
+		//CENÁRIO
+		Lancamento primeiro = LancamentoRepositoryTest.criarLancamento();
+		primeiro.setId(1l);
+		Lancamento segundo = LancamentoRepositoryTest.criarLancamento();
+		segundo.setId(2l);
+		Mockito.doAnswer(invocacao -> {
+			Consumer<Lancamento> consumidor = invocacao.getArgument(1);
+			consumidor.accept(primeiro);
+			consumidor.accept(segundo);
+			return null;
+		}).when(service).buscarEmStream(Mockito.any(Lancamento.class), Mockito.any(Consumer.class));
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		MvcResult resultado = mvc
+				.perform(MockMvcRequestBuilders.get(API.concat("/stream?usuario=1")))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted())
+				.andReturn();
+		
+		String corpo = mvc
+				.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"))
+				.andReturn().getResponse().getContentAsString();
+		
+		String[] linhas = corpo.split("\n");
+		Assertions.assertThat(linhas).hasSize(2);
+		Assertions.assertThat(linhas[0]).startsWith("{\"id\":1,");
+		Assertions.assertThat(linhas[1]).startsWith("{\"id\":2,");
+		
+		ArgumentCaptor<Lancamento> filtro = ArgumentCaptor.forClass(Lancamento.class);
+		Mockito.verify(service).buscarEmStream(filtro.capture(), Mockito.any(Consumer.class));
+		Assertions.assertThat(filtro.getValue().getUsuario().getId()).isEqualTo(1l);
+	}
+
+	@Test
+	public void deveRetornarServiceUnavailableComAFilaDoExecutorCheia() throws Exception {
+		
+		//CENÁRIO: a única thread do executor fica presa e a segunda requisição ocupa a fila
+		CountDownLatch iniciou = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		Mockito.when(service.buscarPagina(Mockito.any(Lancamento.class), Mockito.any(), Mockito.anyInt()))
+		       .thenAnswer(invocacao -> {
+		    	   iniciou.countDown();
+		    	   liberar.await(5, TimeUnit.SECONDS);
+		    	   return new PaginaLancamentoDTO(Arrays.asList(), null);
+		       });
+		MvcResult primeira = mvc.perform(MockMvcRequestBuilders.get(API.concat("/pagina?usuario=1"))).andReturn();
+		iniciou.await(5, TimeUnit.SECONDS);
+		MvcResult segunda = mvc.perform(MockMvcRequestBuilders.get(API.concat("/pagina?usuario=1"))).andReturn();
+		
+		try {
+			// EXECUÇÃO E VERIFICAÇÃO
+			executar(MockMvcRequestBuilders.get(API.concat("/pagina?usuario=1")))
+			.andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+			.andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
+		} finally {
+			liberar.countDown();
+		}
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(primeira)).andExpect(MockMvcResultMatchers.status().isOk());
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(segunda)).andExpect(MockMvcResultMatchers.status().isOk());
+	}
+	
+	// As respostas dos endpoints assíncronos só existem depois do despacho assíncrono.
+	private ResultActions executar(RequestBuilder requisicao) throws Exception {
+		MvcResult resultado = mvc.perform(requisicao)
+				                 .andExpect(MockMvcResultMatchers.request().asyncStarted())
+				                 .andReturn();
+		return mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado));
+	}
+
+}
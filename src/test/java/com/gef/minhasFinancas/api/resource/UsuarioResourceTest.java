@@ -1,5 +1,13 @@
 package com.gef.minhasFinancas.api.resource;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
@@ -11,18 +19,30 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gef.minhasFinancas.api.dto.CurvaSaldoDTO;
+import com.gef.minhasFinancas.api.dto.FluxoCaixaDTO;
+import com.gef.minhasFinancas.api.dto.PontoSaldoDTO;
+import com.gef.minhasFinancas.api.dto.SaldoDTO;
+import com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO;
+import com.gef.minhasFinancas.api.dto.SaldoStatusDTO;
 import com.gef.minhasFinancas.api.dto.UsuarioDTO;
 import com.gef.minhasFinancas.exception.ErroAutenticacao;
 import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.exception.SobrecargaException;
 import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
 import com.gef.minhasFinancas.service.LancamentoService;
 import com.gef.minhasFinancas.service.UsuarioService;
+import com.gef.minhasFinancas.service.seguranca.TokenAcesso;
 
 @RunWith(SpringRunner.class)
 @ActiveProfiles("test")
@@ -42,6 +62,9 @@ public class UsuarioResourceTest {
 	@MockBean
 	LancamentoService lancamentoService;
 	
+	@MockBean
+	TokenAcesso tokenAcesso;
+	
 	@Test
 	public void deveAutenticarUmUsuario() throws Exception {
 		
@@ -56,7 +79,9 @@ public class UsuarioResourceTest {
 		Usuario usuario = Usuario.builder().id(1l).email(email).senha(senha).build();
 		
 		// Força retorno do usuário declarado quendo o método autenticar for chamado
-		Mockito.when(service.autenticar(email, senha)).thenReturn(usuario);
+		Mockito.when(service.autenticar(email, senha)).thenReturn(CompletableFuture.completedFuture(usuario));
+		Mockito.when(tokenAcesso.emitir(1l)).thenReturn("token");
+		Mockito.when(tokenAcesso.getValidade()).thenReturn(Duration.ofHours(1));
 		
 		// Transforma DTO em JSON
 		String json =  new ObjectMapper().writeValueAsString(dto);
@@ -69,13 +94,16 @@ public class UsuarioResourceTest {
 												                      .contentType(JSON)
 												                      .content(json);
 			
-		// executa a requisição e as verificações
+		// executa a requisição, aguarda a verificação da senha e faz as verificações
+		MvcResult resultado = mvc.perform(request).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
 		mvc
-		.perform(request)
+		.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
 		.andExpect(MockMvcResultMatchers.status().isOk())
 		.andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
 		.andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-		.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+		.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+		.andExpect(MockMvcResultMatchers.jsonPath("token").value("token"))
+		.andExpect(MockMvcResultMatchers.jsonPath("expiraEm").value(3600));
 		
 		// Não é interessante retornar a senha,
 		// então usa-se a notação JsonIgnore no campo senha na classe Usuario.
@@ -94,7 +122,9 @@ public class UsuarioResourceTest {
 		UsuarioDTO dto =  UsuarioDTO.builder().email(email).senha(senha).build();
 		
 		// Força retorno de erro ao tentar autenticar um usuário
-		Mockito.when(service.autenticar(email, senha)).thenThrow(ErroAutenticacao.class);
+		CompletableFuture<Usuario> erro = new CompletableFuture<>();
+		erro.completeExceptionally(new ErroAutenticacao("Email ou senha inválidos"));
+		Mockito.when(service.autenticar(email, senha)).thenReturn(erro);
 		
 		// Transforma DTO em JSON
 		String json =  new ObjectMapper().writeValueAsString(dto);
@@ -107,13 +137,51 @@ public class UsuarioResourceTest {
 												                      .contentType(JSON)
 												                      .content(json);
 			
-		// executa a requisição e as verificações
+		// executa a requisição, aguarda a verificação da senha e faz as verificações
+		MvcResult resultado = mvc.perform(request).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
 		mvc
-		.perform(request)
+		.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
 		.andExpect(MockMvcResultMatchers.status().isBadRequest());
 		
 	}
 	
+	@Test
+	public void deveRetornarServicoIndisponivelComAFilaDeSenhasCheia() throws Exception {
+		
+		//CENÁRIO
+		UsuarioDTO dto =  UsuarioDTO.builder().email("usuario@email.com").senha("123").build();
+		CompletableFuture<Usuario> recusada = new CompletableFuture<>();
+		recusada.completeExceptionally(new SobrecargaException("Servidor sobrecarregado. Tente novamente em instantes"));
+		Mockito.when(service.autenticar("usuario@email.com", "123")).thenReturn(recusada);
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.post(API.concat("/autenticar"))
+				                                                .accept(JSON)
+				                                                .contentType(JSON)
+				                                                .content(new ObjectMapper().writeValueAsString(dto)))
+				                 .andReturn();
+		mvc
+		.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+		.andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+		.andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
+	}
+	
+	@Test
+	public void deveRetornarServicoIndisponivelAoCriarUmUsuarioComAFilaDeSenhasCheia() throws Exception {
+		
+		//CENÁRIO
+		UsuarioDTO dto =  UsuarioDTO.builder().email("usuario@email.com").senha("123").build();
+		Mockito.when(service.salvarUsuario(Mockito.any(Usuario.class)))
+		       .thenThrow(new SobrecargaException("Servidor sobrecarregado. Tente novamente em instantes"));
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc
+		.perform(MockMvcRequestBuilders.post(API).accept(JSON).contentType(JSON)
+				                       .content(new ObjectMapper().writeValueAsString(dto)))
+		.andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+		.andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
+	}
+	
 	@Test
 	public void deveCriarUmNovoUsuario() throws Exception {
 		
@@ -181,6 +249,175 @@ public class UsuarioResourceTest {
 		.andExpect(MockMvcResultMatchers.status().isBadRequest());
 		
 	}
-
+	
+	@Test
+	public void deveObterOSaldoDoUsuario() throws Exception {
+		
+		//CENÁRIO
+		SaldoDTO saldo = SaldoDTO.of(Arrays.asList(
+				new SaldoStatusDTO(StatusLancamento.PENDENTE, Dinheiro.reais(100), Dinheiro.reais(30))));
+		Mockito.when(lancamentoService.obterSaldoDetalhadoPorUsuario(1l)).thenReturn(saldo);
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo"))
+				                                                      .accept(JSON);
+		mvc
+		.perform(request)
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.content().string("70.00"));
+		
+		// Havendo lançamentos não é necessário consultar o usuário
+		Mockito.verify(service, Mockito.never()).obterPorId(1l);
+	}
+	
+	@Test
+	public void deveObterOSaldoDetalhadoDoUsuario() throws Exception {
+		
+		//CENÁRIO
+		SaldoDTO saldo = SaldoDTO.of(Arrays.asList(
+				new SaldoStatusDTO(StatusLancamento.PENDENTE, Dinheiro.reais(100), Dinheiro.reais(30))));
+		Mockito.when(lancamentoService.obterSaldoDetalhadoPorUsuario(1l)).thenReturn(saldo);
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo/detalhado"))
+				                                                      .accept(JSON);
+		mvc
+		.perform(request)
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("receitas").value(100))
+		.andExpect(MockMvcResultMatchers.jsonPath("despesas").value(30))
+		.andExpect(MockMvcResultMatchers.jsonPath("saldo").value(70))
+		.andExpect(MockMvcResultMatchers.jsonPath("porStatus.PENDENTE.saldo").value(70));
+	}
+	
+	@Test
+	public void deveRetornarNotFoundAoObterSaldoDeUsuarioInexistente() throws Exception {
+		
+		//CENÁRIO
+		Mockito.when(lancamentoService.obterSaldoDetalhadoPorUsuario(1l)).thenReturn(SaldoDTO.of(Collections.emptyList()));
+		Mockito.when(service.obterPorId(1l)).thenReturn(Optional.empty());
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo"))
+				                                                      .accept(JSON);
+		mvc
+		.perform(request)
+		.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+	
+	@Test
+	public void deveObterOFluxoDeCaixaDoAno() throws Exception {
+		
+		//CENÁRIO
+		YearMonth janeiro = YearMonth.of(2022, 1);
+		YearMonth dezembro = YearMonth.of(2022, 12);
+		FluxoCaixaDTO fluxo = FluxoCaixaDTO.of(janeiro, dezembro, Arrays.asList(
+				new SaldoMensalStatusDTO(2022, 3, StatusLancamento.EFETIVADO, Dinheiro.reais(100), Dinheiro.reais(40))));
+		Mockito.when(lancamentoService.obterFluxoDeCaixa(1l, janeiro, dezembro)).thenReturn(fluxo);
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc
+		.perform(MockMvcRequestBuilders.get(API.concat("/1/fluxo?ano=2022")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("meses.length()").value(12))
+		.andExpect(MockMvcResultMatchers.jsonPath("meses[2].saldo").value(60))
+		.andExpect(MockMvcResultMatchers.jsonPath("meses[2].porStatus.EFETIVADO.receitas").value(100))
+		.andExpect(MockMvcResultMatchers.jsonPath("meses[0].saldo").value(0))
+		.andExpect(MockMvcResultMatchers.jsonPath("total.saldo").value(60));
+	}
+	
+	@Test
+	public void deveObterOFluxoDosUltimosDozeMeses() throws Exception {
+		
+		//CENÁRIO
+		YearMonth inicio = YearMonth.of(2021, 7);
+		YearMonth fim = YearMonth.of(2022, 6);
+		Mockito.when(lancamentoService.obterFluxoDeCaixa(1l, inicio, fim))
+		       .thenReturn(FluxoCaixaDTO.of(inicio, fim, Collections.emptyList()));
+		Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(new Usuario()));
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc
+		.perform(MockMvcRequestBuilders.get(API.concat("/1/fluxo?ate=2022-06")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("inicio").value("2021-07"))
+		.andExpect(MockMvcResultMatchers.jsonPath("meses.length()").value(12));
+	}
+	
+	@Test
+	public void deveRetornarBadRequestParaUmPeriodoInvalido() throws Exception {
+		
+		mvc
+		.perform(MockMvcRequestBuilders.get(API.concat("/1/fluxo?ate=junho")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	public void deveAnalisarAsDespesasEfetivadasDeUmPeriodo() throws Exception {
+		
+		//CENÁRIO
+		YearMonth janeiro = YearMonth.of(2022, 1);
+		YearMonth marco = YearMonth.of(2022, 3);
+		FluxoCaixaDTO fluxo = FluxoCaixaDTO.of(janeiro, marco, Arrays.asList(
+				new SaldoMensalStatusDTO(2022, 2, StatusLancamento.EFETIVADO, Dinheiro.ZERO, Dinheiro.reais(40))));
+		Mockito.when(lancamentoService.analisar(1l, janeiro, marco, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO))
+		       .thenReturn(fluxo);
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc
+		.perform(MockMvcRequestBuilders.get(API.concat("/1/analise?inicio=2022-01&fim=2022-03&tipo=DESPESA&status=EFETIVADO"))
+				                       .accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("meses.length()").value(3))
+		.andExpect(MockMvcResultMatchers.jsonPath("meses[1].despesas").value(40))
+		.andExpect(MockMvcResultMatchers.jsonPath("total.saldo").value(-40));
+	}
+	
+	@Test
+	public void deveRetornarBadRequestParaUmTipoInvalidoNaAnalise() throws Exception {
+		
+		mvc
+		.perform(MockMvcRequestBuilders.get(API.concat("/1/analise?tipo=TRANSFERENCIA")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	public void deveObterOSaldoEmUmaData() throws Exception {
+		
+		//CENÁRIO
+		Mockito.when(lancamentoService.obterSaldoEm(1l, LocalDate.of(2022, 1, 15))).thenReturn(Dinheiro.reais(50));
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc
+		.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo?data=2022-01-15")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.content().string("50.00"));
+		
+		Mockito.verify(lancamentoService, Mockito.never()).obterSaldoDetalhadoPorUsuario(1l);
+	}
+	
+	@Test
+	public void deveObterACurvaDeSaldoDoPeriodo() throws Exception {
+		
+		//CENÁRIO
+		LocalDate inicio = LocalDate.of(2022, 1, 1);
+		LocalDate fim = LocalDate.of(2022, 1, 31);
+		CurvaSaldoDTO curva = CurvaSaldoDTO.builder()
+				.inicio(inicio)
+				.fim(fim)
+				.saldoInicial(Dinheiro.reais(10))
+				.saldoFinal(Dinheiro.reais(40))
+				.pontos(Arrays.asList(new PontoSaldoDTO(LocalDate.of(2022, 1, 10), Dinheiro.reais(30), Dinheiro.reais(40))))
+				.build();
+		Mockito.when(lancamentoService.obterCurvaSaldo(1l, inicio, fim)).thenReturn(curva);
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc
+		.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo/diario?inicio=2022-01-01&fim=2022-01-31")).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("saldoInicial").value(10))
+		.andExpect(MockMvcResultMatchers.jsonPath("pontos[0].data").value("2022-01-10"))
+		.andExpect(MockMvcResultMatchers.jsonPath("pontos[0].saldo").value(40));
+	}
 
 }
@@ -0,0 +1,124 @@
+package com.gef.minhasFinancas.api.seguranca;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.gef.minhasFinancas.service.seguranca.TokenAcesso;
+
+// Com o token exigido como em produção: a chave administrativa basta, e o token de usuário não a substitui.
+@SpringBootTest(properties = "minhasfinancas.token.obrigatorio=true")
+@RunWith(SpringRunner.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class FiltroAdministrativoTest {
+	
+	static final String INVALIDACOES = "/api/caches/invalidacoes";
+	static final String INVALIDACAO = "{\"regiao\": \"SALDO\"}";
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Autowired
+	TokenAcesso tokenAcesso;
+	
+	@Test
+	public void deveAceitarAInvalidacaoComAChaveAdministrativa() throws Exception {
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc.perform(MockMvcRequestBuilders.post(INVALIDACOES).contentType(MediaType.APPLICATION_JSON).content(INVALIDACAO)
+				                          .header(FiltroAdministrativo.CABECALHO, "chave-dos-testes"))
+		   .andExpect(MockMvcResultMatchers.status().isNoContent());
+	}
+	
+	@Test
+	public void deveRecusarAInvalidacaoSemAChaveAdministrativa() throws Exception {
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc.perform(MockMvcRequestBuilders.post(INVALIDACOES).contentType(MediaType.APPLICATION_JSON).content(INVALIDACAO))
+		   .andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.post(INVALIDACOES).contentType(MediaType.APPLICATION_JSON).content(INVALIDACAO)
+				                          .header(FiltroAdministrativo.CABECALHO, "outra-chave"))
+		   .andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.post(INVALIDACOES).contentType(MediaType.APPLICATION_JSON).content(INVALIDACAO)
+				                          .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenAcesso.emitir(1l)))
+		   .andExpect(MockMvcResultMatchers.status().isForbidden());
+	}
+	
+	@Test
+	public void deveExigirAChaveNasVariacoesDoCaminhoQueChegamAoMesmoEndpoint() throws Exception {
+		
+		//CENÁRIO
+		String token = "Bearer " + tokenAcesso.emitir(1l);
+		
+		// EXECUÇÃO E VERIFICAÇÃO: barra final, barra dupla e extensão também levam ao CacheResource
+		for (String caminho : new String[] { INVALIDACOES + "/", "/api//caches/invalidacoes", INVALIDACOES + ".json" }) {
+			mvc.perform(MockMvcRequestBuilders.post(caminho).contentType(MediaType.APPLICATION_JSON).content(INVALIDACAO)
+					                          .header(HttpHeaders.AUTHORIZATION, token))
+			   .andExpect(MockMvcResultMatchers.status().isForbidden());
+		}
+		mvc.perform(MockMvcRequestBuilders.post(INVALIDACOES + "/").contentType(MediaType.APPLICATION_JSON).content(INVALIDACAO)
+				                          .header(FiltroAdministrativo.CABECALHO, "chave-dos-testes"))
+		   .andExpect(MockMvcResultMatchers.status().isNoContent());
+	}
+	
+	@Test
+	public void deveExigirAChaveAdministrativaNosRelatorios() throws Exception {
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc.perform(MockMvcRequestBuilders.get("/api/relatorios")
+				                          .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenAcesso.emitir(1l)))
+		   .andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.delete("/api/relatorios/1")
+				                          .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenAcesso.emitir(1l)))
+		   .andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.get("/api/relatorios").header(FiltroAdministrativo.CABECALHO, "chave-dos-testes"))
+		   .andExpect(MockMvcResultMatchers.status().isOk());
+	}
+	
+	@Test
+	public void deveExigirAChaveNasEstatisticasInternas() throws Exception {
+		
+		//CENÁRIO
+		String token = "Bearer " + tokenAcesso.emitir(1l);
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		for (String caminho : new String[] { "/api/caches", "/api/caches/tokens", "/api/executores", "/api/limites" }) {
+			mvc.perform(MockMvcRequestBuilders.get(caminho).header(HttpHeaders.AUTHORIZATION, token))
+			   .andExpect(MockMvcResultMatchers.status().isForbidden());
+			mvc.perform(MockMvcRequestBuilders.get(caminho).header(FiltroAdministrativo.CABECALHO, "chave-dos-testes"))
+			   .andExpect(MockMvcResultMatchers.status().isOk());
+		}
+	}
+	
+	@Test
+	public void deveRecusarTudoSemChaveConfigurada() throws Exception {
+		
+		//CENÁRIO
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", INVALIDACOES);
+		request.addHeader(FiltroAdministrativo.CABECALHO, "");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		
+		// EXECUÇÃO
+		new FiltroAdministrativo("", INVALIDACOES).doFilter(request, response, chain);
+		
+		// VERIFICAÇÃO
+		Assertions.assertThat(response.getStatus()).isEqualTo(403);
+		Assertions.assertThat(chain.getRequest()).isNull();
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.gef.minhasFinancas.api.seguranca;
+
+import java.net.URI;
+
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.gef.minhasFinancas.service.seguranca.TokenAcesso;
+
+// O perfil de teste desliga o limite; aqui ele é ligado com regras de 1 requisição por minuto.
+@SpringBootTest(properties = {
+		"minhasfinancas.limite.ativo=true",
+		"minhasfinancas.limite.endpoints=GET /api/usuarios/*/saldo=0.0167,2;POST /api/usuarios/autenticar=0.0167,1"
+})
+@RunWith(SpringRunner.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class FiltroLimiteTest {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	TokenAcesso tokenAcesso;
+
+	@Test
+	public void deveRecusarAcimaDoLimiteDoUsuarioComRetryAfter() throws Exception {
+
+		// CENÁRIO: a rajada de 2 requisições do usuário 999
+		String token = "Bearer " + tokenAcesso.emitir(999l);
+		for (int i = 0; i < 2; i++) {
+			mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/999/saldo").header(HttpHeaders.AUTHORIZATION, token))
+			   .andExpect(MockMvcResultMatchers.status().is(Matchers.not(429)));
+		}
+
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/999/saldo").header(HttpHeaders.AUTHORIZATION, token))
+		   .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+		   .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "60"));
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/998/saldo")
+				                          .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenAcesso.emitir(998l)))
+		   .andExpect(MockMvcResultMatchers.status().is(Matchers.not(429)));
+		mvc.perform(MockMvcRequestBuilders.get("/api/limites").header(FiltroAdministrativo.CABECALHO, "chave-dos-testes"))
+		   .andExpect(MockMvcResultMatchers.jsonPath("$[0].regra").value("GET /api/usuarios/*/saldo"))
+		   .andExpect(MockMvcResultMatchers.jsonPath("$[0].recusadas").value(Matchers.greaterThanOrEqualTo(1)));
+	}
+
+	@Test
+	public void deveLimitarSemTokenPelaOrigemEmVezDoUsuarioInformado() throws Exception {
+
+		// CENÁRIO: a única tentativa de login da origem
+		mvc.perform(MockMvcRequestBuilders.post("/api/usuarios/autenticar").param("usuario", "1")
+				                          .contentType(MediaType.APPLICATION_JSON).content("{}"));
+
+		// EXECUÇÃO E VERIFICAÇÃO: trocar o "usuario" informado não abre um balde novo
+		mvc.perform(MockMvcRequestBuilders.post("/api/usuarios/autenticar").param("usuario", "2")
+				                          .contentType(MediaType.APPLICATION_JSON).content("{}"))
+		   .andExpect(MockMvcResultMatchers.status().isTooManyRequests());
+	}
+
+	@Test
+	public void deveAplicarARegraAoCaminhoComoOSpringOInterpreta() throws Exception {
+
+		// CENÁRIO: a rajada do usuário 997
+		String token = "Bearer " + tokenAcesso.emitir(997l);
+		for (int i = 0; i < 2; i++) {
+			mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/997/saldo").header(HttpHeaders.AUTHORIZATION, token))
+			   .andExpect(MockMvcResultMatchers.status().is(Matchers.not(429)));
+		}
+
+		// EXECUÇÃO E VERIFICAÇÃO: variações da URL que levam ao mesmo handler caem na mesma regra
+		for (String caminho : new String[] { "/api/usuarios/997/saldo;x=1", "/api//usuarios/997/saldo",
+				                             "/api/usuarios/997/%73aldo" }) {
+			mvc.perform(MockMvcRequestBuilders.get(URI.create(caminho)).header(HttpHeaders.AUTHORIZATION, token))
+			   .andExpect(MockMvcResultMatchers.status().isTooManyRequests());
+		}
+	}
+
+}
@@ -0,0 +1,158 @@
+package com.gef.minhasFinancas.api.seguranca;
+
+import java.net.URI;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gef.minhasFinancas.api.dto.UsuarioDTO;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.repository.LancamentoRepositoryTest;
+import com.gef.minhasFinancas.model.repository.UsuarioRepository;
+import com.gef.minhasFinancas.service.seguranca.TokenAcesso;
+
+// O perfil de teste dispensa o token; aqui ele é exigido como em produção.
+@SpringBootTest(properties = "minhasfinancas.token.obrigatorio=true")
+@RunWith(SpringRunner.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class FiltroTokenTest {
+	
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Autowired
+	TokenAcesso tokenAcesso;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Usuario usuario;
+	
+	@Before
+	public void criarUsuario() {
+		usuario = usuarioRepository.save(LancamentoRepositoryTest.criarUsuario());
+	}
+	
+	@After
+	public void limparBase() {
+		jdbcTemplate.update("delete from financas.saldo_diario");
+		jdbcTemplate.update("delete from financas.saldo_usuario");
+		jdbcTemplate.update("delete from financas.lancamento");
+		jdbcTemplate.update("delete from financas.usuario");
+	}
+	
+	@Test
+	public void deveRecusarAsRequisicoesSemTokenValido() throws Exception {
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/" + usuario.getId() + "/saldo"))
+		   .andExpect(MockMvcResultMatchers.status().isUnauthorized())
+		   .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"));
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/" + usuario.getId() + "/saldo")
+				                          .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenAcesso.emitir(usuario.getId()) + "x"))
+		   .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+	}
+	
+	@Test
+	public void deveCadastrarAutenticarEUsarOToken() throws Exception {
+		
+		//CENÁRIO
+		String json = new ObjectMapper().writeValueAsString(
+				UsuarioDTO.builder().nome("novo").email("novo@email.com").senha("senha").build());
+		mvc.perform(MockMvcRequestBuilders.post("/api/usuarios").contentType(JSON).content(json))
+		   .andExpect(MockMvcResultMatchers.status().isCreated());
+		
+		MvcResult login = mvc.perform(MockMvcRequestBuilders.post("/api/usuarios/autenticar").contentType(JSON).content(json))
+				             .andReturn();
+		String resposta = mvc.perform(MockMvcRequestBuilders.asyncDispatch(login))
+				             .andExpect(MockMvcResultMatchers.status().isOk())
+				             .andReturn().getResponse().getContentAsString();
+		String token = new ObjectMapper().readTree(resposta).get("token").asText();
+		long id = new ObjectMapper().readTree(resposta).get("id").asLong();
+		
+		// EXECUÇÃO E VERIFICAÇÃO: sem lançamentos o saldo é zero, e a busca usa o usuário do token
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/" + id + "/saldo")
+				                          .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+		   .andExpect(MockMvcResultMatchers.status().isOk());
+		
+		MvcResult busca = mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos")
+				                                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				             .andExpect(MockMvcResultMatchers.request().asyncStarted())
+				             .andReturn();
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(busca))
+		   .andExpect(MockMvcResultMatchers.status().isOk())
+		   .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(0));
+	}
+	
+	@Test
+	public void deveRecusarOAcessoAosDadosDeOutroUsuario() throws Exception {
+		
+		//CENÁRIO
+		String token = "Bearer " + tokenAcesso.emitir(usuario.getId());
+		long outro = usuario.getId() + 1;
+		
+		// EXECUÇÃO E VERIFICAÇÃO
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/" + outro + "/saldo").header(HttpHeaders.AUTHORIZATION, token))
+		   .andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", String.valueOf(outro))
+				                          .header(HttpHeaders.AUTHORIZATION, token))
+		   .andExpect(MockMvcResultMatchers.status().isForbidden());
+		
+		// O usuário do lançamento vem no corpo e é conferido pelo resource
+		MvcResult salvar = mvc.perform(MockMvcRequestBuilders.post("/api/lancamentos").header(HttpHeaders.AUTHORIZATION, token)
+				                                             .contentType(JSON)
+				                                             .content("{\"descricao\":\"x\",\"mes\":1,\"ano\":2022,\"valor\":10,"
+				                                            		  + "\"tipo\":\"RECEITA\",\"usuario\":" + outro + "}"))
+				              .andReturn();
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(salvar))
+		   .andExpect(MockMvcResultMatchers.status().isForbidden());
+	}
+	
+	@Test
+	public void deveConferirOUsuarioNoCaminhoComoOSpringOInterpreta() throws Exception {
+		
+		//CENÁRIO
+		String token = "Bearer " + tokenAcesso.emitir(usuario.getId());
+		long outro = usuarioRepository.save(Usuario.builder().nome("outro").email("outro@email.com").senha("senha").build())
+				                      .getId();
+		StringBuilder codificado = new StringBuilder();
+		for (char digito : String.valueOf(outro).toCharArray()) {
+			codificado.append("%3").append(digito);
+		}
+		
+		// EXECUÇÃO E VERIFICAÇÃO: ";...", "//" e dígitos codificados chegam ao handler como o id do outro usuário
+		for (String caminho : new String[] { "/api/usuarios/" + outro + ";x=1/saldo", "/api/usuarios;x=1/" + outro + "/saldo",
+				                             "/api//usuarios/" + outro + "/saldo", "/api/usuarios/" + codificado + "/saldo" }) {
+			mvc.perform(MockMvcRequestBuilders.get(URI.create(caminho)).header(HttpHeaders.AUTHORIZATION, token))
+			   .andExpect(MockMvcResultMatchers.status().isForbidden());
+		}
+		mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", "0x" + Long.toHexString(outro))
+				                          .header(HttpHeaders.AUTHORIZATION, token))
+		   .andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.get(URI.create("/api/usuarios/" + usuario.getId() + ";x=1/saldo"))
+				                          .header(HttpHeaders.AUTHORIZATION, token))
+		   .andExpect(MockMvcResultMatchers.status().isOk());
+	}
+
+}
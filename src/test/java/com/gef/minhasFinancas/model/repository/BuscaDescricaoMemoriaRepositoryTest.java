@@ -0,0 +1,111 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.gef.minhasFinancas.api.dto.OcorrenciaDescricaoDTO;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class BuscaDescricaoMemoriaRepositoryTest {
+	
+	@SpyBean
+	BuscaDescricaoMemoriaRepository repository;
+	
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+	
+	// O bean é compartilhado entre os testes: descarta o índice montado pelo teste anterior.
+	@Before
+	public void descartarIndice() {
+		repository.invalidar(1l);
+	}
+	
+	@Test
+	public void deveBuscarPorTrechoOrdenandoPelaRelevancia() {
+		
+		// Cenário
+		Mockito.when(lancamentoRepository.obterDescricoesPorUsuario(1l)).thenReturn(descricoes());
+		
+		// Ação
+		List<OcorrenciaDescricaoDTO> ocorrencias = repository.buscar(1l, "SALÁRIO", false, 10);
+		
+		// Verificação
+		Assertions.assertThat(ocorrencias).extracting(OcorrenciaDescricaoDTO::getId).containsExactly(1l, 2l);
+		Assertions.assertThat(ocorrencias.get(0).getRelevancia()).isGreaterThan(ocorrencias.get(1).getRelevancia());
+	}
+	
+	@Test
+	public void deveBuscarPorTrechoCurto() {
+		
+		// Cenário
+		Mockito.when(lancamentoRepository.obterDescricoesPorUsuario(1l)).thenReturn(descricoes());
+		
+		// Ação
+		List<OcorrenciaDescricaoDTO> ocorrencias = repository.buscar(1l, "uz", false, 10);
+		
+		// Verificação
+		Assertions.assertThat(ocorrencias).extracting(OcorrenciaDescricaoDTO::getId).containsExactly(3l);
+	}
+	
+	@Test
+	public void deveBuscarPorPrefixoDasPalavras() {
+		
+		// Cenário
+		Mockito.when(lancamentoRepository.obterDescricoesPorUsuario(1l)).thenReturn(descricoes());
+		
+		// Ação
+		List<OcorrenciaDescricaoDTO> ocorrencias = repository.buscar(1l, "sal jan", true, 10);
+		
+		// Verificação
+		Assertions.assertThat(ocorrencias).extracting(OcorrenciaDescricaoDTO::getId).containsExactly(2l);
+	}
+	
+	@Test
+	public void deveRespeitarOLimite() {
+		
+		// Cenário
+		Mockito.when(lancamentoRepository.obterDescricoesPorUsuario(1l)).thenReturn(descricoes());
+		
+		// Ação
+		List<OcorrenciaDescricaoDTO> ocorrencias = repository.buscar(1l, "sal", true, 1);
+		
+		// Verificação
+		Assertions.assertThat(ocorrencias).hasSize(1);
+	}
+	
+	@Test
+	public void deveMontarOIndiceUmaVezAteSerInvalidado() {
+		
+		// Cenário
+		Mockito.when(lancamentoRepository.obterDescricoesPorUsuario(1l)).thenReturn(descricoes());
+		
+		// Ação
+		repository.buscar(1l, "sal", false, 10);
+		repository.buscar(1l, "luz", false, 10);
+		repository.invalidar(1l);
+		repository.buscar(1l, "sal", false, 10);
+		
+		// Verificação
+		Mockito.verify(lancamentoRepository, Mockito.times(2)).obterDescricoesPorUsuario(1l);
+	}
+	
+	private List<Object[]> descricoes() {
+		return Arrays.asList(
+				new Object[] {1l, "Salário"},
+				new Object[] {2l, "Salário de janeiro"},
+				new Object[] {3l, "Conta de luz"},
+				new Object[] {4l, null});
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.gef.minhasFinancas.model.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class BuscaDescricaoPostgresRepositoryTest {
+	
+	@Test
+	public void deveMontarAConsultaPorPrefixoSomenteComPalavras() {
+		Assertions.assertThat(BuscaDescricaoPostgresRepository.consultaPorPrefixo("Sal  jan!"))
+		          .isEqualTo("sal:* & jan:*");
+		Assertions.assertThat(BuscaDescricaoPostgresRepository.consultaPorPrefixo("'&|:")).isEmpty();
+	}
+	
+	@Test
+	public void deveEscaparOsCaracteresEspeciaisDoLike() {
+		Assertions.assertThat(BuscaDescricaoPostgresRepository.escaparLike("50%_a\\b"))
+		          .isEqualTo("50\\%\\_a\\\\b");
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Guarda os comandos SQL gerados pelo Hibernate para os testes poderem inspecioná-los.
+// Registrado com spring.jpa.properties.hibernate.session_factory.statement_inspector.
+@SuppressWarnings("serial")
+public class ColetorSql implements StatementInspector {
+	
+	private static final List<String> comandos = new ArrayList<>();
+
+	@Override
+	public String inspect(String sql) {
+		synchronized (comandos) {
+			comandos.add(sql);
+		}
+		return sql;
+	}
+	
+	public static void limpar() {
+		synchronized (comandos) {
+			comandos.clear();
+		}
+	}
+	
+	public static List<String> comandos() {
+		synchronized (comandos) {
+			return new ArrayList<>(comandos);
+		}
+	}
+	
+	public static String ultimo() {
+		synchronized (comandos) {
+			return comandos.get(comandos.size() - 1);
+		}
+	}
+
+}
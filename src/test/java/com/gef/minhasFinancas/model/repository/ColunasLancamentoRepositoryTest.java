@@ -0,0 +1,131 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO;
+import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+public class ColunasLancamentoRepositoryTest {
+
+	static final YearMonth JANEIRO = YearMonth.of(2022, 1);
+	static final YearMonth MARCO = YearMonth.of(2022, 3);
+
+	LancamentoRepository lancamentoRepository;
+	ColunasLancamentoRepository repository;
+
+	@Before
+	public void criarRepositorio() {
+		lancamentoRepository = Mockito.mock(LancamentoRepository.class);
+		repository = new ColunasLancamentoRepository(lancamentoRepository, 1);
+	}
+
+	@Test
+	public void deveAgruparPorMesEStatusLancamentosForaDeOrdem() {
+
+		// Cenário
+		Mockito.when(lancamentoRepository.obterColunasPorUsuario(1l)).thenReturn(Arrays.asList(
+				linha(50, 2022, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO),
+				linha(100, 2022, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE),
+				linha(30, 2022, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE),
+				linha(999, 2021, 12, TipoLancamento.RECEITA, StatusLancamento.PENDENTE),
+				linha(20, 2022, 3, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO)));
+
+		// Ação
+		List<SaldoMensalStatusDTO> linhas = repository.agruparPorMesEStatus(1l, JANEIRO, MARCO, null, null);
+
+		// Verificação
+		Assertions.assertThat(linhas).containsExactly(
+				new SaldoMensalStatusDTO(2022, 1, StatusLancamento.PENDENTE, Dinheiro.reais(100), Dinheiro.reais(30)),
+				new SaldoMensalStatusDTO(2022, 3, StatusLancamento.EFETIVADO, Dinheiro.reais(20), Dinheiro.reais(50)));
+	}
+
+	@Test
+	public void deveFiltrarPorTipoEStatus() {
+
+		// Cenário
+		Mockito.when(lancamentoRepository.obterColunasPorUsuario(1l)).thenReturn(Arrays.asList(
+				linha(100, 2022, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE),
+				linha(30, 2022, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE),
+				linha(50, 2022, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO)));
+
+		// Ação
+		List<SaldoMensalStatusDTO> linhas = repository.agruparPorMesEStatus(
+				1l, JANEIRO, MARCO, TipoLancamento.DESPESA, StatusLancamento.PENDENTE);
+
+		// Verificação
+		Assertions.assertThat(linhas).containsExactly(
+				new SaldoMensalStatusDTO(2022, 1, StatusLancamento.PENDENTE, Dinheiro.ZERO, Dinheiro.reais(30)));
+		Assertions.assertThat(repository.agruparPorMesEStatus(1l, YearMonth.of(2023, 1), YearMonth.of(2023, 12), null, null))
+		          .isEmpty();
+	}
+
+	@Test
+	public void deveMontarAsColunasUmaVezAteAInvalidacao() {
+
+		// Cenário
+		Mockito.when(lancamentoRepository.obterColunasPorUsuario(1l)).thenReturn(Collections.singletonList(
+				linha(100, 2022, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE)));
+
+		// Ação
+		repository.agruparPorMesEStatus(1l, JANEIRO, MARCO, null, null);
+		repository.agruparPorMesEStatus(1l, JANEIRO, MARCO, TipoLancamento.RECEITA, null);
+		repository.invalidar(1l);
+		repository.agruparPorMesEStatus(1l, JANEIRO, MARCO, null, null);
+
+		// Verificação
+		Mockito.verify(lancamentoRepository, Mockito.times(2)).obterColunasPorUsuario(1l);
+		Assertions.assertThat(repository.obterEstatisticas().getAcertos()).isEqualTo(1);
+		Assertions.assertThat(repository.obterEstatisticas().getFaltas()).isEqualTo(2);
+	}
+
+	@Test
+	public void deveRemoverOUsuarioConsultadoHaMaisTempoAoPassarDaMemoria() {
+
+		// Cenário: 50 mil lançamentos ocupam cerca de 600 KB, então só cabe um usuário em 1 MB
+		List<Object[]> linhas = new ArrayList<>(Collections.nCopies(50_000,
+				linha(10, 2022, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE)));
+		Mockito.when(lancamentoRepository.obterColunasPorUsuario(Mockito.anyLong())).thenReturn(linhas);
+
+		// Ação
+		repository.agruparPorMesEStatus(1l, JANEIRO, MARCO, null, null);
+		repository.agruparPorMesEStatus(2l, JANEIRO, MARCO, null, null);
+		repository.agruparPorMesEStatus(2l, JANEIRO, MARCO, null, null);
+		repository.agruparPorMesEStatus(1l, JANEIRO, MARCO, null, null);
+
+		// Verificação
+		Mockito.verify(lancamentoRepository, Mockito.times(2)).obterColunasPorUsuario(1l);
+		Assertions.assertThat(repository.obterEstatisticas().getTamanho()).isEqualTo(1);
+		Assertions.assertThat(repository.obterEstatisticas().getRemocoes()).isEqualTo(2);
+		Assertions.assertThat(repository.obterEstatisticas().getMemoria()).isLessThanOrEqualTo(1024 * 1024);
+	}
+
+	@Test
+	public void deveRecusarUmAnoForaDoIntervaloDasColunas() {
+
+		// Cenário
+		Mockito.when(lancamentoRepository.obterColunasPorUsuario(1l)).thenReturn(Collections.singletonList(
+				linha(100, ColunasLancamento.ANO_MAXIMO + 1, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE)));
+
+		// Ação e Verificação
+		Assertions.assertThatThrownBy(() -> repository.agruparPorMesEStatus(1l, JANEIRO, MARCO, null, null))
+		          .isInstanceOf(RegraNegocioException.class);
+		Assertions.assertThat(repository.obterEstatisticas().getTamanho()).isZero();
+	}
+
+	private static Object[] linha(long reais, int ano, int mes, TipoLancamento tipo, StatusLancamento status) {
+		return new Object[] { Dinheiro.reais(reais), ano, mes, tipo, status };
+	}
+
+}
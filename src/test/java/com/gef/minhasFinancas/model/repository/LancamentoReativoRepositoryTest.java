@@ -0,0 +1,169 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.gef.minhasFinancas.api.dto.LancamentoDTO;
+import com.gef.minhasFinancas.api.dto.SaldoDTO;
+import com.gef.minhasFinancas.api.dto.SaldoStatusDTO;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+import com.gef.minhasFinancas.service.LancamentoService;
+
+// O caminho R2DBC lê o que o JPA gravou e deve filtrar exatamente como LancamentoServiceImpl.buscar.
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class LancamentoReativoRepositoryTest {
+	
+	@Autowired
+	LancamentoReativoRepository repository;
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Usuario usuario;
+	
+	@Before
+	public void criarLancamentos() {
+		usuario = usuarioRepository.save(LancamentoRepositoryTest.criarUsuario());
+		Usuario outro = LancamentoRepositoryTest.criarUsuario();
+		outro.setEmail("outro@email.com");
+		outro = usuarioRepository.save(outro);
+		
+		salvar(usuario, "Salário de Janeiro", 2022, 1, 1000, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO);
+		salvar(usuario, "Aluguel", 2022, 1, 400, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO);
+		salvar(usuario, "salário de fevereiro", 2022, 2, 1000, TipoLancamento.RECEITA, StatusLancamento.PENDENTE);
+		salvar(usuario, "Mercado", 2023, 1, 250, TipoLancamento.DESPESA, StatusLancamento.CANCELADO);
+		salvar(outro, "Salário", 2022, 1, 3000, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO);
+	}
+	
+	@After
+	public void limparBase() {
+		jdbcTemplate.update("delete from financas.saldo_diario");
+		jdbcTemplate.update("delete from financas.saldo_usuario");
+		jdbcTemplate.update("delete from financas.lancamento");
+		jdbcTemplate.update("delete from financas.usuario");
+	}
+	
+	@Test
+	public void deveFiltrarComoABuscaDoServico() {
+		
+		// Cenário: cada filtro aceito por LancamentoServiceImpl.buscar, sozinho e combinado
+		List<Lancamento> filtros = Arrays.asList(
+				filtro().build(),
+				filtro().descricao("SALÁRIO").build(),
+				filtro().descricao("ário de").build(),
+				filtro().mes(1).build(),
+				filtro().ano(2022).build(),
+				filtro().tipo(TipoLancamento.DESPESA).build(),
+				filtro().status(StatusLancamento.EFETIVADO).build(),
+				filtro().descricao("salário").ano(2022).mes(2).tipo(TipoLancamento.RECEITA)
+				        .status(StatusLancamento.PENDENTE).build(),
+				filtro().descricao("inexistente").build());
+		
+		for (Lancamento filtro : filtros) {
+			
+			// Ação
+			List<LancamentoDTO> reativos = repository.buscar(filtro).collectList().block();
+			
+			// Verificação
+			List<LancamentoDTO> esperados = lancamentoService.buscar(filtro).stream()
+					                                        .map(LancamentoDTO::de)
+					                                        .collect(Collectors.toList());
+			Assertions.assertThat(reativos).as(filtro.toString()).containsExactlyInAnyOrderElementsOf(esperados);
+		}
+	}
+	
+	@Test
+	public void deveEntregarOsLancamentosNaOrdemDeAnoMesEId() {
+		
+		// Ação
+		List<LancamentoDTO> lancamentos = repository.buscar(filtro().build()).collectList().block();
+		
+		// Verificação
+		Assertions.assertThat(lancamentos).extracting(LancamentoDTO::getDescricao)
+		          .containsExactly("Salário de Janeiro", "Aluguel", "salário de fevereiro", "Mercado");
+	}
+	
+	@Test
+	public void devePararDeLerQuandoOAssinanteCancelar() {
+		
+		// Ação: só o primeiro lançamento é pedido
+		LancamentoDTO primeiro = repository.buscar(filtro().build()).blockFirst();
+		
+		// Verificação: a conexão foi devolvida e uma nova leitura funciona normalmente
+		Assertions.assertThat(primeiro.getDescricao()).isEqualTo("Salário de Janeiro");
+		Assertions.assertThat(repository.buscar(filtro().build()).count().block()).isEqualTo(4);
+	}
+	
+	@Test
+	public void deveCalcularOMesmoSaldoDoJpa() {
+		
+		// Ação
+		List<SaldoStatusDTO> linhas = repository.obterSaldoPorStatusEUsuario(usuario.getId()).collectList().block();
+		
+		// Verificação
+		SaldoDTO esperado = lancamentoService.obterSaldoDetalhadoPorUsuario(usuario.getId());
+		Assertions.assertThat(SaldoDTO.of(linhas).getSaldo()).isEqualByComparingTo(esperado.getSaldo());
+		Assertions.assertThat(SaldoDTO.of(linhas).getPorStatus().keySet()).isEqualTo(esperado.getPorStatus().keySet());
+		Assertions.assertThat(repository.existeUsuario(usuario.getId()).block()).isTrue();
+		Assertions.assertThat(repository.existeUsuario(usuario.getId() + 1000).block()).isFalse();
+	}
+	
+	@Test
+	public void deveLerOSaldoSemStatusComoOJpa() {
+		
+		// Cenário: status é opcional em lancamento e, portanto, em saldo_usuario
+		jdbcTemplate.update("insert into financas.saldo_usuario (id_usuario, tipo, status, ano, mes, valor, quantidade)"
+				            + " values (?, 'DESPESA', null, 2022, 3, 50, 1)", usuario.getId());
+		
+		// Ação
+		List<SaldoStatusDTO> linhas = repository.obterSaldoPorStatusEUsuario(usuario.getId()).collectList().block();
+		
+		// Verificação
+		Assertions.assertThat(linhas).extracting(SaldoStatusDTO::getStatus).containsNull();
+		SaldoDTO esperado = lancamentoService.obterSaldoDetalhadoPorUsuario(usuario.getId());
+		Assertions.assertThat(SaldoDTO.of(linhas).getSaldo()).isEqualByComparingTo(esperado.getSaldo());
+		Assertions.assertThat(esperado.getDespesas()).isEqualTo(Dinheiro.reais(700));
+		Assertions.assertThat(SaldoDTO.of(linhas).getPorStatus().keySet()).isEqualTo(esperado.getPorStatus().keySet());
+	}
+	
+	private Lancamento.LancamentoBuilder filtro() {
+		return Lancamento.builder().usuario(Usuario.builder().id(usuario.getId()).build());
+	}
+	
+	private void salvar(Usuario dono, String descricao, int ano, int mes, int valor, TipoLancamento tipo, StatusLancamento status) {
+		lancamentoService.salva(Lancamento.builder()
+				                          .usuario(dono)
+				                          .descricao(descricao)
+				                          .ano(ano)
+				                          .mes(mes)
+				                          .valor(Dinheiro.reais(valor))
+				                          .tipo(tipo)
+				                          .status(status)
+				                          .build());
+	}
+
+}
@@ -1,8 +1,10 @@
 package com.gef.minhasFinancas.model.repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
@@ -15,11 +17,13 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.gef.minhasFinancas.api.dto.CursorLancamentoDTO;
 import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
 import com.gef.minhasFinancas.model.entity.Usuario;
 import com.gef.minhasFinancas.model.enuns.StatusLancamento;
 import com.gef.minhasFinancas.model.enuns.TipoLancamento;
-
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
 
 @RunWith(SpringRunner.class)
 @DataJpaTest
@@ -115,9 +119,106 @@ public class LancamentoRepositoryTest {
 		Assertions.assertThat(lancamentoEncontrado.isPresent()).isTrue();
 		
 	}
+	@Test
+	public void deveObterOMovimentoGravadoSemConsiderarAlteracoesPendentes() {
+		
+		// Cenário
+		Usuario usuario = criarUsuario();
+		entityManager.persist(usuario);
+		Lancamento lancamento = persistirLancamento(usuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100);
+		entityManager.flush();
+		
+		// Alteração ainda não enviada ao banco
+		lancamento.setStatus(StatusLancamento.EFETIVADO);
+		lancamento.setValor(Dinheiro.reais(70));
+		
+		// Ação
+		Optional<SaldoUsuario> movimento = repository.obterMovimentoGravado(lancamento.getId());
+		
+		// Verificação
+		Assertions.assertThat(movimento.isPresent()).isTrue();
+		Assertions.assertThat(movimento.get().getIdUsuario()).isEqualTo(usuario.getId());
+		Assertions.assertThat(movimento.get().getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		Assertions.assertThat(movimento.get().getValor()).isEqualTo(Dinheiro.reais(100));
+		Assertions.assertThat(movimento.get().getQuantidade()).isEqualTo(1l);
+	}
 	
+	@Test
+	public void deveRecalcularOsSaldosPorMesAPartirDosLancamentos() {
+		
+		// Cenário
+		Usuario usuario = criarUsuario();
+		entityManager.persist(usuario);
+		persistirLancamento(usuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100);
+		persistirLancamento(usuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 50);
+		persistirLancamento(usuario, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 20);
+		Usuario outro = criarUsuario();
+		outro.setEmail("outro@email.com");
+		entityManager.persist(outro);
+		persistirLancamento(outro, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 70);
+		
+		// Ação: só a faixa do primeiro usuário
+		List<SaldoUsuario> saldos = repository.recalcularSaldosPorMes(usuario.getId(), usuario.getId());
+		
+		// Verificação
+		Assertions.assertThat(saldos).hasSize(2);
+		SaldoUsuario receitas = saldos.stream().filter(s -> s.getTipo() == TipoLancamento.RECEITA).findFirst().get();
+		Assertions.assertThat(receitas.getValor()).isEqualTo(Dinheiro.reais(150));
+		Assertions.assertThat(receitas.getQuantidade()).isEqualTo(2l);
+	}
 	
+	@Test
+	public void deveBuscarAProximaPaginaAPartirDoCursor() {
+		
+		// Cenário
+		Usuario usuario = criarUsuario();
+		entityManager.persist(usuario);
+		Lancamento janeiro = persistirLancamento(usuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 10);
+		Lancamento fevereiro = persistirLancamento(usuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 20);
+		fevereiro.setMes(2);
+		Lancamento marco = persistirLancamento(usuario, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 30);
+		marco.setMes(3);
+		Lancamento filtro = Lancamento.builder().usuario(usuario).build();
+		
+		// Ação
+		List<Lancamento> primeira = repository.buscarPagina(filtro, null, 2);
+		List<Lancamento> segunda = repository.buscarPagina(filtro, CursorLancamentoDTO.de(primeira.get(1)), 2);
+		
+		// Verificação
+		Assertions.assertThat(primeira).containsExactly(janeiro, fevereiro);
+		Assertions.assertThat(segunda).containsExactly(marco);
+	}
+	
+	@Test
+	public void deveBuscarOsLancamentosFiltradosEmStream() {
+		
+		// Cenário
+		Usuario usuario = criarUsuario();
+		entityManager.persist(usuario);
+		persistirLancamento(usuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 10);
+		persistirLancamento(usuario, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 20);
+		Lancamento filtro = Lancamento.builder().usuario(usuario).tipo(TipoLancamento.DESPESA).build();
+		
+		// Ação
+		List<Lancamento> lancamentos;
+		try (Stream<Lancamento> stream = repository.buscarEmStream(filtro)) {
+			lancamentos = stream.collect(Collectors.toList());
+		}
+		
+		// Verificação
+		Assertions.assertThat(lancamentos).hasSize(1);
+		Assertions.assertThat(lancamentos.get(0).getTipo()).isEqualTo(TipoLancamento.DESPESA);
+		Assertions.assertThat(entityManager.getEntityManager().contains(lancamentos.get(0))).isFalse();
+	}
 	
+	private Lancamento persistirLancamento(Usuario usuario, TipoLancamento tipo, StatusLancamento status, int valor) {
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setTipo(tipo);
+		lancamento.setStatus(status);
+		lancamento.setValor(Dinheiro.reais(valor));
+		return entityManager.persist(lancamento);
+	}
 	
 	public static Lancamento criarLancamento() {
 
@@ -125,7 +226,7 @@ public class LancamentoRepositoryTest {
 				.ano(2022)
 				.mes(1)
 				.descricao("Salvando um lançamento no teste de integração")
-				.valor(BigDecimal.valueOf(10))
+				.valor(Dinheiro.reais(10))
 				.tipo(TipoLancamento.RECEITA)
 				.status(StatusLancamento.PENDENTE)
 				.dataCadastro(LocalDate.now())
@@ -0,0 +1,140 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+
+// Confere, com o EXPLAIN do H2, que as consultas dos repositórios usam os índices das migrações.
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		                + "com.gef.minhasFinancas.model.repository.ColetorSql")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+public class PlanoConsultaRepositoryTest {
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Autowired
+	SaldoUsuarioRepository saldoUsuarioRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Before
+	public void limparComandos() {
+		ColetorSql.limpar();
+	}
+	
+	@Test
+	public void deveBuscarOUsuarioPeloIndiceDeEmail() {
+		
+		usuarioRepository.findByEmail("usuario@email.com");
+		
+		Assertions.assertThat(plano("usuario@email.com")).containsIgnoringCase("idx_usuario_email");
+	}
+	
+	@Test
+	public void deveVerificarOEmailPeloIndiceDeEmail() {
+		
+		usuarioRepository.existsByEmail("usuario@email.com");
+		
+		Assertions.assertThat(plano("usuario@email.com")).containsIgnoringCase("idx_usuario_email");
+	}
+	
+	@Test
+	public void deveRecalcularOSaldoDoUsuarioPeloIndiceDePeriodo() {
+		
+		lancamentoRepository.recalcularSaldosPorMes(1l);
+		
+		Assertions.assertThat(plano(1l))
+		          .doesNotContain("tableScan")
+		          .containsIgnoringCase("idx_lancamento_usuario_ano_mes");
+	}
+	
+	@Test
+	public void deveFiltrarOPeriodoSemVarrerATabela() {
+		
+		Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(1l).build()).ano(2022).mes(1).build();
+		lancamentoRepository.buscarPagina(filtro, null, 10);
+		
+		// Com a tabela vazia o H2 pode escolher o índice da FK; o essencial é não varrer a tabela
+		Assertions.assertThat(plano(1, 2022, 1l, 10))
+		          .doesNotContain("tableScan")
+		          .containsIgnoringCase("ID_USUARIO = ?");
+	}
+	
+	// O analyze do H2 faz commit, então este teste roda fora da transação e apaga o que gravou.
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void deveFiltrarOPeriodoPeloIndiceDePeriodo() {
+		
+		// Cenário: lançamentos de vários meses e as estatísticas deles, com as quais o H2 deixa o índice da FK
+		Long idUsuario = usuarioRepository.save(LancamentoRepositoryTest.criarUsuario()).getId();
+		try {
+			List<Object[]> lancamentos = new ArrayList<>();
+			for (int ano = 2018; ano <= 2022; ano++) {
+				for (int mes = 1; mes <= 12; mes++) {
+					lancamentos.add(new Object[] { mes, ano, idUsuario });
+					lancamentos.add(new Object[] { mes, ano, idUsuario });
+				}
+			}
+			jdbcTemplate.batchUpdate("insert into financas.lancamento (descricao, mes, ano, valor, tipo, status, id_usuario)"
+					                 + " values ('lancamento', ?, ?, 10, 'RECEITA', 'PENDENTE', ?)", lancamentos);
+			jdbcTemplate.execute("analyze");
+			ColetorSql.limpar();
+			
+			// Ação
+			Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(idUsuario).build()).ano(2022).mes(1).build();
+			lancamentoRepository.buscarPagina(filtro, null, 10);
+			
+			// Verificação: o primeiro comando é o dos lançamentos, antes da leitura do usuário deles
+			Assertions.assertThat(planoDe(ColetorSql.comandos().get(0), 1, 2022, idUsuario, 10))
+			          .containsIgnoringCase("idx_lancamento_usuario_ano_mes");
+		} finally {
+			jdbcTemplate.update("delete from financas.lancamento where id_usuario = ?", idUsuario);
+			jdbcTemplate.update("delete from financas.usuario where id = ?", idUsuario);
+		}
+	}
+	
+	@Test
+	public void deveBuscarOSaldoDoMesPelaChaveUnica() {
+		
+		saldoUsuarioRepository.findByIdUsuarioAndTipoAndStatusAndAnoAndMes(
+				1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 2022, 1);
+		
+		Assertions.assertThat(plano(1l, TipoLancamento.RECEITA.name(), StatusLancamento.PENDENTE.name(), 2022, 1))
+		          .containsIgnoringCase("uk_saldo_usuario_mes");
+	}
+	
+	// Plano do último comando executado pelo Hibernate, com os parâmetros informados.
+	private String plano(Object... parametros) {
+		return planoDe(ColetorSql.ultimo(), parametros);
+	}
+	
+	private String planoDe(String sql, Object... parametros) {
+		return jdbcTemplate.queryForObject("explain " + sql, String.class, parametros);
+	}
+
+}
@@ -0,0 +1,164 @@
+package com.gef.minhasFinancas.model.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO;
+import com.gef.minhasFinancas.api.dto.SaldoStatusDTO;
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+public class SaldoUsuarioRepositoryTest {
+	
+	@Autowired
+	SaldoUsuarioRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveBuscarOSaldoDoMesPelaChave() {
+		
+		// Cenário
+		Long idUsuario = entityManager.persist(LancamentoRepositoryTest.criarUsuario()).getId();
+		entityManager.persist(criarSaldo(idUsuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100));
+		
+		// Ação
+		Optional<SaldoUsuario> saldo = repository.findByIdUsuarioAndTipoAndStatusAndAnoAndMes(
+				idUsuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 2022, 1);
+		
+		// Verificação
+		Assertions.assertThat(saldo.isPresent()).isTrue();
+		Assertions.assertThat(saldo.get().getValor()).isEqualTo(Dinheiro.reais(100));
+	}
+	
+	@Test
+	public void deveObterOSaldoDoUsuarioPelosMesesMaterializados() {
+		
+		// Cenário
+		Long idUsuario = entityManager.persist(LancamentoRepositoryTest.criarUsuario()).getId();
+		entityManager.persist(criarSaldo(idUsuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100));
+		entityManager.persist(criarSaldo(idUsuario, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 30));
+		entityManager.persist(criarSaldo(idUsuario, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 20));
+		
+		// Ação
+		Dinheiro saldo = repository.obterSaldoPorUsuario(idUsuario);
+		List<SaldoStatusDTO> porStatus = repository.obterSaldoPorStatusEUsuario(idUsuario);
+		
+		// Verificação
+		Assertions.assertThat(saldo).isEqualTo(Dinheiro.reais(50));
+		Assertions.assertThat(porStatus).hasSize(2);
+	}
+	
+	@Test
+	public void deveAgruparOFluxoPorMesEStatusDentroDoPeriodo() {
+		
+		// Cenário
+		Long idUsuario = entityManager.persist(LancamentoRepositoryTest.criarUsuario()).getId();
+		entityManager.persist(criarSaldo(idUsuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100));
+		entityManager.persist(criarSaldo(idUsuario, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 30));
+		SaldoUsuario dezembroAnterior = criarSaldo(idUsuario, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 20);
+		dezembroAnterior.setAno(2021);
+		dezembroAnterior.setMes(12);
+		entityManager.persist(dezembroAnterior);
+		SaldoUsuario foraDoPeriodo = criarSaldo(idUsuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 500);
+		foraDoPeriodo.setAno(2021);
+		foraDoPeriodo.setMes(1);
+		entityManager.persist(foraDoPeriodo);
+		
+		// Ação: fevereiro de 2021 a janeiro de 2022
+		List<SaldoMensalStatusDTO> fluxo = repository.obterSaldoMensalPorStatus(idUsuario, 202102, 202201);
+		
+		// Verificação
+		Assertions.assertThat(fluxo).hasSize(2);
+		Assertions.assertThat(fluxo).anySatisfy(linha -> {
+			Assertions.assertThat(linha.getAno()).isEqualTo(2022);
+			Assertions.assertThat(linha.getReceitas()).isEqualTo(Dinheiro.reais(100));
+			Assertions.assertThat(linha.getDespesas()).isEqualTo(Dinheiro.reais(30));
+		});
+	}
+	
+	@Test
+	public void deveSomarOsMovimentosNoMesmoSaldoDoMes() {
+		
+		// Cenário
+		Long idUsuario = entityManager.persist(LancamentoRepositoryTest.criarUsuario()).getId();
+		
+		// Ação
+		repository.somar(criarSaldo(idUsuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100));
+		repository.somar(criarSaldo(idUsuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 50));
+		
+		// Verificação
+		List<SaldoUsuario> saldos = repository.findByIdUsuario(idUsuario);
+		Assertions.assertThat(saldos).hasSize(1);
+		Assertions.assertThat(saldos.get(0).getValor()).isEqualTo(Dinheiro.reais(150));
+		Assertions.assertThat(saldos.get(0).getQuantidade()).isEqualTo(2l);
+	}
+	
+	@Test
+	public void deveSomarOsMovimentosSemStatusNoMesmoSaldoDoMes() {
+		
+		// Cenário
+		Long idUsuario = entityManager.persist(LancamentoRepositoryTest.criarUsuario()).getId();
+		
+		// Ação
+		repository.somar(criarSaldo(idUsuario, TipoLancamento.DESPESA, null, 10));
+		repository.somar(criarSaldo(idUsuario, TipoLancamento.DESPESA, null, 5));
+		
+		// Verificação
+		List<SaldoUsuario> saldos = repository.findByIdUsuario(idUsuario);
+		Assertions.assertThat(saldos).hasSize(1);
+		Assertions.assertThat(saldos.get(0).getStatus()).isNull();
+		Assertions.assertThat(saldos.get(0).getValor()).isEqualTo(Dinheiro.reais(15));
+	}
+	
+	@Test
+	public void deveRemoverOSaldoDoMesQueFicouSemLancamentos() {
+		
+		// Cenário
+		Long idUsuario = entityManager.persist(LancamentoRepositoryTest.criarUsuario()).getId();
+		repository.somar(criarSaldo(idUsuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100));
+		SaldoUsuario estorno = criarSaldo(idUsuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, -100);
+		estorno.setQuantidade(-1l);
+		
+		// Ação
+		repository.somar(estorno);
+		
+		// Verificação
+		Assertions.assertThat(repository.findByIdUsuario(idUsuario)).isEmpty();
+	}
+	
+	public static SaldoUsuario criarSaldo(TipoLancamento tipo, StatusLancamento status, int valor) {
+		return criarSaldo(1l, tipo, status, valor);
+	}
+	
+	public static SaldoUsuario criarSaldo(Long idUsuario, TipoLancamento tipo, StatusLancamento status, int valor) {
+		return SaldoUsuario.builder()
+				.idUsuario(idUsuario)
+				.tipo(tipo)
+				.status(status)
+				.ano(2022)
+				.mes(1)
+				.valor(Dinheiro.reais(valor))
+				.quantidade(1l)
+				.build();
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.gef.minhasFinancas.model.tipo;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.gef.minhasFinancas.api.json.DinheiroJson;
+
+public class DinheiroTest {
+
+	@Test
+	public void deveSomarESubtrairEmCentavos() {
+
+		// Ação
+		Dinheiro resultado = Dinheiro.de("10.10").somar(Dinheiro.de("0.25")).subtrair(Dinheiro.centavos(5));
+
+		// Verificação
+		Assertions.assertThat(resultado.getCentavos()).isEqualTo(1030);
+		Assertions.assertThat(resultado).isEqualTo(Dinheiro.de(new BigDecimal("10.300")));
+		Assertions.assertThat(resultado.toString()).isEqualTo("10.30");
+		Assertions.assertThat(resultado.negar().absoluto()).isEqualTo(resultado);
+		Assertions.assertThat(resultado.negar().sinal()).isEqualTo(-1);
+	}
+
+	@Test
+	public void deveArredondarComoONumericDoBanco() {
+
+		// Ação e Verificação
+		Assertions.assertThat(Dinheiro.de("1.005").getCentavos()).isEqualTo(101);
+		Assertions.assertThat(Dinheiro.de("-1.005").getCentavos()).isEqualTo(-101);
+		Assertions.assertThat(Dinheiro.de("1.004").paraBigDecimal()).isEqualTo(new BigDecimal("1.00"));
+	}
+
+	@Test
+	public void deveLancarErroAoEstourarOLong() {
+
+		// Cenário
+		Dinheiro maximo = Dinheiro.centavos(Long.MAX_VALUE);
+
+		// Ação e Verificação
+		Assertions.assertThatThrownBy(() -> maximo.somar(Dinheiro.centavos(1))).isInstanceOf(ArithmeticException.class);
+		Assertions.assertThatThrownBy(() -> maximo.multiplicar(2)).isInstanceOf(ArithmeticException.class);
+		Assertions.assertThatThrownBy(() -> Dinheiro.centavos(Long.MIN_VALUE).negar()).isInstanceOf(ArithmeticException.class);
+		Assertions.assertThatThrownBy(() -> Dinheiro.de("1e30")).isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test(timeout = 1000)
+	public void deveRecusarExpoentesForaDaFaixaSemArredondar() {
+
+		// Ação e Verificação: sem conferir antes, o setScale de 1e10000000 leva segundos
+		Assertions.assertThatThrownBy(() -> Dinheiro.de("1e10000000")).isInstanceOf(ArithmeticException.class);
+		Assertions.assertThatThrownBy(() -> Dinheiro.de("-1e18")).isInstanceOf(ArithmeticException.class);
+		Assertions.assertThatThrownBy(() -> Dinheiro.de("0." + String.join("", Collections.nCopies(100, "1"))))
+		          .isInstanceOf(ArithmeticException.class);
+		Assertions.assertThat(Dinheiro.de("1e-10000000")).isEqualTo(Dinheiro.ZERO);
+		Assertions.assertThat(Dinheiro.de("0e10000000")).isEqualTo(Dinheiro.ZERO);
+		Assertions.assertThat(Dinheiro.de("0.0049")).isEqualTo(Dinheiro.ZERO);
+		Assertions.assertThat(Dinheiro.de("0.005").getCentavos()).isEqualTo(1);
+		Assertions.assertThat(Dinheiro.de("92233720368547758.07").getCentavos()).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	public void deveSerializarComoNumeroComDuasCasas() throws Exception {
+
+		// Cenário
+		ObjectMapper mapper = new ObjectMapper().registerModule(new SimpleModule()
+				.addSerializer(Dinheiro.class, new DinheiroJson.Serializador())
+				.addDeserializer(Dinheiro.class, new DinheiroJson.Desserializador()));
+
+		// Ação e Verificação
+		Assertions.assertThat(mapper.writeValueAsString(Dinheiro.reais(70))).isEqualTo("70.00");
+		Assertions.assertThat(mapper.readValue("12.5", Dinheiro.class)).isEqualTo(Dinheiro.centavos(1250));
+		Assertions.assertThat(mapper.readValue("\"-3.99\"", Dinheiro.class)).isEqualTo(Dinheiro.centavos(-399));
+	}
+
+}
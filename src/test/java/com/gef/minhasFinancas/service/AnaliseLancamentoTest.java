@@ -0,0 +1,99 @@
+package com.gef.minhasFinancas.service;
+
+import java.time.YearMonth;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.gef.minhasFinancas.api.dto.FluxoCaixaDTO;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.repository.LancamentoRepositoryTest;
+import com.gef.minhasFinancas.model.repository.UsuarioRepository;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+// Análise sobre as colunas em memória comparada ao fluxo de caixa materializado no banco de teste.
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class AnaliseLancamentoTest {
+
+	static final YearMonth JANEIRO = YearMonth.of(2022, 1);
+	static final YearMonth DEZEMBRO = YearMonth.of(2022, 12);
+
+	@Autowired
+	LancamentoService service;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	Usuario usuario;
+
+	@Before
+	public void criarLancamentos() {
+		usuario = usuarioRepository.save(LancamentoRepositoryTest.criarUsuario());
+		salvar(1, TipoLancamento.RECEITA, 100);
+		salvar(1, TipoLancamento.DESPESA, 30);
+		salvar(5, TipoLancamento.DESPESA, 45);
+	}
+
+	@After
+	public void limparBase() {
+		jdbcTemplate.update("delete from financas.saldo_diario");
+		jdbcTemplate.update("delete from financas.saldo_usuario");
+		jdbcTemplate.update("delete from financas.lancamento");
+		jdbcTemplate.update("delete from financas.usuario");
+	}
+
+	@Test
+	public void deveChegarAoMesmoFluxoDoSaldoMaterializado() {
+
+		// Ação
+		FluxoCaixaDTO analise = service.analisar(usuario.getId(), JANEIRO, DEZEMBRO, null, null);
+
+		// Verificação
+		Assertions.assertThat(analise).isEqualTo(service.obterFluxoDeCaixa(usuario.getId(), JANEIRO, DEZEMBRO));
+		Assertions.assertThat(analise.getTotal().getSaldo()).isEqualTo(Dinheiro.reais(25));
+		Assertions.assertThat(service.analisar(usuario.getId(), JANEIRO, DEZEMBRO, TipoLancamento.DESPESA, null)
+				                     .getTotal().getDespesas()).isEqualTo(Dinheiro.reais(75));
+	}
+
+	@Test
+	public void deveRemontarAsColunasDepoisDeUmaEscrita() {
+
+		// Cenário
+		service.analisar(usuario.getId(), JANEIRO, DEZEMBRO, null, null);
+		Lancamento efetivado = salvar(5, TipoLancamento.RECEITA, 10);
+		service.atualizarStatus(efetivado, StatusLancamento.EFETIVADO);
+
+		// Ação
+		FluxoCaixaDTO analise = service.analisar(usuario.getId(), JANEIRO, DEZEMBRO, null, StatusLancamento.EFETIVADO);
+
+		// Verificação
+		Assertions.assertThat(analise.getTotal().getReceitas()).isEqualTo(Dinheiro.reais(10));
+		Assertions.assertThat(analise.getMeses().get(4).getReceitas()).isEqualTo(Dinheiro.reais(10));
+	}
+
+	private Lancamento salvar(int mes, TipoLancamento tipo, long valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setMes(mes);
+		lancamento.setTipo(tipo);
+		lancamento.setValor(Dinheiro.reais(valor));
+		return service.salva(lancamento);
+	}
+
+}
@@ -0,0 +1,222 @@
+package com.gef.minhasFinancas.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.gef.minhasFinancas.api.seguranca.FiltroAdministrativo;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.repository.LancamentoRepositoryTest;
+import com.gef.minhasFinancas.model.repository.SaldoUsuarioRepository;
+import com.gef.minhasFinancas.model.repository.UsuarioRepository;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+import com.gef.minhasFinancas.service.cache.InvalidacaoCacheEvento;
+import com.gef.minhasFinancas.service.cache.RegiaoCache;
+
+// O perfil de teste desliga o cache de segundo nível; aqui ele é ligado com as regiões de ehcache.xml.
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=true"})
+@RunWith(SpringRunner.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CacheSegundoNivelTest {
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	
+	@PersistenceContext
+	EntityManager entityManager;
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Autowired
+	List<InvalidacaoCacheEvento> eventos;
+	
+	Usuario usuario;
+	Lancamento lancamento;
+	Statistics statistics;
+	
+	@TestConfiguration
+	static class OuvinteEventos {
+		
+		List<InvalidacaoCacheEvento> eventos = new CopyOnWriteArrayList<>();
+		
+		@Bean
+		List<InvalidacaoCacheEvento> eventos() {
+			return eventos;
+		}
+		
+		@EventListener
+		public void registrar(InvalidacaoCacheEvento evento) {
+			eventos.add(evento);
+		}
+	}
+	
+	@Before
+	public void criarLancamento() {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		sessionFactory.getCache().evictAllRegions();
+		statistics = sessionFactory.getStatistics();
+		
+		usuario = usuarioRepository.save(LancamentoRepositoryTest.criarUsuario());
+		lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento = lancamentoService.salva(lancamento);
+		
+		statistics.clear();
+		eventos.clear();
+	}
+	
+	@After
+	public void limparBase() {
+		jdbcTemplate.update("delete from financas.saldo_diario");
+		jdbcTemplate.update("delete from financas.saldo_usuario");
+		jdbcTemplate.update("delete from financas.lancamento");
+		jdbcTemplate.update("delete from financas.usuario");
+	}
+	
+	@Test
+	public void deveObterOLancamentoSemConsultarOBanco() {
+		
+		// Ação
+		lancamentoService.obterPorId(lancamento.getId());
+		lancamentoService.obterPorId(lancamento.getId());
+		
+		// Verificação: o insert já colocou o lançamento no cache
+		Assertions.assertThat(statistics.getCacheRegionStatistics(RegiaoCache.LANCAMENTO.getNome()).getHitCount())
+		          .isEqualTo(2);
+		Assertions.assertThat(statistics.getCacheRegionStatistics(RegiaoCache.LANCAMENTO.getNome()).getMissCount())
+		          .isZero();
+	}
+	
+	@Test
+	public void deveInvalidarOLancamentoAoAtualizarOStatus() {
+		
+		// Cenário
+		lancamentoService.obterPorId(lancamento.getId());
+		
+		// Ação
+		lancamentoService.atualizarStatus(lancamentoService.obterPorId(lancamento.getId()).get(),
+				                          StatusLancamento.EFETIVADO);
+		
+		// Verificação
+		Assertions.assertThat(lancamentoService.obterPorId(lancamento.getId()).get().getStatus())
+		          .isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(eventos).contains(new InvalidacaoCacheEvento(RegiaoCache.LANCAMENTO, lancamento.getId()),
+				                                new InvalidacaoCacheEvento(RegiaoCache.SALDO, usuario.getId()));
+	}
+	
+	@Test
+	public void naoDevePublicarAInvalidacaoDeUmaTransacaoDesfeita() {
+		
+		// Ação
+		new TransactionTemplate(transactionManager).execute(status -> {
+			Lancamento alterado = lancamentoService.obterPorId(lancamento.getId()).get();
+			alterado.setDescricao("desfeita");
+			entityManager.flush();
+			status.setRollbackOnly();
+			return null;
+		});
+		
+		// Verificação
+		Assertions.assertThat(eventos).isEmpty();
+	}
+	
+	@Test
+	public void deveGuardarOSaldoAteONovoLancamento() {
+		
+		// Cenário
+		lancamentoService.ObterSaldoPorUsuario(usuario.getId());
+		Dinheiro emCache = lancamentoService.ObterSaldoPorUsuario(usuario.getId());
+		
+		// Ação
+		Lancamento outro = LancamentoRepositoryTest.criarLancamento();
+		outro.setUsuario(usuario);
+		lancamentoService.salva(outro);
+		Dinheiro atualizado = lancamentoService.ObterSaldoPorUsuario(usuario.getId());
+		
+		// Verificação
+		Assertions.assertThat(statistics.getQueryRegionStatistics(SaldoUsuarioRepository.REGIAO_SALDO).getHitCount())
+		          .isEqualTo(1);
+		Assertions.assertThat(atualizado).isEqualByComparingTo(emCache.somar(outro.getValor()));
+	}
+	
+	@Test
+	public void deveAplicarAInvalidacaoRecebidaDeOutroNo() throws Exception {
+		
+		// Cenário
+		lancamentoService.obterPorId(lancamento.getId());
+		
+		// Ação
+		mvc.perform(MockMvcRequestBuilders.post("/api/caches/invalidacoes").contentType(MediaType.APPLICATION_JSON)
+				                          .header(FiltroAdministrativo.CABECALHO, "chave-dos-testes")
+				                          .content("{\"regiao\": \"LANCAMENTO\", \"id\": " + lancamento.getId() + "}"))
+		   .andExpect(MockMvcResultMatchers.status().isNoContent());
+		statistics.clear();
+		lancamentoService.obterPorId(lancamento.getId());
+		
+		// Verificação
+		Assertions.assertThat(statistics.getCacheRegionStatistics(RegiaoCache.LANCAMENTO.getNome()).getMissCount())
+		          .isEqualTo(1);
+	}
+	
+	@Test
+	public void deveRecusarUmaRegiaoDesconhecida() throws Exception {
+		
+		mvc.perform(MockMvcRequestBuilders.post("/api/caches/invalidacoes").contentType(MediaType.APPLICATION_JSON)
+				                          .header(FiltroAdministrativo.CABECALHO, "chave-dos-testes")
+				                          .content("{\"regiao\": \"OUTRA\"}"))
+		   .andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	public void deveExporAsEstatisticasDasRegioes() throws Exception {
+		
+		mvc.perform(MockMvcRequestBuilders.get("/api/caches/hibernate").header(FiltroAdministrativo.CABECALHO, "chave-dos-testes"))
+		   .andExpect(MockMvcResultMatchers.status().isOk())
+		   .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(RegiaoCache.values().length));
+	}
+
+}
@@ -0,0 +1,154 @@
+package com.gef.minhasFinancas.service;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.gef.minhasFinancas.api.dto.ImportacaoDTO;
+import com.gef.minhasFinancas.api.dto.MapeamentoColunasDTO;
+import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.repository.LancamentoRepositoryTest;
+import com.gef.minhasFinancas.model.repository.UsuarioRepository;
+import com.gef.minhasFinancas.service.importacao.FormatoExtrato;
+
+// Importação completa sobre o banco de teste: leitura, deduplicação e gravação em lotes.
+@SpringBootTest(properties = "minhasfinancas.importacao.lote.tamanho=2")
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class ImportacaoExtratoServiceTest {
+	
+	static final String EXTRATO = "Data;Histórico;Valor\n"
+			                    + "05/01/2022;Mercado;-150,00\n"
+			                    + "10/01/2022;Salário;3.000,00\n"
+			                    + "xx/01/2022;Linha quebrada;1,00\n"
+			                    + "15/02/2022;Farmácia;-35,50\n";
+	
+	@Autowired
+	ImportacaoExtratoService service;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Usuario usuario;
+	
+	@Before
+	public void criarUsuario() {
+		usuario = usuarioRepository.save(LancamentoRepositoryTest.criarUsuario());
+	}
+	
+	@After
+	public void limparBase() {
+		jdbcTemplate.update("delete from financas.saldo_diario");
+		jdbcTemplate.update("delete from financas.saldo_usuario");
+		jdbcTemplate.update("delete from financas.lancamento");
+		jdbcTemplate.update("delete from financas.usuario");
+	}
+	
+	@Test
+	public void deveImportarAsLinhasValidasERejeitarAsDemais() {
+		
+		// Ação
+		ImportacaoDTO importacao = importar(EXTRATO);
+		
+		// Verificação
+		Assertions.assertThat(importacao.getSituacao()).isEqualTo("CONCLUIDA");
+		Assertions.assertThat(importacao.getRegistrosLidos()).isEqualTo(4);
+		Assertions.assertThat(importacao.getGravados()).isEqualTo(3);
+		Assertions.assertThat(importacao.getRejeitados()).isEqualTo(1);
+		Assertions.assertThat(importacao.getErros().get(0).getLinha()).isEqualTo(4);
+		Assertions.assertThat(importacao.getBytesLidos()).isEqualTo(EXTRATO.getBytes(StandardCharsets.UTF_8).length);
+		Assertions.assertThat(jdbcTemplate.queryForObject(
+				"select count(*) from financas.lancamento where tipo = 'DESPESA' and id_usuario = ?", Long.class, usuario.getId()))
+		          .isEqualTo(2l);
+		Assertions.assertThat(service.obterPorId(importacao.getId())).isPresent();
+	}
+	
+	@Test
+	public void naoDeveImportarDuasVezesOMesmoLancamento() {
+		
+		// Cenário
+		importar(EXTRATO);
+		
+		// Ação
+		ImportacaoDTO repetida = importar(EXTRATO + "20/02/2022;Novo;10,00\n");
+		
+		// Verificação
+		Assertions.assertThat(repetida.getDuplicados()).isEqualTo(3);
+		Assertions.assertThat(repetida.getGravados()).isEqualTo(1);
+		Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from financas.lancamento", Long.class))
+		          .isEqualTo(4l);
+	}
+	
+	@Test
+	public void deveImportarTodasAsLinhasIguaisDoMesmoArquivo() {
+		
+		// Cenário: três cafés iguais no mesmo dia, em lotes diferentes
+		String cafes = "Data;Histórico;Valor\n"
+				     + "05/01/2022;Café;-5,00\n"
+				     + "05/01/2022;Café;-5,00\n"
+				     + "05/01/2022;Café;-5,00\n";
+		
+		// Ação
+		ImportacaoDTO importacao = importar(cafes);
+		ImportacaoDTO repetida = importar(cafes);
+		
+		// Verificação
+		Assertions.assertThat(importacao.getGravados()).isEqualTo(3);
+		Assertions.assertThat(importacao.getDuplicados()).isZero();
+		Assertions.assertThat(repetida.getGravados()).isZero();
+		Assertions.assertThat(repetida.getDuplicados()).isEqualTo(3);
+	}
+	
+	@Test
+	public void deveDescontarSoOsLancamentosJaGravadosDasLinhasIguais() {
+		
+		// Cenário
+		importar("Data;Histórico;Valor\n05/01/2022;Café;-5,00\n");
+		
+		// Ação
+		ImportacaoDTO importacao = importar("Data;Histórico;Valor\n05/01/2022;Café;-5,00\n05/01/2022;Café;-5,00\n");
+		
+		// Verificação
+		Assertions.assertThat(importacao.getDuplicados()).isEqualTo(1);
+		Assertions.assertThat(importacao.getGravados()).isEqualTo(1);
+		Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from financas.lancamento", Long.class))
+		          .isEqualTo(2l);
+	}
+	
+	@Test
+	public void deveRecusarAImportacaoParaUmUsuarioInexistente() {
+		
+		// Ação
+		Throwable erro = Assertions.catchThrowable(() -> service.importar(usuario.getId() + 1000, FormatoExtrato.CSV,
+				new MapeamentoColunasDTO(), StandardCharsets.UTF_8, canal(EXTRATO)));
+		
+		// Verificação
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class);
+	}
+	
+	private ImportacaoDTO importar(String extrato) {
+		return service.importar(usuario.getId(), FormatoExtrato.CSV, new MapeamentoColunasDTO(), StandardCharsets.UTF_8,
+				                canal(extrato));
+	}
+	
+	private static ReadableByteChannel canal(String conteudo) {
+		return Channels.newChannel(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
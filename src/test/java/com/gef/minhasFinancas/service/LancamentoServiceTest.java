@@ -1,13 +1,15 @@
 package com.gef.minhasFinancas.service;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
@@ -15,12 +17,24 @@ import org.springframework.data.domain.Example;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.gef.minhasFinancas.api.dto.ErroLoteDTO;
+import com.gef.minhasFinancas.api.dto.OcorrenciaDescricaoDTO;
+import com.gef.minhasFinancas.api.dto.PaginaLancamentoDTO;
+import com.gef.minhasFinancas.api.dto.ResultadoBuscaDTO;
+import com.gef.minhasFinancas.api.dto.ResultadoLoteDTO;
+import com.gef.minhasFinancas.api.dto.SaldoDTO;
+import com.gef.minhasFinancas.api.dto.SaldoStatusDTO;
 import com.gef.minhasFinancas.exception.RegraNegocioException;
 import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.SaldoDiario;
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
 import com.gef.minhasFinancas.model.entity.Usuario;
 import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.repository.BuscaDescricaoRepository;
+import com.gef.minhasFinancas.model.repository.ColunasLancamentoRepository;
 import com.gef.minhasFinancas.model.repository.LancamentoRepository;
 import com.gef.minhasFinancas.model.repository.LancamentoRepositoryTest;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
 import com.gef.minhasFinancas.service.impl.LancamentoServiceImpl;
 
 @RunWith(SpringRunner.class)
@@ -34,6 +48,21 @@ public class LancamentoServiceTest {
 	@MockBean
 	LancamentoRepository repository;
 	
+	@MockBean
+	SaldoUsuarioService saldoService;
+	
+	@MockBean
+	BuscaDescricaoRepository buscaDescricao;
+	
+	@MockBean
+	UsuarioService usuarioService;
+	
+	@MockBean
+	SaldoDiarioService saldoDiarioService;
+	
+	@MockBean
+	ColunasLancamentoRepository colunas;
+	
 	@Test
 	public void deveSalvarUmLancamento() {
 		
@@ -91,14 +120,221 @@ public class LancamentoServiceTest {
 					
 		// *** Moca o método validar ***
 		Mockito.doNothing().when(service).validar(lancamentoSalvo);
-		Mockito.when(repository.save(lancamentoSalvo)).thenReturn(lancamentoSalvo);
+		Mockito.when(repository.obterMovimentoGravado(1l)).thenReturn(Optional.of(SaldoUsuario.de(lancamentoSalvo)));
+		Mockito.when(repository.atualizar(lancamentoSalvo)).thenReturn(lancamentoSalvo);
 		
 		// Ação
 		service.atualizar(lancamentoSalvo);
 		
 		// Verifição
-		// *** Verifica se o repository chamou pelo menos uma vez o método save passando o lancamentoSalvo ***
-	    Mockito.verify(repository, Mockito.times(1)).save(lancamentoSalvo);
+		// *** Verifica se o repository gravou uma vez o lancamentoSalvo, sem o merge do save ***
+	    Mockito.verify(repository, Mockito.times(1)).atualizar(lancamentoSalvo);
+	    Mockito.verify(repository, Mockito.never()).save(lancamentoSalvo);
+		
+	}
+	
+	@Test
+	public void deveRegistrarOLancamentoSalvoNoSaldoDoUsuario() {
+		
+		// Cenário
+		Usuario usuario = LancamentoRepositoryTest.criarUsuario();
+		usuario.setId(1l);
+		Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
+		lancamentoASalvar.setUsuario(usuario);
+		Mockito.doNothing().when(service).validar(lancamentoASalvar);
+		Mockito.when(repository.save(lancamentoASalvar)).thenReturn(lancamentoASalvar);
+		
+		// Ação
+		service.salva(lancamentoASalvar);
+		
+		// Verificação
+		Mockito.verify(saldoService).registrar(SaldoUsuario.de(lancamentoASalvar));
+		
+	}
+	
+	@Test
+	public void deveTravarOUsuarioAntesDeGravarOLancamento() {
+		
+		// Cenário
+		Lancamento lancamentoASalvar = criarLancamentoDoUsuario(1l);
+		Mockito.doNothing().when(service).validar(lancamentoASalvar);
+		Mockito.when(repository.save(lancamentoASalvar)).thenReturn(lancamentoASalvar);
+		
+		// Ação
+		service.salva(lancamentoASalvar);
+		
+		// Verificação: o insert do lançamento já seguraria a linha do usuário (chave estrangeira)
+		InOrder ordem = Mockito.inOrder(usuarioService, repository, saldoService, saldoDiarioService);
+		ordem.verify(usuarioService).bloquear(Collections.singleton(1l));
+		ordem.verify(repository).save(lancamentoASalvar);
+		ordem.verify(saldoService).registrar(Mockito.any());
+		ordem.verify(saldoDiarioService).registrar(Mockito.any());
+		
+	}
+	
+	@Test
+	public void deveSalvarOsLancamentosValidosDoLoteEDevolverOsErrosDosDemais() {
+		
+		// Cenário
+		Lancamento valido = criarLancamentoDoUsuario(1l);
+		Lancamento semDescricao = criarLancamentoDoUsuario(1l);
+		semDescricao.setDescricao(null);
+		Lancamento deUsuarioInexistente = criarLancamentoDoUsuario(2l);
+		Mockito.when(usuarioService.obterIdsExistentes(Mockito.anyCollection())).thenReturn(Collections.singleton(1l));
+		
+		// Ação
+		ResultadoLoteDTO resultado = service.salvarLote(Arrays.asList(valido, semDescricao, deUsuarioInexistente));
+		
+		// Verificação
+		Assertions.assertThat(resultado.getRecebidos()).isEqualTo(3);
+		Assertions.assertThat(resultado.getGravados()).isEqualTo(1);
+		Assertions.assertThat(resultado.getErros()).containsExactly(
+				new ErroLoteDTO(2, "Informe uma Descrição válida"),
+				new ErroLoteDTO(3, "Usuário não encontrado para o id informado"));
+		Mockito.verify(repository).saveAll(Arrays.asList(valido));
+		Assertions.assertThat(valido.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		
+	}
+	
+	@Test
+	public void deveRegistrarUmMovimentoDeSaldoPorMesDoLote() {
+		
+		// Cenário
+		Lancamento primeiro = criarLancamentoDoUsuario(1l);
+		primeiro.setValor(Dinheiro.reais(10));
+		Lancamento segundo = criarLancamentoDoUsuario(1l);
+		segundo.setValor(Dinheiro.reais(15));
+		Mockito.when(usuarioService.obterIdsExistentes(Mockito.anyCollection())).thenReturn(Collections.singleton(1l));
+		
+		// Ação
+		service.salvarLote(Arrays.asList(primeiro, segundo));
+		
+		// Verificação
+		SaldoUsuario movimento = SaldoUsuario.de(primeiro);
+		movimento.setValor(Dinheiro.reais(25));
+		movimento.setQuantidade(2l);
+		Mockito.verify(saldoService, Mockito.times(1)).registrar(Mockito.any());
+		Mockito.verify(saldoService).registrar(movimento);
+		Mockito.verify(buscaDescricao).invalidar(1l);
+		Mockito.verify(colunas).invalidar(1l);
+		
+	}
+	
+	@Test
+	public void deveEstornarOValorAnteriorDoSaldoAoAtualizarUmLancamento() {
+		
+		// Cenário
+		Usuario usuario = LancamentoRepositoryTest.criarUsuario();
+		usuario.setId(1l);
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setId(1l);
+		lancamento.setValor(Dinheiro.reais(50));
+		
+		SaldoUsuario anterior = SaldoUsuario.de(lancamento);
+		anterior.setValor(Dinheiro.reais(10));
+		
+		Mockito.doNothing().when(service).validar(lancamento);
+		Mockito.when(repository.obterMovimentoGravado(1l)).thenReturn(Optional.of(anterior));
+		Mockito.when(repository.atualizar(lancamento)).thenReturn(lancamento);
+		
+		// Ação
+		service.atualizar(lancamento);
+		
+		// Verificação
+		Mockito.verify(saldoService).estornar(anterior);
+		Mockito.verify(saldoService).registrar(SaldoUsuario.de(lancamento));
+		
+	}
+	
+	@Test
+	public void deveRegistrarOMovimentoNoSaldoDiarioComADataDeHoje() {
+		
+		// Cenário
+		Lancamento lancamento = criarLancamentoDoUsuario(1l);
+		lancamento.setDataCadastro(null);
+		Mockito.doNothing().when(service).validar(lancamento);
+		Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+		
+		// Ação
+		service.salva(lancamento);
+		
+		// Verificação
+		Assertions.assertThat(lancamento.getDataCadastro()).isEqualTo(LocalDate.now());
+		Mockito.verify(saldoDiarioService).registrar(SaldoDiario.de(lancamento));
+		
+	}
+	
+	@Test
+	public void deveManterADataDeCadastroGravadaAoAtualizar() {
+		
+		// Cenário
+		Lancamento lancamento = criarLancamentoDoUsuario(1l);
+		lancamento.setId(1l);
+		lancamento.setDataCadastro(null);
+		SaldoUsuario anterior = SaldoUsuario.de(lancamento);
+		anterior.setData(LocalDate.of(2022, 1, 5));
+		
+		Mockito.doNothing().when(service).validar(lancamento);
+		Mockito.when(repository.obterMovimentoGravado(1l)).thenReturn(Optional.of(anterior));
+		Mockito.when(repository.atualizar(lancamento)).thenReturn(lancamento);
+		
+		// Ação
+		service.atualizar(lancamento);
+		
+		// Verificação
+		Assertions.assertThat(lancamento.getDataCadastro()).isEqualTo(LocalDate.of(2022, 1, 5));
+		Mockito.verify(saldoDiarioService).substituir(SaldoDiario.de(anterior), SaldoDiario.de(lancamento));
+		
+	}
+	
+	@Test
+	public void naoDeveAtualizarUmLancamentoDeOutroUsuario() {
+		
+		// Cenário
+		Usuario usuario = LancamentoRepositoryTest.criarUsuario();
+		usuario.setId(1l);
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setId(1l);
+		
+		SaldoUsuario gravado = SaldoUsuario.de(lancamento);
+		gravado.setIdUsuario(2l);
+		
+		Mockito.doNothing().when(service).validar(lancamento);
+		Mockito.when(repository.obterMovimentoGravado(1l)).thenReturn(Optional.of(gravado));
+		
+		// Ação
+		Throwable erro = Assertions.catchThrowable(() -> service.atualizar(lancamento));
+		
+		// Verificação
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class)
+		          .hasMessage("O lançamento não pertence ao usuário informado");
+		Mockito.verify(repository, Mockito.never()).atualizar(lancamento);
+		Mockito.verify(saldoService, Mockito.never()).estornar(Mockito.any());
+		
+	}
+	
+	@Test
+	public void naoDeveAtualizarUmLancamentoInexistente() {
+		
+		// Cenário
+		Usuario usuario = LancamentoRepositoryTest.criarUsuario();
+		usuario.setId(1l);
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setId(1l);
+		
+		Mockito.doNothing().when(service).validar(lancamento);
+		Mockito.when(repository.obterMovimentoGravado(1l)).thenReturn(Optional.empty());
+		
+		// Ação
+		Throwable erro = Assertions.catchThrowable(() -> service.atualizar(lancamento));
+		
+		// Verificação
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class)
+		          .hasMessage("Lançamento não encontrado na base de dados");
+		Mockito.verify(repository, Mockito.never()).atualizar(lancamento);
 		
 	}
 	
@@ -135,6 +371,25 @@ public class LancamentoServiceTest {
 		Mockito.verify(repository).delete(lancamento);
 	}
 	
+	@Test
+	public void deveEstornarDoSaldoUmLancamentoDeletado() {
+		
+		// Cenário
+		Usuario usuario = LancamentoRepositoryTest.criarUsuario();
+		usuario.setId(1l);
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setId(1l);
+		SaldoUsuario gravado = SaldoUsuario.de(lancamento);
+		Mockito.when(repository.obterMovimentoGravado(1l)).thenReturn(Optional.of(gravado));
+		
+		// Execução
+		service.deletar(lancamento);
+		
+		// Verificação
+		Mockito.verify(saldoService).estornar(gravado);
+	}
+	
 	@Test
 	public void DeveLancarUmErroAoTentarDeletarUmLancamentoQueAindaNaoFoiSalvo() {
 		
@@ -176,6 +431,62 @@ public class LancamentoServiceTest {
 		      .contains(lancamento);
 	}
 	
+	@Test
+	public void deveInformarOCursorDaProximaPagina() {
+		
+		// Cenário
+		Lancamento primeiro = LancamentoRepositoryTest.criarLancamento();
+		primeiro.setId(1l);
+		Lancamento segundo = LancamentoRepositoryTest.criarLancamento();
+		segundo.setId(2l);
+		Lancamento filtro = new Lancamento();
+		Mockito.when(repository.buscarPagina(filtro, null, 2)).thenReturn(Arrays.asList(primeiro, segundo));
+		
+		// Execução
+		PaginaLancamentoDTO pagina = service.buscarPagina(filtro, null, 1);
+		
+		// Verificação
+		Assertions.assertThat(pagina.getLancamentos()).containsExactly(primeiro);
+		Assertions.assertThat(pagina.getProximo()).isEqualTo("2022.1.1");
+	}
+	
+	@Test
+	public void naoDeveInformarCursorNaUltimaPagina() {
+		
+		// Cenário
+		Lancamento primeiro = LancamentoRepositoryTest.criarLancamento();
+		primeiro.setId(1l);
+		Lancamento filtro = new Lancamento();
+		Mockito.when(repository.buscarPagina(filtro, null, 2)).thenReturn(Arrays.asList(primeiro));
+		
+		// Execução
+		PaginaLancamentoDTO pagina = service.buscarPagina(filtro, null, 1);
+		
+		// Verificação
+		Assertions.assertThat(pagina.getLancamentos()).containsExactly(primeiro);
+		Assertions.assertThat(pagina.getProximo()).isNull();
+	}
+	
+	@Test
+	public void deveBuscarPorDescricaoMantendoAOrdemDeRelevancia() {
+		
+		// Cenário
+		Lancamento primeiro = LancamentoRepositoryTest.criarLancamento();
+		primeiro.setId(1l);
+		Lancamento segundo = LancamentoRepositoryTest.criarLancamento();
+		segundo.setId(2l);
+		Mockito.when(buscaDescricao.buscar(1l, "sal", true, 10)).thenReturn(Arrays.asList(
+				new OcorrenciaDescricaoDTO(2l, 0.9), new OcorrenciaDescricaoDTO(1l, 0.5)));
+		Mockito.when(repository.findAllById(Arrays.asList(2l, 1l))).thenReturn(Arrays.asList(primeiro, segundo));
+		
+		// Execução
+		List<ResultadoBuscaDTO> resultados = service.buscarPorDescricao(1l, "sal", true, 10);
+		
+		// Verificação
+		Assertions.assertThat(resultados).extracting(r -> r.getLancamento().getId()).containsExactly(2l, 1l);
+		Assertions.assertThat(resultados.get(0).getRelevancia()).isEqualTo(0.9);
+	}
+	
 	@Test
 	public void deveAtualizarOStatusDeUmLancamento() {
 		
@@ -289,11 +600,11 @@ public class LancamentoServiceTest {
 		erro = Assertions.catchThrowable(()-> service.validar(lancamento));
 		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um Valor válido.");
 		
-		lancamento.setValor(BigDecimal.ZERO);
+		lancamento.setValor(Dinheiro.ZERO);
 		erro = Assertions.catchThrowable(()-> service.validar(lancamento));
 		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um Valor válido.");
 		
-		lancamento.setValor(BigDecimal.TEN);
+		lancamento.setValor(Dinheiro.reais(10));
 		erro = Assertions.catchThrowable(()-> service.validar(lancamento));
 		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um tipo de lançamento.");
 		
@@ -302,6 +613,44 @@ public class LancamentoServiceTest {
 		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um tipo de lançamento.");
 		
 	}
+	
+	@Test
+	public void deveConsolidarOSaldoDetalhadoDoUsuario() {
+		
+		// Cenário
+		Long id = 1l;
+		List<SaldoStatusDTO> linhas = Arrays.asList(
+				new SaldoStatusDTO(StatusLancamento.PENDENTE, Dinheiro.reais(100), Dinheiro.reais(30)),
+				new SaldoStatusDTO(StatusLancamento.EFETIVADO, Dinheiro.ZERO, Dinheiro.reais(20)));
+		Mockito.when(saldoService.obterSaldoPorStatusEUsuario(id)).thenReturn(linhas);
+		
+		// Execução
+		SaldoDTO saldo = service.obterSaldoDetalhadoPorUsuario(id);
 		
+		// Verificação
+		Assertions.assertThat(saldo.getReceitas()).isEqualTo(Dinheiro.reais(100));
+		Assertions.assertThat(saldo.getDespesas()).isEqualTo(Dinheiro.reais(50));
+		Assertions.assertThat(saldo.getSaldo()).isEqualTo(Dinheiro.reais(50));
+		Assertions.assertThat(saldo.getPorStatus()).containsOnlyKeys(StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO);
+	}
 	
+	@Test
+	public void deveRetornarSaldoZeradoQuandoNaoHouverLancamentos() {
+		
+		// Cenário
+		Mockito.when(saldoService.obterSaldoPorUsuario(1l)).thenReturn(null);
+		
+		// Execução
+		Dinheiro saldo = service.ObterSaldoPorUsuario(1l);
+		
+		// Verificação
+		Assertions.assertThat(saldo).isEqualTo(Dinheiro.ZERO);
+	}
+		
+	private static Lancamento criarLancamentoDoUsuario(Long idUsuario) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(Usuario.builder().id(idUsuario).build());
+		return lancamento;
+	}
+
 }
@@ -0,0 +1,147 @@
+package com.gef.minhasFinancas.service;
+
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.gef.minhasFinancas.api.dto.FluxoCaixaDTO;
+import com.gef.minhasFinancas.api.dto.RelatorioAdministrativoDTO;
+import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.repository.LancamentoRepositoryTest;
+import com.gef.minhasFinancas.model.repository.UsuarioRepository;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+import com.gef.minhasFinancas.service.relatorio.RelatorioAdministrativo;
+
+// Uma partição por usuário, para que o relatório junte resultados de várias threads.
+@SpringBootTest(properties = "minhasfinancas.relatorio.usuarios-por-particao=1")
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class RelatorioAdministrativoServiceTest {
+
+	static final YearMonth JANEIRO = YearMonth.of(2022, 1);
+	static final YearMonth DEZEMBRO = YearMonth.of(2022, 12);
+
+	@Autowired
+	RelatorioAdministrativoService service;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@After
+	public void limparBase() {
+		jdbcTemplate.update("delete from financas.saldo_diario");
+		jdbcTemplate.update("delete from financas.saldo_usuario");
+		jdbcTemplate.update("delete from financas.lancamento");
+		jdbcTemplate.update("delete from financas.usuario");
+	}
+
+	@Test
+	public void deveConsolidarOFluxoDeTodosOsUsuarios() throws InterruptedException {
+
+		// Cenário
+		Usuario primeiro = salvarUsuario("primeiro@email.com");
+		Usuario segundo = salvarUsuario("segundo@email.com");
+		Usuario terceiro = salvarUsuario("terceiro@email.com");
+		salvar(primeiro, 1, TipoLancamento.RECEITA, 100);
+		salvar(segundo, 1, TipoLancamento.RECEITA, 50);
+		salvar(segundo, 3, TipoLancamento.DESPESA, 30);
+		salvar(terceiro, 3, TipoLancamento.DESPESA, 20);
+
+		// Ação
+		RelatorioAdministrativoDTO relatorio = aguardar(service.iniciar(JANEIRO, DEZEMBRO).getId());
+
+		// Verificação
+		Assertions.assertThat(relatorio.getSituacao()).isEqualTo(RelatorioAdministrativo.Situacao.CONCLUIDO.name());
+		Assertions.assertThat(relatorio.getParticoes()).isEqualTo(relatorio.getParticoesConcluidas()).isGreaterThanOrEqualTo(3);
+		Assertions.assertThat(relatorio.getProgresso()).isEqualTo(1d);
+
+		FluxoCaixaDTO fluxo = relatorio.getFluxo();
+		Assertions.assertThat(fluxo.getTotal().getReceitas()).isEqualTo(Dinheiro.reais(150));
+		Assertions.assertThat(fluxo.getTotal().getDespesas()).isEqualTo(Dinheiro.reais(50));
+		Assertions.assertThat(fluxo.getMeses()).hasSize(12);
+		Assertions.assertThat(fluxo.getMeses().get(0).getReceitas()).isEqualTo(Dinheiro.reais(150));
+		Assertions.assertThat(fluxo.getMeses().get(2).getPorStatus().get(StatusLancamento.PENDENTE).getDespesas())
+		          .isEqualTo(Dinheiro.reais(50));
+	}
+
+	@Test
+	public void deveConcluirSemParticoesQuandoNaoHaLancamentos() throws InterruptedException {
+
+		// Ação
+		RelatorioAdministrativoDTO relatorio = aguardar(service.iniciar(JANEIRO, DEZEMBRO).getId());
+
+		// Verificação
+		Assertions.assertThat(relatorio.getSituacao()).isEqualTo(RelatorioAdministrativo.Situacao.CONCLUIDO.name());
+		Assertions.assertThat(relatorio.getParticoes()).isZero();
+		Assertions.assertThat(relatorio.getFluxo().getTotal().getSaldo()).isEqualTo(Dinheiro.ZERO);
+	}
+
+	@Test
+	public void naoDeveCancelarUmRelatorioJaConcluido() throws InterruptedException {
+
+		// Cenário
+		salvar(salvarUsuario("usuario@email.com"), 1, TipoLancamento.RECEITA, 100);
+		Long id = aguardar(service.iniciar(JANEIRO, DEZEMBRO).getId()).getId();
+
+		// Ação
+		RelatorioAdministrativoDTO relatorio = service.cancelar(id).get();
+
+		// Verificação
+		Assertions.assertThat(relatorio.getSituacao()).isEqualTo(RelatorioAdministrativo.Situacao.CONCLUIDO.name());
+		Assertions.assertThat(relatorio.getFluxo().getTotal().getReceitas()).isEqualTo(Dinheiro.reais(100));
+		Assertions.assertThat(service.cancelar(99999l)).isEmpty();
+	}
+
+	@Test(expected = RegraNegocioException.class)
+	public void deveRecusarUmPeriodoInvertido() {
+
+		// Ação
+		service.iniciar(DEZEMBRO, JANEIRO);
+	}
+
+	private RelatorioAdministrativoDTO aguardar(Long id) throws InterruptedException {
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		RelatorioAdministrativoDTO relatorio = service.obterPorId(id).get();
+		while (RelatorioAdministrativo.Situacao.EM_ANDAMENTO.name().equals(relatorio.getSituacao())
+				&& System.nanoTime() < limite) {
+			Thread.sleep(20);
+			relatorio = service.obterPorId(id).get();
+		}
+		return relatorio;
+	}
+
+	private Usuario salvarUsuario(String email) {
+		Usuario usuario = LancamentoRepositoryTest.criarUsuario();
+		usuario.setEmail(email);
+		return usuarioRepository.save(usuario);
+	}
+
+	private void salvar(Usuario usuario, int mes, TipoLancamento tipo, long valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setMes(mes);
+		lancamento.setTipo(tipo);
+		lancamento.setValor(Dinheiro.reais(valor));
+		lancamentoService.salva(lancamento);
+	}
+
+}
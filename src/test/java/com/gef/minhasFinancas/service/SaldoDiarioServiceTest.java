@@ -0,0 +1,158 @@
+package com.gef.minhasFinancas.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.gef.minhasFinancas.api.dto.CurvaSaldoDTO;
+import com.gef.minhasFinancas.model.entity.Lancamento;
+import com.gef.minhasFinancas.model.entity.SaldoDiario;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.repository.LancamentoRepositoryTest;
+import com.gef.minhasFinancas.model.repository.UsuarioRepository;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+// Soma de prefixos gravada no banco de teste: movimentos fora de ordem, estornos e consultas por data.
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class SaldoDiarioServiceTest {
+	
+	static final LocalDate DIA_10 = LocalDate.of(2022, 1, 10);
+	static final LocalDate DIA_20 = LocalDate.of(2022, 1, 20);
+	static final LocalDate DIA_15 = LocalDate.of(2022, 1, 15);
+	
+	@Autowired
+	SaldoDiarioService service;
+	
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Long idUsuario;
+	
+	@Before
+	public void criarUsuario() {
+		idUsuario = usuarioRepository.save(LancamentoRepositoryTest.criarUsuario()).getId();
+	}
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@After
+	public void limparBase() {
+		jdbcTemplate.update("delete from financas.saldo_diario");
+		jdbcTemplate.update("delete from financas.saldo_usuario");
+		jdbcTemplate.update("delete from financas.lancamento");
+		jdbcTemplate.update("delete from financas.usuario");
+	}
+	
+	// As duas criam o dia e o mês do usuário; a segunda espera a trava do usuário e soma no que a primeira gravou.
+	@Test
+	public void deveGravarDuasPrimeirasEscritasConcorrentesDoMesmoUsuario() throws Exception {
+		
+		// Cenário
+		ExecutorService threads = Executors.newFixedThreadPool(2);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<Lancamento>> escritas = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			escritas.add(threads.submit(() -> {
+				Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+				lancamento.setUsuario(Usuario.builder().id(idUsuario).build());
+				lancamento.setDataCadastro(DIA_10);
+				largada.await();
+				return lancamentoService.salva(lancamento);
+			}));
+		}
+		
+		// Ação
+		largada.countDown();
+		for (Future<Lancamento> escrita : escritas) {
+			escrita.get(30, TimeUnit.SECONDS);
+		}
+		threads.shutdown();
+		
+		// Verificação
+		Assertions.assertThat(service.obterSaldoEm(idUsuario, DIA_10)).isEqualTo(Dinheiro.reais(20));
+		Assertions.assertThat(jdbcTemplate.queryForObject(
+				"select sum(quantidade) from financas.saldo_usuario where id_usuario = ?", Long.class, idUsuario)).isEqualTo(2);
+		Assertions.assertThat(jdbcTemplate.queryForObject(
+				"select count(*) from financas.saldo_usuario where id_usuario = ?", Long.class, idUsuario)).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveAcumularUmMovimentoRetroativoNosDiasSeguintes() {
+		
+		// Cenário
+		service.registrar(movimento(DIA_10, 100));
+		service.registrar(movimento(DIA_20, -30));
+		
+		// Ação
+		service.registrar(movimento(DIA_15, -50));
+		
+		// Verificação
+		Assertions.assertThat(service.obterSaldoEm(idUsuario, DIA_10)).isEqualTo(Dinheiro.reais(100));
+		Assertions.assertThat(service.obterSaldoEm(idUsuario, DIA_15)).isEqualTo(Dinheiro.reais(50));
+		Assertions.assertThat(service.obterSaldoEm(idUsuario, DIA_20)).isEqualTo(Dinheiro.reais(20));
+		Assertions.assertThat(service.obterSaldoEm(idUsuario, DIA_20.plusDays(5))).isEqualTo(Dinheiro.reais(20));
+		Assertions.assertThat(service.obterSaldoEm(idUsuario, DIA_10.minusDays(1))).isEqualTo(Dinheiro.ZERO);
+	}
+	
+	@Test
+	public void deveRemoverODiaAoEstornarOUltimoMovimento() {
+		
+		// Cenário
+		service.registrar(movimento(DIA_10, 100));
+		service.registrar(movimento(DIA_20, 40));
+		
+		// Ação
+		service.estornar(movimento(DIA_10, 100));
+		
+		// Verificação
+		Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from financas.saldo_diario", Long.class))
+		          .isEqualTo(1l);
+		Assertions.assertThat(service.obterSaldoEm(idUsuario, DIA_20)).isEqualTo(Dinheiro.reais(40));
+	}
+	
+	@Test
+	public void deveMoverOMovimentoDeDia() {
+		
+		// Cenário
+		service.registrarTodos(Arrays.asList(movimento(DIA_10, 100), movimento(DIA_20, 10), movimento(DIA_10, 5)));
+		
+		// Ação
+		service.substituir(movimento(DIA_10, 5), movimento(DIA_15, 5));
+		
+		// Verificação
+		CurvaSaldoDTO curva = service.obterCurva(idUsuario, DIA_10.plusDays(1), DIA_20);
+		Assertions.assertThat(curva.getSaldoInicial()).isEqualTo(Dinheiro.reais(100));
+		Assertions.assertThat(curva.getPontos()).extracting("data").containsExactly(DIA_15, DIA_20);
+		Assertions.assertThat(curva.getPontos()).extracting("saldo")
+		          .containsExactly(Dinheiro.reais(105), Dinheiro.reais(115));
+		Assertions.assertThat(curva.getSaldoFinal()).isEqualTo(Dinheiro.reais(115));
+	}
+	
+	private SaldoDiario movimento(LocalDate data, int valor) {
+		return new SaldoDiario(idUsuario, data, Dinheiro.reais(valor), 1l);
+	}
+
+}
@@ -0,0 +1,182 @@
+package com.gef.minhasFinancas.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.gef.minhasFinancas.api.dto.DivergenciaSaldoDTO;
+import com.gef.minhasFinancas.model.entity.SaldoUsuario;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.repository.LancamentoRepository;
+import com.gef.minhasFinancas.model.repository.SaldoUsuarioRepository;
+import com.gef.minhasFinancas.model.repository.SaldoUsuarioRepositoryTest;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+import com.gef.minhasFinancas.service.cache.PublicadorInvalidacaoCache;
+import com.gef.minhasFinancas.service.impl.SaldoUsuarioServiceImpl;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "minhasfinancas.saldo.verificacao.usuarios-por-faixa=2")
+public class SaldoUsuarioServiceTest {
+	
+	@SpyBean
+	SaldoUsuarioServiceImpl service;
+	
+	@MockBean
+	SaldoUsuarioRepository repository;
+	
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+	
+	@MockBean
+	UsuarioService usuarioService;
+	
+	@MockBean
+	PublicadorInvalidacaoCache publicadorInvalidacao;
+	
+	@MockBean
+	PlatformTransactionManager transactionManager;
+	
+	@Test
+	public void deveSomarOMovimentoAoSaldoDoMes() {
+		
+		// Cenário
+		SaldoUsuario movimento = SaldoUsuarioRepositoryTest.criarSaldo(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100);
+		
+		// Ação
+		service.registrar(movimento);
+		
+		// Verificação
+		ArgumentCaptor<SaldoUsuario> somado = ArgumentCaptor.forClass(SaldoUsuario.class);
+		Mockito.verify(repository).somar(somado.capture());
+		Assertions.assertThat(somado.getValue().getValor()).isEqualTo(Dinheiro.reais(100));
+		Assertions.assertThat(somado.getValue().getQuantidade()).isEqualTo(1l);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+		Mockito.verify(publicadorInvalidacao).publicarSaldoAposCommit(1l);
+	}
+	
+	@Test
+	public void deveSomarOEstornoComSinalNegativo() {
+		
+		// Ação
+		service.estornar(SaldoUsuarioRepositoryTest.criarSaldo(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100));
+		
+		// Verificação
+		ArgumentCaptor<SaldoUsuario> somado = ArgumentCaptor.forClass(SaldoUsuario.class);
+		Mockito.verify(repository).somar(somado.capture());
+		Assertions.assertThat(somado.getValue().getValor()).isEqualTo(Dinheiro.reais(-100));
+		Assertions.assertThat(somado.getValue().getQuantidade()).isEqualTo(-1l);
+	}
+	
+	@Test
+	public void deveApontarDivergenciaEntreOSaldoMaterializadoEOsLancamentos() {
+		
+		// Cenário
+		SaldoUsuario esperado = SaldoUsuarioRepositoryTest.criarSaldo(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100);
+		SaldoUsuario registrado = SaldoUsuarioRepositoryTest.criarSaldo(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 80);
+		faixaDeUsuarios(1l, 1l);
+		Mockito.when(lancamentoRepository.recalcularSaldosPorMes(1l, 1l)).thenReturn(Arrays.asList(esperado));
+		Mockito.when(repository.findByIdUsuarioBetween(1l, 1l)).thenReturn(Arrays.asList(registrado));
+		
+		// Ação
+		List<DivergenciaSaldoDTO> divergencias = service.verificar();
+		
+		// Verificação
+		Assertions.assertThat(divergencias).hasSize(1);
+		Assertions.assertThat(divergencias.get(0).getValorEsperado()).isEqualTo(Dinheiro.reais(100));
+		Assertions.assertThat(divergencias.get(0).getValorRegistrado()).isEqualTo(Dinheiro.reais(80));
+	}
+	
+	@Test
+	public void deveCompararUmaFaixaDeUsuariosPorVez() {
+		
+		// Cenário: lançamentos dos usuários 1 a 4 e um saldo sem lançamentos no usuário 5
+		Mockito.when(lancamentoRepository.obterMenorIdUsuario()).thenReturn(1l);
+		Mockito.when(lancamentoRepository.obterMaiorIdUsuario()).thenReturn(4l);
+		Mockito.when(repository.obterMenorIdUsuario()).thenReturn(2l);
+		Mockito.when(repository.obterMaiorIdUsuario()).thenReturn(5l);
+		SaldoUsuario sobra = SaldoUsuarioRepositoryTest.criarSaldo(5l, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 10);
+		Mockito.when(repository.findByIdUsuarioBetween(5l, 5l)).thenReturn(Collections.singletonList(sobra));
+		
+		// Ação
+		List<DivergenciaSaldoDTO> divergencias = service.verificar();
+		
+		// Verificação: faixas de dois usuários (ver @TestPropertySource), nunca a tabela inteira
+		Assertions.assertThat(divergencias).extracting(DivergenciaSaldoDTO::getIdUsuario).containsExactly(5l);
+		InOrder ordem = Mockito.inOrder(lancamentoRepository);
+		ordem.verify(lancamentoRepository).recalcularSaldosPorMes(1l, 2l);
+		ordem.verify(lancamentoRepository).recalcularSaldosPorMes(3l, 4l);
+		ordem.verify(lancamentoRepository).recalcularSaldosPorMes(5l, 5l);
+		Mockito.verify(repository, Mockito.never()).findAll();
+	}
+	
+	@Test
+	public void deveCorrigirOSaldoAoReconstruirComOUsuarioTravado() {
+		
+		// Cenário
+		SaldoUsuario esperado = SaldoUsuarioRepositoryTest.criarSaldo(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100);
+		SaldoUsuario sobra = SaldoUsuarioRepositoryTest.criarSaldo(TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 10);
+		faixaDeUsuarios(1l, 1l);
+		Mockito.when(lancamentoRepository.recalcularSaldosPorMes(1l, 1l)).thenReturn(Arrays.asList(esperado));
+		Mockito.when(repository.findByIdUsuarioBetween(1l, 1l)).thenReturn(Collections.singletonList(sobra));
+		Mockito.when(lancamentoRepository.recalcularSaldosPorMes(1l)).thenReturn(Arrays.asList(esperado));
+		Mockito.when(repository.findByIdUsuario(1l)).thenReturn(Collections.singletonList(sobra));
+		
+		// Ação
+		List<DivergenciaSaldoDTO> divergencias = service.reconstruir();
+		
+		// Verificação
+		Assertions.assertThat(divergencias).hasSize(2);
+		InOrder ordem = Mockito.inOrder(usuarioService, repository);
+		ordem.verify(usuarioService).bloquear(Collections.singleton(1l));
+		ordem.verify(repository).findByIdUsuario(1l);
+		Mockito.verify(repository).delete(sobra);
+		ArgumentCaptor<SaldoUsuario> salvo = ArgumentCaptor.forClass(SaldoUsuario.class);
+		Mockito.verify(repository).save(salvo.capture());
+		Assertions.assertThat(salvo.getValue().getTipo()).isEqualTo(TipoLancamento.RECEITA);
+		Assertions.assertThat(salvo.getValue().getValor()).isEqualTo(Dinheiro.reais(100));
+	}
+	
+	@Test
+	public void naoDeveSobrescreverOQueFoiGravadoDepoisDaVerificacao() {
+		
+		// Cenário: a divergência da verificação já foi acertada por uma escrita antes da trava
+		SaldoUsuario esperado = SaldoUsuarioRepositoryTest.criarSaldo(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100);
+		SaldoUsuario anterior = SaldoUsuarioRepositoryTest.criarSaldo(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 80);
+		faixaDeUsuarios(1l, 1l);
+		Mockito.when(lancamentoRepository.recalcularSaldosPorMes(1l, 1l)).thenReturn(Arrays.asList(esperado));
+		Mockito.when(repository.findByIdUsuarioBetween(1l, 1l)).thenReturn(Collections.singletonList(anterior));
+		Mockito.when(lancamentoRepository.recalcularSaldosPorMes(1l)).thenReturn(Arrays.asList(esperado));
+		Mockito.when(repository.findByIdUsuario(1l)).thenReturn(Collections.singletonList(esperado));
+		
+		// Ação
+		List<DivergenciaSaldoDTO> divergencias = service.reconstruir();
+		
+		// Verificação
+		Assertions.assertThat(divergencias).isEmpty();
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+		Mockito.verify(repository, Mockito.never()).delete(Mockito.any());
+	}
+	
+	private void faixaDeUsuarios(Long menor, Long maior) {
+		Mockito.when(lancamentoRepository.obterMenorIdUsuario()).thenReturn(menor);
+		Mockito.when(lancamentoRepository.obterMaiorIdUsuario()).thenReturn(maior);
+		Mockito.when(repository.obterMenorIdUsuario()).thenReturn(menor);
+		Mockito.when(repository.obterMaiorIdUsuario()).thenReturn(maior);
+	}
+
+}
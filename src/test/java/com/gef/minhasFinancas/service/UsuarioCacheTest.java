@@ -0,0 +1,187 @@
+package com.gef.minhasFinancas.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.gef.minhasFinancas.api.seguranca.FiltroAdministrativo;
+import com.gef.minhasFinancas.model.entity.Usuario;
+import com.gef.minhasFinancas.model.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+// O perfil de teste desliga o cache; aqui ele é ligado para conferir acertos e invalidação.
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+@RunWith(SpringRunner.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class UsuarioCacheTest {
+	
+	@Autowired
+	UsuarioService service;
+	
+	@Autowired
+	UsuarioRepository repository;
+	
+	@Autowired
+	CacheManager cacheManager;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Before
+	public void limparCaches() {
+		cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+	}
+	
+	@After
+	public void limparBase() {
+		jdbcTemplate.update("delete from financas.saldo_diario");
+		jdbcTemplate.update("delete from financas.usuario");
+	}
+	
+	@Test
+	public void deveConsultarOBancoUmaVezPorId() {
+		
+		// Cenário
+		Usuario usuario = service.salvarUsuario(criarUsuario("cache@email.com"));
+		CacheStats antes = estatisticas(UsuarioRepository.CACHE_POR_ID);
+		
+		// Ação
+		service.obterPorId(usuario.getId());
+		service.obterPorId(usuario.getId());
+		
+		// Verificação
+		CacheStats depois = estatisticas(UsuarioRepository.CACHE_POR_ID).minus(antes);
+		Assertions.assertThat(depois.missCount()).isEqualTo(1);
+		Assertions.assertThat(depois.hitCount()).isEqualTo(1);
+	}
+	
+	// A senha é sempre lida do banco (só id e hash); o usuário devolvido vem do cache por id.
+	@Test
+	public void deveAutenticarPeloCacheDeId() {
+		
+		// Cenário
+		service.salvarUsuario(criarUsuario("login@email.com"));
+		CacheStats antes = estatisticas(UsuarioRepository.CACHE_POR_ID);
+		
+		// Ação
+		service.autenticar("login@email.com", "senha").join();
+		service.autenticar("login@email.com", "senha").join();
+		
+		// Verificação
+		CacheStats depois = estatisticas(UsuarioRepository.CACHE_POR_ID).minus(antes);
+		Assertions.assertThat(depois.missCount()).isEqualTo(1);
+		Assertions.assertThat(depois.hitCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveDevolverUmaCopiaNovaACadaConsulta() {
+		
+		// Cenário
+		Usuario usuario = service.salvarUsuario(criarUsuario("copia@email.com"));
+		Usuario primeira = service.obterPorId(usuario.getId()).get();
+		
+		// Ação
+		primeira.setNome("alterado");
+		Usuario segunda = service.obterPorId(usuario.getId()).get();
+		
+		// Verificação
+		Assertions.assertThat(segunda).isNotSameAs(primeira);
+		Assertions.assertThat(segunda.getNome()).isEqualTo("usuario");
+		Assertions.assertThat(segunda.getSenha()).isNull();
+	}
+	
+	@Test
+	public void deveInvalidarOEmailAoSalvarOUsuario() {
+		
+		// Cenário: a verificação guarda que o email ainda está livre
+		service.validarEmail("novo@email.com");
+		
+		// Ação
+		service.salvarUsuario(criarUsuario("novo@email.com"));
+		Throwable erro = Assertions.catchThrowable(() -> service.validarEmail("novo@email.com"));
+		
+		// Verificação
+		Assertions.assertThat(erro).hasMessage("Já existe um usuário cadastrado com este email");
+	}
+	
+	@Test
+	public void naoDeveGuardarQueOEmailEstaLivre() {
+		
+		// Cenário
+		service.validarEmail("livre@email.com");
+		
+		// Ação: cadastro por fora do repositório, sem passar pela invalidação
+		jdbcTemplate.update("insert into financas.usuario (nome, email, senha) values ('b', 'livre@email.com', 'senha')");
+		Throwable erro = Assertions.catchThrowable(() -> service.validarEmail("livre@email.com"));
+		
+		// Verificação
+		Assertions.assertThat(erro).hasMessage("Já existe um usuário cadastrado com este email");
+	}
+	
+	@Test
+	public void deveLiberarOEmailAnteriorAoAlterarOUsuario() {
+		
+		// Cenário
+		Usuario usuario = service.salvarUsuario(criarUsuario("antigo@email.com"));
+		Assertions.assertThatThrownBy(() -> service.validarEmail("antigo@email.com"));
+		
+		// Ação
+		usuario.setEmail("atual@email.com");
+		repository.save(usuario);
+		
+		// Verificação
+		service.validarEmail("antigo@email.com");
+		Assertions.assertThatThrownBy(() -> service.validarEmail("atual@email.com"));
+	}
+	
+	@Test
+	public void deveInvalidarOUsuarioRemovido() {
+		
+		// Cenário
+		Usuario usuario = service.salvarUsuario(criarUsuario("removido@email.com"));
+		service.obterPorId(usuario.getId());
+		Assertions.assertThatThrownBy(() -> service.validarEmail("removido@email.com"));
+		
+		// Ação
+		repository.delete(usuario);
+		
+		// Verificação
+		Assertions.assertThat(service.obterPorId(usuario.getId())).isEmpty();
+		service.validarEmail("removido@email.com");
+	}
+	
+	@Test
+	public void deveExporAsEstatisticasDosCaches() throws Exception {
+		
+		mvc.perform(MockMvcRequestBuilders.get("/api/caches").header(FiltroAdministrativo.CABECALHO, "chave-dos-testes"))
+		   .andExpect(MockMvcResultMatchers.status().isOk())
+		   .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+		   .andExpect(MockMvcResultMatchers.jsonPath("$[0].nome").value(UsuarioRepository.CACHE_POR_ID));
+	}
+	
+	private CacheStats estatisticas(String nome) {
+		return ((CaffeineCache) cacheManager.getCache(nome)).getNativeCache().stats();
+	}
+	
+	private static Usuario criarUsuario(String email) {
+		return Usuario.builder().nome("usuario").email(email).senha("senha").build();
+	}
+
+}
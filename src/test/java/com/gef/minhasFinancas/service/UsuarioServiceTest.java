@@ -1,6 +1,9 @@
 package com.gef.minhasFinancas.service;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
@@ -9,14 +12,20 @@ import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.gef.minhasFinancas.api.dto.CredencialDTO;
+import com.gef.minhasFinancas.api.dto.DadosUsuarioDTO;
 import com.gef.minhasFinancas.exception.ErroAutenticacao;
 import com.gef.minhasFinancas.exception.RegraNegocioException;
+import com.gef.minhasFinancas.exception.SobrecargaException;
 import com.gef.minhasFinancas.model.entity.Usuario;
 import com.gef.minhasFinancas.model.repository.UsuarioRepository;
 import com.gef.minhasFinancas.service.impl.UsuarioServiceImpl;
+import com.gef.minhasFinancas.service.seguranca.VerificadorSenha;
 
 //Sobe o contexto de toda a aplicação mas estamos testando classe a classe
 @SpringBootTest 
@@ -30,6 +39,9 @@ public class UsuarioServiceTest {
 	@MockBean
 	UsuarioRepository repository;
 	
+	@SpyBean
+	VerificadorSenha verificadorSenha;
+	
 	@Test
 	public void deveSalvarUmUsuario() {
 		
@@ -70,34 +82,48 @@ public class UsuarioServiceTest {
 		Mockito.verify(repository, Mockito.never()).save(usuario);
 	}
 	
+	@Test
+	public void deveGravarOHashDaSenha() {
+		
+		// Cenário
+		Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+		Mockito.when(repository.save(Mockito.any(Usuario.class))).then(invocacao -> invocacao.getArgument(0));
+		
+		// Ação
+		Usuario usuarioSalvo = service.salvarUsuario(Usuario.builder().email("email@email.com").senha("senha").build());
+		
+		// Verificação
+		Assertions.assertThat(usuarioSalvo.getSenha()).isNotEqualTo("senha");
+		Assertions.assertThat(BCrypt.checkpw("senha", usuarioSalvo.getSenha())).isTrue();
+	}
+	
 	@Test
 	public void deveLancarErroQuandoSenhaNaoBater() {
 		
 		// Cenário
-		String senha = "senha";
-		Usuario usuario = Usuario.builder().email("email@email.com").senha(senha).build();
-		Mockito.when(repository.findByEmail(Mockito.anyString())).thenReturn(Optional.of(usuario));
+		String hash = BCrypt.hashpw("senha", BCrypt.gensalt(4));
+		Mockito.when(repository.obterCredencial(Mockito.anyString())).thenReturn(Optional.of(new CredencialDTO(1l, hash)));
 		
 		// Ação
-		Throwable exception = Assertions.catchThrowable(()-> service.autenticar("email@email.com", "123"));
+		Throwable exception = Assertions.catchThrowable(()-> service.autenticar("email@email.com", "123").join());
 		
 		// Verificação
-		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Senha inválida");
+		Assertions.assertThat(exception.getCause()).isInstanceOf(ErroAutenticacao.class).hasMessage("Email ou senha inválidos");
 	}
 	
 	@Test 
 	public void deveLancarErroQuandoNaoEncontrarUsuarioComEmailInformado() {
 		
 		// Cenário
-		Mockito.when(repository.findByEmail(Mockito.anyString())).thenReturn(Optional.empty());
+		Mockito.when(repository.obterCredencial(Mockito.anyString())).thenReturn(Optional.empty());
 		
 		// Ação
-		Throwable exception = Assertions.catchThrowable(() -> service.autenticar("email@email.com", "senha"));
+		Throwable exception = Assertions.catchThrowable(() -> service.autenticar("email@email.com", "senha").join());
 		
 		// Verificação
-		Assertions.assertThat(exception)
+		Assertions.assertThat(exception.getCause())
 		         .isInstanceOf(ErroAutenticacao.class)
-		         .hasMessage("Usuário não encontrado para o email informado");
+		         .hasMessage("Email ou senha inválidos");
 	}
 	
 	// Espera que não seja lançada nenhuma exceção.
@@ -106,16 +132,111 @@ public class UsuarioServiceTest {
 		// Cenário
 		String email = "email@email.com";
 		String senha = "senha";
+		String hash = BCrypt.hashpw(senha, BCrypt.gensalt(4));
+		
+		// Quando acessado o método obterCredencial retornará apenas o id e o hash da senha.
+		Mockito.when(repository.obterCredencial(email)).thenReturn(Optional.of(new CredencialDTO(1l, hash)));
+		Mockito.when(repository.obterDados(1l)).thenReturn(Optional.of(new DadosUsuarioDTO(1l, "nome", email)));
+		
+		// Ação
+		Usuario result = service.autenticar(email, senha).join();
+		
+		// Verificação
+		Assertions.assertThat(result.getId()).isEqualTo(1l);
+		Assertions.assertThat(result.getEmail()).isEqualTo(email);
+		Assertions.assertThat(result.getSenha()).isNull();
+		Mockito.verify(repository, Mockito.never()).findByEmail(Mockito.anyString());
+		Mockito.verify(repository, Mockito.never()).trocarSenha(Mockito.anyLong(), Mockito.anyString(),
+				                                                Mockito.anyString(), Mockito.anyString());
+	}
+	
+	@Test
+	public void deveConsultarOUsuarioForaDasThreadsDeSenha() {
 		
-		Usuario usuario = Usuario.builder().email(email).senha(senha).id(1l).build();
-		// Quando acessado o método findByEmail retornará um objeto usuario.
-		Mockito.when(repository.findByEmail(email)).thenReturn(Optional.of(usuario));
+		// Cenário
+		String hash = BCrypt.hashpw("senha", BCrypt.gensalt(4));
+		Mockito.when(repository.obterCredencial("email@email.com")).thenReturn(Optional.of(new CredencialDTO(1l, hash)));
+		AtomicReference<String> thread = new AtomicReference<>();
+		Mockito.when(repository.obterDados(1l)).then(invocacao -> {
+			thread.set(Thread.currentThread().getName());
+			return Optional.of(new DadosUsuarioDTO(1l, "nome", "email@email.com"));
+		});
 		
 		// Ação
-		Usuario result = service.autenticar(email, senha);
+		service.autenticar("email@email.com", "senha").join();
+		
+		// Verificação: no ExecutorBanco, não no executor do BCrypt
+		Assertions.assertThat(thread.get()).startsWith("banco-");
+	}
+	
+	@Test
+	public void deveConsultarACredencialForaDaThreadDaRequisicao() {
+		
+		// Cenário
+		AtomicReference<String> thread = new AtomicReference<>();
+		Mockito.when(repository.obterCredencial("email@email.com")).then(invocacao -> {
+			thread.set(Thread.currentThread().getName());
+			return Optional.empty();
+		});
+		
+		// Ação
+		Assertions.catchThrowable(() -> service.autenticar("email@email.com", "senha").join());
 		
 		// Verificação
-		Assertions.assertThat(result).isNotNull();
+		Assertions.assertThat(thread.get()).startsWith("banco-");
+	}
+	
+	@Test
+	public void deveCodificarASenhaSemTransacaoAberta() {
+		
+		// Cenário
+		Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+		Mockito.when(repository.save(Mockito.any(Usuario.class))).then(invocacao -> invocacao.getArgument(0));
+		AtomicBoolean transacao = new AtomicBoolean(true);
+		Mockito.doAnswer(invocacao -> {
+			transacao.set(TransactionSynchronizationManager.isActualTransactionActive());
+			return invocacao.callRealMethod();
+		}).when(verificadorSenha).codificar("senha");
+		
+		// Ação
+		service.salvarUsuario(Usuario.builder().email("email@email.com").senha("senha").build());
+		
+		// Verificação: nenhuma conexão fica presa à espera do hash
+		Assertions.assertThat(transacao.get()).isFalse();
+	}
+	
+	@Test
+	public void deveLancarSobrecargaAoSalvarComAFilaDeSenhasCheia() {
+		
+		// Cenário
+		Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+		CompletableFuture<String> recusada = new CompletableFuture<>();
+		recusada.completeExceptionally(new SobrecargaException("Servidor sobrecarregado. Tente novamente em instantes"));
+		Mockito.doReturn(recusada).when(verificadorSenha).codificar("senha");
+		
+		// Ação
+		Throwable exception = Assertions.catchThrowable(
+				() -> service.salvarUsuario(Usuario.builder().email("email@email.com").senha("senha").build()));
+		
+		// Verificação
+		Assertions.assertThat(exception).isInstanceOf(SobrecargaException.class);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Usuario.class));
+	}
+	
+	@Test
+	public void deveRecodificarASenhaEmTextoPuroAposAutenticar() {
+		
+		// Cenário
+		String email = "email@email.com";
+		Mockito.when(repository.obterCredencial(email)).thenReturn(Optional.of(new CredencialDTO(1l, "senha")));
+		Mockito.when(repository.obterDados(1l)).thenReturn(Optional.of(new DadosUsuarioDTO(1l, "nome", email)));
+		
+		// Ação
+		service.autenticar(email, "senha").join();
+		
+		// Verificação: a troca só acontece se a senha gravada ainda for a de texto puro
+		Mockito.verify(repository, Mockito.timeout(5000)).trocarSenha(Mockito.eq(1l), Mockito.eq(email), Mockito.eq("senha"),
+				                                                      Mockito.argThat(nova -> BCrypt.checkpw("senha", nova)));
 	}
 	
 	@Test(expected = Test.None.class)
@@ -149,4 +270,19 @@ public class UsuarioServiceTest {
 		service.validarEmail("email@email.com");
 	}
 	
+	@Test
+	public void deveObterAReferenciaDoUsuarioSemConsultarPeloId() {
+		
+		// Cenário
+		Usuario referencia = Usuario.builder().id(1l).build();
+		Mockito.when(repository.getOne(1l)).thenReturn(referencia);
+		
+		// Ação
+		Usuario usuario = service.obterReferencia(1l);
+		
+		// Verificação
+		Assertions.assertThat(usuario).isSameAs(referencia);
+		Mockito.verify(repository, Mockito.never()).obterDados(Mockito.anyLong());
+	}
+	
 }
@@ -0,0 +1,93 @@
+package com.gef.minhasFinancas.service.execucao;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+
+import com.gef.minhasFinancas.api.dto.EstatisticasExecutorDTO;
+import com.gef.minhasFinancas.exception.SobrecargaException;
+
+public class ExecutorBancoTest {
+	
+	ExecutorBanco executor = new ExecutorBanco(null, 1, 1, false);
+	
+	@After
+	public void encerrar() {
+		executor.encerrar();
+	}
+	
+	@Test
+	public void deveRecusarQuandoAThreadEAFilaEstiveremOcupadas() throws Exception {
+		
+		// Cenário
+		CountDownLatch liberar = new CountDownLatch(1);
+		CompletableFuture<Integer> primeira = executor.executar(() -> aguardar(liberar, 1));
+		CompletableFuture<Integer> segunda = executor.executar(() -> 2);
+		
+		// Ação
+		CompletableFuture<Integer> terceira = executor.executar(() -> 3);
+		EstatisticasExecutorDTO ocupado = executor.obterEstatisticas();
+		liberar.countDown();
+		
+		// Verificação
+		Assertions.assertThat(terceira).isCompletedExceptionally();
+		Assertions.assertThatThrownBy(terceira::get)
+		          .isInstanceOf(ExecutionException.class)
+		          .hasCauseInstanceOf(SobrecargaException.class);
+		Assertions.assertThat(primeira.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		Assertions.assertThat(segunda.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+		Assertions.assertThat(ocupado.getFila()).isEqualTo(1);
+		Assertions.assertThat(ocupado.getCapacidadeFila()).isEqualTo(1);
+		Assertions.assertThat(ocupado.getRecusadas()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveMedirOTempoDeEsperaNaFila() throws Exception {
+		
+		// Cenário: a segunda tarefa espera na fila enquanto a primeira dorme 100ms
+		executor.executar(() -> aguardar(new CountDownLatch(1), 1));
+		CompletableFuture<Integer> segunda = executor.executar(() -> 2);
+		
+		// Ação
+		segunda.get(5, TimeUnit.SECONDS);
+		EstatisticasExecutorDTO estatisticas = executor.obterEstatisticas();
+		
+		// Verificação
+		Assertions.assertThat(estatisticas.getEsperaMaximaMs()).isGreaterThanOrEqualTo(50d);
+		Assertions.assertThat(estatisticas.getEsperaMediaMs()).isGreaterThan(0d);
+		Assertions.assertThat(estatisticas.getThreads()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveUsarThreadsVirtuaisSomenteQuandoAJvmOferecer() throws Exception {
+		
+		// Cenário
+		ExecutorBanco virtual = new ExecutorBanco(null, 2, 2, true);
+		
+		try {
+			// Ação
+			String thread = virtual.executar(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+			
+			// Verificação: em JVMs anteriores ao Java 21 cai para threads de plataforma
+			Assertions.assertThat(thread).startsWith("banco-");
+			Assertions.assertThat(virtual.obterEstatisticas().getVirtuais()).isEqualTo(ThreadsVirtuais.suportadas());
+		} finally {
+			virtual.encerrar();
+		}
+	}
+	
+	private static int aguardar(CountDownLatch latch, int valor) {
+		try {
+			latch.await(100, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return valor;
+	}
+
+}
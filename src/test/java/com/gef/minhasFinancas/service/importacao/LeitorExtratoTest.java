@@ -0,0 +1,134 @@
+package com.gef.minhasFinancas.service.importacao;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.gef.minhasFinancas.api.dto.MapeamentoColunasDTO;
+import com.gef.minhasFinancas.model.enuns.TipoLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+
+public class LeitorExtratoTest {
+	
+	@Test
+	public void deveLerUmCsvComCabecalhoAspasEVirgulaDecimal() throws IOException {
+		
+		// Cenário
+		String csv = "Data;Histórico;Valor\r\n"
+				   + "15/01/2022;\"Mercado; padaria\";-1.234,56\r\n"
+				   + "\r\n"
+				   + "20/01/2022;\"Salário \"\"janeiro\"\"\";R$ 5.000,00\r\n";
+		
+		// Ação
+		List<LinhaExtrato> linhas = ler(FormatoExtrato.CSV, csv, new MapeamentoColunasDTO(), LeitorCaracteres.CAPACIDADE_PADRAO);
+		
+		// Verificação
+		Assertions.assertThat(linhas).hasSize(2);
+		Assertions.assertThat(linhas.get(0).getData()).isEqualTo(LocalDate.of(2022, 1, 15));
+		Assertions.assertThat(linhas.get(0).getDescricao()).isEqualTo("Mercado; padaria");
+		Assertions.assertThat(linhas.get(0).getValor()).isEqualTo(Dinheiro.de("-1234.56"));
+		Assertions.assertThat(linhas.get(1).getDescricao()).isEqualTo("Salário \"janeiro\"");
+		Assertions.assertThat(linhas.get(1).getValor()).isEqualTo(Dinheiro.reais(5000));
+		Assertions.assertThat(linhas.get(1).getNumero()).isEqualTo(4);
+	}
+	
+	@Test
+	public void deveUsarOMapeamentoDeColunasInformado() throws IOException {
+		
+		// Cenário
+		MapeamentoColunasDTO mapeamento = new MapeamentoColunasDTO();
+		mapeamento.setSeparador(",");
+		mapeamento.setSeparadorDecimal(".");
+		mapeamento.setCabecalho(false);
+		mapeamento.setFormatoData("yyyy-MM-dd");
+		mapeamento.setColunaValor(0);
+		mapeamento.setColunaData(1);
+		mapeamento.setColunaDescricao(3);
+		mapeamento.setColunaTipo(2);
+		
+		// Ação
+		List<LinhaExtrato> linhas = ler(FormatoExtrato.CSV, "12.50,2022-03-01,D,Farmácia", mapeamento,
+				                        LeitorCaracteres.CAPACIDADE_PADRAO);
+		
+		// Verificação
+		Assertions.assertThat(linhas).hasSize(1);
+		Assertions.assertThat(linhas.get(0).getValor()).isEqualTo(Dinheiro.de("12.50"));
+		Assertions.assertThat(linhas.get(0).getTipo()).isEqualTo(TipoLancamento.DESPESA);
+		Assertions.assertThat(linhas.get(0).getDescricao()).isEqualTo("Farmácia");
+	}
+	
+	@Test
+	public void deveDevolverALinhaComErroSemInterromperALeitura() throws IOException {
+		
+		// Ação
+		List<LinhaExtrato> linhas = ler(FormatoExtrato.CSV, "Data;Histórico;Valor\n32/01/2022;Erro;1,00\n01/02/2022;Ok;2,00\n",
+				                        new MapeamentoColunasDTO(), LeitorCaracteres.CAPACIDADE_PADRAO);
+		
+		// Verificação
+		Assertions.assertThat(linhas).hasSize(2);
+		Assertions.assertThat(linhas.get(0).isValida()).isFalse();
+		Assertions.assertThat(linhas.get(0).getNumero()).isEqualTo(2);
+		Assertions.assertThat(linhas.get(0).getErro()).contains("Data inválida");
+		Assertions.assertThat(linhas.get(1).isValida()).isTrue();
+	}
+	
+	@Test
+	public void deveLerAsTransacoesDeUmOfxSgml() throws IOException {
+		
+		// Cenário
+		String ofx = "OFXHEADER:100\nDATA:OFXSGML\nVERSION:102\nCHARSET:1252\n\n"
+				   + "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><CURDEF>BRL<BANKTRANLIST>\n"
+				   + "<DTSTART>20220101\n"
+				   + "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20220110120000[-3:BRT]\n<TRNAMT>-45.90\n"
+				   + "<FITID>1\n<MEMO>Posto &amp; Conveniência\n</STMTTRN>\n"
+				   + "<STMTTRN>\n<TRNTYPE>CREDIT\n<DTPOSTED>20220205\n<TRNAMT>1500,00\n<NAME>Transferência\n</STMTTRN>\n"
+				   + "</BANKTRANLIST><LEDGERBAL><BALAMT>100.00</LEDGERBAL></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>";
+		
+		// Ação
+		List<LinhaExtrato> linhas = ler(FormatoExtrato.OFX, ofx, null, LeitorCaracteres.CAPACIDADE_PADRAO);
+		
+		// Verificação
+		Assertions.assertThat(linhas).hasSize(2);
+		Assertions.assertThat(linhas.get(0).getData()).isEqualTo(LocalDate.of(2022, 1, 10));
+		Assertions.assertThat(linhas.get(0).getValor()).isEqualTo(Dinheiro.de("-45.90"));
+		Assertions.assertThat(linhas.get(0).getDescricao()).isEqualTo("Posto & Conveniência");
+		Assertions.assertThat(linhas.get(1).getValor()).isEqualTo(Dinheiro.reais(1500));
+		Assertions.assertThat(linhas.get(1).getDescricao()).isEqualTo("Transferência");
+	}
+	
+	@Test
+	public void deveDecodificarCaracteresDivididosEntreDoisBuffers() throws IOException {
+		
+		// Cenário: buffers de 3 bytes cortam os caracteres de dois bytes do UTF-8
+		String csv = "01/01/2022;Ação çéã;1,00\n";
+		
+		// Ação
+		List<LinhaExtrato> linhas = ler(FormatoExtrato.CSV, "Data;Descrição;Valor\n" + csv, new MapeamentoColunasDTO(), 3);
+		
+		// Verificação
+		Assertions.assertThat(linhas).extracting(LinhaExtrato::getDescricao).containsExactly("Ação çéã");
+	}
+	
+	private static List<LinhaExtrato> ler(FormatoExtrato formato, String conteudo, MapeamentoColunasDTO mapeamento,
+			                              int capacidade) throws IOException {
+		Charset charset = StandardCharsets.UTF_8;
+		LeitorCaracteres caracteres = new LeitorCaracteres(
+				Channels.newChannel(new ByteArrayInputStream(conteudo.getBytes(charset))), charset, capacidade);
+		LeitorExtrato leitor = LeitorExtrato.para(formato, caracteres, mapeamento);
+		
+		List<LinhaExtrato> linhas = new ArrayList<>();
+		for (LinhaExtrato linha = leitor.proxima(); linha != null; linha = leitor.proxima()) {
+			linhas.add(linha);
+		}
+		return linhas;
+	}
+
+}
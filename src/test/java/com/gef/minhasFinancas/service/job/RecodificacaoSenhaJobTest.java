@@ -0,0 +1,55 @@
+package com.gef.minhasFinancas.service.job;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+// Lotes de um usuário, para passar por mais de uma página.
+@SpringBootTest(properties = "minhasfinancas.senha.recodificacao.lote=1")
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class RecodificacaoSenhaJobTest {
+
+	@Autowired
+	RecodificacaoSenhaJob job;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@After
+	public void limparBase() {
+		jdbcTemplate.update("delete from financas.usuario");
+	}
+
+	@Test
+	public void deveRecodificarSoAsSenhasEmTextoPuro() {
+
+		// Cenário
+		String hash = BCrypt.hashpw("terceira", BCrypt.gensalt(4));
+		jdbcTemplate.update("insert into financas.usuario (nome, email, senha) values ('a', 'a@email.com', 'primeira')");
+		jdbcTemplate.update("insert into financas.usuario (nome, email, senha) values ('b', 'b@email.com', 'segunda')");
+		jdbcTemplate.update("insert into financas.usuario (nome, email, senha) values ('c', 'c@email.com', ?)", hash);
+
+		// Ação
+		int recodificadas = job.executar();
+
+		// Verificação
+		Assertions.assertThat(recodificadas).isEqualTo(2);
+		Assertions.assertThat(BCrypt.checkpw("primeira", senha("a@email.com"))).isTrue();
+		Assertions.assertThat(BCrypt.checkpw("segunda", senha("b@email.com"))).isTrue();
+		Assertions.assertThat(senha("c@email.com")).isEqualTo(hash);
+		Assertions.assertThat(job.executar()).isZero();
+	}
+
+	private String senha(String email) {
+		return jdbcTemplate.queryForObject("select senha from financas.usuario where email = ?", String.class, email);
+	}
+
+}
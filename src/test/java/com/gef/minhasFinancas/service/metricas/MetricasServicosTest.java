@@ -0,0 +1,82 @@
+package com.gef.minhasFinancas.service.metricas;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.gef.minhasFinancas.api.seguranca.FiltroAdministrativo;
+import com.gef.minhasFinancas.service.UsuarioService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MetricasServicosTest {
+	
+	@Autowired
+	UsuarioService usuarioService;
+	
+	@Autowired
+	MeterRegistry registry;
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Test
+	public void deveMedirAsChamadasAosServicosPorMetodoEExcecao() {
+		
+		// Ação
+		usuarioService.obterPorId(999l);
+		usuarioService.obterPorId(999l);
+		Throwable erro = Assertions.catchThrowable(() -> usuarioService.autenticar("ninguem@email.com", "senha").join());
+		
+		// Verificação
+		Timer obterPorId = registry.find(MetricasServicos.TIMER).tags("metodo", "obterPorId", "excecao", "None").timer();
+		Timer autenticar = registry.find(MetricasServicos.TIMER).tags("metodo", "autenticar", "excecao", "ErroAutenticacao").timer();
+		Assertions.assertThat(erro).isNotNull();
+		Assertions.assertThat(obterPorId.count()).isGreaterThanOrEqualTo(2);
+		Assertions.assertThat(autenticar.count()).isGreaterThanOrEqualTo(1);
+	}
+	
+	@Test
+	public void deveExporAsMetricasNoPrometheusComHistogramaDoSaldo() throws Exception {
+		
+		// CENÁRIO
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/999/saldo"))
+		   .andExpect(MockMvcResultMatchers.status().isNotFound());
+		mvc.perform(MockMvcRequestBuilders.get("/api/limites").header(FiltroAdministrativo.CABECALHO, "chave-dos-testes"))
+		   .andExpect(MockMvcResultMatchers.status().isOk());
+		
+		// EXECUÇÃO
+		String metricas = mvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+		                     .andExpect(MockMvcResultMatchers.status().isOk())
+		                     .andReturn().getResponse().getContentAsString();
+		
+		// VERIFICAÇÃO
+		Assertions.assertThat(metricas)
+		          .contains("http_server_requests_seconds_bucket{aplicacao=\"minhasfinancas\",exception=\"None\",method=\"GET\","
+		                    + "outcome=\"CLIENT_ERROR\",status=\"404\",uri=\"/api/usuarios/{id}/saldo\"")
+		          .contains("minhasfinancas_servico_seconds_count")
+		          .contains("hikaricp_connections_active")
+		          .contains("hibernate_statements_total")
+		          .contains("hibernate_entities_loads_total")
+		          .contains("hibernate_flushes_total")
+		          .contains("jvm_gc_memory_allocated_bytes_total")
+		          .contains("minhasfinancas_executor_fila{aplicacao=\"minhasfinancas\",executor=\"senha\"")
+		          .contains("minhasfinancas_limite_requisicoes_total");
+		Assertions.assertThat(metricas).contains("uri=\"/api/limites\"")
+		          .doesNotContainPattern("http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/limites\"");
+	}
+
+}
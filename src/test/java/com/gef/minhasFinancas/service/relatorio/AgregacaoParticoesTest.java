@@ -0,0 +1,111 @@
+package com.gef.minhasFinancas.service.relatorio;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+
+import com.gef.minhasFinancas.api.dto.SaldoMensalStatusDTO;
+import com.gef.minhasFinancas.model.enuns.StatusLancamento;
+import com.gef.minhasFinancas.model.tipo.Dinheiro;
+import com.gef.minhasFinancas.service.relatorio.AgregacaoParticoes.FaixaUsuarios;
+
+public class AgregacaoParticoesTest {
+
+	ExecutorService pool = Executors.newSingleThreadExecutor();
+
+	RelatorioAdministrativo relatorio = new RelatorioAdministrativo(1l, YearMonth.of(2022, 1), YearMonth.of(2022, 12));
+
+	@After
+	public void encerrarPool() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	public void deveDividirAFaixaDeUsuariosSemSobreporIds() {
+
+		// Ação
+		List<FaixaUsuarios> faixas = FaixaUsuarios.dividir(3, 12, 4);
+
+		// Verificação
+		Assertions.assertThat(faixas).extracting(FaixaUsuarios::getPrimeiro).containsExactly(3l, 7l, 11l);
+		Assertions.assertThat(faixas).extracting(FaixaUsuarios::getUltimo).containsExactly(6l, 10l, 12l);
+		Assertions.assertThat(FaixaUsuarios.dividir(5, 5, 1000)).hasSize(1);
+	}
+
+	@Test
+	public void deveSomarAsParticoesPorMesEStatus() {
+
+		// Cenário: cada faixa devolve as mesmas linhas
+		List<FaixaUsuarios> faixas = FaixaUsuarios.dividir(1, 5, 1);
+		relatorio.particionar(faixas.size());
+
+		// Ação
+		List<SaldoMensalStatusDTO> linhas = AgregacaoParticoes.agregar(relatorio, faixas, faixa -> Arrays.asList(
+				new SaldoMensalStatusDTO(2022, 1, StatusLancamento.PENDENTE, Dinheiro.reais(10), Dinheiro.reais(3)),
+				new SaldoMensalStatusDTO(2022, 2, StatusLancamento.EFETIVADO, Dinheiro.ZERO, Dinheiro.reais(1))), pool).join();
+
+		// Verificação
+		Assertions.assertThat(linhas).containsExactlyInAnyOrder(
+				new SaldoMensalStatusDTO(2022, 1, StatusLancamento.PENDENTE, Dinheiro.reais(50), Dinheiro.reais(15)),
+				new SaldoMensalStatusDTO(2022, 2, StatusLancamento.EFETIVADO, Dinheiro.ZERO, Dinheiro.reais(5)));
+		Assertions.assertThat(relatorio.resumo().getParticoesConcluidas()).isEqualTo(5);
+	}
+
+	@Test
+	public void naoDeveConsultarAsParticoesRestantesDepoisDoCancelamento() {
+
+		// Cenário: com uma thread as partições rodam uma por vez, e a primeira cancela o relatório
+		List<FaixaUsuarios> faixas = FaixaUsuarios.dividir(1, 8, 1);
+		relatorio.particionar(faixas.size());
+		AtomicInteger consultas = new AtomicInteger();
+
+		// Ação
+		AgregacaoParticoes.agregar(relatorio, faixas, faixa -> {
+			consultas.incrementAndGet();
+			relatorio.cancelar();
+			return Collections.<SaldoMensalStatusDTO>emptyList();
+		}, pool).join();
+
+		// Verificação
+		Assertions.assertThat(consultas.get()).isEqualTo(1);
+		Assertions.assertThat(relatorio.resumo().getSituacao()).isEqualTo(RelatorioAdministrativo.Situacao.CANCELADO.name());
+		Assertions.assertThat(relatorio.resumo().getProgresso()).isEqualTo(1d / 8);
+	}
+
+	@Test
+	public void deveCancelarNoBancoAConsultaEmAndamento() throws InterruptedException {
+
+		// Cenário: a consulta só termina quando o cancelamento dela é chamado
+		CountDownLatch cancelada = new CountDownLatch(1);
+		CountDownLatch emAndamento = new CountDownLatch(1);
+		pool.execute(() -> relatorio.consultar(cancelada::countDown, () -> {
+			emAndamento.countDown();
+			try {
+				return cancelada.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}));
+		emAndamento.await(10, TimeUnit.SECONDS);
+
+		// Ação
+		boolean cancelou = relatorio.cancelar();
+
+		// Verificação
+		Assertions.assertThat(cancelou).isTrue();
+		Assertions.assertThat(cancelada.await(10, TimeUnit.SECONDS)).isTrue();
+		Assertions.assertThat(relatorio.consultar(() -> { }, () -> "não deve rodar")).isEmpty();
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.gef.minhasFinancas.service.seguranca;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.gef.minhasFinancas.api.dto.EstatisticasLimiteDTO;
+
+public class LimitadorRequisicoesTest {
+	
+	static final long UM_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+	
+	AtomicLong agora = new AtomicLong();
+	LimitadorRequisicoes limitador = new LimitadorRequisicoes("2,3", "GET /api/lancamentos/**=1,1", 100, agora::get);
+	
+	@Test
+	public void deveLiberarARajadaEDepoisUmaFichaPorIntervalo() {
+		
+		// Cenário: 2 por segundo com rajada de 3
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertThat(limitador.consumir("GET", "/api/usuarios/1/saldo", "usuario:1")).isZero();
+		}
+		
+		// Ação
+		long espera = limitador.consumir("GET", "/api/usuarios/1/saldo", "usuario:1");
+		agora.addAndGet(UM_SEGUNDO / 2);
+		long depoisDaEspera = limitador.consumir("GET", "/api/usuarios/1/saldo", "usuario:1");
+		
+		// Verificação
+		Assertions.assertThat(espera).isEqualTo(UM_SEGUNDO / 2);
+		Assertions.assertThat(depoisDaEspera).isZero();
+		Assertions.assertThat(limitador.consumir("GET", "/api/usuarios/1/saldo", "usuario:1")).isPositive();
+	}
+	
+	@Test
+	public void deveSepararOsBaldesPorUsuarioEPorRegra() {
+		
+		// Cenário
+		limitador.consumir("GET", "/api/lancamentos", "usuario:1");
+		
+		// Ação e Verificação
+		Assertions.assertThat(limitador.consumir("GET", "/api/lancamentos/pagina", "usuario:1")).isEqualTo(UM_SEGUNDO);
+		Assertions.assertThat(limitador.consumir("GET", "/api/lancamentos", "usuario:2")).isZero();
+		Assertions.assertThat(limitador.consumir("POST", "/api/lancamentos", "usuario:1")).isZero();
+	}
+	
+	@Test
+	public void deveContarAsRequisicoesPermitidasERecusadasPorRegra() {
+		
+		// Cenário
+		limitador.consumir("GET", "/api/lancamentos", "usuario:1");
+		limitador.consumir("GET", "/api/lancamentos", "usuario:1");
+		limitador.consumir("PUT", "/api/lancamentos/1", "usuario:1");
+		
+		// Ação
+		EstatisticasLimiteDTO lancamentos = limitador.obterEstatisticas().get(0);
+		EstatisticasLimiteDTO padrao = limitador.obterEstatisticas().get(1);
+		
+		// Verificação
+		Assertions.assertThat(lancamentos.getRegra()).isEqualTo("GET /api/lancamentos/**");
+		Assertions.assertThat(lancamentos.getPermitidas()).isEqualTo(1);
+		Assertions.assertThat(lancamentos.getRecusadas()).isEqualTo(1);
+		Assertions.assertThat(padrao.getRegra()).isEqualTo(LimitadorRequisicoes.PADRAO);
+		Assertions.assertThat(padrao.getPermitidas()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveRecusarUmaRegraMalFormada() {
+		
+		Assertions.assertThatThrownBy(() -> new LimitadorRequisicoes("2,3", "/api/lancamentos=1,1", 100, agora::get))
+		          .isInstanceOf(IllegalArgumentException.class);
+		Assertions.assertThatThrownBy(() -> new LimitadorRequisicoes("0,3", "", 100, agora::get))
+		          .isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
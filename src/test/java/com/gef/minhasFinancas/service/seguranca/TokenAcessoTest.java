@@ -0,0 +1,74 @@
+package com.gef.minhasFinancas.service.seguranca;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TokenAcessoTest {
+	
+	static final Duration UMA_HORA = Duration.ofHours(1);
+	
+	TokenAcesso tokenAcesso = criar("segredo", Clock.systemUTC());
+	
+	@Test
+	public void deveVerificarOTokenEmitidoUmaVezSo() {
+		
+		// Cenário
+		String token = tokenAcesso.emitir(7l);
+		
+		// Ação
+		UsuarioAutenticado usuario = tokenAcesso.verificar(token).get();
+		tokenAcesso.verificar(token);
+		
+		// Verificação
+		Assertions.assertThat(usuario.getId()).isEqualTo(7l);
+		Assertions.assertThat(usuario.getName()).isEqualTo("7");
+		Assertions.assertThat(usuario.getExpiracao()).isAfter(Instant.now().plus(UMA_HORA).minusSeconds(60));
+		Assertions.assertThat(tokenAcesso.obterEstatisticas().getFaltas()).isEqualTo(1);
+		Assertions.assertThat(tokenAcesso.obterEstatisticas().getAcertos()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveRecusarUmTokenAdulterado() {
+		
+		// Cenário
+		String[] partes = tokenAcesso.emitir(7l).split("\\.");
+		String outroUsuario = partes[0] + "." + codificar("{\"sub\":\"8\",\"exp\":4102444800}") + "." + partes[2];
+		String semAssinatura = codificar("{\"alg\":\"none\",\"typ\":\"JWT\"}") + "." + partes[1] + ".";
+		
+		// Ação e Verificação
+		Assertions.assertThat(tokenAcesso.verificar(outroUsuario)).isEmpty();
+		Assertions.assertThat(tokenAcesso.verificar(semAssinatura)).isEmpty();
+		Assertions.assertThat(tokenAcesso.verificar(criar("outro-segredo", Clock.systemUTC()).emitir(7l))).isEmpty();
+		Assertions.assertThat(tokenAcesso.verificar("token")).isEmpty();
+		Assertions.assertThat(tokenAcesso.obterEstatisticas().getTamanho()).isZero();
+	}
+	
+	@Test
+	public void deveRecusarUmTokenExpirado() {
+		
+		// Cenário: emitido há duas horas, com validade de uma
+		Clock duasHorasAtras = Clock.fixed(Instant.now().minus(UMA_HORA.multipliedBy(2)), ZoneOffset.UTC);
+		String token = criar("segredo", duasHorasAtras).emitir(7l);
+		
+		// Ação e Verificação
+		Assertions.assertThat(tokenAcesso.verificar(token)).isEmpty();
+	}
+	
+	private static TokenAcesso criar(String segredo, Clock relogio) {
+		return new TokenAcesso(segredo, UMA_HORA, 100, new ObjectMapper(), relogio);
+	}
+	
+	private static String codificar(String json) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.gef.minhasFinancas.service.seguranca;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+public class VerificadorSenhaTest {
+	
+	VerificadorSenha verificador = new VerificadorSenha(5, 1, 10);
+	
+	@After
+	public void encerrar() {
+		verificador.encerrar();
+	}
+	
+	@Test
+	public void deveConferirOHashGeradoComOCustoConfigurado() {
+		
+		// Ação
+		String hash = verificador.codificar("senha").join();
+		
+		// Verificação
+		Assertions.assertThat(hash).startsWith("$2a$05$").hasSize(60);
+		Assertions.assertThat(verificador.conferir("senha", hash).join()).isTrue();
+		Assertions.assertThat(verificador.conferir("outra", hash).join()).isFalse();
+		Assertions.assertThat(verificador.precisaRecodificar(hash)).isFalse();
+	}
+	
+	@Test
+	public void deveAceitarASenhaEmTextoPuroEPedirARecodificacao() {
+		
+		// Ação e Verificação
+		Assertions.assertThat(verificador.conferir("senha", "senha").join()).isTrue();
+		Assertions.assertThat(verificador.conferir("senha", "123").join()).isFalse();
+		Assertions.assertThat(verificador.precisaRecodificar("senha")).isTrue();
+	}
+	
+	@Test
+	public void devePedirARecodificacaoDeUmHashComCustoMenor() {
+		
+		// Cenário
+		String custoAntigo = BCrypt.hashpw("senha", BCrypt.gensalt(4));
+		
+		// Ação e Verificação
+		Assertions.assertThat(verificador.conferir("senha", custoAntigo).join()).isTrue();
+		Assertions.assertThat(verificador.precisaRecodificar(custoAntigo)).isTrue();
+	}
+	
+	@Test
+	public void naoDeveConferirSemSenhaGravada() {
+		
+		// Ação e Verificação
+		Assertions.assertThat(verificador.conferir("senha", null).join()).isFalse();
+	}
+
+}